@@ -17,15 +17,24 @@
 package com.consol.citrus.adapter.handler;
 
 import java.io.IOException;
-import java.io.Reader;
 import java.io.StringReader;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.xml.namespace.NamespaceContext;
+import javax.xml.stream.*;
 
 import org.apache.xerces.parsers.DOMParser;
 import org.apache.xerces.util.DOMUtil;
-import org.springframework.context.ApplicationContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.context.ConfigurableApplicationContext;
 import org.springframework.context.support.ClassPathXmlApplicationContext;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.core.io.Resource;
 import org.springframework.integration.Message;
 import org.springframework.util.*;
 import org.springframework.xml.namespace.SimpleNamespaceContext;
@@ -48,9 +57,14 @@ import com.consol.citrus.xml.xpath.XPathUtils;
  * All available message handlers are hosted in a separate Spring application context. The message handler
  * will search for a appropriate bean instance in this context according to the mapping expression.
  * 
+ * The message handler context is loaded only once and singleton message handlers are cached by name. When
+ * reload on change is enabled the context is reloaded as soon as its resource has been modified. Without
+ * XPath mapping expression the root element name is read with a streaming parser, so the request payload is
+ * not parsed into a DOM document.
+ * 
  * @author Christoph Deppisch
  */
-public class XpathDispatchingMessageHandler implements MessageHandler {
+public class XpathDispatchingMessageHandler implements MessageHandler, DisposableBean {
     /** Dispatching XPath expression */
     private String xpathMappingExpression;
 
@@ -60,6 +74,35 @@ public class XpathDispatchingMessageHandler implements MessageHandler {
     /** Map holding namespace bindings for XPath expression */
     private Map<String, String> namespaceBindings = new HashMap<String, String>();
     
+    /** Namespace context built from namespace bindings */
+    private NamespaceContext namespaceContext;
+    
+    /** Reload message handler context when its resource has been modified */
+    private boolean reloadOnChange = false;
+    
+    /** Minimum time in milliseconds between two checks for context modifications */
+    private long reloadCheckInterval = 1000L;
+    
+    /** Loaded message handler context */
+    private volatile ConfigurableApplicationContext context;
+    
+    /** Last modified timestamp of the loaded context resource */
+    private long contextLastModified;
+    
+    /** Next time the context resource is checked for modifications */
+    private long nextReloadCheck;
+    
+    /** Singleton message handlers by bean name */
+    private final Map<String, MessageHandler> handlerCache = new ConcurrentHashMap<String, MessageHandler>();
+    
+    /** Factory for streaming root element lookup */
+    private static final XMLInputFactory INPUT_FACTORY = XMLInputFactory.newInstance();
+    
+    /**
+     * Logger
+     */
+    private static Logger log = LoggerFactory.getLogger(XpathDispatchingMessageHandler.class);
+    
     /**
      * @see com.consol.citrus.message.MessageHandler#handleMessage(org.springframework.integration.Message)
      * @throws CitrusRuntimeException
@@ -67,40 +110,41 @@ public class XpathDispatchingMessageHandler implements MessageHandler {
     public Message<?> handleMessage(Message<?> request) {
         Assert.notNull(messageHandlerContext, "MessageHandler application context must not be empty or null");
         
+        String handlerName = getMappingName(request.getPayload().toString());
+        
+        return getMessageHandler(handlerName).handleMessage(request);
+    }
+    
+    /**
+     * Gets the name of the matching element which is the message handler's bean name.
+     * @param payload the request payload.
+     * @return the node name of the matching element.
+     */
+    private String getMappingName(String payload) {
+        if (xpathMappingExpression == null) {
+            return getRootElementName(payload);
+        }
+        
         try {
-            final Reader reader = new StringReader(request.getPayload().toString());
             DOMParser parser = new DOMParser();
             parser.setFeature("http://xml.org/sax/features/validation", false);
 
-            parser.parse(new InputSource(reader));
+            parser.parse(new InputSource(new StringReader(payload)));
 
-            Node matchingElement;
-            if (xpathMappingExpression != null) {
-                SimpleNamespaceContext nsContext = new SimpleNamespaceContext();
-                if(!CollectionUtils.isEmpty(namespaceBindings)) {
-                    nsContext.setBindings(namespaceBindings);
-                } else {
-                    nsContext.setBindings(XMLUtils.lookupNamespaces(request.getPayload().toString()));
-                }
-                
-                matchingElement = XPathUtils.evaluateAsNode(DOMUtil.getFirstChildElement(parser.getDocument()), xpathMappingExpression, nsContext);
-            } else {
-                matchingElement = DOMUtil.getFirstChildElement(parser.getDocument());
+            NamespaceContext nsContext = namespaceContext;
+            if (nsContext == null) {
+                SimpleNamespaceContext payloadNamespaceContext = new SimpleNamespaceContext();
+                payloadNamespaceContext.setBindings(XMLUtils.lookupNamespaces(payload));
+                nsContext = payloadNamespaceContext;
             }
+            
+            Node matchingElement = XPathUtils.evaluateAsNode(DOMUtil.getFirstChildElement(parser.getDocument()), xpathMappingExpression, nsContext);
 
             if (matchingElement == null) {
                 throw new CitrusRuntimeException("Could not find matching element '" + xpathMappingExpression + "' in message");
             }
-
-            //TODO support FileSystemContext
-            ApplicationContext ctx = new ClassPathXmlApplicationContext(messageHandlerContext);
-            MessageHandler handler = (MessageHandler)ctx.getBean(matchingElement.getNodeName(), MessageHandler.class);
-
-            if (handler != null) {
-                return handler.handleMessage(request);
-            } else {
-                throw new CitrusRuntimeException("Could not find message handler with name '" + matchingElement.getNodeName() + "' in '" + messageHandlerContext + "'");
-            }
+            
+            return matchingElement.getNodeName();
         } catch (SAXException e) {
             throw new CitrusRuntimeException(e);
         } catch (IOException e) {
@@ -108,6 +152,130 @@ public class XpathDispatchingMessageHandler implements MessageHandler {
         }
     }
     
+    /**
+     * Reads the qualified name of the root element with a streaming parser. Parsing
+     * stops as soon as the root element is found.
+     * @param payload the request payload.
+     * @return the root element name including namespace prefix.
+     */
+    private String getRootElementName(String payload) {
+        XMLStreamReader reader = null;
+        try {
+            reader = INPUT_FACTORY.createXMLStreamReader(new StringReader(payload));
+            
+            while (reader.hasNext()) {
+                if (reader.next() == XMLStreamConstants.START_ELEMENT) {
+                    if (StringUtils.hasLength(reader.getPrefix())) {
+                        return reader.getPrefix() + ":" + reader.getLocalName();
+                    } else {
+                        return reader.getLocalName();
+                    }
+                }
+            }
+        } catch (XMLStreamException e) {
+            throw new CitrusRuntimeException(e);
+        } finally {
+            if (reader != null) {
+                try {
+                    reader.close();
+                } catch (XMLStreamException e) {
+                    log.warn("Failed to close XML stream reader", e);
+                }
+            }
+        }
+        
+        throw new CitrusRuntimeException("Could not find root element in message");
+    }
+    
+    /**
+     * Gets the message handler with the given bean name from message handler context.
+     * @param handlerName
+     * @return
+     */
+    private MessageHandler getMessageHandler(String handlerName) {
+        ConfigurableApplicationContext ctx = getContext();
+        
+        MessageHandler handler = handlerCache.get(handlerName);
+        if (handler != null) {
+            return handler;
+        }
+        
+        try {
+            handler = (MessageHandler)ctx.getBean(handlerName, MessageHandler.class);
+            
+            if (ctx.isSingleton(handlerName) && ctx == context) {
+                handlerCache.put(handlerName, handler);
+            }
+        } catch (BeansException e) {
+            throw new CitrusRuntimeException("Could not find message handler with name '" + handlerName + "' in '" + messageHandlerContext + "'", e);
+        }
+        
+        return handler;
+    }
+    
+    /**
+     * Gets the message handler context. Context is loaded on first access and 
+     * reloaded on resource modifications if reload on change is enabled.
+     * @return
+     */
+    private synchronized ConfigurableApplicationContext getContext() {
+        if (context == null) {
+            loadContext();
+        } else if (reloadOnChange && System.currentTimeMillis() >= nextReloadCheck) {
+            nextReloadCheck = System.currentTimeMillis() + reloadCheckInterval;
+            
+            if (getContextLastModified() != contextLastModified) {
+                log.info("Reloading modified message handler context '" + messageHandlerContext + "'");
+                
+                ConfigurableApplicationContext oldContext = context;
+                loadContext();
+                oldContext.close();
+            }
+        }
+        
+        return context;
+    }
+    
+    /**
+     * Loads the message handler context and clears the message handler cache.
+     */
+    private void loadContext() {
+        //TODO support FileSystemContext
+        contextLastModified = getContextLastModified();
+        context = new ClassPathXmlApplicationContext(messageHandlerContext);
+        nextReloadCheck = System.currentTimeMillis() + reloadCheckInterval;
+        handlerCache.clear();
+    }
+    
+    /**
+     * Gets the last modified timestamp of the message handler context resource
+     * or -1 if not available.
+     * @return
+     */
+    private long getContextLastModified() {
+        if (!reloadOnChange) {
+            return -1;
+        }
+        
+        try {
+            Resource resource = new DefaultResourceLoader().getResource(messageHandlerContext);
+            return resource.lastModified();
+        } catch (IOException e) {
+            return -1;
+        }
+    }
+    
+    /**
+     * Closes the message handler context.
+     */
+    public synchronized void destroy() {
+        if (context != null) {
+            context.close();
+            context = null;
+            handlerCache.clear();
+        }
+    }
+    
     /**
      * Set the XPath mapping expression.
      * @param mappingExpression
@@ -120,8 +288,9 @@ public class XpathDispatchingMessageHandler implements MessageHandler {
      * Set the message handler context.
      * @param messageHandlerContext
      */
-    public void setMessageHandlerContext(String messageHandlerContext) {
+    public synchronized void setMessageHandlerContext(String messageHandlerContext) {
         this.messageHandlerContext = messageHandlerContext;
+        destroy();
     }
 
     /**
@@ -130,5 +299,29 @@ public class XpathDispatchingMessageHandler implements MessageHandler {
      */
     public void setNamespaceBindings(Map<String, String> namespaceBindings) {
         this.namespaceBindings = namespaceBindings;
+        
+        if (!CollectionUtils.isEmpty(namespaceBindings)) {
+            SimpleNamespaceContext nsContext = new SimpleNamespaceContext();
+            nsContext.setBindings(namespaceBindings);
+            this.namespaceContext = nsContext;
+        } else {
+            this.namespaceContext = null;
+        }
+    }
+
+    /**
+     * Enable context reload when message handler context resource has been modified.
+     * @param reloadOnChange the reloadOnChange to set
+     */
+    public void setReloadOnChange(boolean reloadOnChange) {
+        this.reloadOnChange = reloadOnChange;
+    }
+
+    /**
+     * Set the minimum time in milliseconds between two checks for context modifications.
+     * @param reloadCheckInterval the reloadCheckInterval to set
+     */
+    public void setReloadCheckInterval(long reloadCheckInterval) {
+        this.reloadCheckInterval = reloadCheckInterval;
     }
 }
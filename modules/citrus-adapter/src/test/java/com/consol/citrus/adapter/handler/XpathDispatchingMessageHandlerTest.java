@@ -0,0 +1,75 @@
+/*
+ * Copyright 2006-2010 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.consol.citrus.adapter.handler;
+
+import java.util.Collections;
+
+import org.springframework.integration.Message;
+import org.springframework.integration.support.MessageBuilder;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import com.consol.citrus.exceptions.CitrusRuntimeException;
+
+/**
+ * @author Christoph Deppisch
+ */
+public class XpathDispatchingMessageHandlerTest {
+    
+    private static final String HANDLER_CONTEXT = "com/consol/citrus/adapter/handler/XpathDispatchingMessageHandlerTest-context.xml";
+
+    @Test
+    public void testRootElementDispatching() {
+        XpathDispatchingMessageHandler messageHandler = new XpathDispatchingMessageHandler();
+        messageHandler.setMessageHandlerContext(HANDLER_CONTEXT);
+        
+        Message<?> response = messageHandler.handleMessage(
+                MessageBuilder.withPayload("<HelloRequest><Text>Hello World!</Text></HelloRequest>").build());
+        Assert.assertEquals(response.getPayload(), "<HelloResponse>Hello User!</HelloResponse>");
+        
+        response = messageHandler.handleMessage(
+                MessageBuilder.withPayload("<?xml version=\"1.0\" encoding=\"UTF-8\"?>" +
+                		"<ns0:GoodbyeRequest xmlns:ns0=\"http://www.consol.de/schemas/test\"><ns0:Text>Goodbye!</ns0:Text></ns0:GoodbyeRequest>").build());
+        Assert.assertEquals(response.getPayload(), "<GoodbyeResponse>Goodbye User!</GoodbyeResponse>");
+        
+        messageHandler.destroy();
+    }
+    
+    @Test
+    public void testXpathDispatching() {
+        XpathDispatchingMessageHandler messageHandler = new XpathDispatchingMessageHandler();
+        messageHandler.setMessageHandlerContext(HANDLER_CONTEXT);
+        messageHandler.setXpathMappingExpression("//ns1:Operation");
+        messageHandler.setNamespaceBindings(Collections.singletonMap("ns1", "http://www.consol.de/schemas/test"));
+        
+        for (int i = 0; i < 3; i++) {
+            Message<?> response = messageHandler.handleMessage(
+                    MessageBuilder.withPayload("<TestRequest xmlns=\"http://www.consol.de/schemas/test\"><Operation>sayHello</Operation></TestRequest>").build());
+            Assert.assertEquals(response.getPayload(), "<OperationResponse>Done!</OperationResponse>");
+        }
+        
+        messageHandler.destroy();
+    }
+    
+    @Test(expectedExceptions = CitrusRuntimeException.class)
+    public void testUnknownMessageHandler() {
+        XpathDispatchingMessageHandler messageHandler = new XpathDispatchingMessageHandler();
+        messageHandler.setMessageHandlerContext(HANDLER_CONTEXT);
+        
+        messageHandler.handleMessage(MessageBuilder.withPayload("<UnknownRequest/>").build());
+    }
+}
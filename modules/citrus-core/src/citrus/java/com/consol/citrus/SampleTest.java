@@ -0,0 +1,19 @@
+package com.consol.citrus;
+
+import org.testng.ITestContext;
+import org.testng.annotations.Test;
+
+import com.consol.citrus.testng.AbstractTestNGCitrusTest;
+
+/**
+ * TODO: Description
+ *
+ * @author Unknown
+ * @since 2026-10-18
+ */
+public class SampleTest extends AbstractTestNGCitrusTest {
+    @Test
+    public void sampleTest(ITestContext testContext) {
+        executeTest(testContext);
+    }
+}
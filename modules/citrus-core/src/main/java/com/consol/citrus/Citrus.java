@@ -132,6 +132,10 @@ public final class Citrus {
             testng.setTestSuites(testNgXml);
         }
         
+        if (cmdArgs.hasOption("threads")) {
+            configureParallelExecution(suite, cmdArgs.getOptionValue("threads"));
+        }
+        
         List<XmlSuite> suites = new ArrayList<XmlSuite>();
         suites.add(suite);
         testng.setXmlSuites(suites);
@@ -142,6 +146,34 @@ public final class Citrus {
         }
     }
     
+    /**
+     * Configures parallel test execution on the suite. Tests given by name are
+     * executed in parallel to each other, tests given by package are executed 
+     * in parallel inside each package.
+     * 
+     * @param suite the test suite.
+     * @param threads the number of threads.
+     */
+    private void configureParallelExecution(XmlSuite suite, String threads) {
+        int threadCount;
+        try {
+            threadCount = Integer.parseInt(threads.trim());
+        } catch (NumberFormatException e) {
+            throw new CitrusRuntimeException("Invalid number of threads '" + threads + "'", e);
+        }
+        
+        if (threadCount < 1) {
+            throw new CitrusRuntimeException("Invalid number of threads '" + threads + "'");
+        }
+        
+        if (threadCount > 1) {
+            suite.setParallel(cmdArgs.hasOption("package") ? XmlSuite.PARALLEL_CLASSES : XmlSuite.PARALLEL_TESTS);
+            suite.setThreadCount(threadCount);
+            
+            log.info("Running tests in parallel using " + threadCount + " threads");
+        }
+    }
+    
     /**
      * Method to retrieve the full class name for a test.
      * Hierarchy of folders is supported, too.
@@ -60,5 +60,11 @@ public class CitrusCliOptions extends Options {
                 .withDescription("executes all tests in a package")
                 .isRequired(false)
                 .create("package"));
+        
+        this.addOption(OptionBuilder.withArgName("threads")
+                .hasArg()
+                .withDescription("number of threads used to run tests in parallel")
+                .isRequired(false)
+                .create("threads"));
     }
 }
@@ -129,6 +129,14 @@ public class TestCase extends AbstractActionContainer implements BeanNameAware {
         this.variableDefinitions = variableDefinitions;
     }
 
+    /**
+     * Getter for variables.
+     * @return
+     */
+    public Map<String, String> getVariableDefinitions() {
+        return variableDefinitions;
+    }
+
     /**
      * Setter for finally chain.
      * @param finallyChain
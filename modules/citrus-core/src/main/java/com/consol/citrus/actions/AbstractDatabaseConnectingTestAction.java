@@ -17,19 +17,25 @@
 package com.consol.citrus.actions;
 
 import java.io.*;
-import java.util.ArrayList;
-import java.util.List;
+import java.sql.*;
+import java.util.*;
+import java.util.Map.Entry;
 
 import javax.sql.DataSource;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.core.io.Resource;
+import org.springframework.jdbc.core.ConnectionCallback;
 import org.springframework.jdbc.core.support.JdbcDaoSupport;
+import org.springframework.jdbc.support.JdbcUtils;
 
+import com.consol.citrus.CitrusConstants;
 import com.consol.citrus.TestAction;
 import com.consol.citrus.context.TestContext;
 import com.consol.citrus.exceptions.CitrusRuntimeException;
+import com.consol.citrus.functions.FunctionUtils;
+import com.consol.citrus.util.ResourceContentCache;
 import com.consol.citrus.util.TestActionExecutionLogger;
 
 /**
@@ -56,8 +62,30 @@ public abstract class AbstractDatabaseConnectingTestAction extends JdbcDaoSuppor
     /** List of SQL statements */
     protected List<String> statements = new ArrayList<String>();
     
+    /** Number of statements sent to the database in one JDBC batch, batching is disabled for values less than two */
+    private int batchSize = 0;
+    
+    /** Execute all statements in a single transaction */
+    private boolean transacted = false;
+    
+    /** Bind variable place holders as prepared statement parameters instead of replacing them in statement text */
+    private boolean bindVariables = false;
+    
     /** Constant representing SQL comment */
     private static final String SQL_COMMENT = "--";
+    
+    /** Maximum number of cached statement resources */
+    private static final int STATEMENT_CACHE_SIZE = 64;
+    
+    /** Parsed statements by action type and resource URI */
+    private static final Map<String, CachedStatements> statementCache = new LinkedHashMap<String, CachedStatements>(16, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Entry<String, CachedStatements> eldest) {
+            return size() > STATEMENT_CACHE_SIZE;
+        }
+    };
 
     /**
      * Do basic logging and delegate execution to subclass.
@@ -75,55 +103,76 @@ public abstract class AbstractDatabaseConnectingTestAction extends JdbcDaoSuppor
 
     /**
      * Reads SQL statements from external file resource. File resource can hold several
-     * multi-line statements and comments.
+     * multi-line statements and comments. Parsed statements are cached as long as the resource
+     * content does not change.
      * 
      * @return list of SQL statements.
      */
     protected List<String> getStatementsFromResource() {
-        BufferedReader reader = null;
-        StringBuffer buffer = new StringBuffer();
-        String line = "";
-        String stmt = "";
-        
-        List<String> stmts = new ArrayList<String>();
-        
         log.info("Executing Sql file: " + sqlResource.getFilename());
         
         try {
-            reader = new BufferedReader(new InputStreamReader(sqlResource.getInputStream()));
-            while (reader.ready()) {
-                line = reader.readLine();
-    
-                if (line != null && line.trim() != null && !line.trim().startsWith(SQL_COMMENT) && line.trim().length() > 0) {
-                    buffer.append(line);
-                    
-                    if (line.trim().endsWith(";")) {
-                        stmt = buffer.toString();
-                        buffer.setLength(0);
-                        buffer = new StringBuffer();
-    
-                        if(log.isDebugEnabled()) {
-                            log.debug("Found statement: " + stmt);
-                        }
-    
-                        stmts.add(stmt);
-                    } else {
-                        //more lines to some for this statement add line break
-                        buffer.append("\n");
-                    }
+            String content = ResourceContentCache.getInstance().getContent(sqlResource);
+            
+            String key;
+            try {
+                key = getClass().getName() + ":" + sqlResource.getURI();
+            } catch (IOException e) {
+                return parseStatements(content);
+            }
+            
+            CachedStatements cached;
+            synchronized (statementCache) {
+                cached = statementCache.get(key);
+            }
+            
+            if (cached == null || !cached.content.equals(content)) {
+                cached = new CachedStatements(content, Collections.unmodifiableList(parseStatements(content)));
+                
+                synchronized (statementCache) {
+                    statementCache.put(key, cached);
                 }
             }
+            
+            return cached.statements;
         } catch (IOException e) {
             log.error("Sql resource could not be found - filename: "
                     + sqlResource.getFilename() + ". Nested Exception is: ");
             log.error(e.getLocalizedMessage());
             throw new CitrusRuntimeException(e);
-        } finally {
-            if(reader != null) {
-                try {
-                    reader.close();
-                } catch (IOException e) {
-                    log.warn("Warning: Error while closing reader instance", e);
+        }
+    }
+    
+    /**
+     * Splits SQL file content into statements. Statements are terminated by semicolon
+     * at the end of a line, comment lines are skipped.
+     * 
+     * @param content the SQL file content.
+     * @return list of SQL statements.
+     * @throws IOException
+     */
+    protected List<String> parseStatements(String content) throws IOException {
+        BufferedReader reader = new BufferedReader(new StringReader(content));
+        StringBuilder buffer = new StringBuilder();
+        List<String> stmts = new ArrayList<String>();
+        
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (!line.trim().startsWith(SQL_COMMENT) && line.trim().length() > 0) {
+                buffer.append(line);
+                
+                if (line.trim().endsWith(";")) {
+                    String stmt = buffer.toString();
+                    buffer.setLength(0);
+
+                    if(log.isDebugEnabled()) {
+                        log.debug("Found statement: " + stmt);
+                    }
+
+                    stmts.add(stmt);
+                } else {
+                    //more lines to some for this statement add line break
+                    buffer.append("\n");
                 }
             }
         }
@@ -131,6 +180,60 @@ public abstract class AbstractDatabaseConnectingTestAction extends JdbcDaoSuppor
         return stmts;
     }
     
+    /**
+     * Checks if statements need to be executed on a single connection, which is the case
+     * for batch execution, transacted execution and bound variables.
+     * @return
+     */
+    protected boolean isConnectionExecution() {
+        return batchSize > 1 || transacted || bindVariables;
+    }
+    
+    /**
+     * Executes statements on a single connection. Variable place holders are bound as prepared statement 
+     * parameters if enabled, consecutive statements are sent as JDBC batch according to the batch size and all 
+     * statements are executed in one transaction if enabled.
+     * 
+     * @param stmts the statements to execute, variable place holders and functions are resolved before execution.
+     * @param context the current test context.
+     * @param ignoreErrors skip failing statements or batches.
+     */
+    protected void executeStatements(final List<String> stmts, final TestContext context, final boolean ignoreErrors) {
+        getJdbcTemplate().execute(new ConnectionCallback<Object>() {
+            public Object doInConnection(Connection connection) throws SQLException {
+                boolean autoCommit = connection.getAutoCommit();
+                
+                if (transacted && autoCommit) {
+                    connection.setAutoCommit(false);
+                }
+                
+                try {
+                    new StatementExecutor(connection, ignoreErrors).execute(stmts, context);
+                    
+                    if (transacted) {
+                        connection.commit();
+                    }
+                } catch (SQLException e) {
+                    if (transacted) {
+                        connection.rollback();
+                    }
+                    throw e;
+                } catch (RuntimeException e) {
+                    if (transacted) {
+                        connection.rollback();
+                    }
+                    throw e;
+                } finally {
+                    if (transacted && autoCommit) {
+                        connection.setAutoCommit(true);
+                    }
+                }
+                
+                return null;
+            }
+        });
+    }
+    
     /**
      * Gets this action's description.
      * @return the description
@@ -193,4 +296,396 @@ public abstract class AbstractDatabaseConnectingTestAction extends JdbcDaoSuppor
     public List<String> getStatements() {
         return statements;
     }
+
+    /**
+     * Sets the number of statements sent to the database in one JDBC batch.
+     * @param batchSize the batchSize to set
+     */
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Gets the batch size.
+     * @return the batchSize
+     */
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    /**
+     * Enables execution of all statements in a single transaction.
+     * @param transacted the transacted to set
+     */
+    public void setTransacted(boolean transacted) {
+        this.transacted = transacted;
+    }
+
+    /**
+     * Is transacted execution enabled.
+     * @return the transacted
+     */
+    public boolean isTransacted() {
+        return transacted;
+    }
+
+    /**
+     * Enables binding of variable place holders as prepared statement parameters.
+     * @param bindVariables the bindVariables to set
+     */
+    public void setBindVariables(boolean bindVariables) {
+        this.bindVariables = bindVariables;
+    }
+
+    /**
+     * Is variable binding enabled.
+     * @return the bindVariables
+     */
+    public boolean isBindVariables() {
+        return bindVariables;
+    }
+    
+    /**
+     * Executes statements on a connection reusing prepared statements for consecutive equal
+     * statement text and collecting statements to JDBC batches.
+     */
+    private final class StatementExecutor {
+        /** The database connection */
+        private final Connection connection;
+        
+        /** Skip failing statements */
+        private final boolean ignoreErrors;
+        
+        /** Current statement, either plain statement or prepared statement */
+        private Statement statement;
+        
+        /** Statement text of current prepared statement */
+        private String preparedSql;
+        
+        /** Number of statements in current batch */
+        private int pending = 0;
+        
+        /** Overall number of executed statements */
+        private int executed = 0;
+        
+        /**
+         * Default constructor.
+         * @param connection
+         * @param ignoreErrors
+         */
+        private StatementExecutor(Connection connection, boolean ignoreErrors) {
+            this.connection = connection;
+            this.ignoreErrors = ignoreErrors;
+        }
+        
+        /**
+         * Executes all statements.
+         * @param stmts
+         * @param context
+         * @throws SQLException
+         */
+        private void execute(List<String> stmts, TestContext context) throws SQLException {
+            try {
+                for (String stmt : stmts) {
+                    if (bindVariables) {
+                        // resolve functions first, so function arguments are never bound as parameters
+                        List<String> parameters = new ArrayList<String>();
+                        String sql = context.replaceDynamicContentInString(
+                                bindParameters(FunctionUtils.replaceFunctionsInString(stmt, context), parameters));
+                        
+                        if (parameters.isEmpty()) {
+                            add(sql);
+                        } else {
+                            List<String> values = new ArrayList<String>(parameters.size());
+                            for (String parameter : parameters) {
+                                values.add(context.replaceDynamicContentInString(parameter));
+                            }
+                            
+                            add(sql, values);
+                        }
+                    } else {
+                        add(context.replaceDynamicContentInString(stmt));
+                    }
+                }
+                
+                flush();
+            } finally {
+                close();
+            }
+            
+            log.info("Executed " + executed + " SQL statements");
+        }
+        
+        /**
+         * Adds plain statement.
+         * @param sql
+         * @throws SQLException
+         */
+        private void add(String sql) throws SQLException {
+            if (log.isDebugEnabled()) {
+                log.debug("Executing SQL statement: " + sql);
+            }
+            
+            if (statement == null || preparedSql != null) {
+                flush();
+                close();
+                statement = connection.createStatement();
+            }
+            
+            if (batchSize > 1) {
+                statement.addBatch(sql);
+                pending++;
+            } else {
+                try {
+                    statement.execute(sql);
+                    executed++;
+                } catch (SQLException e) {
+                    handleError(sql, e);
+                }
+            }
+            
+            flushIfFull();
+        }
+        
+        /**
+         * Adds prepared statement with parameter values. Prepared statement is reused 
+         * as long as statement text does not change.
+         * @param sql
+         * @param values
+         * @throws SQLException
+         */
+        private void add(String sql, List<String> values) throws SQLException {
+            if (log.isDebugEnabled()) {
+                log.debug("Executing SQL statement: " + sql + " with parameters " + values);
+            }
+            
+            if (statement == null || !sql.equals(preparedSql)) {
+                flush();
+                close();
+                statement = connection.prepareStatement(sql);
+                preparedSql = sql;
+            }
+            
+            PreparedStatement preparedStatement = (PreparedStatement) statement;
+            for (int i = 0; i < values.size(); i++) {
+                preparedStatement.setObject(i + 1, values.get(i));
+            }
+            
+            if (batchSize > 1) {
+                preparedStatement.addBatch();
+                pending++;
+            } else {
+                try {
+                    preparedStatement.execute();
+                    executed++;
+                } catch (SQLException e) {
+                    handleError(sql, e);
+                }
+            }
+            
+            flushIfFull();
+        }
+        
+        /**
+         * Sends current batch when batch size is reached.
+         * @throws SQLException
+         */
+        private void flushIfFull() throws SQLException {
+            if (batchSize > 1 && pending >= batchSize) {
+                flush();
+            }
+        }
+        
+        /**
+         * Sends pending statements of current batch to the database.
+         * @throws SQLException
+         */
+        private void flush() throws SQLException {
+            if (pending == 0) {
+                return;
+            }
+            
+            try {
+                statement.executeBatch();
+                executed += pending;
+            } catch (SQLException e) {
+                handleError("batch of " + pending + " statements", e);
+            } finally {
+                pending = 0;
+            }
+        }
+        
+        /**
+         * Closes current statement.
+         */
+        private void close() {
+            JdbcUtils.closeStatement(statement);
+            statement = null;
+            preparedSql = null;
+        }
+        
+        /**
+         * Logs error if errors are ignored, otherwise rethrows exception.
+         * @param sql
+         * @param e
+         * @throws SQLException
+         */
+        private void handleError(String sql, SQLException e) throws SQLException {
+            if (ignoreErrors) {
+                log.error("Error while executing statement " + sql + " " + e.getLocalizedMessage());
+            } else {
+                throw e;
+            }
+        }
+    }
+    
+    /**
+     * Replaces variable place holders in value position with prepared statement parameter markers. Place holders
+     * forming a complete string literal are replaced together with the enclosing quotes. Unquoted place holders are
+     * bound only when following a comparison operator or the LIKE keyword, or when standing for a single value in
+     * a VALUES row. All other place holders, e.g. table and column names, ORDER BY expressions, IN lists or place
+     * holders embedded in longer string literals, are left untouched and replaced in the statement text as usual.
+     * Replaced place holders are added to the parameter list.
+     * 
+     * @param stmt the statement.
+     * @param parameters list of variable place holders in order of appearance.
+     * @return the statement with parameter markers.
+     */
+    static String bindParameters(String stmt, List<String> parameters) {
+        StringBuilder sql = new StringBuilder(stmt.length());
+        boolean inLiteral = false;
+        
+        int depth = 0;
+        int valuesDepth = -1;
+        boolean valuesClause = false;
+        
+        int i = 0;
+        while (i < stmt.length()) {
+            char c = stmt.charAt(i);
+            
+            if (stmt.startsWith(CitrusConstants.VARIABLE_PREFIX, i)) {
+                int endIndex = stmt.indexOf(CitrusConstants.VARIABLE_SUFFIX, i);
+                
+                if (endIndex != -1) {
+                    boolean quoted = inLiteral && i > 0 && stmt.charAt(i - 1) == '\'' 
+                            && endIndex + 1 < stmt.length() && stmt.charAt(endIndex + 1) == '\'';
+                    
+                    if (quoted || (!inLiteral && isValuePosition(sql, depth == valuesDepth))) {
+                        parameters.add(stmt.substring(i, endIndex + 1));
+                        
+                        if (quoted) {
+                            //remove opening quote and skip closing quote
+                            sql.setLength(sql.length() - 1);
+                            inLiteral = false;
+                            endIndex++;
+                        }
+                        
+                        sql.append('?');
+                        i = endIndex + 1;
+                        continue;
+                    }
+                }
+            }
+            
+            if (c == '\'') {
+                inLiteral = !inLiteral;
+            } else if (!inLiteral) {
+                if (c == '(') {
+                    depth++;
+                    
+                    if (precedingWord(sql).equalsIgnoreCase("VALUES") || (valuesClause && depth == 1 && lastChar(sql) == ',')) {
+                        valuesDepth = depth;
+                        valuesClause = true;
+                    }
+                } else if (c == ')') {
+                    if (depth == valuesDepth) {
+                        valuesDepth = -1;
+                    }
+                    depth--;
+                } else if (depth == 0 && Character.isLetterOrDigit(c)) {
+                    valuesClause = false;
+                }
+            }
+            
+            sql.append(c);
+            i++;
+        }
+        
+        return sql.toString();
+    }
+    
+    /**
+     * Checks if a place holder appended to the statement stands in value position.
+     * @param sql the statement up to the place holder.
+     * @param valuesRow place holder is a direct member of a VALUES row.
+     * @return
+     */
+    private static boolean isValuePosition(CharSequence sql, boolean valuesRow) {
+        char last = lastChar(sql);
+        
+        if (last == '=' || last == '<' || last == '>') {
+            return true;
+        }
+        
+        if (valuesRow && (last == '(' || last == ',')) {
+            return true;
+        }
+        
+        return precedingWord(sql).equalsIgnoreCase("LIKE");
+    }
+    
+    /**
+     * Gets the last non whitespace character.
+     * @param sql
+     * @return the character or zero if there is none.
+     */
+    private static char lastChar(CharSequence sql) {
+        for (int i = sql.length() - 1; i >= 0; i--) {
+            if (!Character.isWhitespace(sql.charAt(i))) {
+                return sql.charAt(i);
+            }
+        }
+        
+        return 0;
+    }
+    
+    /**
+     * Gets the word in front of trailing whitespace.
+     * @param sql
+     * @return the word or empty string if last non whitespace character is no letter.
+     */
+    private static String precedingWord(CharSequence sql) {
+        int end = sql.length();
+        while (end > 0 && Character.isWhitespace(sql.charAt(end - 1))) {
+            end--;
+        }
+        
+        int start = end;
+        while (start > 0 && Character.isLetter(sql.charAt(start - 1))) {
+            start--;
+        }
+        
+        return sql.subSequence(start, end).toString();
+    }
+    
+    /**
+     * Parsed statements and the resource content they were parsed from.
+     */
+    private static final class CachedStatements {
+        /** Resource content */
+        private final String content;
+        
+        /** Parsed statements */
+        private final List<String> statements;
+        
+        /**
+         * Default constructor.
+         * @param content
+         * @param statements
+         */
+        private CachedStatements(String content, List<String> statements) {
+            this.content = content;
+            this.statements = statements;
+        }
+    }
 }
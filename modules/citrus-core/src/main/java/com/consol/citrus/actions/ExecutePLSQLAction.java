@@ -17,10 +17,11 @@
 package com.consol.citrus.actions;
 
 import java.io.*;
-import java.util.StringTokenizer;
+import java.util.*;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
 
 import com.consol.citrus.context.TestContext;
 import com.consol.citrus.exceptions.CitrusRuntimeException;
@@ -46,79 +47,78 @@ public class ExecutePLSQLAction extends AbstractDatabaseConnectingTestAction {
 
     @Override
     public void doExecute(TestContext context) {
-        BufferedReader reader = null;
-        StringBuffer buffer;
-        String stmt;
-
-        try {
-            if (script == null) {
-                log.info("Executing PLSQL file: " + sqlResource.getFilename());
+        List<String> statementsToRun = new ArrayList<String>(statements);
+
+        if (script == null) {
+            log.info("Executing PLSQL file: " + sqlResource.getFilename());
+            
+            statementsToRun.addAll(getStatementsFromResource());
+        } else {
+            if(log.isDebugEnabled()) {
+                log.debug("Found inline PLSQL script " + script);
+            }
 
-                reader = new BufferedReader(new InputStreamReader(sqlResource.getInputStream()));
-                buffer = new StringBuffer();
+            StringTokenizer tok = new StringTokenizer(script, "/");
+            while (tok.hasMoreTokens()) {
+                statementsToRun.add(tok.nextToken().trim());
+            }
+        }
+        
+        if (isConnectionExecution()) {
+            try {
+                executeStatements(statementsToRun, context, ignoreErrors);
+            } catch (DataAccessException e) {
+                throw new CitrusRuntimeException(e);
+            }
+            
+            return;
+        }
 
-                String line;
-                while (reader.ready()) {
-                    line = reader.readLine();
+        for (int i = 0; i < statementsToRun.size(); i++) {
+            try {
+                String stmt = context.replaceDynamicContentInString(statementsToRun.get(i));
 
-                    if(line != null) {
-                        if (line.trim()!= null && line.trim().endsWith("/")) {
-                            buffer.append(line.trim().substring(0, (line.trim().length() -1)));
-    
-                            stmt = context.replaceDynamicContentInString(buffer.toString());
-                            statements.add(stmt);
-                            buffer.setLength(0);
-                            buffer = new StringBuffer();
-                        } else {
-                            buffer.append(line);
-                            buffer.append("\n");
-                        }
-                    }
-                }
-            } else {
-                script = context.replaceDynamicContentInString(script);
                 if(log.isDebugEnabled()) {
-                    log.debug("Found inline PLSQL script " + script);
+                    log.debug("Executing SQL statement: " + stmt);
                 }
-
-                StringTokenizer tok = new StringTokenizer(script, "/");
-                while (tok.hasMoreTokens()) {
-                    stmt = tok.nextToken();
-                    statements.add(stmt.trim());
+                
+                getJdbcTemplate().execute(stmt);
+                log.info("SQL statement execution successful");
+            } catch (Exception e) {
+                if (ignoreErrors) {
+                    log.error("Error while executing SQL statement: " + e.getMessage());
+                    continue;
+                } else {
+                    throw new CitrusRuntimeException(e);
                 }
             }
-
-            for (int i = 0; i < statements.size(); i++) {
-                try {
-                    stmt = statements.get(i);
-
-                    if(log.isDebugEnabled()) {
-                        log.debug("Executing SQL statement: " + stmt);
-                    }
-                    
-                    getJdbcTemplate().execute(stmt);
-                    log.info("SQL statement execution successful");
-                } catch (Exception e) {
-                    if (ignoreErrors) {
-                        log.error("Error while executing SQL statement: " + e.getMessage());
-                        continue;
-                    } else {
-                        throw new CitrusRuntimeException(e);
-                    }
-                }
-            }
-        } catch (IOException e) {
-            log.error("Resource could not be found - filename: " + sqlResource.getFilename(), e);
-            throw new CitrusRuntimeException(e);
-        } finally {
-            if(reader != null) {
-                try {
-                    reader.close();
-                } catch (IOException e) {
-                    log.warn("Warning: could not close reader instance", e);
-                }
+        }
+    }
+    
+    /**
+     * Splits PLSQL file content into statements. Statements are terminated by slash
+     * at the end of a line.
+     */
+    @Override
+    protected List<String> parseStatements(String content) throws IOException {
+        BufferedReader reader = new BufferedReader(new StringReader(content));
+        StringBuilder buffer = new StringBuilder();
+        List<String> stmts = new ArrayList<String>();
+
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.trim().endsWith("/")) {
+                buffer.append(line.trim().substring(0, (line.trim().length() -1)));
+
+                stmts.add(buffer.toString());
+                buffer.setLength(0);
+            } else {
+                buffer.append(line);
+                buffer.append("\n");
             }
         }
+        
+        return stmts;
     }
 
     /**
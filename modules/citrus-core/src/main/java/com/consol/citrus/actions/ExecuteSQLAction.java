@@ -16,7 +16,9 @@
 
 package com.consol.citrus.actions;
 
-import java.util.Iterator;
+import java.util.*;
+
+import org.springframework.dao.DataAccessException;
 
 import com.consol.citrus.context.TestContext;
 import com.consol.citrus.exceptions.CitrusRuntimeException;
@@ -28,6 +30,9 @@ import com.consol.citrus.exceptions.CitrusRuntimeException;
  * 
  * When executing SQL query statements (SELECT) see {@link ExecuteSQLQueryAction}.
  * 
+ * Large numbers of statements can be sent to the database as JDBC batches within a single transaction. Test variables
+ * may be bound as prepared statement parameters, so statements differing only in variable values share one prepared statement.
+ * 
  * @author Christoph Deppisch, Jan Szczepanski
  * @since 2006
  */
@@ -42,6 +47,27 @@ public class ExecuteSQLAction extends AbstractDatabaseConnectingTestAction {
         if (statements.isEmpty()) {
             statements = getStatementsFromResource();
         }
+        
+        if (isConnectionExecution()) {
+            List<String> stmts = new ArrayList<String>(statements.size());
+            for (String statement : statements) {
+                statement = statement.trim();
+                
+                if (statement.endsWith(";")) {
+                    statement = statement.substring(0, statement.length()-1);
+                }
+                
+                stmts.add(statement);
+            }
+            
+            try {
+                executeStatements(stmts, context, ignoreErrors);
+            } catch (DataAccessException e) {
+                throw new CitrusRuntimeException(e);
+            }
+            
+            return;
+        }
 
         Iterator<String> it = statements.iterator();
         while (it.hasNext())  {
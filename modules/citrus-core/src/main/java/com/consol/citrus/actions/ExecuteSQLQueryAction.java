@@ -16,6 +16,7 @@
 
 package com.consol.citrus.actions;
 
+import java.sql.*;
 import java.util.*;
 import java.util.Map.Entry;
 
@@ -23,6 +24,8 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.*;
+import org.springframework.jdbc.support.JdbcUtils;
 import org.springframework.util.CollectionUtils;
 
 import com.consol.citrus.CitrusConstants;
@@ -30,6 +33,7 @@ import com.consol.citrus.context.TestContext;
 import com.consol.citrus.exceptions.*;
 import com.consol.citrus.functions.FunctionUtils;
 import com.consol.citrus.validation.script.ScriptValidationContext;
+import com.consol.citrus.validation.script.sql.ColumnarResultSet;
 import com.consol.citrus.validation.script.sql.GroovySqlResultSetValidator;
 import com.consol.citrus.validation.script.sql.SqlResultSetScriptValidator;
 import com.consol.citrus.variable.VariableUtils;
@@ -45,7 +49,11 @@ import com.consol.citrus.variable.VariableUtils;
  * 
  * This is especially helpful in case the system under test takes some time to save data 
  * to the database. Tests action may fail simply because of runtime conditions. With automatic retries
- * the test results are of stable nature.  
+ * the test results are of stable nature. Pause between retries is doubled with each retry up to a maximum pause.
+ * 
+ * In streaming mode rows are validated while they are read from the database, so large result sets
+ * are not loaded into memory. Validation stops reading rows as soon as a value does not match and the number
+ * of rows read per statement can be limited.
  *
  * @author Christoph Deppisch
  * @since 2008
@@ -57,9 +65,18 @@ public class ExecuteSQLQueryAction extends AbstractDatabaseConnectingTestAction
     /** Number of retries when validation fails */
     private int maxRetries = 0;
 
-    /** Pause between retries (in milliseconds). */
+    /** Pause before first retry (in milliseconds), pause is doubled with each further retry. */
     private int retryPauseInMs = 1000;
     
+    /** Maximum pause between retries (in milliseconds). */
+    private int maxRetryPauseInMs = 10000;
+    
+    /** Validate rows while reading the result set instead of loading complete result set into memory */
+    private boolean streaming = false;
+    
+    /** Maximum number of rows read per statement in streaming mode, zero means no limit */
+    private int maxRows = 0;
+    
     /** Map of test variables to be created from database values, keys are column names, values are variable names */
     private Map<String, String> extractVariables = new HashMap<String, String>();
     
@@ -86,63 +103,33 @@ public class ExecuteSQLQueryAction extends AbstractDatabaseConnectingTestAction
                 validateSqlStatement(statement);
             }
 
-            Map<String, List<String>> resultSet = new HashMap<String, List<String>>();
-            List<Map<String, Object>> rows = new ArrayList<Map<String, Object>>();
+            Map<String, List<String>> resultSet = null;
             int countRetries = 0;
+            long retryPause = retryPauseInMs;
             boolean retry = true;
             while (retry) {
                 try {
-                    Iterator<String> iter = statements.iterator();
-
-                    while (iter.hasNext()) {
-                        String stmt = iter.next();
-
-                        stmt = context.replaceDynamicContentInString(stmt);
-                        List<Map<String, Object>> results = getJdbcTemplate().queryForList(stmt);
-
-                        if (results.size() == 0) {
-                            throw new CitrusRuntimeException("Validation not possible. SQL result set is empty for statement: " + stmt);
-                        }
-                        
-                        rows.addAll(results);
-                        
-                        //form a Map object which contains all columns of the result as keys
-                        //and a List of row values as values of the Map
-                        for (Map<String, Object> row : results) {
-                        	for (Entry<String, Object> column : row.entrySet()) {
-								String columnName = column.getKey();
-								if (resultSet.containsKey(columnName)) {
-									resultSet.get(columnName).add((column.getValue() == null ? null : column.getValue().toString()));
-								} else {
-									List<String> columnValues = new ArrayList<String>();
-									columnValues.add((column.getValue() == null ? null : column.getValue().toString()));
-									resultSet.put(columnName, columnValues);
-								}
-							}
-                        }
-                    }
-                    
-                    // apply script validation if specified
-                    if (scriptValidationContext != null) {
-                        getScriptValidator().validateSqlResultSet(rows, scriptValidationContext, context);
+                    if (isStreaming()) {
+                        resultSet = executeStreaming(context);
+                    } else {
+                        resultSet = executeQueries(context);
                     }
-                    
-                    // usual sql result set validation
-                	validate(resultSet, context);
 
                     retry = false;
                 } catch (CitrusRuntimeException ex) {
                     if (countRetries >= maxRetries) {
                         throw ex;
                     }
-                    log.warn("Validation failed. Retrying...");
+                    log.warn("Validation failed. Retrying in " + retryPause + " ms ...");
                     countRetries++;
-                    resultSet.clear();
                     try {
-                        Thread.sleep(retryPauseInMs);
+                        Thread.sleep(retryPause);
                     } catch (InterruptedException e) {
                         log.error("Unexpected interrupt.", e);
                     }
+                    
+                    // exponential backoff up to maximum retry pause
+                    retryPause = Math.min(retryPause * 2, Math.max(maxRetryPauseInMs, retryPauseInMs));
                 }
             }
 
@@ -167,6 +154,99 @@ public class ExecuteSQLQueryAction extends AbstractDatabaseConnectingTestAction
             throw new CitrusRuntimeException(e);
         }
     }
+	
+    /**
+     * Executes all statements loading the complete result sets into memory and validates
+     * the result afterwards.
+     * 
+     * @param context the current test context.
+     * @return all column values by column name.
+     */
+    private Map<String, List<String>> executeQueries(TestContext context) {
+        Map<String, List<String>> resultSet = new HashMap<String, List<String>>();
+        List<Map<String, Object>> rows = new ArrayList<Map<String, Object>>();
+        
+        Iterator<String> iter = statements.iterator();
+
+        while (iter.hasNext()) {
+            String stmt = iter.next();
+
+            stmt = context.replaceDynamicContentInString(stmt);
+            List<Map<String, Object>> results = getJdbcTemplate().queryForList(stmt);
+
+            if (results.size() == 0) {
+                throw new CitrusRuntimeException("Validation not possible. SQL result set is empty for statement: " + stmt);
+            }
+            
+            rows.addAll(results);
+            
+            //form a Map object which contains all columns of the result as keys
+            //and a List of row values as values of the Map
+            for (Map<String, Object> row : results) {
+                for (Entry<String, Object> column : row.entrySet()) {
+                    String columnName = column.getKey();
+                    if (resultSet.containsKey(columnName)) {
+                        resultSet.get(columnName).add((column.getValue() == null ? null : column.getValue().toString()));
+                    } else {
+                        List<String> columnValues = new ArrayList<String>();
+                        columnValues.add((column.getValue() == null ? null : column.getValue().toString()));
+                        resultSet.put(columnName, columnValues);
+                    }
+                }
+            }
+        }
+        
+        // apply script validation if specified
+        if (scriptValidationContext != null) {
+            getScriptValidator().validateSqlResultSet(rows, scriptValidationContext, context);
+        }
+        
+        // usual sql result set validation
+        validate(resultSet, context);
+        
+        return resultSet;
+    }
+    
+    /**
+     * Executes all statements and validates the control values row by row while the result set is read
+     * from the database. Only values needed for variable extraction are kept in memory, script validation
+     * works on a compact columnar copy of the result set.
+     * 
+     * @param context the current test context.
+     * @return extracted column values by column name, other columns hold their first value only.
+     */
+    private Map<String, List<String>> executeStreaming(TestContext context) {
+        StreamingResultSetValidator validator = new StreamingResultSetValidator(context);
+        
+        for (String statement : statements) {
+            String stmt = context.replaceDynamicContentInString(statement);
+            
+            validator.startStatement();
+            getJdbcTemplate().query(new LimitedStatementCreator(stmt, maxRows), validator);
+            
+            if (validator.getStatementRowCount() == 0) {
+                throw new CitrusRuntimeException("Validation not possible. SQL result set is empty for statement: " + stmt);
+            }
+        }
+        
+        // apply script validation if specified
+        if (scriptValidationContext != null) {
+            getScriptValidator().validateSqlResultSet(validator.getRows(), scriptValidationContext, context);
+        }
+        
+        validator.finish();
+        
+        return validator.getResultSet();
+    }
+    
+    /**
+     * Streaming mode is active when explicitly enabled or when result sets are limited
+     * to a maximum number of rows.
+     * @return
+     */
+    private boolean isStreaming() {
+        return streaming || maxRows > 0;
+    }
 
     /**
      * Gets the script validator implementation either autowired from application context
@@ -259,45 +339,64 @@ public class ExecuteSQLQueryAction extends AbstractDatabaseConnectingTestAction
             
             Iterator<String> it = resultColumnValues.iterator();
             for (String controlValue : controlColumnValues) {
-                String resultValue = it.next();
-                
-                if (VariableUtils.isVariableName(controlValue)) {
-                    controlValue = context.getVariable(controlValue);
-                } else if(context.getFunctionRegistry().isFunction(controlValue)) {
-                    controlValue = FunctionUtils.resolveFunction(controlValue, context);
-                }
-                
-                // check if value is ignored
-                if (controlValue.equals(CitrusConstants.IGNORE_PLACEHOLDER)) {
+                validateColumnValue(columnName, it.next(), resolveControlValue(controlValue, context));
+            }
+        }
+
+        log.info("Database query validation finished successfully: All values OK");
+    }
+    
+    /**
+     * Resolves variables and functions in control value.
+     * @param controlValue
+     * @param context
+     * @return
+     */
+    private String resolveControlValue(String controlValue, TestContext context) {
+        if (VariableUtils.isVariableName(controlValue)) {
+            return context.getVariable(controlValue);
+        } else if(context.getFunctionRegistry().isFunction(controlValue)) {
+            return FunctionUtils.resolveFunction(controlValue, context);
+        }
+        
+        return controlValue;
+    }
+    
+    /**
+     * Validates a single column value against its resolved control value.
+     * @param columnName
+     * @param resultValue
+     * @param controlValue
+     * @throws ValidationException
+     */
+    private void validateColumnValue(String columnName, String resultValue, String controlValue) throws ValidationException {
+        // check if value is ignored
+        if (controlValue.equals(CitrusConstants.IGNORE_PLACEHOLDER)) {
+            if(log.isDebugEnabled()) {
+                log.debug("Ignoring column value '" + columnName + "(resultValue)'");
+            }
+        } else {
+            if (resultValue == null) {
+                if (controlValue.toUpperCase().equals("NULL") || controlValue.length() == 0) {
                     if(log.isDebugEnabled()) {
-                        log.debug("Ignoring column value '" + columnName + "(resultValue)'");
+                        log.debug("Validating database value for column: ''" + columnName + "'' value as expected: NULL - value OK");
                     }
                 } else {
-                    if (resultValue == null) {
-                        if (controlValue.toUpperCase().equals("NULL") || controlValue.length() == 0) {
-                            if(log.isDebugEnabled()) {
-                                log.debug("Validating database value for column: ''" + columnName + "'' value as expected: NULL - value OK");
-                            }
-                        } else {
-                            throw new ValidationException("Validation failed for column: '" +  columnName + "'"
-                                    + "found value: NULL expected value: " + controlValue);
-                        }
-                    } else if (resultValue.equals(controlValue)) {
-                        if(log.isDebugEnabled()) {
-                            log.debug("Validation successful for column: '" + columnName + "' expected value: " + controlValue + " - value OK");
-                        }
-                    } else {
-                        throw new ValidationException("Validation failed for column: '" +  columnName + "'"
-                                + " found value: '"
-                                + resultValue
-                                + "' expected value: "
-                                + ((controlValue.length()==0) ? "NULL" : controlValue));
-                    }
+                    throw new ValidationException("Validation failed for column: '" +  columnName + "'"
+                            + "found value: NULL expected value: " + controlValue);
                 }
+            } else if (resultValue.equals(controlValue)) {
+                if(log.isDebugEnabled()) {
+                    log.debug("Validation successful for column: '" + columnName + "' expected value: " + controlValue + " - value OK");
+                }
+            } else {
+                throw new ValidationException("Validation failed for column: '" +  columnName + "'"
+                        + " found value: '"
+                        + resultValue
+                        + "' expected value: "
+                        + ((controlValue.length()==0) ? "NULL" : controlValue));
             }
         }
-
-        log.info("Database query validation finished successfully: All values OK");
     }
     
     /**
@@ -344,4 +443,252 @@ public class ExecuteSQLQueryAction extends AbstractDatabaseConnectingTestAction
             ScriptValidationContext scriptValidationContext) {
         this.scriptValidationContext = scriptValidationContext;
     }
+
+    /**
+     * Setter for maximum pause between retries.
+     * @param maxRetryPauseInMs
+     */
+    public void setMaxRetryPauseInMs(int maxRetryPauseInMs) {
+        this.maxRetryPauseInMs = maxRetryPauseInMs;
+    }
+
+    /**
+     * Enables streaming result set validation.
+     * @param streaming
+     */
+    public void setStreaming(boolean streaming) {
+        this.streaming = streaming;
+    }
+
+    /**
+     * Sets the maximum number of rows read per statement. Setting a limit
+     * enables streaming result set validation.
+     * @param maxRows
+     */
+    public void setMaxRows(int maxRows) {
+        this.maxRows = maxRows;
+    }
+    
+    /**
+     * Row callback validating control values as rows arrive. Keeps first values of all columns
+     * and all values of columns to be extracted as variables. Complete result set is only kept
+     * in columnar form in case script validation needs it.
+     */
+    private final class StreamingResultSetValidator implements RowCallbackHandler {
+        /** Resolved control values by column name */
+        private final Map<String, List<String>> controlValues = new HashMap<String, List<String>>();
+        
+        /** Number of validated rows by column name */
+        private final Map<String, Integer> validatedRows = new HashMap<String, Integer>();
+        
+        /** Upper case names of columns to extract */
+        private final Set<String> extractColumns = new HashSet<String>();
+        
+        /** Collected column values */
+        private final Map<String, List<String>> resultSet = new HashMap<String, List<String>>();
+        
+        /** All rows for script validation */
+        private final ColumnarResultSet rows;
+        
+        /** Column names of current statement result */
+        private String[] columnNames;
+        
+        /** Number of rows read for current statement */
+        private int statementRowCount;
+        
+        /**
+         * Default constructor resolving control values.
+         * @param context
+         */
+        private StreamingResultSetValidator(TestContext context) {
+            for (Entry<String, List<String>> controlEntry : controlResultSet.entrySet()) {
+                List<String> values = new ArrayList<String>(controlEntry.getValue().size());
+                for (String controlValue : controlEntry.getValue()) {
+                    values.add(resolveControlValue(controlValue, context));
+                }
+                
+                controlValues.put(controlEntry.getKey(), values);
+            }
+            
+            for (String columnName : extractVariables.keySet()) {
+                extractColumns.add(columnName.toUpperCase());
+            }
+            
+            rows = scriptValidationContext != null ? new ColumnarResultSet() : null;
+            
+            if (!controlValues.isEmpty()) {
+                log.info("Start database query validation ...");
+            }
+        }
+        
+        /**
+         * Prepares for next statement result.
+         */
+        private void startStatement() {
+            columnNames = null;
+            statementRowCount = 0;
+        }
+        
+        /**
+         * Reads and validates a single row.
+         */
+        public void processRow(ResultSet rs) throws SQLException {
+            if (columnNames == null) {
+                ResultSetMetaData metaData = rs.getMetaData();
+                columnNames = new String[metaData.getColumnCount()];
+                for (int i = 0; i < columnNames.length; i++) {
+                    columnNames[i] = JdbcUtils.lookupColumnName(metaData, i + 1);
+                }
+                
+                if (rows != null) {
+                    rows.addResult(columnNames);
+                }
+            }
+            
+            // ignore rows beyond limit in case driver does not support max rows
+            if (maxRows > 0 && statementRowCount >= maxRows) {
+                return;
+            }
+            statementRowCount++;
+            
+            Object[] values = rows != null ? new Object[columnNames.length] : null;
+            for (int i = 0; i < columnNames.length; i++) {
+                String columnName = columnNames[i];
+                Object value = JdbcUtils.getResultSetValue(rs, i + 1);
+                
+                if (values != null) {
+                    values[i] = value;
+                }
+                
+                List<String> control = controlValues.get(columnName);
+                boolean extract = extractColumns.contains(columnName.toUpperCase());
+                if (control == null && !extract && resultSet.containsKey(columnName)) {
+                    continue;
+                }
+                
+                String resultValue = value == null ? null : value.toString();
+                if (control != null) {
+                    validateRowValue(columnName, resultValue, control);
+                }
+                
+                if (resultSet.containsKey(columnName)) {
+                    if (extract) {
+                        resultSet.get(columnName).add(resultValue);
+                    }
+                } else {
+                    List<String> columnValues = new ArrayList<String>();
+                    columnValues.add(resultValue);
+                    resultSet.put(columnName, columnValues);
+                }
+            }
+            
+            if (values != null) {
+                rows.addRow(values);
+            }
+        }
+        
+        /**
+         * Validates value against next control value of the column. Fails as soon as
+         * there are more rows than control values.
+         * @param columnName
+         * @param resultValue
+         * @param control
+         */
+        private void validateRowValue(String columnName, String resultValue, List<String> control) {
+            Integer count = validatedRows.get(columnName);
+            int rowIndex = count == null ? 0 : count;
+            
+            if (rowIndex >= control.size()) {
+                throw new CitrusRuntimeException("Validation failed for column: '" +  columnName + "' " +
+                        "expected rows count: " + control.size() + " but was at least " + (rowIndex + 1));
+            }
+            
+            validateColumnValue(columnName, resultValue, control.get(rowIndex));
+            validatedRows.put(columnName, rowIndex + 1);
+        }
+        
+        /**
+         * Checks that all control columns were found with expected number of rows.
+         */
+        private void finish() {
+            if (controlValues.isEmpty()) {
+                return;
+            }
+            
+            for (Entry<String, List<String>> controlEntry : controlValues.entrySet()) {
+                String columnName = controlEntry.getKey();
+                Integer count = validatedRows.get(columnName);
+                
+                if (count == null) {
+                    throw new CitrusRuntimeException("Could not find column '" + columnName + "' in SQL result set");
+                }
+                
+                if (count != controlEntry.getValue().size()) {
+                    throw new CitrusRuntimeException("Validation failed for column: '" +  columnName + "' " +
+                            "expected rows count: " + controlEntry.getValue().size() + " but was " + count);
+                }
+            }
+            
+            log.info("Database query validation finished successfully: All values OK");
+        }
+        
+        /**
+         * Gets the number of rows read for current statement.
+         * @return
+         */
+        private int getStatementRowCount() {
+            return statementRowCount;
+        }
+        
+        /**
+         * Gets the collected column values.
+         * @return
+         */
+        private Map<String, List<String>> getResultSet() {
+            return resultSet;
+        }
+        
+        /**
+         * Gets all rows for script validation.
+         * @return
+         */
+        private List<Map<String, Object>> getRows() {
+            return rows;
+        }
+    }
+    
+    /**
+     * Creates prepared statement with optional row limit.
+     */
+    private static final class LimitedStatementCreator implements PreparedStatementCreator, SqlProvider {
+        /** SQL statement */
+        private final String sql;
+        
+        /** Maximum number of rows, zero means no limit */
+        private final int maxRows;
+        
+        /**
+         * Default constructor.
+         * @param sql
+         * @param maxRows
+         */
+        private LimitedStatementCreator(String sql, int maxRows) {
+            this.sql = sql;
+            this.maxRows = maxRows;
+        }
+        
+        public PreparedStatement createPreparedStatement(Connection con) throws SQLException {
+            PreparedStatement ps = con.prepareStatement(sql);
+            
+            if (maxRows > 0) {
+                ps.setMaxRows(maxRows);
+            }
+            
+            return ps;
+        }
+        
+        public String getSql() {
+            return sql;
+        }
+    }
 }
@@ -16,19 +16,22 @@
 
 package com.consol.citrus.actions;
 
-import java.util.Collections;
-import java.util.List;
+import java.util.*;
+import java.util.concurrent.*;
 
 import javax.jms.*;
+import javax.jms.Queue;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.jms.connection.ConnectionFactoryUtils;
 import org.springframework.jms.support.JmsUtils;
 import org.springframework.jms.support.destination.DynamicDestinationResolver;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 
 import com.consol.citrus.context.TestContext;
 import com.consol.citrus.exceptions.CitrusRuntimeException;
+import com.consol.citrus.server.activemq.ActiveMQServer;
 
 /**
  * Action to purge JMS queue destinations by simply consuming 
@@ -38,6 +41,10 @@ import com.consol.citrus.exceptions.CitrusRuntimeException;
  *
  * Receiver will continue to receive messages until message receive timeout is reached, 
  * so no messages are left.
+ * 
+ * Several queues can be purged concurrently, each one with its own session and consumer. When the
+ * embedded {@link ActiveMQServer} is given queues are purged directly via broker API without consuming
+ * messages at all.
  *  
  * @author Christoph Deppisch
  * @since 2007
@@ -55,6 +62,12 @@ public class PurgeJmsQueuesAction extends AbstractTestAction {
 
     /** Time to wait until timeout in ms */
     private long receiveTimeout = 100;
+    
+    /** Maximum number of queues purged at the same time */
+    private int concurrency = 1;
+    
+    /** Embedded broker purging queues via broker API */
+    private ActiveMQServer broker;
 
     /**
      * Logger
@@ -64,12 +77,92 @@ public class PurgeJmsQueuesAction extends AbstractTestAction {
     @Override
     public void doExecute(TestContext context) {
         log.info("Purging JMS queues...");
+        
+        long start = System.currentTimeMillis();
+        
+        List<Queue> remainingQueues = new ArrayList<Queue>(queues);
+        List<String> remainingQueueNames = new ArrayList<String>(queueNames);
+        
+        if (broker != null) {
+            purgeViaBroker(remainingQueues, remainingQueueNames);
+        }
+        
+        if (!remainingQueues.isEmpty() || !remainingQueueNames.isEmpty()) {
+            Connection connection = null;
+            
+            try {
+                connection = createConnection();
+                
+                if (concurrency > 1 && remainingQueues.size() + remainingQueueNames.size() > 1) {
+                    connection.start();
+                    purgeConcurrently(remainingQueues, remainingQueueNames, connection);
+                } else {
+                    purgeSequentially(remainingQueues, remainingQueueNames, connection);
+                }
+            } catch (JMSException e) {
+                log.error("Error while establishing jms queue connection", e);
+                throw new CitrusRuntimeException(e);
+            } finally {
+                if(connection != null) {
+                    ConnectionFactoryUtils.releaseConnection(connection, this.connectionFactory, true);
+                }
+            }
+        }
 
-        Connection connection = null;
+        log.info("JMS queues purged successfully in " + (System.currentTimeMillis() - start) + " ms");
+    }
+    
+    /**
+     * Purges queues via broker API. Queues the broker is not able to purge remain in the lists.
+     * @param remainingQueues
+     * @param remainingQueueNames
+     */
+    private void purgeViaBroker(List<Queue> remainingQueues, List<String> remainingQueueNames) {
+        try {
+            for (Iterator<Queue> it = remainingQueues.iterator(); it.hasNext();) {
+                if (purgeViaBroker(it.next().getQueueName())) {
+                    it.remove();
+                }
+            }
+        } catch (JMSException e) {
+            throw new CitrusRuntimeException(e);
+        }
+        
+        for (Iterator<String> it = remainingQueueNames.iterator(); it.hasNext();) {
+            if (purgeViaBroker(it.next())) {
+                it.remove();
+            }
+        }
+    }
+    
+    /**
+     * Purges a queue via broker API.
+     * @param queueName
+     * @return true if queue was purged.
+     */
+    private boolean purgeViaBroker(String queueName) {
+        long start = System.currentTimeMillis();
+        long messageCount = broker.purgeQueue(queueName);
+        
+        if (messageCount < 0) {
+            return false;
+        }
+        
+        logPurgeResult(queueName, messageCount, start);
+        return true;
+    }
+    
+    /**
+     * Purges queues one after another with a single session.
+     * @param queues
+     * @param queueNames
+     * @param connection
+     * @throws JMSException
+     */
+    private void purgeSequentially(List<Queue> queues, List<String> queueNames, Connection connection) throws JMSException {
         Session session = null;
         
         try {
-        	connection = createConnection();
             session = createSession(connection);
             connection.start();
             
@@ -79,39 +172,107 @@ public class PurgeJmsQueuesAction extends AbstractTestAction {
             for (String queueName : queueNames) {
                 purgeQueue(queueName, session);
             }
-
-        } catch (JMSException e) {
-            log.error("Error while establishing jms queue connection", e);
-            throw new CitrusRuntimeException(e);
         } finally {
             JmsUtils.closeSession(session);
-
-            if(connection != null) {
-                ConnectionFactoryUtils.releaseConnection(connection, this.connectionFactory, true);
+        }
+    }
+    
+    /**
+     * Purges queues concurrently on a bounded thread pool. Each queue is purged with its own session.
+     * @param queues
+     * @param queueNames
+     * @param connection
+     */
+    private void purgeConcurrently(List<Queue> queues, List<String> queueNames, Connection connection) {
+        int poolSize = Math.min(concurrency, queues.size() + queueNames.size());
+        ExecutorService executor = Executors.newFixedThreadPool(poolSize, new CustomizableThreadFactory(getName() + "-"));
+        
+        List<Future<Long>> futures = new ArrayList<Future<Long>>();
+        
+        try {
+            for (Queue queue : queues) {
+                futures.add(executor.submit(new PurgeTask(connection, queue, null)));
+            }
+            for (String queueName : queueNames) {
+                futures.add(executor.submit(new PurgeTask(connection, null, queueName)));
+            }
+            
+            for (Future<Long> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CitrusRuntimeException("Interrupted while purging JMS queues", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof CitrusRuntimeException) {
+                throw (CitrusRuntimeException) e.getCause();
+            }
+            
+            throw new CitrusRuntimeException(e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+    
+    /**
+     * Callable purging a single queue with its own session.
+     */
+    private class PurgeTask implements Callable<Long> {
+        /** Connection to create session with */
+        private Connection connection;
+        
+        /** Queue to purge, may be null when queue name is set */
+        private Queue queue;
+        
+        /** Name of queue to purge */
+        private String queueName;
+        
+        public PurgeTask(Connection connection, Queue queue, String queueName) {
+            this.connection = connection;
+            this.queue = queue;
+            this.queueName = queueName;
+        }
+        
+        /**
+         * Purges the queue and returns number of consumed messages.
+         */
+        public Long call() throws JMSException {
+            Session session = null;
+            
+            try {
+                session = createSession(connection);
+                
+                if (queue != null) {
+                    return purgeQueue(queue, session);
+                } else {
+                    return purgeQueue(queueName, session);
+                }
+            } finally {
+                JmsUtils.closeSession(session);
             }
         }
-
-        log.info("JMS queues purged successfully");
     }
 
     /**
      * Purges a queue destination identified by its name.
      * @param queueName
      * @param session
+     * @return number of purged messages.
      * @throws JMSException
      */
-    private void purgeQueue(String queueName, Session session) throws JMSException {
-        purgeDestination(getDestination(session, queueName), session, queueName);
+    private long purgeQueue(String queueName, Session session) throws JMSException {
+        return purgeDestination(getDestination(session, queueName), session, queueName);
     }
 
     /**
      * Purges a queue destination. 
      * @param queue
      * @param session
+     * @return number of purged messages.
      * @throws JMSException
      */
-    private void purgeQueue(Queue queue, Session session) throws JMSException {
-        purgeDestination(queue, session, queue.getQueueName());
+    private long purgeQueue(Queue queue, Session session) throws JMSException {
+        return purgeDestination(queue, session, queue.getQueueName());
     }
 
     /**
@@ -119,31 +280,48 @@ public class PurgeJmsQueuesAction extends AbstractTestAction {
      * @param destination
      * @param session
      * @param destinationName
+     * @return number of purged messages.
      * @throws JMSException
      */
-    private void purgeDestination(Destination destination, Session session, String destinationName) throws JMSException {
+    private long purgeDestination(Destination destination, Session session, String destinationName) throws JMSException {
         if (log.isDebugEnabled()) {
             log.debug("Try to purge queue " + destinationName);
         }
 
+        long start = System.currentTimeMillis();
+        long messageCount = 0;
+        
         MessageConsumer messageConsumer = null;
         try {
+            messageConsumer = session.createConsumer(destination);
+            
             javax.jms.Message message;
             do {
-                messageConsumer = session.createConsumer(destination);
-
                 message = (receiveTimeout >= 0) ? messageConsumer
                         .receive(receiveTimeout) : messageConsumer.receive();
     
-                if (message != null && log.isDebugEnabled()) {
-                    log.debug("Removed message from queue " + destinationName);
+                if (message != null) {
+                    messageCount++;
                 }
             } while (message != null);
-    
-            JmsUtils.closeMessageConsumer(messageConsumer);
         } finally {
             JmsUtils.closeMessageConsumer(messageConsumer);
         }
+        
+        logPurgeResult(destinationName, messageCount, start);
+        
+        return messageCount;
+    }
+    
+    /**
+     * Reports number of purged messages and time taken.
+     * @param queueName
+     * @param messageCount
+     * @param start
+     */
+    private void logPurgeResult(String queueName, long messageCount, long start) {
+        log.info("Purged " + messageCount + " messages from queue " + queueName + " in " + 
+                (System.currentTimeMillis() - start) + " ms");
     }
     
     /**
@@ -213,6 +391,22 @@ public class PurgeJmsQueuesAction extends AbstractTestAction {
 		this.queues = queues;
 	}
 
+    /**
+     * Sets the maximum number of queues purged at the same time.
+     * @param concurrency the concurrency to set
+     */
+    public void setConcurrency(int concurrency) {
+        this.concurrency = concurrency;
+    }
+
+    /**
+     * Sets the embedded broker purging queues via broker API.
+     * @param broker the broker to set
+     */
+    public void setBroker(ActiveMQServer broker) {
+        this.broker = broker;
+    }
+
     /**
      * Receive timeout for reading message from a destination.
      * @param receiveTimeout the receiveTimeout to set
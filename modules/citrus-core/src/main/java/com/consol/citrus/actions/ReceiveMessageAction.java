@@ -132,6 +132,9 @@ public class ReceiveMessageAction extends AbstractTestAction {
             validateMessage(receivedMessage, context);
         } catch (IOException e) {
             throw new CitrusRuntimeException(e);
+        } finally {
+            //release parsed message payload shared by extractors and validators
+            context.setParsedMessagePayload(null);
         }
     }
 
@@ -225,6 +228,14 @@ public class ReceiveMessageAction extends AbstractTestAction {
         this.validationContexts = validationContexts;
     }
 
+    /**
+     * Gets the list of available validation contexts.
+     * @return the validationContexts
+     */
+    public List<ValidationContext> getValidationContexts() {
+        return validationContexts;
+    }
+
     /**
      * Gets the variable extractors.
      * @return the variableExtractors
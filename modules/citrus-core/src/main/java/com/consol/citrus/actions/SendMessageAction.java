@@ -90,6 +90,14 @@ public class SendMessageAction extends AbstractTestAction {
         this.messageBuilder = messageBuilder;
     }
 
+    /**
+     * Gets the message builder implementation.
+     * @return the messageBuilder
+     */
+    public MessageContentBuilder<?> getMessageBuilder() {
+        return messageBuilder;
+    }
+
     /**
      * The variable extractors for this message sending action.
      * @param variableExtractors the variableExtractors to set
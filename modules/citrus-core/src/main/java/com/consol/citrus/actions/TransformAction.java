@@ -26,15 +26,21 @@ import org.springframework.core.io.Resource;
 import org.springframework.xml.transform.StringResult;
 import org.springframework.xml.transform.StringSource;
 
+import com.consol.citrus.context.DynamicContentTemplate;
 import com.consol.citrus.context.TestContext;
 import com.consol.citrus.exceptions.CitrusRuntimeException;
-import com.consol.citrus.util.FileUtils;
+import com.consol.citrus.util.ResourceContentCache;
+import com.consol.citrus.xml.XsltTemplatesCache;
 
 
 /**
  * Action transforms a XML document(specified inline or from external file resource)
  * with a XSLT document(specified inline or from external file resource)
  * and puts the result in the specified variable.
+ * 
+ * Stylesheets are compiled once and kept in the {@link XsltTemplatesCache}. Stylesheets without
+ * dynamic content resolve to the same cached string on each execution, so the compiled stylesheet is
+ * found without recompilation. Stylesheets holding test variables are compiled once per distinct content.
  *
  * @author Philipp Komninos
  * @since 2010
@@ -56,6 +62,10 @@ public class TransformAction extends AbstractTestAction {
 	/** Target variable for the result */
 	private String targetVariable;
 	
+	/** Precompiled templates of inline XML and XSLT data */
+	private DynamicContentTemplate xmlTemplate;
+	private DynamicContentTemplate xsltTemplate;
+	
 	/**
      * Logger
      */
@@ -69,34 +79,30 @@ public class TransformAction extends AbstractTestAction {
 			//parse XML document and define XML source for transformation
 			Source xmlSource = null;
 			if (xmlResource != null) {
-				xmlSource = new StringSource(context.replaceDynamicContentInString(FileUtils.readToString(xmlResource)));
+				xmlSource = new StringSource(ResourceContentCache.getInstance().getTemplate(xmlResource, context.getFunctionRegistry()).render(context));
 			} else if (xmlData != null) {
-				xmlSource = new StringSource(context.replaceDynamicContentInString(xmlData));
+				xmlSource = new StringSource(getXmlTemplate(context).render(context));
 			} else {
 				throw new CitrusRuntimeException("Neither inline XML nor " +
                 		"external file resource is defined for bean. " +
         				"Cannot transform XML document.");
 			}
 			
-			//parse XSLT document and define  XSLT source for transformation
-			Source xsltSource = null;
+			//get XSLT document content, static stylesheets render to the very same string on each execution
+			String xslt = null;
 			if (xsltResource != null) {
-				xsltSource = new StringSource(context.replaceDynamicContentInString(FileUtils.readToString(xsltResource)));
+				xslt = ResourceContentCache.getInstance().getTemplate(xsltResource, context.getFunctionRegistry()).render(context);
 			} else if (xsltData != null) {
-				xsltSource = new StringSource(context.replaceDynamicContentInString(xsltData));
+				xslt = getXsltTemplate(context).render(context);
 			} else {
 				throw new CitrusRuntimeException("Neither inline XSLT nor " +
                 		"external file resource is defined for bean. " +
         				"Cannot transform XSLT document.");
 			}
 			
-			//create transformer
-			TransformerFactory transformerFactory = TransformerFactory.newInstance();
-			Transformer transformer = transformerFactory.newTransformer(xsltSource);
-			
-			//transform
+			//transform with precompiled stylesheet
 			StringResult result = new StringResult();
-			transformer.transform(xmlSource, result);
+			XsltTemplatesCache.getInstance().transform(xslt, xmlSource, result);
 			
 			//save result to specified variable
 			context.setVariable(targetVariable, result.toString());
@@ -110,6 +116,40 @@ public class TransformAction extends AbstractTestAction {
 			throw new CitrusRuntimeException(e);
 		}
 	}
+	
+	/**
+	 * Gets the precompiled template of inline XML data. Template is compiled on first access and
+	 * compiled again in case function libraries have changed.
+	 * @param context
+	 * @return
+	 */
+	private DynamicContentTemplate getXmlTemplate(TestContext context) {
+		DynamicContentTemplate template = xmlTemplate;
+		
+		if (template == null || !template.isCompiledFor(context.getFunctionRegistry())) {
+			template = DynamicContentTemplate.compile(xmlData, context.getFunctionRegistry());
+			xmlTemplate = template;
+		}
+		
+		return template;
+	}
+	
+	/**
+	 * Gets the precompiled template of inline XSLT data. Template is compiled on first access and
+	 * compiled again in case function libraries have changed.
+	 * @param context
+	 * @return
+	 */
+	private DynamicContentTemplate getXsltTemplate(TestContext context) {
+		DynamicContentTemplate template = xsltTemplate;
+		
+		if (template == null || !template.isCompiledFor(context.getFunctionRegistry())) {
+			template = DynamicContentTemplate.compile(xsltData, context.getFunctionRegistry());
+			xsltTemplate = template;
+		}
+		
+		return template;
+	}
 
 	/**
 	 * Set the XML document
@@ -117,6 +157,7 @@ public class TransformAction extends AbstractTestAction {
 	 */
 	public void setXmlData(String xmlData) {
 		this.xmlData = xmlData;
+		this.xmlTemplate = null;
 	}
 
 	/**
@@ -133,6 +174,7 @@ public class TransformAction extends AbstractTestAction {
 	 */
 	public void setXsltData(String xsltData) {
 		this.xsltData = xsltData;
+		this.xsltTemplate = null;
 	}
 
 	/**
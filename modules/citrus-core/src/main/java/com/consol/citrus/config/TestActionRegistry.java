@@ -59,6 +59,7 @@ public final class TestActionRegistry {
         registerActionParser("input", new InputActionParser());
         registerActionParser("load", new LoadPropertiesActionParser());
         registerActionParser("parallel", new ParallelParser());
+        registerActionParser("pipeline", new PipelineParser());
         registerActionParser("catch", new CatchParser());
         registerActionParser("assert", new AssertParser());
         registerActionParser("plsql", new ExecutePLSQLActionParser());
@@ -0,0 +1,124 @@
+/*
+ * Copyright 2006-2010 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.consol.citrus.config;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.BeanDefinitionStoreException;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.beans.factory.xml.XmlBeanDefinitionReader;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.core.io.Resource;
+import org.springframework.util.StringUtils;
+import org.w3c.dom.Document;
+
+/**
+ * Caches the XML documents loaded from test case files, so each test definition is read and validated
+ * against the schemas only once per JVM. Every call to {@link #createApplicationContext(String[], ApplicationContext)}
+ * runs the bean definition parsers on the cached documents and builds a fresh application context. Test case,
+ * test actions and all objects created by the parsers (e.g. message builders, validation contexts,
+ * script variable values) are new instances for each test execution.
+ *
+ * @author Christoph Deppisch
+ */
+public final class TestCaseDefinitionCache {
+    /** Loaded definitions by config locations */
+    private static Map<String, TestCaseDefinition> definitions = new ConcurrentHashMap<String, TestCaseDefinition>();
+
+    /**
+     * Prevent instantiation.
+     */
+    private TestCaseDefinitionCache() {
+    }
+
+    /**
+     * Creates a new application context holding all beans defined in the config locations.
+     * Config locations are loaded on first access, subsequent calls reuse the loaded XML documents.
+     *
+     * @param configLocations the test XML config locations.
+     * @param parent the parent application context.
+     * @return the refreshed application context.
+     */
+    public static ApplicationContext createApplicationContext(String[] configLocations, ApplicationContext parent) {
+        String key = StringUtils.arrayToCommaDelimitedString(configLocations);
+
+        TestCaseDefinition definition = definitions.get(key);
+        if (definition == null) {
+            definition = new TestCaseDefinition(configLocations);
+            definitions.put(key, definition);
+        }
+
+        GenericApplicationContext ctx = new GenericApplicationContext(parent);
+        definition.registerBeanDefinitions(ctx);
+        ctx.refresh();
+
+        return ctx;
+    }
+
+    /**
+     * Removes all cached test definitions.
+     */
+    public static void clear() {
+        definitions.clear();
+    }
+
+    /**
+     * Gets the number of cached test definitions.
+     * @return
+     */
+    public static int size() {
+        return definitions.size();
+    }
+
+    /**
+     * XML documents loaded from a set of config locations.
+     */
+    private static final class TestCaseDefinition {
+        /** Documents by resource in load order */
+        private final Map<Resource, Document> documents = new LinkedHashMap<Resource, Document>();
+
+        /**
+         * Default constructor loading the config locations.
+         * @param configLocations
+         */
+        private TestCaseDefinition(String[] configLocations) {
+            new XmlBeanDefinitionReader(new DefaultListableBeanFactory()) {
+                @Override
+                public int registerBeanDefinitions(Document doc, Resource resource) throws BeanDefinitionStoreException {
+                    documents.put(resource, doc);
+                    return 0;
+                }
+            }.loadBeanDefinitions(configLocations);
+        }
+
+        /**
+         * Parses the cached documents and registers the resulting bean definitions with the application context.
+         * DOM documents are not thread safe even for read access, so parsing is synchronized.
+         * @param ctx
+         */
+        private synchronized void registerBeanDefinitions(GenericApplicationContext ctx) {
+            XmlBeanDefinitionReader reader = new XmlBeanDefinitionReader(ctx);
+            reader.setResourceLoader(ctx);
+
+            for (Map.Entry<Resource, Document> entry : documents.entrySet()) {
+                reader.registerBeanDefinitions(entry.getValue(), entry.getKey());
+            }
+        }
+    }
+}
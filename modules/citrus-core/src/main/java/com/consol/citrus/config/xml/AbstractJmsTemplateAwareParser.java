@@ -46,6 +46,21 @@ public abstract class AbstractJmsTemplateAwareParser extends AbstractJmsConfigPa
             builder.addPropertyReference(JmsParserConstants.JMS_TEMPLATE_PROPERTY, jmsTemplate);
         }
         
+        String cacheConnection = element.getAttribute(JmsParserConstants.CACHE_CONNECTION_ATTRIBUTE);
+        if (StringUtils.hasText(cacheConnection)) {
+            builder.addPropertyValue(JmsParserConstants.CACHE_CONNECTION_PROPERTY, cacheConnection);
+        }
+        
+        String cacheConsumers = element.getAttribute(JmsParserConstants.CACHE_CONSUMERS_ATTRIBUTE);
+        if (StringUtils.hasText(cacheConsumers)) {
+            builder.addPropertyValue(JmsParserConstants.CACHE_CONSUMERS_PROPERTY, cacheConsumers);
+        }
+        
+        String sessionCacheSize = element.getAttribute(JmsParserConstants.SESSION_CACHE_SIZE_ATTRIBUTE);
+        if (StringUtils.hasText(sessionCacheSize)) {
+            builder.addPropertyValue(JmsParserConstants.SESSION_CACHE_SIZE_PROPERTY, sessionCacheSize);
+        }
+        
         return builder;
     }
     
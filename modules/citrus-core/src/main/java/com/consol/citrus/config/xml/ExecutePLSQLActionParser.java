@@ -24,6 +24,7 @@ import org.springframework.util.xml.DomUtils;
 import org.w3c.dom.Element;
 
 import com.consol.citrus.actions.ExecutePLSQLAction;
+import com.consol.citrus.config.util.BeanDefinitionParserUtils;
 import com.consol.citrus.util.FileUtils;
 
 /**
@@ -60,6 +61,10 @@ public class ExecutePLSQLActionParser implements BeanDefinitionParser {
         if (ignoreErrors != null && ignoreErrors.equals("true")) {
             beanDefinition.addPropertyValue("ignoreErrors", true);
         }
+        
+        BeanDefinitionParserUtils.setPropertyValue(beanDefinition, element.getAttribute("batch-size"), "batchSize");
+        BeanDefinitionParserUtils.setPropertyValue(beanDefinition, element.getAttribute("transacted"), "transacted");
+        BeanDefinitionParserUtils.setPropertyValue(beanDefinition, element.getAttribute("bind-variables"), "bindVariables");
 
         return beanDefinition.getBeanDefinition();
     }
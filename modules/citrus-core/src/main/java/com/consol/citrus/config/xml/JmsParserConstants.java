@@ -77,5 +77,21 @@ public final class JmsParserConstants {
     public static final String PUB_SUB_DOMAIN_ATTRIBUTE = "pub-sub-domain";
 
     public static final String PUB_SUB_DOMAIN_PROPERTY = "pubSubDomain";
+
+    public static final String SESSION_POOL_SIZE_ATTRIBUTE = "session-pool-size";
+
+    public static final String SESSION_POOL_SIZE_PROPERTY = "sessionPoolSize";
+
+    public static final String CACHE_CONNECTION_ATTRIBUTE = "cache-connection";
+
+    public static final String CACHE_CONNECTION_PROPERTY = "cacheConnection";
+
+    public static final String CACHE_CONSUMERS_ATTRIBUTE = "cache-consumers";
+
+    public static final String CACHE_CONSUMERS_PROPERTY = "cacheConsumers";
+
+    public static final String SESSION_CACHE_SIZE_ATTRIBUTE = "session-cache-size";
+
+    public static final String SESSION_CACHE_SIZE_PROPERTY = "sessionCacheSize";
     
 }
@@ -63,6 +63,12 @@ public class JmsSyncMessageSenderParser extends AbstractJmsConfigParser {
             builder.addPropertyReference(JmsParserConstants.REPLY_CORRELATOR_PROPERTY, replyMessageCorrelator);
         }
         
+        String sessionPoolSize = element.getAttribute(JmsParserConstants.SESSION_POOL_SIZE_ATTRIBUTE);
+        
+        if (StringUtils.hasText(sessionPoolSize)) {
+            builder.addPropertyValue(JmsParserConstants.SESSION_POOL_SIZE_PROPERTY, sessionPoolSize);
+        }
+        
         return builder;
     }
 
@@ -20,6 +20,7 @@ import org.springframework.beans.factory.config.BeanDefinition;
 import org.springframework.beans.factory.support.BeanDefinitionBuilder;
 import org.springframework.beans.factory.xml.BeanDefinitionParser;
 import org.springframework.beans.factory.xml.ParserContext;
+import org.springframework.util.StringUtils;
 import org.w3c.dom.Element;
 
 import com.consol.citrus.container.Parallel;
@@ -40,6 +41,21 @@ public class ParallelParser implements BeanDefinitionParser {
         DescriptionElementParser.doParse(element, builder);
         builder.addPropertyValue("name", element.getLocalName());
         
+        String maxConcurrency = element.getAttribute("max-concurrency");
+        if (StringUtils.hasText(maxConcurrency)) {
+            builder.addPropertyValue("maxConcurrency", Integer.valueOf(maxConcurrency));
+        }
+        
+        String failFast = element.getAttribute("fail-fast");
+        if (StringUtils.hasText(failFast)) {
+            builder.addPropertyValue("failFast", Boolean.valueOf(failFast));
+        }
+        
+        String executor = element.getAttribute("executor");
+        if (StringUtils.hasText(executor)) {
+            builder.addPropertyReference("executorService", executor);
+        }
+        
         ActionContainerParser.doParse(element, parserContext, builder);
 
         return builder.getBeanDefinition();
@@ -64,6 +64,15 @@ public class PurgeJmsQueuesActionParser implements BeanDefinitionParser {
             beanDefinition.addPropertyValue("receiveTimeout", element.getAttribute("receive-timeout"));
         }
         
+        if(element.hasAttribute("concurrency")) {
+            beanDefinition.addPropertyValue("concurrency", element.getAttribute("concurrency"));
+        }
+        
+        String broker = element.getAttribute("broker");
+        if(StringUtils.hasText(broker)) {
+            beanDefinition.addPropertyReference("broker", broker);
+        }
+        
         List<String> queueNames = new ArrayList<String>();
         ManagedList queueRefs = new ManagedList();
         
@@ -29,6 +29,7 @@ import org.w3c.dom.Element;
 
 import com.consol.citrus.actions.ExecuteSQLAction;
 import com.consol.citrus.actions.ExecuteSQLQueryAction;
+import com.consol.citrus.config.util.BeanDefinitionParserUtils;
 import com.consol.citrus.util.FileUtils;
 import com.consol.citrus.validation.script.ScriptValidationContext;
 
@@ -91,6 +92,12 @@ public class SQLActionParser implements BeanDefinitionParser {
             }
             
             beanDefinition.addPropertyValue("extractVariables", extractVariables);
+            
+            BeanDefinitionParserUtils.setPropertyValue(beanDefinition, element.getAttribute("streaming"), "streaming");
+            BeanDefinitionParserUtils.setPropertyValue(beanDefinition, element.getAttribute("max-rows"), "maxRows");
+            BeanDefinitionParserUtils.setPropertyValue(beanDefinition, element.getAttribute("max-retries"), "maxRetries");
+            BeanDefinitionParserUtils.setPropertyValue(beanDefinition, element.getAttribute("retry-pause"), "retryPauseInMs");
+            BeanDefinitionParserUtils.setPropertyValue(beanDefinition, element.getAttribute("max-retry-pause"), "maxRetryPauseInMs");
         } else {
             beanDefinition = BeanDefinitionBuilder.rootBeanDefinition(ExecuteSQLAction.class);
             beanDefinition.addPropertyValue("name", "sqlUpdate:" + dataSource);
@@ -99,6 +106,10 @@ public class SQLActionParser implements BeanDefinitionParser {
             if (ignoreErrors != null && ignoreErrors.equals("true")) {
                 beanDefinition.addPropertyValue("ignoreErrors", true);
             }
+            
+            BeanDefinitionParserUtils.setPropertyValue(beanDefinition, element.getAttribute("batch-size"), "batchSize");
+            BeanDefinitionParserUtils.setPropertyValue(beanDefinition, element.getAttribute("transacted"), "transacted");
+            BeanDefinitionParserUtils.setPropertyValue(beanDefinition, element.getAttribute("bind-variables"), "bindVariables");
         }
         
         beanDefinition.addPropertyReference("dataSource", dataSource);
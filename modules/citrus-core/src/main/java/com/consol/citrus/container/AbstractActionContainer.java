@@ -32,7 +32,7 @@ public abstract class AbstractActionContainer extends AbstractTestAction impleme
     protected List<TestAction> actions = new ArrayList<TestAction>();
 
     /** Last executed action for error reporting reasons */
-    private TestAction lastExecutedAction;
+    private volatile TestAction lastExecutedAction;
     
     /**
      * @see com.consol.citrus.container.TestActionContainer#setActions(java.util.List)
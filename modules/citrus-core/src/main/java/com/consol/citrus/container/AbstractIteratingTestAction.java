@@ -22,6 +22,10 @@ import com.consol.citrus.exceptions.CitrusRuntimeException;
 import com.consol.citrus.util.BooleanExpressionParser;
 
 /**
+ * Abstract base class for containers executing nested actions in a loop. Container keeps
+ * no loop state in between executions, so the same container instance can be executed several
+ * times and by several threads in parallel. Current index and resolved condition are held
+ * locally for each execution.
  * 
  * @author Christoph Deppisch
  */
@@ -32,28 +36,28 @@ public abstract class AbstractIteratingTestAction extends AbstractActionContaine
     /** Name of index variable */
     protected String indexName;
 
-    /** Looping index */
+    /** Looping start index */
     protected int index = 1;
     
     @Override
     public void doExecute(TestContext context) {
-        condition = context.replaceDynamicContentInString(condition);
-        
-        executeIteration(context);
+        executeIteration(context.replaceDynamicContentInString(condition), context);
     }
     
     /**
      * Execute embedded actions in loop.
+     * @param conditionExpression the aborting condition with dynamic content resolved.
      * @param context TestContext holding variable information.
      */
-    protected abstract void executeIteration(TestContext context);
+    protected abstract void executeIteration(String conditionExpression, TestContext context);
     
     /**
      * Executes the nested test actions.
+     * @param currentIndex the current looping index.
      * @param context
      */
-    protected void executeActions(TestContext context) {
-        context.setVariable(indexName, Integer.valueOf(index).toString());
+    protected void executeActions(int currentIndex, TestContext context) {
+        context.setVariable(indexName, Integer.valueOf(currentIndex).toString());
 
         for (TestAction action: actions) {
             setLastExecutedAction(action);
@@ -63,13 +67,15 @@ public abstract class AbstractIteratingTestAction extends AbstractActionContaine
     
     /** 
      * Check aborting condition.
+     * @param conditionExpression the aborting condition with dynamic content resolved.
+     * @param currentIndex the current looping index.
      * @return
      */
-    protected boolean checkCondition() {
-        String conditionString = condition;
+    protected boolean checkCondition(String conditionExpression, int currentIndex) {
+        String conditionString = conditionExpression;
 
         if (conditionString.indexOf(indexName) != -1) {
-            conditionString = conditionString.replaceAll(indexName, Integer.valueOf(index).toString());
+            conditionString = conditionString.replaceAll(indexName, Integer.valueOf(currentIndex).toString());
         }
 
         return BooleanExpressionParser.evaluate(conditionString);
@@ -92,7 +98,7 @@ public abstract class AbstractIteratingTestAction extends AbstractActionContaine
     }
     
     /**
-     * Setter for looping index.
+     * Setter for looping start index.
      * @param index the index to set
      */
     public void setIndex(int index) {
@@ -0,0 +1,85 @@
+/*
+ * Copyright 2006-2010 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.consol.citrus.container;
+
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Keeps track of the executor services the current thread is working for. Concurrent containers
+ * hand the executors of the submitting thread down to their worker threads, so a nested container
+ * detects when its executor is already blocked by an outer container waiting on the same executor.
+ *
+ * @author Christoph Deppisch
+ */
+final class ContainerExecutors {
+    /** Executors the current thread is working for */
+    private static final ThreadLocal<Set<ExecutorService>> EXECUTORS = new ThreadLocal<Set<ExecutorService>>();
+
+    /**
+     * Prevent instantiation.
+     */
+    private ContainerExecutors() {
+    }
+
+    /**
+     * Gets the executors the current thread is working for.
+     * @return
+     */
+    static Set<ExecutorService> current() {
+        Set<ExecutorService> executors = EXECUTORS.get();
+        return executors != null ? executors : Collections.<ExecutorService>emptySet();
+    }
+
+    /**
+     * Checks if current thread is working for given executor, directly or through outer containers.
+     * @param executor
+     * @return
+     */
+    static boolean isWorkingFor(ExecutorService executor) {
+        return current().contains(executor);
+    }
+
+    /**
+     * Marks current thread working for the given executor and the executors inherited from
+     * the submitting thread.
+     * @param inherited executors of the submitting thread.
+     * @param executor the executor running the current thread.
+     * @return the executors previously set, to be restored with {@link #exit(Set)}.
+     */
+    static Set<ExecutorService> enter(Set<ExecutorService> inherited, ExecutorService executor) {
+        Set<ExecutorService> previous = EXECUTORS.get();
+
+        Set<ExecutorService> executors = new HashSet<ExecutorService>(inherited);
+        executors.add(executor);
+        EXECUTORS.set(Collections.unmodifiableSet(executors));
+
+        return previous;
+    }
+
+    /**
+     * Restores executors of current thread after work is done.
+     * @param previous
+     */
+    static void exit(Set<ExecutorService> previous) {
+        if (previous != null) {
+            EXECUTORS.set(previous);
+        } else {
+            EXECUTORS.remove();
+        }
+    }
+}
@@ -38,15 +38,17 @@ public class Iterate extends AbstractIteratingTestAction {
     private int step = 1;
 
     /**
-     * @see com.consol.citrus.container.AbstractIteratingTestAction#executeIteration(com.consol.citrus.context.TestContext)
+     * @see com.consol.citrus.container.AbstractIteratingTestAction#executeIteration(java.lang.String, com.consol.citrus.context.TestContext)
      * @throws CitrusRuntimeException
      */
     @Override
-    public void executeIteration(TestContext context) {
-        while (checkCondition()) {
-            executeActions(context);
+    public void executeIteration(String conditionExpression, TestContext context) {
+        int currentIndex = index;
+        
+        while (checkCondition(conditionExpression, currentIndex)) {
+            executeActions(currentIndex, context);
 
-            index = index + step ;
+            currentIndex = currentIndex + step;
         }
     }
 
@@ -17,9 +17,11 @@
 package com.consol.citrus.container;
 
 import java.util.*;
+import java.util.concurrent.*;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 
 import com.consol.citrus.TestAction;
 import com.consol.citrus.context.TestContext;
@@ -27,18 +29,30 @@ import com.consol.citrus.exceptions.CitrusRuntimeException;
 import com.consol.citrus.exceptions.ParallelContainerException;
 
 /**
- * Test action will execute nested actions in parallel. Each action is executed in a
- * separate thread. Container joins all threads and waiting for them to end successfully.
+ * Test action will execute nested actions in parallel. Actions are submitted to a thread pool,
+ * by default one thread per nested action. Maximum concurrency limits the number of pooled threads
+ * so remaining actions wait for a free thread. Alternatively an executor service can be shared
+ * among several containers, in this case the executor's own pool size limits concurrency.
+ * 
+ * Container waits for all actions to end successfully. In fail fast mode the first failing action
+ * cancels all sibling actions still running or waiting for execution.
+ * 
+ * A container nested in another container using the same shared executor, directly or through
+ * pipeline iterations, executes its actions on a private thread pool bounded by maximum concurrency instead,
+ * as waiting on the shared executor from one of its own threads may starve the pool.
  * 
  * @author Christoph Deppisch
  */
 public class Parallel extends AbstractActionContainer {
 
-    /** Store created threads in stack */
-    private Stack<Thread> threads = new Stack<Thread>();
-
-    /** Collect exceptions in list */
-    private List<CitrusRuntimeException> exceptions = new ArrayList<CitrusRuntimeException>();
+    /** Maximum number of actions executed at the same time, zero means unbounded */
+    private int maxConcurrency = 0;
+    
+    /** Optional shared executor service */
+    private ExecutorService executorService;
+    
+    /** Cancel sibling actions on first error */
+    private boolean failFast = false;
     
     /**
      * Logger
@@ -47,30 +61,13 @@ public class Parallel extends AbstractActionContainer {
 
     @Override
     public void doExecute(TestContext context) {
-        for (final TestAction action : actions) {
-            Thread t = new Thread(new ActionRunner(action, context) {
-                @Override
-                public void exceptionCallback(CitrusRuntimeException e) {
-                    if(exceptions.isEmpty()) {
-                        setLastExecutedAction(action);
-                    }
-                    
-                    exceptions.add(e);
-                }
-            });
-
-            threads.push(t);
-            t.start();
-        }
-
-        while (!threads.isEmpty()) {
-            try {
-                threads.pop().join();
-            } catch (InterruptedException e) {
-                log.error("Unable to join thread", e);
-            }
+        if (actions.isEmpty()) {
+            return;
         }
         
+        List<CitrusRuntimeException> exceptions = new ArrayList<CitrusRuntimeException>();
+        executeConcurrently(context, exceptions);
+        
         if(!exceptions.isEmpty()) {
             if(exceptions.size() == 1) {
                 throw exceptions.get(0);
@@ -79,44 +76,197 @@ public class Parallel extends AbstractActionContainer {
             }
         }
     }
+    
+    /**
+     * Submits all actions to the executor and waits for their results.
+     * @param context
+     * @param exceptions collects the action errors.
+     */
+    private void executeConcurrently(TestContext context, List<CitrusRuntimeException> exceptions) {
+        boolean sharedExecutor = executorService != null;
+        if (sharedExecutor && ContainerExecutors.isWorkingFor(executorService)) {
+            //outer container already blocks a thread of the shared executor, waiting on it again may starve the pool
+            log.info("Parallel container nested in container using the same executor - executing actions on private thread pool");
+            sharedExecutor = false;
+        }
+        
+        ExecutorService executor = executorService;
+        if (!sharedExecutor) {
+            int poolSize = maxConcurrency > 0 ? Math.min(maxConcurrency, actions.size()) : actions.size();
+            executor = Executors.newFixedThreadPool(poolSize, new CustomizableThreadFactory(getName() + "-"));
+        }
+        
+        CompletionService<ActionResult> completionService = new ExecutorCompletionService<ActionResult>(executor);
+        List<Future<ActionResult>> futures = new ArrayList<Future<ActionResult>>();
+        
+        try {
+            for (TestAction action : actions) {
+                futures.add(completionService.submit(new ActionRunner(action, context, executor)));
+            }
+
+            for (int i = 0; i < futures.size(); i++) {
+                if (!handleResult(completionService.take().get(), exceptions)) {
+                    log.info("Parallel action failed - cancelling remaining actions");
+                    cancel(futures);
+                    break;
+                }
+            }
+        } catch (InterruptedException e) {
+            cancel(futures);
+            Thread.currentThread().interrupt();
+            throw new CitrusRuntimeException("Interrupted while waiting for parallel actions", e);
+        } catch (ExecutionException e) {
+            cancel(futures);
+            throw new CitrusRuntimeException(e.getCause());
+        } finally {
+            if (!sharedExecutor) {
+                executor.shutdownNow();
+            }
+        }
+    }
+    
+    /**
+     * Collects error of action result.
+     * @param result
+     * @param exceptions
+     * @return false if remaining actions should not be executed due to fail fast mode.
+     */
+    private boolean handleResult(ActionResult result, List<CitrusRuntimeException> exceptions) {
+        if (result.exception == null) {
+            return true;
+        }
+        
+        if (exceptions.isEmpty()) {
+            setLastExecutedAction(result.action);
+        }
+        
+        exceptions.add(result.exception);
+        
+        return !failFast;
+    }
+    
+    /**
+     * Cancels all futures that have not completed yet.
+     * @param futures
+     */
+    private void cancel(List<Future<ActionResult>> futures) {
+        for (Future<ActionResult> future : futures) {
+            future.cancel(true);
+        }
+    }
 
     /**
-     * Runnable wrapper for executing an action in separate Thread.
+     * Callable wrapper for executing an action in separate Thread.
      */
-    private abstract static class ActionRunner implements Runnable {
+    private static class ActionRunner implements Callable<ActionResult> {
         /** Test action to execute */
         private TestAction action;
         
         /** Test context */
         private TestContext context;
         
-        public ActionRunner(TestAction action, TestContext context) {
+        /** Executor running this action */
+        private ExecutorService executor;
+        
+        /** Executors the submitting thread is working for */
+        private Set<ExecutorService> inheritedExecutors;
+        
+        public ActionRunner(TestAction action, TestContext context, ExecutorService executor) {
             this.action = action;
             this.context = context;
+            this.executor = executor;
+            this.inheritedExecutors = ContainerExecutors.current();
         }
 
         /**
-         * Run the test action
+         * Run the test action and measure execution time.
          */
-        public void run() {
+        public ActionResult call() {
+            long start = System.currentTimeMillis();
+            Set<ExecutorService> previousExecutors = ContainerExecutors.enter(inheritedExecutors, executor);
+            
             try {
                 action.execute(context);
+                return new ActionResult(action, null);
             } catch (CitrusRuntimeException e) {
                 log.error("Parallel test action raised error", e);
-                exceptionCallback(e);
+                return new ActionResult(action, e);
             } catch (RuntimeException e) {
                 log.error("Parallel test action raised error", e);
-                exceptionCallback(new CitrusRuntimeException(e));
-            } catch (Exception e) {
-                log.error("Parallel test action raised error", e);
-                exceptionCallback(new CitrusRuntimeException(e));
+                return new ActionResult(action, new CitrusRuntimeException(e));
+            } finally {
+                ContainerExecutors.exit(previousExecutors);
+                
+                if (log.isDebugEnabled()) {
+                    log.debug("Parallel test action '" + action.getName() + "' finished after " + 
+                            (System.currentTimeMillis() - start) + " ms");
+                }
             }
         }
+    }
+    
+    /**
+     * Result of a nested action execution.
+     */
+    private static final class ActionResult {
+        /** The executed action */
+        private final TestAction action;
         
-        /**
-         * Callback for exception tracking.
-         * @param exception
-         */
-        public abstract void exceptionCallback(CitrusRuntimeException e);
+        /** Error raised by action, null on success */
+        private final CitrusRuntimeException exception;
+        
+        private ActionResult(TestAction action, CitrusRuntimeException exception) {
+            this.action = action;
+            this.exception = exception;
+        }
+    }
+
+    /**
+     * Sets the maximum number of actions executed at the same time.
+     * @param maxConcurrency the maxConcurrency to set
+     */
+    public void setMaxConcurrency(int maxConcurrency) {
+        this.maxConcurrency = maxConcurrency;
+    }
+
+    /**
+     * Gets the maximum number of actions executed at the same time.
+     * @return the maxConcurrency
+     */
+    public int getMaxConcurrency() {
+        return maxConcurrency;
+    }
+
+    /**
+     * Sets the executor service shared by containers. Executor is not 
+     * shut down by this container.
+     * @param executorService the executorService to set
+     */
+    public void setExecutorService(ExecutorService executorService) {
+        this.executorService = executorService;
+    }
+
+    /**
+     * Gets the executor service.
+     * @return the executorService
+     */
+    public ExecutorService getExecutorService() {
+        return executorService;
+    }
+
+    /**
+     * Enables cancellation of sibling actions on first error.
+     * @param failFast the failFast to set
+     */
+    public void setFailFast(boolean failFast) {
+        this.failFast = failFast;
+    }
+
+    /**
+     * Is fail fast mode enabled.
+     * @return the failFast
+     */
+    public boolean isFailFast() {
+        return failFast;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,194 @@
+/*
+ * Copyright 2006-2010 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.consol.citrus.container;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.util.Assert;
+
+import com.consol.citrus.context.TestContext;
+import com.consol.citrus.exceptions.CitrusRuntimeException;
+import com.consol.citrus.exceptions.ParallelContainerException;
+
+/**
+ * Iterating container executing its iterations concurrently. Each iteration runs the nested actions
+ * (usually sending a request and receiving the correlated reply) in its own thread, so many request/reply
+ * round trips are in flight at the same time. Maximum number of iterations in flight is limited, next iteration
+ * is started as soon as a running iteration has finished.
+ * 
+ * Replies are routed to the receiving actions by the reply message correlator of the synchronous message
+ * sender, so each iteration should select its reply message by correlation key.
+ * 
+ * Each iteration works on its own variable scope on top of the test variables holding the iteration index. Variables
+ * created within an iteration are not visible to other iterations nor to the test after the container.
+ * 
+ * @author Christoph Deppisch
+ */
+public class Pipeline extends AbstractIteratingTestAction {
+    /** Default maximum number of iterations in flight */
+    public static final int DEFAULT_MAX_IN_FLIGHT = 10;
+    
+    /** Maximum number of iterations in flight */
+    private int maxInFlight = DEFAULT_MAX_IN_FLIGHT;
+    
+    /**
+     * Logger
+     */
+    private static Logger log = LoggerFactory.getLogger(Pipeline.class);
+    
+    /**
+     * @see com.consol.citrus.container.AbstractIteratingTestAction#executeIteration(java.lang.String, com.consol.citrus.context.TestContext)
+     * @throws CitrusRuntimeException
+     */
+    @Override
+    public void executeIteration(String conditionExpression, TestContext context) {
+        ExecutorService executor = Executors.newFixedThreadPool(maxInFlight, new CustomizableThreadFactory(getName() + "-"));
+        CompletionService<CitrusRuntimeException> completionService = new ExecutorCompletionService<CitrusRuntimeException>(executor);
+        List<CitrusRuntimeException> exceptions = new ArrayList<CitrusRuntimeException>();
+        
+        long start = System.currentTimeMillis();
+        int iterations = 0;
+        int completed = 0;
+        
+        //iterations and their contexts are created only when a slot is free, so memory is bounded by max in flight
+        Semaphore inFlight = new Semaphore(maxInFlight);
+        
+        try {
+            int currentIndex = index;
+            while (checkCondition(conditionExpression, currentIndex)) {
+                inFlight.acquire();
+                completionService.submit(new IterationRunner(currentIndex, context.createChildContext(), executor, inFlight));
+                
+                iterations++;
+                currentIndex++;
+                
+                Future<CitrusRuntimeException> result;
+                while ((result = completionService.poll()) != null) {
+                    collectError(result, exceptions);
+                    completed++;
+                }
+            }
+            
+            for (; completed < iterations; completed++) {
+                collectError(completionService.take(), exceptions);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CitrusRuntimeException("Interrupted while waiting for pipeline iterations", e);
+        } catch (ExecutionException e) {
+            throw new CitrusRuntimeException(e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+        
+        log.info("Pipeline executed " + iterations + " iterations in " + (System.currentTimeMillis() - start) + " ms");
+        
+        if(!exceptions.isEmpty()) {
+            if(exceptions.size() == 1) {
+                throw exceptions.get(0);
+            } else {
+                throw new ParallelContainerException(exceptions);
+            }
+        }
+    }
+    
+    /**
+     * Adds error of finished iteration to list of errors.
+     * @param result
+     * @param exceptions
+     * @throws InterruptedException
+     * @throws ExecutionException
+     */
+    private void collectError(Future<CitrusRuntimeException> result, List<CitrusRuntimeException> exceptions) 
+            throws InterruptedException, ExecutionException {
+        CitrusRuntimeException exception = result.get();
+        
+        if (exception != null) {
+            exceptions.add(exception);
+        }
+    }
+    
+    /**
+     * Callable executing the nested actions of one iteration.
+     */
+    private class IterationRunner implements Callable<CitrusRuntimeException> {
+        /** Iteration index */
+        private int currentIndex;
+        
+        /** Iteration test context */
+        private TestContext context;
+        
+        /** Executor running this iteration */
+        private ExecutorService executor;
+        
+        /** Executors the submitting thread is working for */
+        private Set<ExecutorService> inheritedExecutors;
+        
+        /** Iterations in flight, released when iteration is done */
+        private Semaphore inFlight;
+        
+        public IterationRunner(int currentIndex, TestContext context, ExecutorService executor, Semaphore inFlight) {
+            this.currentIndex = currentIndex;
+            this.context = context;
+            this.executor = executor;
+            this.inheritedExecutors = ContainerExecutors.current();
+            this.inFlight = inFlight;
+        }
+        
+        /**
+         * Run the nested actions and return error if any.
+         */
+        public CitrusRuntimeException call() {
+            Set<ExecutorService> previousExecutors = ContainerExecutors.enter(inheritedExecutors, executor);
+            
+            try {
+                executeActions(currentIndex, context);
+                return null;
+            } catch (CitrusRuntimeException e) {
+                log.error("Pipeline iteration " + currentIndex + " raised error", e);
+                return e;
+            } catch (RuntimeException e) {
+                log.error("Pipeline iteration " + currentIndex + " raised error", e);
+                return new CitrusRuntimeException(e);
+            } finally {
+                ContainerExecutors.exit(previousExecutors);
+                inFlight.release();
+            }
+        }
+    }
+
+    /**
+     * Sets the maximum number of iterations in flight.
+     * @param maxInFlight the maxInFlight to set
+     */
+    public void setMaxInFlight(int maxInFlight) {
+        Assert.isTrue(maxInFlight > 0, "Maximum number of iterations in flight must be positive");
+        this.maxInFlight = maxInFlight;
+    }
+
+    /**
+     * Gets the maximum number of iterations in flight.
+     * @return the maxInFlight
+     */
+    public int getMaxInFlight() {
+        return maxInFlight;
+    }
+}
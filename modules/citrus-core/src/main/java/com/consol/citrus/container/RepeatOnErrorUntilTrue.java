@@ -43,34 +43,35 @@ public class RepeatOnErrorUntilTrue extends AbstractIteratingTestAction {
     private static Logger log = LoggerFactory.getLogger(RepeatOnErrorUntilTrue.class);
 
     /**
-     * @see com.consol.citrus.container.AbstractIteratingTestAction#executeIteration(com.consol.citrus.context.TestContext)
+     * @see com.consol.citrus.container.AbstractIteratingTestAction#executeIteration(java.lang.String, com.consol.citrus.context.TestContext)
      * @throws CitrusRuntimeException
      */
     @Override
-    public void executeIteration(TestContext context) {
+    public void executeIteration(String conditionExpression, TestContext context) {
+        int currentIndex = index;
+        
         do {
             try {
-                executeActions(context);
+                executeActions(currentIndex, context);
                 break;
             } catch (CitrusRuntimeException e) {
-                index++;
-                if (checkCondition()) {
+                if (checkCondition(conditionExpression, currentIndex + 1)) {
                     throw new CitrusRuntimeException(e);
                 } else {
-                    index--;
                     log.info("Caught exception of type " + e.getClass().getName() + " '" + e.getMessage() + "' - repeating because of error");
                 }
             } finally {
-                index++;
+                currentIndex++;
             }
-        } while (!checkCondition());
+        } while (!checkCondition(conditionExpression, currentIndex));
     }
 
     /**
      * Executes the nested test actions.
+     * @param currentIndex
      * @param context
      */
-    protected void executeActions(TestContext context) {
+    protected void executeActions(int currentIndex, TestContext context) {
         if (autoSleep > 0) {
             log.info("Sleeping " + autoSleep + " seconds");
 
@@ -83,7 +84,7 @@ public class RepeatOnErrorUntilTrue extends AbstractIteratingTestAction {
             log.info("Returning after " + autoSleep + " seconds");
         }
 
-        super.executeActions(context);
+        super.executeActions(currentIndex, context);
     }
 
     /**
@@ -30,14 +30,16 @@ import com.consol.citrus.exceptions.CitrusRuntimeException;
  */
 public class RepeatUntilTrue extends AbstractIteratingTestAction {
     /**
-     * @see com.consol.citrus.container.AbstractIteratingTestAction#executeIteration(com.consol.citrus.context.TestContext)
+     * @see com.consol.citrus.container.AbstractIteratingTestAction#executeIteration(java.lang.String, com.consol.citrus.context.TestContext)
      * @throws CitrusRuntimeException
      */
     @Override
-    public void executeIteration(TestContext context) {
+    public void executeIteration(String conditionExpression, TestContext context) {
+        int currentIndex = index;
+        
         do {
-            executeActions(context);
-            index++;
-        } while (!checkCondition());
+            executeActions(currentIndex, context);
+            currentIndex++;
+        } while (!checkCondition(conditionExpression, currentIndex));
     }
 }
@@ -26,7 +26,6 @@ import com.consol.citrus.TestAction;
 import com.consol.citrus.actions.AbstractTestAction;
 import com.consol.citrus.context.TestContext;
 import com.consol.citrus.functions.FunctionUtils;
-import com.consol.citrus.variable.GlobalVariables;
 import com.consol.citrus.variable.VariableUtils;
 
 /**
@@ -72,12 +71,7 @@ public class Template extends AbstractTestAction {
         if(globalContext) {
             innerContext = context;
         } else {
-            innerContext = new TestContext();
-            innerContext.setFunctionRegistry(context.getFunctionRegistry());
-            GlobalVariables globalVariables = new GlobalVariables();
-            globalVariables.getVariables().putAll(context.getGlobalVariables());
-            innerContext.setGlobalVariables(globalVariables);
-            innerContext.getVariables().putAll(context.getVariables());
+            innerContext = context.createChildContext();
         }
         
         for (Entry<String, String> entry : parameter.entrySet()) {
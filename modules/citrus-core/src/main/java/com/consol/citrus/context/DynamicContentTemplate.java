@@ -0,0 +1,301 @@
+/*
+ * Copyright 2006-2010 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.consol.citrus.context;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.consol.citrus.CitrusConstants;
+import com.consol.citrus.exceptions.NoSuchFunctionException;
+import com.consol.citrus.exceptions.NoSuchVariableException;
+import com.consol.citrus.functions.FunctionLibrary;
+import com.consol.citrus.functions.FunctionRegistry;
+import com.consol.citrus.functions.FunctionUtils;
+import com.consol.citrus.variable.VariableUtils;
+
+/**
+ * Precompiled template holding dynamic content such as variable place holders <code>${variable}</code> and
+ * function expressions <code>prefix:function(...)</code>.
+ *
+ * Template string is tokenized once into literal, variable and function segments. Rendering
+ * the template with a test context is a single linear pass over these segments, so templates can be
+ * compiled once and rendered many times.
+ *
+ * Variable values containing function expressions are evaluated as functions, which is the same result
+ * as replacing all variables first and all functions afterwards.
+ *
+ * @author Christoph Deppisch
+ */
+public final class DynamicContentTemplate {
+    /** Segment types */
+    private static final int LITERAL = 0;
+    private static final int VARIABLE = 1;
+    private static final int FUNCTION = 2;
+
+    /** Segment types and values */
+    private final int[] segmentTypes;
+    private final String[] segmentValues;
+
+    /** Function library prefixes this template was compiled with */
+    private final String[] functionPrefixes;
+
+    /** Length of all literal segments */
+    private final int literalLength;
+
+    /**
+     * Private constructor using segments.
+     * @param segmentTypes
+     * @param segmentValues
+     * @param functionPrefixes
+     * @param literalLength
+     */
+    private DynamicContentTemplate(int[] segmentTypes, String[] segmentValues, String[] functionPrefixes, int literalLength) {
+        this.segmentTypes = segmentTypes;
+        this.segmentValues = segmentValues;
+        this.functionPrefixes = functionPrefixes;
+        this.literalLength = literalLength;
+    }
+
+    /**
+     * Compiles a template string with function libraries known to the function registry.
+     * @param template the template string.
+     * @param functionRegistry the function registry.
+     * @return the compiled template.
+     */
+    public static DynamicContentTemplate compile(String template, FunctionRegistry functionRegistry) {
+        String[] functionPrefixes = getFunctionPrefixes(functionRegistry);
+
+        List<Integer> types = new ArrayList<Integer>();
+        List<String> values = new ArrayList<String>();
+        int literalLength = 0;
+
+        int tokenCount = functionPrefixes.length + 1;
+        int[] nextIndex = new int[tokenCount];
+        for (int i = 0; i < tokenCount; i++) {
+            nextIndex[i] = -2;
+        }
+
+        int length = template.length();
+        int startIndex = 0;
+        while (startIndex < length) {
+            //find next variable or function expression
+            int searchIndex = -1;
+            int token = -1;
+            for (int i = 0; i < tokenCount; i++) {
+                if (nextIndex[i] != -1 && nextIndex[i] < startIndex) {
+                    nextIndex[i] = template.indexOf(i == 0 ? CitrusConstants.VARIABLE_PREFIX : functionPrefixes[i - 1], startIndex);
+                }
+
+                if (nextIndex[i] != -1 && (searchIndex == -1 || nextIndex[i] < searchIndex)) {
+                    searchIndex = nextIndex[i];
+                    token = i;
+                }
+            }
+
+            if (searchIndex == -1) {
+                break;
+            }
+
+            if (searchIndex > startIndex) {
+                types.add(LITERAL);
+                values.add(template.substring(startIndex, searchIndex));
+                literalLength += searchIndex - startIndex;
+            }
+
+            if (token == 0) {
+                startIndex = scanVariable(template, searchIndex, types, values);
+            } else {
+                startIndex = scanFunction(template, searchIndex, types, values);
+            }
+        }
+
+        if (startIndex < length) {
+            types.add(LITERAL);
+            values.add(template.substring(startIndex));
+            literalLength += length - startIndex;
+        }
+
+        int[] segmentTypes = new int[types.size()];
+        for (int i = 0; i < segmentTypes.length; i++) {
+            segmentTypes[i] = types.get(i);
+        }
+
+        return new DynamicContentTemplate(segmentTypes, values.toArray(new String[values.size()]), functionPrefixes, literalLength);
+    }
+
+    /**
+     * Scans variable expression starting at search index and adds variable segment.
+     * @return index after variable expression.
+     */
+    private static int scanVariable(String template, int searchIndex, List<Integer> types, List<String> values) {
+        StringBuilder variableName = new StringBuilder();
+        boolean isVarComplete = false;
+        int control = 0;
+        int curIndex = searchIndex + CitrusConstants.VARIABLE_PREFIX.length();
+
+        while (curIndex < template.length() && !isVarComplete) {
+            if (template.startsWith(CitrusConstants.VARIABLE_PREFIX, curIndex)) {
+                control++;
+            }
+
+            if (template.charAt(curIndex) == CitrusConstants.VARIABLE_SUFFIX || curIndex + 1 == template.length()) {
+                if (control == 0) {
+                    isVarComplete = true;
+                } else {
+                    control--;
+                }
+            }
+
+            if (!isVarComplete) {
+                variableName.append(template.charAt(curIndex));
+            }
+            ++curIndex;
+        }
+
+        types.add(VARIABLE);
+        values.add(variableName.toString());
+
+        return curIndex;
+    }
+
+    /**
+     * Scans function expression starting at search index and adds function segment.
+     * @return index after function expression.
+     */
+    private static int scanFunction(String template, int searchIndex, List<Integer> types, List<String> values) {
+        boolean isFunctionComplete = false;
+        int control = -1;
+        int curIndex = searchIndex;
+
+        while (curIndex < template.length() && !isFunctionComplete) {
+            if (template.charAt(curIndex) == '(') {
+                control++;
+            }
+
+            if (template.charAt(curIndex) == ')' || curIndex + 1 == template.length()) {
+                if (control == 0) {
+                    isFunctionComplete = true;
+                } else {
+                    control--;
+                }
+            }
+            ++curIndex;
+        }
+
+        types.add(FUNCTION);
+        values.add(template.substring(searchIndex, curIndex));
+
+        return curIndex;
+    }
+
+    /**
+     * Renders the template replacing all variables and functions with their
+     * current values in the test context.
+     * @param context the test context.
+     * @return the rendered string.
+     */
+    public String render(TestContext context) {
+        if (segmentTypes.length == 1 && segmentTypes[0] == LITERAL) {
+            return segmentValues[0];
+        }
+
+        StringBuilder result = new StringBuilder(literalLength + 16 * segmentTypes.length);
+
+        for (int i = 0; i < segmentTypes.length; i++) {
+            switch (segmentTypes[i]) {
+                case VARIABLE:
+                    String value = context.getVariable(segmentValues[i]);
+                    if (value == null) {
+                        throw new NoSuchVariableException("Variable: " + segmentValues[i] + " could not be found");
+                    }
+
+                    if (containsFunction(value)) {
+                        value = FunctionUtils.replaceFunctionsInString(value, context);
+                    }
+
+                    result.append(value);
+                    break;
+                case FUNCTION:
+                    String functionResult = FunctionUtils.resolveFunction(segmentValues[i], context);
+                    if (functionResult == null) {
+                        throw new NoSuchFunctionException("Function: " +
+                                VariableUtils.cutOffVariablesPrefix(segmentValues[i]) + " could not be found");
+                    }
+
+                    result.append(functionResult);
+                    break;
+                default:
+                    result.append(segmentValues[i]);
+            }
+        }
+
+        return result.toString();
+    }
+
+    /**
+     * Checks if this template was compiled with the same function libraries as
+     * currently registered in the function registry.
+     * @param functionRegistry
+     * @return
+     */
+    public boolean isCompiledFor(FunctionRegistry functionRegistry) {
+        List<FunctionLibrary> libraries = functionRegistry.getFunctionLibraries();
+
+        if (libraries.size() != functionPrefixes.length) {
+            return false;
+        }
+
+        for (int i = 0; i < functionPrefixes.length; i++) {
+            if (!functionPrefixes[i].equals(libraries.get(i).getPrefix())) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Checks if value contains a function library prefix.
+     * @param value
+     * @return
+     */
+    private boolean containsFunction(String value) {
+        for (String prefix : functionPrefixes) {
+            if (value.contains(prefix)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Gets the function library prefixes of the function registry.
+     * @param functionRegistry
+     * @return
+     */
+    private static String[] getFunctionPrefixes(FunctionRegistry functionRegistry) {
+        List<FunctionLibrary> libraries = functionRegistry.getFunctionLibraries();
+        String[] prefixes = new String[libraries.size()];
+
+        for (int i = 0; i < prefixes.length; i++) {
+            prefixes[i] = libraries.get(i).getPrefix();
+        }
+
+        return prefixes;
+    }
+}
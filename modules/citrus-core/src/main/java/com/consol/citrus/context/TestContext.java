@@ -31,11 +31,16 @@ import com.consol.citrus.functions.FunctionUtils;
 import com.consol.citrus.validation.MessageValidatorRegistry;
 import com.consol.citrus.variable.GlobalVariables;
 import com.consol.citrus.variable.VariableUtils;
+import com.consol.citrus.xml.ParsedMessagePayload;
 
 /**
  * Class holding and managing test variables. The test context also provides utility methods
  * for replacing dynamic content(variables and functions) in message payloads and headers.
  * 
+ * Test variables are held in a {@link VariableScope} on top of the shared global variables. Containers
+ * that need their own variables (e.g. templates or pipeline iterations) create a child context whose
+ * scope is layered on top of the test variables, so variables are never copied.
+ * 
  * @author Christoph Deppisch
  */
 public class TestContext {
@@ -44,7 +49,7 @@ public class TestContext {
      */
     private static Logger log = LoggerFactory.getLogger(TestContext.class);
     
-    /** Local variables */
+    /** Local variables layered on top of global variables */
     protected Map<String, Object> variables;
     
     /** Global variables */
@@ -56,11 +61,32 @@ public class TestContext {
     /** Registered message validators */
     private MessageValidatorRegistry messageValidatorRegistry;
     
+    /** Parsed payload of the message currently processed, shared by validators and extractors. Kept per 
+     * thread as parallel containers execute several receiving actions with the same context */
+    private final ThreadLocal<ParsedMessagePayload> parsedMessagePayload = new ThreadLocal<ParsedMessagePayload>();
+    
     /**
      * Default constructor
      */
     public TestContext() {
-        variables = new LinkedHashMap<String, Object>();
+        variables = new VariableScope();
+    }
+    
+    /**
+     * Creates a new test context sharing global variables, function registry and message validators
+     * with this context. Child context has its own variable scope on top of the variables of this
+     * context. Variables set in the child context do not affect this context.
+     * 
+     * @return the child test context.
+     */
+    public TestContext createChildContext() {
+        TestContext childContext = new TestContext();
+        childContext.setFunctionRegistry(functionRegistry);
+        childContext.setMessageValidatorRegistry(messageValidatorRegistry);
+        childContext.globalVariables = globalVariables;
+        childContext.variables = new VariableScope(variables);
+        
+        return childContext;
     }
     
     /**
@@ -189,8 +215,12 @@ public class TestContext {
      * Clears variables in this test context. Initially adds all global variables.
      */
     public void clear() {
-        variables.clear();
-        variables.putAll(globalVariables.getVariables());
+        if (variables instanceof VariableScope) {
+            ((VariableScope) variables).reset();
+        } else {
+            variables.clear();
+            variables.putAll(globalVariables.getVariables());
+        }
     }
     
     /**
@@ -216,11 +246,18 @@ public class TestContext {
      * Method replacing variable declarations and functions in a string, optionally 
      * the variable values get surrounded with single quotes.
      * 
+     * Without quoting the string is compiled to a {@link DynamicContentTemplate} and rendered
+     * in a single pass.
+     * 
      * @param str the string to parse for variable place holders.
      * @param enableQuoting flag marking surrounding quotes should be added or not.
      * @return resulting string without any variable place holders.
      */
     public String replaceDynamicContentInString(final String str, boolean enableQuoting) {
+        if (!enableQuoting) {
+            return DynamicContentTemplate.compile(str, functionRegistry).render(this);
+        }
+        
         String result;
         result = VariableUtils.replaceVariablesInString(str, this, enableQuoting);
         result = FunctionUtils.replaceFunctionsInString(result, this, enableQuoting);
@@ -245,13 +282,18 @@ public class TestContext {
     }
 
     /**
-     * Get global variables.
+     * Get global variables. Global variables are shared as read only
+     * layer below the test variables.
      * @param globalVariables
      */
 	public void setGlobalVariables(GlobalVariables globalVariables) {
 		this.globalVariables = globalVariables;
 		
-		variables.putAll(globalVariables.getVariables());
+		if (variables instanceof VariableScope) {
+		    ((VariableScope) variables).setParent(Collections.unmodifiableMap(globalVariables.getVariables()));
+		} else {
+		    variables.putAll(globalVariables.getVariables());
+		}
 	}
 
     /**
@@ -294,4 +336,20 @@ public class TestContext {
         return messageValidatorRegistry;
     }
     
+    /**
+     * Set the parsed payload of the message currently processed.
+     * @param parsedMessagePayload the parsedMessagePayload to set
+     */
+    public void setParsedMessagePayload(ParsedMessagePayload parsedMessagePayload) {
+        this.parsedMessagePayload.set(parsedMessagePayload);
+    }
+
+    /**
+     * Get the parsed payload of the message currently processed.
+     * @return the parsedMessagePayload
+     */
+    public ParsedMessagePayload getParsedMessagePayload() {
+        return parsedMessagePayload.get();
+    }
+    
 }
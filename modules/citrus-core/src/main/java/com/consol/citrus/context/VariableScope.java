@@ -0,0 +1,224 @@
+/*
+ * Copyright 2006-2010 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.consol.citrus.context;
+
+import java.util.*;
+
+/**
+ * Layered variable map. Each scope holds its own variables on top of an optional read only parent layer,
+ * e.g. test variables on top of the shared global variables or template variables on top of the test variables.
+ *
+ * Reads fall through to the parent layer, writes and removals only affect this scope (copy-on-write),
+ * so parent layers are shared instead of being copied for each test, template or iteration. Removed parent
+ * variables are masked in this scope.
+ *
+ * Access is synchronized on the scope instance, which makes it safe for parallel containers sharing
+ * the same test context. Iteration works on a snapshot of all visible variables.
+ *
+ * @author Christoph Deppisch
+ */
+public class VariableScope extends AbstractMap<String, Object> {
+    /** Marks parent variables removed in this scope */
+    private static final Object REMOVED = new Object();
+
+    /** Read only parent layer */
+    private Map<String, ?> parent;
+
+    /** Variables of this scope */
+    private final Map<String, Object> variables = new LinkedHashMap<String, Object>();
+
+    /**
+     * Default constructor without parent layer.
+     */
+    public VariableScope() {
+        this(null);
+    }
+
+    /**
+     * Constructor using parent layer.
+     * @param parent
+     */
+    public VariableScope(Map<String, ?> parent) {
+        this.parent = parent;
+    }
+
+    @Override
+    public synchronized Object get(Object key) {
+        Object value = variables.get(key);
+
+        if (value != null) {
+            return value == REMOVED ? null : value;
+        } else if (variables.containsKey(key)) {
+            return null;
+        }
+
+        return parent != null ? parent.get(key) : null;
+    }
+
+    @Override
+    public synchronized boolean containsKey(Object key) {
+        Object value = variables.get(key);
+
+        if (value != null) {
+            return value != REMOVED;
+        } else if (variables.containsKey(key)) {
+            return true;
+        }
+
+        return parent != null && parent.containsKey(key);
+    }
+
+    @Override
+    public synchronized Object put(String key, Object value) {
+        Object previous = get(key);
+        variables.put(key, value);
+        return previous;
+    }
+
+    @Override
+    public synchronized Object remove(Object key) {
+        Object previous = get(key);
+
+        if (parent != null && parent.containsKey(key)) {
+            variables.put((String) key, REMOVED);
+        } else {
+            variables.remove(key);
+        }
+
+        return previous;
+    }
+
+    /**
+     * Removes all variables, parent variables are masked.
+     */
+    @Override
+    public synchronized void clear() {
+        variables.clear();
+
+        if (parent != null) {
+            for (String key : parent.keySet()) {
+                variables.put(key, REMOVED);
+            }
+        }
+    }
+
+    /**
+     * Removes all variables of this scope, so parent variables become visible again.
+     */
+    public synchronized void reset() {
+        variables.clear();
+    }
+
+    @Override
+    public synchronized boolean isEmpty() {
+        for (Object value : variables.values()) {
+            if (value != REMOVED) {
+                return false;
+            }
+        }
+
+        if (parent != null) {
+            for (String key : parent.keySet()) {
+                if (!variables.containsKey(key)) {
+                    return false;
+                }
+            }
+        }
+
+        return true;
+    }
+
+    @Override
+    public int size() {
+        return snapshot().size();
+    }
+
+    @Override
+    public Set<Entry<String, Object>> entrySet() {
+        return new AbstractSet<Entry<String, Object>>() {
+            @Override
+            public Iterator<Entry<String, Object>> iterator() {
+                final Iterator<Entry<String, Object>> it = snapshot().entrySet().iterator();
+
+                return new Iterator<Entry<String, Object>>() {
+                    private Entry<String, Object> current;
+
+                    public boolean hasNext() {
+                        return it.hasNext();
+                    }
+
+                    public Entry<String, Object> next() {
+                        current = it.next();
+                        return current;
+                    }
+
+                    public void remove() {
+                        if (current == null) {
+                            throw new IllegalStateException();
+                        }
+
+                        VariableScope.this.remove(current.getKey());
+                        current = null;
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return VariableScope.this.size();
+            }
+        };
+    }
+
+    /**
+     * Creates a copy of all visible variables, parent variables first.
+     * @return
+     */
+    private synchronized Map<String, Object> snapshot() {
+        Map<String, Object> snapshot = new LinkedHashMap<String, Object>();
+
+        if (parent != null) {
+            snapshot.putAll(parent);
+        }
+
+        for (Entry<String, Object> entry : variables.entrySet()) {
+            if (entry.getValue() == REMOVED) {
+                snapshot.remove(entry.getKey());
+            } else {
+                snapshot.put(entry.getKey(), entry.getValue());
+            }
+        }
+
+        return snapshot;
+    }
+
+    /**
+     * Gets the read only parent layer.
+     * @return the parent
+     */
+    public Map<String, ?> getParent() {
+        return parent;
+    }
+
+    /**
+     * Sets the read only parent layer.
+     * @param parent the parent to set
+     */
+    public synchronized void setParent(Map<String, ?> parent) {
+        this.parent = parent;
+    }
+}
@@ -51,11 +51,11 @@ public final class FunctionUtils {
     public static String replaceFunctionsInString(final String stringValue, TestContext context, boolean enableQuoting) {
         String newString = stringValue;
 
-        StringBuffer strBuffer = new StringBuffer();
+        StringBuilder strBuffer = new StringBuilder();
 
         boolean isVarComplete = false;
 
-        StringBuffer variableNameBuf = new StringBuffer();
+        StringBuilder variableNameBuf = new StringBuilder();
 
         int startIndex = 0;
         int curIndex;
@@ -71,7 +71,7 @@ public final class FunctionUtils {
                 curIndex = searchIndex;
 
                 while (curIndex < newString.length() && !isVarComplete) {
-                    if (newString.indexOf('(', curIndex) == curIndex) {
+                    if (newString.charAt(curIndex) == '(') {
                         control++;
                     }
 
@@ -103,14 +103,14 @@ public final class FunctionUtils {
 
                 startIndex = curIndex;
 
-                variableNameBuf = new StringBuffer();
+                variableNameBuf = new StringBuilder();
                 isVarComplete = false;
             }
 
             strBuffer.append(newString.substring(startIndex));
             newString = strBuffer.toString();
 
-            strBuffer = new StringBuffer();
+            strBuffer = new StringBuilder();
         }
 
         return newString;
@@ -20,9 +20,11 @@ import javax.jms.*;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.beans.factory.InitializingBean;
 import org.springframework.integration.jms.DefaultJmsHeaderMapper;
 import org.springframework.integration.jms.JmsHeaderMapper;
+import org.springframework.jms.connection.CachingConnectionFactory;
 import org.springframework.jms.core.JmsTemplate;
 import org.springframework.jms.support.converter.MessageConverter;
 import org.springframework.jms.support.converter.SimpleMessageConverter;
@@ -32,9 +34,14 @@ import org.springframework.util.Assert;
 /**
  * Basic adapter class for JMS communication. The adapter uses Spring's {@link JmsTemplate}.
  * 
+ * By default the JMS template opens a new connection and session for each operation. With connection caching 
+ * enabled the adapter keeps a single shared connection and caches sessions and producers for reuse. Optionally
+ * message consumers are cached by destination and message selector, too. Cached consumers stay open between receive
+ * operations so the JMS provider's consumer prefetch buffer serves subsequent receive calls.
+ * 
  * @author Christoph Deppisch
  */
-public abstract class AbstractJmsAdapter implements InitializingBean {
+public abstract class AbstractJmsAdapter implements InitializingBean, DisposableBean {
 
     /** The connection factory */
     private ConnectionFactory connectionFactory;
@@ -60,6 +67,18 @@ public abstract class AbstractJmsAdapter implements InitializingBean {
     /** Use topics instead of queues */
     private boolean pubSubDomain = false;
     
+    /** Share one connection and cache sessions and producers */
+    private boolean cacheConnection = false;
+    
+    /** Cache message consumers by destination and message selector */
+    private boolean cacheConsumers = false;
+    
+    /** Number of cached sessions */
+    private int sessionCacheSize = 1;
+    
+    /** Caching connection factory wrapping the connection factory */
+    private CachingConnectionFactory cachingConnectionFactory;
+    
     /**
      * Logger
      */
@@ -75,7 +94,11 @@ public abstract class AbstractJmsAdapter implements InitializingBean {
             
             jmsTemplate = new JmsTemplate();
             
-            jmsTemplate.setConnectionFactory(this.connectionFactory);
+            if (cacheConnection) {
+                jmsTemplate.setConnectionFactory(createCachingConnectionFactory());
+            } else {
+                jmsTemplate.setConnectionFactory(this.connectionFactory);
+            }
             
             if (this.destination != null) {
                 jmsTemplate.setDefaultDestination(this.destination);
@@ -91,6 +114,29 @@ public abstract class AbstractJmsAdapter implements InitializingBean {
         jmsTemplate.setMessageConverter(new JmsMessageConverter(messageConverter, headerMapper));
         jmsTemplate.setPubSubDomain(pubSubDomain);
     }
+    
+    /**
+     * Creates caching connection factory sharing a single connection and caching sessions, producers
+     * and optionally consumers.
+     * @return the caching connection factory.
+     */
+    private ConnectionFactory createCachingConnectionFactory() {
+        cachingConnectionFactory = new CachingConnectionFactory(connectionFactory);
+        cachingConnectionFactory.setSessionCacheSize(sessionCacheSize);
+        cachingConnectionFactory.setCacheProducers(true);
+        cachingConnectionFactory.setCacheConsumers(cacheConsumers);
+        
+        return cachingConnectionFactory;
+    }
+    
+    /**
+     * Closes the shared connection and all cached sessions.
+     */
+    public void destroy() throws Exception {
+        if (cachingConnectionFactory != null) {
+            cachingConnectionFactory.destroy();
+        }
+    }
 
     /**
      * Does domain use topics instead of queues.
@@ -227,6 +273,56 @@ public abstract class AbstractJmsAdapter implements InitializingBean {
         this.headerMapper = headerMapper;
     }
 
+    /**
+     * Is connection caching enabled.
+     * @return the cacheConnection
+     */
+    public boolean isCacheConnection() {
+        return cacheConnection;
+    }
+
+    /**
+     * Enables connection caching, so adapter shares one connection and caches sessions and producers.
+     * @param cacheConnection the cacheConnection to set
+     */
+    public void setCacheConnection(boolean cacheConnection) {
+        this.cacheConnection = cacheConnection;
+    }
+
+    /**
+     * Is consumer caching enabled.
+     * @return the cacheConsumers
+     */
+    public boolean isCacheConsumers() {
+        return cacheConsumers;
+    }
+
+    /**
+     * Enables caching of message consumers by destination and message selector. Only effective with connection
+     * caching enabled. Each distinct message selector keeps its own consumer open, so consumer caching should not be 
+     * used with ever changing message selectors.
+     * @param cacheConsumers the cacheConsumers to set
+     */
+    public void setCacheConsumers(boolean cacheConsumers) {
+        this.cacheConsumers = cacheConsumers;
+    }
+
+    /**
+     * Gets the number of cached sessions.
+     * @return the sessionCacheSize
+     */
+    public int getSessionCacheSize() {
+        return sessionCacheSize;
+    }
+
+    /**
+     * Sets the number of cached sessions. Only effective with connection caching enabled.
+     * @param sessionCacheSize the sessionCacheSize to set
+     */
+    public void setSessionCacheSize(int sessionCacheSize) {
+        this.sessionCacheSize = sessionCacheSize;
+    }
+
     /**
      * Sets the JMS template.
      * @param jmsTemplate the jmsTemplate to set
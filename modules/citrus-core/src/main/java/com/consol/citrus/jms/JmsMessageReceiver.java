@@ -16,10 +16,16 @@
 
 package com.consol.citrus.jms;
 
+import javax.jms.*;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.integration.Message;
 import org.springframework.integration.message.GenericMessage;
+import org.springframework.jms.connection.ConnectionFactoryUtils;
+import org.springframework.jms.core.JmsTemplate;
+import org.springframework.jms.core.SessionCallback;
+import org.springframework.jms.support.JmsUtils;
 
 import com.consol.citrus.exceptions.ActionTimeoutException;
 import com.consol.citrus.message.MessageReceiver;
@@ -27,6 +33,9 @@ import com.consol.citrus.message.MessageReceiver;
 /**
  * {@link MessageReceiver} implementation consumes messages from aJMS destination. Destination
  * is given by injected instance or destination name.
+ * 
+ * Receive timeout is passed with each receive operation instead of being set on the shared JMS template,
+ * so concurrent receive operations with different timeouts do not interfere with each other.
  *  
  * @author Christoph Deppisch
  */
@@ -46,8 +55,7 @@ public class JmsMessageReceiver extends AbstractJmsAdapter implements MessageRec
     public Message<?> receive(long timeout) {
         log.info("Waiting for JMS message on destination: '" + getDefaultDestinationName() + "'");
         
-        getJmsTemplate().setReceiveTimeout(timeout);
-        Object receivedObject = getJmsTemplate().receiveAndConvert();
+        Object receivedObject = getJmsTemplate().execute(new ReceiveCallback(null, timeout), true);
         
         if(receivedObject == null) {
             throw new ActionTimeoutException("Action timed out while receiving JMS message on '" + getDefaultDestinationName() + "'");
@@ -76,8 +84,7 @@ public class JmsMessageReceiver extends AbstractJmsAdapter implements MessageRec
     public Message<?> receiveSelected(String selector, long timeout) {
         log.info("Waiting for JMS message on destination: '" + getDefaultDestinationName() + "(" + selector + ")'");
         
-        getJmsTemplate().setReceiveTimeout(timeout);
-        Object receivedObject = getJmsTemplate().receiveSelectedAndConvert(selector);
+        Object receivedObject = getJmsTemplate().execute(new ReceiveCallback(selector, timeout), true);
         
         if(receivedObject == null) {
             throw new ActionTimeoutException("Action timed out while receiving JMS message on '" + getDefaultDestinationName()  + "(" + selector + ")'");
@@ -113,6 +120,66 @@ public class JmsMessageReceiver extends AbstractJmsAdapter implements MessageRec
         return receiveSelected(selector, receiveTimeout);
     }
 
+    /**
+     * Session callback receiving and converting a message with message selector and receive timeout
+     * of this receive operation.
+     */
+    private class ReceiveCallback implements SessionCallback {
+        /** Message selector, may be null */
+        private final String selector;
+        
+        /** Receive timeout for this operation */
+        private final long timeout;
+        
+        public ReceiveCallback(String selector, long timeout) {
+            this.selector = selector;
+            this.timeout = timeout;
+        }
+        
+        /**
+         * @see org.springframework.jms.core.SessionCallback#doInJms(javax.jms.Session)
+         */
+        public Object doInJms(Session session) throws JMSException {
+            JmsTemplate jmsTemplate = getJmsTemplate();
+            
+            Destination destination = jmsTemplate.getDefaultDestination();
+            if (destination == null) {
+                destination = jmsTemplate.getDestinationResolver().resolveDestinationName(session, 
+                        jmsTemplate.getDefaultDestinationName(), jmsTemplate.isPubSubDomain());
+            }
+            
+            MessageConsumer messageConsumer = null;
+            try {
+                if (jmsTemplate.isPubSubDomain()) {
+                    messageConsumer = session.createConsumer(destination, selector, jmsTemplate.isPubSubNoLocal());
+                } else {
+                    messageConsumer = session.createConsumer(destination, selector);
+                }
+                
+                javax.jms.Message message;
+                if (timeout < 0) {
+                    message = messageConsumer.receiveNoWait();
+                } else if (timeout == JmsTemplate.RECEIVE_TIMEOUT_INDEFINITE_WAIT) {
+                    message = messageConsumer.receive();
+                } else {
+                    message = messageConsumer.receive(timeout);
+                }
+                
+                if (session.getTransacted()) {
+                    if (!ConnectionFactoryUtils.isSessionTransactional(session, jmsTemplate.getConnectionFactory())) {
+                        JmsUtils.commitIfNecessary(session);
+                    }
+                } else if (session.getAcknowledgeMode() == Session.CLIENT_ACKNOWLEDGE && message != null) {
+                    message.acknowledge();
+                }
+                
+                return message != null ? jmsTemplate.getMessageConverter().fromMessage(message) : null;
+            } finally {
+                JmsUtils.closeMessageConsumer(messageConsumer);
+            }
+        }
+    }
+
     /**
      * Sets the receive timeout.
      * @param receiveTimeout the receiveTimeout to set
@@ -16,14 +16,12 @@
 
 package com.consol.citrus.jms;
 
-import java.util.HashMap;
-import java.util.Map;
-
 import javax.jms.Destination;
 
 import org.springframework.integration.Message;
 import org.springframework.integration.jms.JmsHeaders;
 
+import com.consol.citrus.message.CorrelationStore;
 import com.consol.citrus.message.ReplyMessageCorrelator;
 
 /**
@@ -39,8 +37,8 @@ import com.consol.citrus.message.ReplyMessageCorrelator;
  * @author Christoph Deppisch
  */
 public class JmsSyncMessageReceiver extends JmsMessageReceiver implements JmsReplyDestinationHolder {
-    /** Map of reply destinations */
-    private Map<String, Destination> replyDestinations = new HashMap<String, Destination>();
+    /** Store of reply destinations */
+    private CorrelationStore<Destination> replyDestinations = new CorrelationStore<Destination>();
     
     /** Reply message correlator */
     private ReplyMessageCorrelator correlator = null;
@@ -76,10 +74,13 @@ public class JmsSyncMessageReceiver extends JmsMessageReceiver implements JmsRep
      * @param receivedMessage
      */
     private void saveReplyDestination(Message<?> receivedMessage) {
-        if(correlator != null) {
-            replyDestinations.put(correlator.getCorrelationKey(receivedMessage), (Destination)receivedMessage.getHeaders().get(JmsHeaders.REPLY_TO));
+        String correlationKey = correlator != null ? correlator.getCorrelationKey(receivedMessage) : "";
+        Destination replyDestination = (Destination)receivedMessage.getHeaders().get(JmsHeaders.REPLY_TO);
+        
+        if (replyDestination != null) {
+            replyDestinations.add(correlationKey, replyDestination);
         } else {
-            replyDestinations.put("", (Destination)receivedMessage.getHeaders().get(JmsHeaders.REPLY_TO));
+            replyDestinations.poll(correlationKey);
         }
     }
 
@@ -87,14 +88,14 @@ public class JmsSyncMessageReceiver extends JmsMessageReceiver implements JmsRep
      * @see com.consol.citrus.jms.JmsReplyDestinationHolder#getReplyDestination(java.lang.String)
      */
     public Destination getReplyDestination(String correlationKey) {
-        return replyDestinations.remove(correlationKey);
+        return replyDestinations.poll(correlationKey);
     }
 
     /**
      * @see com.consol.citrus.jms.JmsReplyDestinationHolder#getReplyDestination()
      */
     public Destination getReplyDestination() {
-        return replyDestinations.remove("");
+        return replyDestinations.poll("");
     }
 
     /**
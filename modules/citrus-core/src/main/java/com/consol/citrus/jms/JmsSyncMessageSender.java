@@ -16,6 +16,11 @@
 
 package com.consol.citrus.jms;
 
+import java.util.UUID;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
 import javax.jms.*;
 
 import org.slf4j.Logger;
@@ -42,6 +47,12 @@ import com.consol.citrus.message.*;
  * 
  * Class can either define a static reply destination or a temporary reply destination.
  * 
+ * When session pool size is set sender keeps a pool of JMS sessions. Each pooled session owns a message producer
+ * and a long-lived temporary reply destination with its consumer, so concurrent requests do not share a session
+ * and do not create temporary destinations per request. Pooled requests without JMSCorrelationID get a generated
+ * one before sending, as the JMSMessageID is assigned by the provider only on send. Replies are matched to the request
+ * by this JMSCorrelationID.
+ * 
  * @author Christoph Deppisch
  */
 public class JmsSyncMessageSender implements MessageSender, BeanNameAware, InitializingBean, DisposableBean {
@@ -87,6 +98,28 @@ public class JmsSyncMessageSender implements MessageSender, BeanNameAware, Initi
     /** Message sender name */
     private String name;
     
+    /** Number of pooled JMS sessions, zero disables session pooling */
+    private int sessionPoolSize = 0;
+    
+    /** Idle pooled sessions */
+    private BlockingQueue<PooledSession> sessionPool = new LinkedBlockingQueue<PooledSession>();
+    
+    /** Number of pooled sessions currently open */
+    private AtomicInteger pooledSessionCount = new AtomicInteger();
+    
+    /** Durable subscriber ids released by closed pooled sessions */
+    private BlockingQueue<Integer> freeSubscriberIds = new LinkedBlockingQueue<Integer>();
+    
+    /** Next durable subscriber id for pooled sessions */
+    private AtomicInteger nextSubscriberId = new AtomicInteger();
+    
+    /** Request reply statistics */
+    private AtomicLong requestCount = new AtomicLong();
+    private AtomicLong totalReplyTime = new AtomicLong();
+    private AtomicLong maxReplyTime = new AtomicLong();
+    private AtomicLong timeoutCount = new AtomicLong();
+    private volatile long firstRequestTime = 0L;
+    
     /**
      * Logger
      */
@@ -107,6 +140,11 @@ public class JmsSyncMessageSender implements MessageSender, BeanNameAware, Initi
             log.debug("Message to send is:\n" + message.toString());
         }
 
+        if (sessionPoolSize > 0) {
+            sendPooled(message);
+            return;
+        }
+        
         MessageProducer messageProducer = null;
         MessageConsumer messageConsumer = null;
         Destination replyToDestination = null;
@@ -140,26 +178,264 @@ public class JmsSyncMessageSender implements MessageSender, BeanNameAware, Initi
                 messageConsumer = session.createDurableSubscriber((Topic)replyToDestination, name, messageSelector, false);
             }
             
+            long start = System.currentTimeMillis();
             messageProducer.send(jmsRequest);
             
             log.info("Message was successfully sent to destination: '" + defaultDestinationName + "'");
             
             javax.jms.Message jmsReplyMessage = (this.replyTimeout >= 0) ? messageConsumer.receive(replyTimeout) : messageConsumer.receive();
+            recordReply(start, jmsReplyMessage == null);
+            
+            handleReplyMessage(message, jmsReplyMessage, jmsMessageConverter);
+        } catch (JMSException e) {
+            throw new CitrusRuntimeException(e);
+        } finally {
+            JmsUtils.closeMessageProducer(messageProducer);
+            JmsUtils.closeMessageConsumer(messageConsumer);
+            deleteTemporaryDestination(replyToDestination);
+        }
+    }
+    
+    /**
+     * Sends message using a pooled JMS session. Request is sent with the pooled session's message producer. Reply is
+     * received on the session's long-lived reply destination unless message or sender define a static reply destination.
+     * 
+     * @param message the message to send.
+     */
+    private void sendPooled(Message<?> message) {
+        PooledSession pooledSession = checkoutSession();
+        MessageConsumer messageConsumer = null;
+        boolean valid = false;
+        
+        try {
+            JmsMessageConverter jmsMessageConverter = new JmsMessageConverter(messageConverter, headerMapper);
+            javax.jms.Message jmsRequest = jmsMessageConverter.toMessage(message, pooledSession.session);
+            
+            Destination replyToDestination = getStaticReplyDestination(pooledSession.session, message);
+            if (replyToDestination == null) {
+                replyToDestination = pooledSession.replyDestination;
+            }
+            jmsRequest.setJMSReplyTo(replyToDestination);
             
-            if(replyMessageHandler != null) {
-                if(correlator != null) {
-                    replyMessageHandler.onReplyMessage((Message<?>)jmsMessageConverter.fromMessage(jmsReplyMessage),
-                        correlator.getCorrelationKey(message));
+            String correlationId = jmsRequest.getJMSCorrelationID();
+            if (correlationId == null) {
+                correlationId = UUID.randomUUID().toString();
+                jmsRequest.setJMSCorrelationID(correlationId);
+            }
+            
+            //consumer on static reply destination must exist before request is sent, otherwise fast replies are lost
+            if (replyToDestination != pooledSession.replyDestination) {
+                String messageSelector = "JMSCorrelationID = '" + correlationId.replaceAll("'", "''") + "'";
+                if (replyToDestination instanceof Topic) {
+                    messageConsumer = pooledSession.session.createDurableSubscriber((Topic)replyToDestination, pooledSession.subscriberName, messageSelector, false);
                 } else {
-                    replyMessageHandler.onReplyMessage((Message<?>)jmsMessageConverter.fromMessage(jmsReplyMessage));
+                    messageConsumer = pooledSession.session.createConsumer(replyToDestination, messageSelector);
                 }
             }
+            
+            long start = System.currentTimeMillis();
+            pooledSession.producer.send(jmsRequest);
+            
+            log.info("Message was successfully sent to destination: '" + getDefaultDestinationName() + "'");
+            
+            javax.jms.Message jmsReplyMessage;
+            if (messageConsumer == null) {
+                jmsReplyMessage = receiveCorrelated(pooledSession.replyConsumer, jmsRequest, correlationId);
+                
+                //late replies would end up in the next request on this session, so do not reuse it after timeout
+                valid = jmsReplyMessage != null;
+            } else {
+                jmsReplyMessage = (this.replyTimeout >= 0) ? messageConsumer.receive(replyTimeout) : messageConsumer.receive();
+                valid = true;
+            }
+            recordReply(start, jmsReplyMessage == null);
+            
+            handleReplyMessage(message, jmsReplyMessage, jmsMessageConverter);
         } catch (JMSException e) {
+            valid = false;
             throw new CitrusRuntimeException(e);
         } finally {
-            JmsUtils.closeMessageProducer(messageProducer);
             JmsUtils.closeMessageConsumer(messageConsumer);
-            deleteTemporaryDestination(replyToDestination);
+            releaseSession(pooledSession, valid);
+        }
+    }
+    
+    /**
+     * Receives reply message on a pooled reply destination. Replies carrying a JMSCorrelationID that
+     * does not match the request's correlation id or message id belong to an earlier request and are discarded.
+     * 
+     * @param messageConsumer the reply consumer.
+     * @param jmsRequest the request message sent.
+     * @param correlationId the request's correlation id.
+     * @return the reply message or null on timeout.
+     * @throws JMSException
+     */
+    private javax.jms.Message receiveCorrelated(MessageConsumer messageConsumer, javax.jms.Message jmsRequest, String correlationId) throws JMSException {
+        long deadline = System.currentTimeMillis() + replyTimeout;
+        
+        while (true) {
+            javax.jms.Message jmsReplyMessage;
+            if (replyTimeout >= 0) {
+                long remaining = deadline - System.currentTimeMillis();
+                if (remaining <= 0) {
+                    return null;
+                }
+                
+                jmsReplyMessage = messageConsumer.receive(remaining);
+            } else {
+                jmsReplyMessage = messageConsumer.receive();
+            }
+            
+            if (jmsReplyMessage == null) {
+                return null;
+            }
+            
+            String replyCorrelationId = jmsReplyMessage.getJMSCorrelationID();
+            if (replyCorrelationId == null || 
+                    replyCorrelationId.equals(correlationId) || 
+                    replyCorrelationId.equals(jmsRequest.getJMSMessageID())) {
+                return jmsReplyMessage;
+            }
+            
+            log.warn("Discarding reply message with unexpected JMSCorrelationID '" + replyCorrelationId + "'");
+        }
+    }
+    
+    /**
+     * Invokes reply message handler with reply message.
+     * @param message the request message.
+     * @param jmsReplyMessage the JMS reply message.
+     * @param jmsMessageConverter the message converter.
+     * @throws JMSException
+     */
+    private void handleReplyMessage(Message<?> message, javax.jms.Message jmsReplyMessage, JmsMessageConverter jmsMessageConverter) throws JMSException {
+        if(replyMessageHandler != null) {
+            if(correlator != null) {
+                replyMessageHandler.onReplyMessage((Message<?>)jmsMessageConverter.fromMessage(jmsReplyMessage),
+                    correlator.getCorrelationKey(message));
+            } else {
+                replyMessageHandler.onReplyMessage((Message<?>)jmsMessageConverter.fromMessage(jmsReplyMessage));
+            }
+        }
+    }
+    
+    /**
+     * Gets an idle pooled session. Opens a new session as long as pool size is not exceeded,
+     * otherwise waits for another caller to release its session.
+     * 
+     * @return the pooled session.
+     */
+    private PooledSession checkoutSession() {
+        PooledSession pooledSession = sessionPool.poll();
+        
+        while (pooledSession == null) {
+            int count = pooledSessionCount.get();
+            
+            if (count < sessionPoolSize) {
+                if (pooledSessionCount.compareAndSet(count, count + 1)) {
+                    try {
+                        return createPooledSession();
+                    } catch (JMSException e) {
+                        pooledSessionCount.decrementAndGet();
+                        throw new CitrusRuntimeException(e);
+                    } catch (RuntimeException e) {
+                        pooledSessionCount.decrementAndGet();
+                        throw e;
+                    }
+                }
+            } else {
+                try {
+                    pooledSession = sessionPool.poll(100L, TimeUnit.MILLISECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new CitrusRuntimeException("Interrupted while waiting for pooled JMS session", e);
+                }
+            }
+        }
+        
+        return pooledSession;
+    }
+    
+    /**
+     * Returns pooled session to the pool. Invalid sessions are closed.
+     * @param pooledSession
+     * @param valid
+     */
+    private void releaseSession(PooledSession pooledSession, boolean valid) {
+        if (valid) {
+            sessionPool.offer(pooledSession);
+        } else {
+            closePooledSession(pooledSession);
+        }
+    }
+    
+    /**
+     * Closes pooled session and releases its durable subscriber id for reuse.
+     * @param pooledSession
+     */
+    private void closePooledSession(PooledSession pooledSession) {
+        pooledSessionCount.decrementAndGet();
+        pooledSession.close();
+        freeSubscriberIds.offer(pooledSession.subscriberId);
+    }
+    
+    /**
+     * Opens new pooled session with message producer and reply destination.
+     * @return the pooled session.
+     * @throws JMSException
+     */
+    private PooledSession createPooledSession() throws JMSException {
+        synchronized (this) {
+            if (connection == null) {
+                connection = createConnection();
+            }
+        }
+        
+        PooledSession pooledSession = new PooledSession();
+        
+        //each pooled session needs its own durable subscription name, ids are reused so that at most pool size subscriptions exist
+        Integer subscriberId = freeSubscriberIds.poll();
+        pooledSession.subscriberId = subscriberId != null ? subscriberId : nextSubscriberId.getAndIncrement();
+        pooledSession.subscriberName = name + "-" + pooledSession.subscriberId;
+        
+        try {
+            pooledSession.session = connection.createSession(false, Session.AUTO_ACKNOWLEDGE);
+            pooledSession.producer = pooledSession.session.createProducer(getDefaultDestination(pooledSession.session));
+            pooledSession.replyDestination = pubSubDomain ? pooledSession.session.createTemporaryTopic() : pooledSession.session.createTemporaryQueue();
+            pooledSession.replyConsumer = pooledSession.session.createConsumer(pooledSession.replyDestination);
+        } catch (JMSException e) {
+            pooledSession.close();
+            freeSubscriberIds.offer(pooledSession.subscriberId);
+            throw e;
+        }
+        
+        if (log.isDebugEnabled()) {
+            log.debug("Opened pooled JMS session for message sender '" + name + "'");
+        }
+        
+        return pooledSession;
+    }
+    
+    /**
+     * Records reply time statistics.
+     * @param start time the request was sent.
+     * @param timedOut no reply message received.
+     */
+    private void recordReply(long start, boolean timedOut) {
+        long replyTime = System.currentTimeMillis() - start;
+        
+        if (requestCount.getAndIncrement() == 0) {
+            firstRequestTime = start;
+        }
+        totalReplyTime.addAndGet(replyTime);
+        
+        if (timedOut) {
+            timeoutCount.incrementAndGet();
+        }
+        
+        long max = maxReplyTime.get();
+        while (replyTime > max && !maxReplyTime.compareAndSet(max, replyTime)) {
+            max = maxReplyTime.get();
         }
     }
     
@@ -189,6 +465,27 @@ public class JmsSyncMessageSender implements MessageSender, BeanNameAware, Initi
      * @throws JMSException
      */
     private Destination getReplyDestination(Session session, Message<?> message) throws JMSException {
+        Destination staticReplyDestination = getStaticReplyDestination(session, message);
+        if (staticReplyDestination != null) {
+            return staticReplyDestination;
+        }
+        
+        if(pubSubDomain && session instanceof TopicSession){
+            return session.createTemporaryTopic();
+        } else {
+            return session.createTemporaryQueue();
+        }
+    }
+    
+    /**
+     * Retrieve the reply destination either from message header, by injected instance or by destination name.
+     * 
+     * @param session current JMS session
+     * @param message holding possible reply destination in header.
+     * @return the reply destination or null if not set.
+     * @throws JMSException
+     */
+    private Destination getStaticReplyDestination(Session session, Message<?> message) throws JMSException {
         if(message.getHeaders().getReplyChannel() != null) {
             if(message.getHeaders().getReplyChannel() instanceof Destination) {
                 return (Destination)message.getHeaders().getReplyChannel();
@@ -201,11 +498,7 @@ public class JmsSyncMessageSender implements MessageSender, BeanNameAware, Initi
             return resolveDestinationName(this.replyDestinationName, session);
         }
         
-        if(pubSubDomain && session instanceof TopicSession){
-            return session.createTemporaryTopic();
-        } else {
-            return session.createTemporaryQueue();
-        }
+        return null;
     }
 
     /**
@@ -316,6 +609,17 @@ public class JmsSyncMessageSender implements MessageSender, BeanNameAware, Initi
      * Destroy method closing JMS session and connection
      */
     public void destroy() throws Exception {
+        if (requestCount.get() > 0) {
+            log.info("Message sender '" + name + "' statistics: " + requestCount.get() + " requests, " + 
+                    getAverageReplyTime() + " ms average reply time, " + maxReplyTime.get() + " ms max reply time, " + 
+                    timeoutCount.get() + " timeouts");
+        }
+        
+        PooledSession pooledSession;
+        while ((pooledSession = sessionPool.poll()) != null) {
+            closePooledSession(pooledSession);
+        }
+        
         JmsUtils.closeSession(session);
         
         if(connection != null) {
@@ -417,4 +721,112 @@ public class JmsSyncMessageSender implements MessageSender, BeanNameAware, Initi
     public void setBeanName(String name) {
         this.name = name;
     }
+
+    /**
+     * Set the number of pooled JMS sessions. Zero disables session pooling.
+     * @param sessionPoolSize the sessionPoolSize to set
+     */
+    public void setSessionPoolSize(int sessionPoolSize) {
+        this.sessionPoolSize = sessionPoolSize;
+    }
+
+    /**
+     * Gets the number of pooled JMS sessions.
+     * @return the sessionPoolSize
+     */
+    public int getSessionPoolSize() {
+        return sessionPoolSize;
+    }
+    
+    /**
+     * Gets the number of request messages sent.
+     * @return
+     */
+    public long getRequestCount() {
+        return requestCount.get();
+    }
+    
+    /**
+     * Gets the number of requests that did not receive a reply message in time.
+     * @return
+     */
+    public long getTimeoutCount() {
+        return timeoutCount.get();
+    }
+    
+    /**
+     * Gets the average round trip time in milliseconds from sending a request until the reply message arrived.
+     * @return
+     */
+    public long getAverageReplyTime() {
+        long count = requestCount.get();
+        return count > 0 ? totalReplyTime.get() / count : 0L;
+    }
+    
+    /**
+     * Gets the longest round trip time in milliseconds.
+     * @return
+     */
+    public long getMaxReplyTime() {
+        return maxReplyTime.get();
+    }
+    
+    /**
+     * Gets the number of request reply round trips per second since the first request was sent.
+     * @return
+     */
+    public double getThroughput() {
+        long count = requestCount.get();
+        long elapsed = System.currentTimeMillis() - firstRequestTime;
+        
+        if (count == 0) {
+            return 0.0;
+        }
+        
+        return count * 1000.0 / Math.max(elapsed, 1L);
+    }
+    
+    /**
+     * JMS session exclusively used by one caller at a time, holding message producer
+     * and reply destination consumer.
+     */
+    private static final class PooledSession {
+        /** JMS session */
+        private Session session;
+        
+        /** Producer for the send destination */
+        private MessageProducer producer;
+        
+        /** Long-lived temporary reply destination */
+        private Destination replyDestination;
+        
+        /** Consumer on reply destination */
+        private MessageConsumer replyConsumer;
+        
+        /** Id of this session's durable subscription name */
+        private int subscriberId;
+        
+        /** Durable subscription name used for static reply topics */
+        private String subscriberName;
+        
+        /**
+         * Closes session and deletes temporary reply destination.
+         */
+        private void close() {
+            JmsUtils.closeMessageConsumer(replyConsumer);
+            JmsUtils.closeMessageProducer(producer);
+            
+            try {
+                if (replyDestination instanceof TemporaryQueue) {
+                    ((TemporaryQueue) replyDestination).delete();
+                } else if (replyDestination instanceof TemporaryTopic) {
+                    ((TemporaryTopic) replyDestination).delete();
+                }
+            } catch (JMSException e) {
+                log.warn("Error while deleting temporary reply destination", e);
+            }
+            
+            JmsUtils.closeSession(session);
+        }
+    }
 }
@@ -20,13 +20,14 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.NoSuchBeanDefinitionException;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.context.support.ClassPathXmlApplicationContext;
+import org.springframework.context.ApplicationContext;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.TestExecutionListeners;
 import org.springframework.test.context.junit38.AbstractJUnit38SpringContextTests;
 
 import com.consol.citrus.TestCase;
 import com.consol.citrus.TestCaseMetaInfo.Status;
+import com.consol.citrus.config.TestCaseDefinitionCache;
 import com.consol.citrus.container.SequenceBeforeTest;
 import com.consol.citrus.context.TestContext;
 import com.consol.citrus.context.TestContextFactoryBean;
@@ -124,7 +125,7 @@ public abstract class AbstractJUnit38CitrusTest extends AbstractJUnit38SpringCon
      * @return the new test case.
      */
     protected TestCase getTestCase() {
-        ClassPathXmlApplicationContext ctx = createApplicationContext();
+        ApplicationContext ctx = createApplicationContext();
         TestCase testCase = null;
         try {
             testCase = (TestCase) ctx.getBean(this.getClass().getSimpleName(), TestCase.class);
@@ -136,17 +137,18 @@ public abstract class AbstractJUnit38CitrusTest extends AbstractJUnit38SpringCon
     }
 
     /**
-     * Creates the Spring application context.
+     * Creates the Spring application context. Test definition is parsed only once
+     * and cached for subsequent test executions.
      * @return
      */
-    protected ClassPathXmlApplicationContext createApplicationContext() {
+    protected ApplicationContext createApplicationContext() {
         try {
-            return new ClassPathXmlApplicationContext(
+            return TestCaseDefinitionCache.createApplicationContext(
                     new String[] {
                             this.getClass().getPackage().getName().replace('.', '/')
                                     + "/" + getClass().getSimpleName() + ".xml",
                                     "com/consol/citrus/spring/internal-helper-ctx.xml"},
-                    true, applicationContext);
+                    applicationContext);
         } catch (Exception e) {
             throw handleError("Failed to load test case", e);
         }
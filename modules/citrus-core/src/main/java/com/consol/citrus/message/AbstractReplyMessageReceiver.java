@@ -16,9 +16,6 @@
 
 package com.consol.citrus.message;
 
-import java.util.HashMap;
-import java.util.Map;
-
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.integration.Message;
@@ -29,17 +26,15 @@ import org.springframework.integration.Message;
  * 
  *  This means that synchronous message senders may invoke this receiver as soon as synchronous reply
  *  has arrived. Once invoked with a reply message the class saves the reply message to a local storage.
- *  When invoked by a receiving action inside a test the store reply message is returned.
+ *  When invoked by a receiving action inside a test the store reply message is returned. Receiving actions
+ *  block until the reply message arrives or the timeout has passed.
  *  
  * @author Christoph Deppisch
  */
 public abstract class AbstractReplyMessageReceiver implements MessageReceiver, ReplyMessageHandler {
 
     /** Store of reply messages */
-    private Map<String, Message<?>> replyMessages = new HashMap<String, Message<?>>();
-    
-    /** Maximum number of retries when waiting for synchronous reply message to arrive */
-    private int maxRetries = 5;
+    private CorrelationStore<Message<?>> replyMessages = new CorrelationStore<Message<?>>();
     
     /**
      * Logger
@@ -71,36 +66,18 @@ public abstract class AbstractReplyMessageReceiver implements MessageReceiver, R
      * @see com.consol.citrus.message.MessageReceiver#receiveSelected(java.lang.String, long)
      */
     public Message<?> receiveSelected(String selector, long timeout) {
-        Message<?> message = null;
-        
-        long timeoutInterval = timeout / maxRetries;
-        int retryIndex = 1;
-        while ((message = receiveSelected(selector)) == null) {
-            if (retryIndex == maxRetries) {
-                break;
-            }
-            
-            if (log.isDebugEnabled()) {
-                log.debug("Reply message did not arrive yet - waiting " + timeoutInterval + " ms before next try");
-            }
-            
-            try {
-                Thread.sleep(timeoutInterval);
-            } catch (InterruptedException e) {
-                log.warn("Thread interrupted while waiting for synchronous reply", e);
-            }
-            
-            retryIndex++;
+        if (log.isDebugEnabled()) {
+            log.debug("Waiting " + timeout + " ms for reply message to arrive");
         }
         
-        return message;
+        return replyMessages.take(selector, timeout);
     }
 
     /**
      * @see com.consol.citrus.message.ReplyMessageHandler#onReplyMessage(org.springframework.integration.Message, java.lang.String)
      */
     public void onReplyMessage(Message<?> replyMessage, String correlationKey) {
-        replyMessages.put(correlationKey, replyMessage);
+        replyMessages.add(correlationKey, replyMessage);
     }
     
     /**
@@ -117,14 +94,31 @@ public abstract class AbstractReplyMessageReceiver implements MessageReceiver, R
      * @return the reply message.
      */
     public Message<?> getReplyMessage(String correlationKey) {
-        return replyMessages.remove(correlationKey);
+        return replyMessages.poll(correlationKey);
     }
 
     /**
      * Sets the maximum number of retries while asking for the response message.
      * @param maxRetries the maxRetries to set
+     * @deprecated receiver is notified on reply message arrival, so there is no retry anymore.
      */
+    @Deprecated
     public void setMaxRetries(int maxRetries) {
-        this.maxRetries = maxRetries;
+    }
+    
+    /**
+     * Sets the time in milliseconds after reply messages nobody asked for expire.
+     * @param replyExpiry the replyExpiry to set
+     */
+    public void setReplyExpiry(long replyExpiry) {
+        replyMessages.setExpiry(replyExpiry);
+    }
+    
+    /**
+     * Gets the reply message store holding wait time statistics.
+     * @return the reply message store
+     */
+    public CorrelationStore<Message<?>> getReplyMessageStore() {
+        return replyMessages;
     }
 }
@@ -0,0 +1,38 @@
+/*
+ * Copyright 2006-2010 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.consol.citrus.message;
+
+import java.util.concurrent.Future;
+
+import org.springframework.integration.Message;
+
+/**
+ * Message sender capable of sending messages without blocking the caller. Synchronous message senders
+ * wait for the reply message before handing it to their reply message handler, asynchronous sending 
+ * returns immediately so several requests may be in flight at the same time. Reply messages
+ * still go to the reply message handler, correlated by the sender's reply message correlator.
+ * 
+ * @author Christoph Deppisch
+ */
+public interface AsyncMessageSender extends MessageSender {
+    /**
+     * Sends the message without waiting for the send operation to complete.
+     * @param message the message object to send.
+     * @return future completing as soon as message was sent and synchronous reply was handled.
+     */
+    Future<Message<?>> sendAsync(Message<?> message);
+}
@@ -0,0 +1,226 @@
+/*
+ * Copyright 2006-2010 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.consol.citrus.message;
+
+import java.util.concurrent.*;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.BeanNameAware;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.integration.Message;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.util.Assert;
+
+import com.consol.citrus.exceptions.CitrusRuntimeException;
+
+/**
+ * Adapter making any message sender asynchronous. Send operations are delegated to the target message 
+ * sender on a thread pool, so blocking request/reply senders (JMS, message channel, Http, SOAP) can issue
+ * many requests at the same time. Maximum number of requests in flight is limited, further send operations
+ * block until a running request completes.
+ * 
+ * Plain {@link #send(Message)} does not wait for the request to complete. Errors of such fire and forget 
+ * requests are raised with the next {@link #send(Message)} operation. Errors of requests sent with 
+ * {@link #sendAsync(Message)} are reported through the returned future only.
+ * 
+ * @author Christoph Deppisch
+ */
+public class AsyncMessageSenderAdapter implements AsyncMessageSender, BeanNameAware, DisposableBean {
+    /** Default maximum number of requests in flight */
+    public static final int DEFAULT_MAX_IN_FLIGHT = 10;
+    
+    /** Target message sender */
+    private MessageSender messageSender;
+    
+    /** Maximum number of requests in flight */
+    private int maxInFlight = DEFAULT_MAX_IN_FLIGHT;
+    
+    /** Executor running the send operations, created lazily */
+    private ExecutorService executorService;
+    
+    /** Permits for requests in flight */
+    private volatile Semaphore inFlight;
+    
+    /** Error raised by fire and forget request */
+    private volatile CitrusRuntimeException pendingError;
+    
+    /** Sender name */
+    private String name = "async-message-sender";
+    
+    /**
+     * Logger
+     */
+    private static Logger log = LoggerFactory.getLogger(AsyncMessageSenderAdapter.class);
+    
+    /**
+     * Default constructor.
+     */
+    public AsyncMessageSenderAdapter() {
+    }
+    
+    /**
+     * Constructor using target message sender.
+     * @param messageSender
+     */
+    public AsyncMessageSenderAdapter(MessageSender messageSender) {
+        this.messageSender = messageSender;
+    }
+    
+    /**
+     * @see com.consol.citrus.message.MessageSender#send(org.springframework.integration.Message)
+     * @throws CitrusRuntimeException
+     */
+    public void send(Message<?> message) {
+        CitrusRuntimeException error = pendingError;
+        if (error != null) {
+            pendingError = null;
+            throw error;
+        }
+        
+        submit(message, true);
+    }
+
+    /**
+     * @see com.consol.citrus.message.AsyncMessageSender#sendAsync(org.springframework.integration.Message)
+     */
+    public Future<Message<?>> sendAsync(Message<?> message) {
+        return submit(message, false);
+    }
+    
+    /**
+     * Submits send operation to the executor, blocks while maximum number of requests is in flight.
+     * @param message the message to send.
+     * @param fireAndForget record errors to be raised with the next send operation.
+     * @return the future completing with the sent message.
+     */
+    private Future<Message<?>> submit(final Message<?> message, final boolean fireAndForget) {
+        Assert.notNull(messageSender, "Missing target message sender for asynchronous sending");
+        
+        ExecutorService executor = getExecutorService();
+        
+        try {
+            inFlight.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CitrusRuntimeException("Interrupted while waiting for requests in flight", e);
+        }
+        
+        try {
+            return executor.submit(new Callable<Message<?>>() {
+                public Message<?> call() {
+                    try {
+                        messageSender.send(message);
+                        return message;
+                    } catch (CitrusRuntimeException e) {
+                        log.error("Asynchronous send operation failed", e);
+                        if (fireAndForget) {
+                            pendingError = e;
+                        }
+                        throw e;
+                    } catch (RuntimeException e) {
+                        log.error("Asynchronous send operation failed", e);
+                        if (fireAndForget) {
+                            pendingError = new CitrusRuntimeException(e);
+                        }
+                        throw e;
+                    } finally {
+                        inFlight.release();
+                    }
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            inFlight.release();
+            throw new CitrusRuntimeException("Unable to send message asynchronously", e);
+        }
+    }
+    
+    /**
+     * Gets the executor service, creates new thread pool on first access.
+     * @return
+     */
+    private synchronized ExecutorService getExecutorService() {
+        if (executorService == null) {
+            executorService = Executors.newFixedThreadPool(maxInFlight, new CustomizableThreadFactory(name + "-"));
+        }
+        
+        if (inFlight == null) {
+            inFlight = new Semaphore(maxInFlight);
+        }
+        
+        return executorService;
+    }
+    
+    /**
+     * Gets the number of requests currently in flight.
+     * @return
+     */
+    public int getInFlightCount() {
+        Semaphore permits = inFlight;
+        return permits != null ? maxInFlight - permits.availablePermits() : 0;
+    }
+
+    /**
+     * Shuts down thread pool.
+     */
+    public synchronized void destroy() throws Exception {
+        if (executorService != null) {
+            executorService.shutdownNow();
+            executorService = null;
+        }
+    }
+
+    /**
+     * Sets the target message sender.
+     * @param messageSender the messageSender to set
+     */
+    public void setMessageSender(MessageSender messageSender) {
+        this.messageSender = messageSender;
+    }
+
+    /**
+     * Gets the target message sender.
+     * @return the messageSender
+     */
+    public MessageSender getMessageSender() {
+        return messageSender;
+    }
+
+    /**
+     * Sets the maximum number of requests in flight.
+     * @param maxInFlight the maxInFlight to set
+     */
+    public void setMaxInFlight(int maxInFlight) {
+        Assert.isTrue(maxInFlight > 0, "Maximum number of requests in flight must be positive");
+        this.maxInFlight = maxInFlight;
+    }
+
+    /**
+     * Gets the maximum number of requests in flight.
+     * @return the maxInFlight
+     */
+    public int getMaxInFlight() {
+        return maxInFlight;
+    }
+
+    /**
+     * @see org.springframework.beans.factory.BeanNameAware#setBeanName(java.lang.String)
+     */
+    public void setBeanName(String name) {
+        this.name = name;
+    }
+}
@@ -0,0 +1,313 @@
+/*
+ * Copyright 2006-2010 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.consol.citrus.message;
+
+import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Thread safe store for objects correlated by a key, e.g. synchronous reply messages. Consumers may
+ * block on a correlation key until the object arrives. Waiting consumers are woken up as soon as an
+ * object for their key is added.
+ *
+ * Objects that are never consumed expire after a configurable amount of time. Store also records basic
+ * wait time statistics.
+ *
+ * @author Christoph Deppisch
+ */
+public class CorrelationStore<T> {
+    /** Default time in milliseconds after unconsumed objects expire */
+    public static final long DEFAULT_EXPIRY = 300000L;
+
+    /** Slots by correlation key */
+    private final ConcurrentMap<String, Slot<T>> slots = new ConcurrentHashMap<String, Slot<T>>();
+
+    /** Time in milliseconds after unconsumed objects expire, zero or less disables expiry */
+    private volatile long expiry = DEFAULT_EXPIRY;
+
+    /** Next time expired objects are purged */
+    private volatile long nextPurge = 0L;
+
+    /** Wait time statistics */
+    private final AtomicLong waits = new AtomicLong();
+    private final AtomicLong totalWaitTime = new AtomicLong();
+    private final AtomicLong maxWaitTime = new AtomicLong();
+    private final AtomicLong timeouts = new AtomicLong();
+    private final AtomicLong expired = new AtomicLong();
+
+    /**
+     * Adds a new object with correlation key. Existing object for this key is overwritten.
+     * Consumers waiting for the key are notified immediately.
+     *
+     * @param correlationKey
+     * @param object
+     */
+    public void add(String correlationKey, T object) {
+        purgeExpired();
+
+        while (true) {
+            Slot<T> slot = getSlot(correlationKey);
+
+            synchronized (slot) {
+                if (slot.removed) {
+                    continue;
+                }
+
+                slot.object = object;
+                slot.timestamp = System.currentTimeMillis();
+                slot.notifyAll();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Removes and returns the object for the correlation key without waiting.
+     * @param correlationKey
+     * @return the object or null if not available.
+     */
+    public T poll(String correlationKey) {
+        Slot<T> slot = slots.get(correlationKey);
+
+        if (slot == null) {
+            return null;
+        }
+
+        synchronized (slot) {
+            T object = slot.object;
+            slot.object = null;
+            release(correlationKey, slot);
+
+            return object;
+        }
+    }
+
+    /**
+     * Removes and returns the object for the correlation key. Waits until the object
+     * arrives or the timeout has passed.
+     *
+     * @param correlationKey
+     * @param timeout the maximum time to wait in milliseconds.
+     * @return the object or null on timeout.
+     */
+    public T take(String correlationKey, long timeout) {
+        long start = System.currentTimeMillis();
+        long deadline = start + timeout;
+
+        while (true) {
+            Slot<T> slot = getSlot(correlationKey);
+
+            synchronized (slot) {
+                if (slot.removed) {
+                    continue;
+                }
+
+                slot.waiters++;
+                try {
+                    long remaining = deadline - System.currentTimeMillis();
+                    while (slot.object == null && remaining > 0) {
+                        slot.wait(remaining);
+                        remaining = deadline - System.currentTimeMillis();
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    slot.waiters--;
+                }
+
+                T object = slot.object;
+                slot.object = null;
+                release(correlationKey, slot);
+
+                recordWait(System.currentTimeMillis() - start, object == null);
+
+                return object;
+            }
+        }
+    }
+
+    /**
+     * Removes all objects that were not consumed within expiry time.
+     */
+    public void purgeExpired() {
+        long now = System.currentTimeMillis();
+
+        if (expiry <= 0 || now < nextPurge) {
+            return;
+        }
+
+        nextPurge = now + expiry / 2;
+
+        for (Entry<String, Slot<T>> entry : slots.entrySet()) {
+            Slot<T> slot = entry.getValue();
+
+            synchronized (slot) {
+                if (slot.object != null && now - slot.timestamp > expiry) {
+                    slot.object = null;
+                    expired.incrementAndGet();
+                    release(entry.getKey(), slot);
+                }
+            }
+        }
+    }
+
+    /**
+     * Gets the slot for a correlation key, creates new slot if necessary.
+     * @param correlationKey
+     * @return
+     */
+    private Slot<T> getSlot(String correlationKey) {
+        Slot<T> slot = slots.get(correlationKey);
+
+        if (slot == null) {
+            Slot<T> newSlot = new Slot<T>();
+            slot = slots.putIfAbsent(correlationKey, newSlot);
+
+            if (slot == null) {
+                slot = newSlot;
+            }
+        }
+
+        return slot;
+    }
+
+    /**
+     * Removes empty slot from store when no other consumer is waiting. Caller
+     * must hold the slot's monitor.
+     * @param correlationKey
+     * @param slot
+     */
+    private void release(String correlationKey, Slot<T> slot) {
+        if (slot.object == null && slot.waiters == 0) {
+            slot.removed = true;
+            slots.remove(correlationKey, slot);
+        }
+    }
+
+    /**
+     * Records wait time statistics.
+     * @param waitTime
+     * @param timedOut
+     */
+    private void recordWait(long waitTime, boolean timedOut) {
+        waits.incrementAndGet();
+        totalWaitTime.addAndGet(waitTime);
+
+        if (timedOut) {
+            timeouts.incrementAndGet();
+        }
+
+        long max = maxWaitTime.get();
+        while (waitTime > max && !maxWaitTime.compareAndSet(max, waitTime)) {
+            max = maxWaitTime.get();
+        }
+    }
+
+    /**
+     * Gets the number of objects currently stored.
+     * @return
+     */
+    public int size() {
+        int size = 0;
+
+        for (Slot<T> slot : slots.values()) {
+            synchronized (slot) {
+                if (slot.object != null) {
+                    size++;
+                }
+            }
+        }
+
+        return size;
+    }
+
+    /**
+     * Gets the number of blocking take operations.
+     * @return
+     */
+    public long getWaitCount() {
+        return waits.get();
+    }
+
+    /**
+     * Gets the overall time in milliseconds consumers have been waiting.
+     * @return
+     */
+    public long getTotalWaitTime() {
+        return totalWaitTime.get();
+    }
+
+    /**
+     * Gets the longest time in milliseconds a consumer has been waiting.
+     * @return
+     */
+    public long getMaxWaitTime() {
+        return maxWaitTime.get();
+    }
+
+    /**
+     * Gets the number of take operations that timed out.
+     * @return
+     */
+    public long getTimeoutCount() {
+        return timeouts.get();
+    }
+
+    /**
+     * Gets the number of objects removed because of expiry.
+     * @return
+     */
+    public long getExpiredCount() {
+        return expired.get();
+    }
+
+    /**
+     * Sets the time in milliseconds after unconsumed objects expire.
+     * @param expiry the expiry to set
+     */
+    public void setExpiry(long expiry) {
+        this.expiry = expiry;
+        this.nextPurge = 0L;
+    }
+
+    /**
+     * Gets the time in milliseconds after unconsumed objects expire.
+     * @return the expiry
+     */
+    public long getExpiry() {
+        return expiry;
+    }
+
+    /**
+     * Holds the object for a correlation key and the number of waiting consumers.
+     */
+    private static final class Slot<T> {
+        /** Stored object */
+        private T object;
+
+        /** Time the object was added */
+        private long timestamp;
+
+        /** Number of waiting consumers */
+        private int waiters;
+
+        /** Slot has been removed from store */
+        private boolean removed;
+    }
+}
@@ -19,6 +19,7 @@ package com.consol.citrus.report;
 import java.io.*;
 import java.text.*;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -49,7 +50,7 @@ public class HtmlReporter extends AbstractTestListener implements TestReporter {
     private TestResults testResults = new TestResults();
     
     /** Map holding additional information of test cases */
-    private Map<String, ResultDetail> details = new HashMap<String, ResultDetail>();
+    private Map<String, ResultDetail> details = new ConcurrentHashMap<String, ResultDetail>();
     
     /** Static resource for the HTML test report template */
     private static final Resource REPORT_TEMPLATE = new ClassPathResource("test-report.html", HtmlReporter.class);
@@ -84,7 +85,7 @@ public class HtmlReporter extends AbstractTestListener implements TestReporter {
     /**
      * @see com.consol.citrus.report.TestReporter#generateTestResults()
      */
-    public void generateTestResults() {
+    public synchronized void generateTestResults() {
         String report = "";
         StringBuilder reportDetails = new StringBuilder();
         
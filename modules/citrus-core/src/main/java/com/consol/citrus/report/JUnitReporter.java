@@ -19,8 +19,8 @@ package com.consol.citrus.report;
 import java.io.IOException;
 import java.text.DecimalFormat;
 import java.text.DecimalFormatSymbols;
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -37,7 +37,8 @@ import com.consol.citrus.report.TestResult.RESULT;
 
 /**
  * {@link TestReporter} implementation that generates the famous JUnit XML reports. JUnit can
- * use these XML reports to generate HTML reports.
+ * use these XML reports to generate HTML reports. Report document is synchronized as tests may
+ * run in parallel.
  *  
  * @author Christoph Deppisch
  */
@@ -61,7 +62,7 @@ public class JUnitReporter implements TestSuiteListener, TestListener, TestRepor
     private static Logger log = LoggerFactory.getLogger(JUnitReporter.class);
 
     /** Track test execution time */
-    private Map<String, Long> testExecutionTime = new HashMap<String, Long>();
+    private Map<String, Long> testExecutionTime = new ConcurrentHashMap<String, Long>();
     
     /** Track overall execution time */
     private Long overallExecutionTime = 0L;
@@ -78,7 +79,7 @@ public class JUnitReporter implements TestSuiteListener, TestListener, TestRepor
     /**
      * @see com.consol.citrus.report.TestReporter#generateTestResults()
      */
-    public void generateTestResults() {
+    public synchronized void generateTestResults() {
         try {
             log.info("Generating JUnit results");
 
@@ -162,7 +163,7 @@ public class JUnitReporter implements TestSuiteListener, TestListener, TestRepor
     /**
      * @see com.consol.citrus.report.TestListener#onTestFailure(com.consol.citrus.TestCase, java.lang.Throwable)
      */
-    public void onTestFailure(TestCase test, Throwable cause) {
+    public synchronized void onTestFailure(TestCase test, Throwable cause) {
         Element testCaseElement = doc.createElement("testcase");
 
         testCaseElement.setAttribute("classname", test.getClass().getName());
@@ -225,7 +226,7 @@ public class JUnitReporter implements TestSuiteListener, TestListener, TestRepor
     /**
      * @see com.consol.citrus.report.TestListener#onTestSuccess(com.consol.citrus.TestCase)
      */
-    public void onTestSuccess(TestCase test) {
+    public synchronized void onTestSuccess(TestCase test) {
         Element testCaseElement = doc.createElement("testcase");
 
         testCaseElement.setAttribute("classname", test.getClass().getName());
@@ -240,7 +241,7 @@ public class JUnitReporter implements TestSuiteListener, TestListener, TestRepor
     /**
      * @see com.consol.citrus.report.TestSuiteListener#onFinish()
      */
-    public void onFinish() {
+    public synchronized void onFinish() {
         testSuiteElement.setAttribute("errors", "" + testResults.getFailed());
         testSuiteElement.setAttribute("failures", "0");
         testSuiteElement.setAttribute("tests", "" + (testResults.getSuccess() + testResults.getFailed()));
@@ -262,7 +263,7 @@ public class JUnitReporter implements TestSuiteListener, TestListener, TestRepor
     /**
      * @see com.consol.citrus.report.TestSuiteListener#onStart()
      */
-    public void onStart() {
+    public synchronized void onStart() {
         startExecutionTime();
 
         try {
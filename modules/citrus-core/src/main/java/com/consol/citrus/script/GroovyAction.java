@@ -16,8 +16,9 @@
 
 package com.consol.citrus.script;
 
-import groovy.lang.GroovyClassLoader;
+import groovy.lang.Binding;
 import groovy.lang.GroovyObject;
+import groovy.lang.Script;
 
 import java.io.IOException;
 
@@ -30,6 +31,7 @@ import org.springframework.util.StringUtils;
 
 import com.consol.citrus.actions.AbstractTestAction;
 import com.consol.citrus.context.TestContext;
+import com.consol.citrus.context.VariableScope;
 import com.consol.citrus.exceptions.CitrusRuntimeException;
 import com.consol.citrus.util.FileUtils;
 import com.consol.citrus.validation.script.TemplateBasedScriptBuilder;
@@ -37,6 +39,12 @@ import com.consol.citrus.validation.script.TemplateBasedScriptBuilder;
 /**
  * Action executes groovy scripts either specified inline or from external file resource.
  * 
+ * Compiled scripts are cached by their source code, so scripts are compiled only once as long as
+ * the script code does not change after test variables have been replaced. Scripts may access test variables
+ * through the test context instead of variable place holders in order to keep their code unchanged. Plain
+ * scripts executed without script template can read all test variables and the test context through the script binding.
+ * Variables assigned in the script do not change test variables.
+ * 
  * @author Christoph Deppisch
  * @since 2006
  */
@@ -67,9 +75,6 @@ public class GroovyAction extends AbstractTestAction {
     @Override
     public void doExecute(TestContext context) {
         try {
-            ClassLoader parent = getClass().getClassLoader();
-            GroovyClassLoader loader = new GroovyClassLoader(parent);
-            
             String code;
             
             // get the script either from inline data or external file resource
@@ -82,13 +87,11 @@ public class GroovyAction extends AbstractTestAction {
                 		"external script resource is defined. Unable to execute groovy script.");
             }
             
-            // load groovy code
-            Class<?> groovyClass = loader.parseClass(code);
-            // Instantiate an object from groovy code
-            GroovyObject groovyObject = (GroovyObject) groovyClass.newInstance();
+            // load compiled groovy code from cache
+            Class<?> groovyClass = GroovyScriptCache.getInstance().getScriptClass(code);
             
             // only apply default script template in case we have feature enabled and code is not a class, too
-            if (useScriptTemplate && groovyObject.getClass().getSimpleName().startsWith("script")) {
+            if (useScriptTemplate && groovyClass.getSimpleName().startsWith("script")) {
                 // surround code with default script template code
                 if (scriptTemplateResource == null) {
                     scriptTemplateResource = new ClassPathResource("script-template.groovy", GroovyAction.class);
@@ -99,10 +102,12 @@ public class GroovyAction extends AbstractTestAction {
                                                  .withCode(code)
                                                  .build();
                 
-                groovyClass = loader.parseClass(code);
-                groovyObject = (GroovyObject) groovyClass.newInstance();
+                groovyClass = GroovyScriptCache.getInstance().getScriptClass(code);
             }
             
+            // Instantiate an object from groovy code
+            GroovyObject groovyObject = (GroovyObject) groovyClass.newInstance();
+            
             if (log.isDebugEnabled()) {
                 log.debug("Executing Groovy script:\n" + code);
             }
@@ -111,6 +116,13 @@ public class GroovyAction extends AbstractTestAction {
             if(groovyObject instanceof ScriptExecutor) {
                 ((ScriptExecutor)groovyObject).execute(context);
             } else {
+                if (groovyObject instanceof Script) {
+                    // make test variables readable as script variables, script variables and context stay local to the script
+                    Binding binding = new Binding(new VariableScope(context.getVariables()));
+                    binding.setVariable("context", context);
+                    ((Script)groovyObject).setBinding(binding);
+                }
+                
                 groovyObject.invokeMethod("run", new Object[] {});
             }
             
@@ -0,0 +1,169 @@
+/*
+ * Copyright 2006-2010 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.consol.citrus.script;
+
+import groovy.lang.GroovyClassLoader;
+import groovy.lang.GroovySystem;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.codehaus.groovy.control.CompilationFailedException;
+
+/**
+ * Size bounded cache for compiled Groovy script classes. Entries are keyed by the script source code,
+ * so a script is compiled only once as long as its source does not change.
+ *
+ * Each script is compiled with its own {@link GroovyClassLoader}. Scripts may therefore define classes with
+ * identical names. Least recently used scripts are evicted from the cache and their meta classes are
+ * removed from the Groovy meta class registry, so evicted classes can be garbage collected together with
+ * their class loader.
+ *
+ * @author Christoph Deppisch
+ */
+public final class GroovyScriptCache {
+    /** Default maximum number of cached script classes */
+    public static final int DEFAULT_MAX_ENTRIES = 256;
+
+    /** Shared cache instance */
+    private static final GroovyScriptCache INSTANCE = new GroovyScriptCache(DEFAULT_MAX_ENTRIES);
+
+    /** Maximum number of cached script classes */
+    private int maxEntries;
+
+    /** Statistics */
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    /** Compiled script classes by source code */
+    private final Map<String, Class<?>> scriptClasses = new LinkedHashMap<String, Class<?>>(16, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Entry<String, Class<?>> eldest) {
+            if (size() > maxEntries) {
+                GroovySystem.getMetaClassRegistry().removeMetaClass(eldest.getValue());
+                return true;
+            }
+
+            return false;
+        }
+    };
+
+    /**
+     * Constructor using maximum number of entries.
+     * @param maxEntries
+     */
+    public GroovyScriptCache(int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * Gets the shared cache instance.
+     * @return
+     */
+    public static GroovyScriptCache getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Gets the compiled class for the script code. Script is compiled on cache miss.
+     *
+     * @param code the Groovy script code.
+     * @return the compiled script class.
+     * @throws CompilationFailedException
+     */
+    public Class<?> getScriptClass(String code) throws CompilationFailedException {
+        Class<?> scriptClass;
+        synchronized (scriptClasses) {
+            scriptClass = scriptClasses.get(code);
+        }
+
+        if (scriptClass != null) {
+            hits.incrementAndGet();
+            return scriptClass;
+        }
+
+        misses.incrementAndGet();
+        scriptClass = new GroovyClassLoader(GroovyScriptCache.class.getClassLoader()).parseClass(code);
+
+        synchronized (scriptClasses) {
+            scriptClasses.put(code, scriptClass);
+        }
+
+        return scriptClass;
+    }
+
+    /**
+     * Removes all cached script classes.
+     */
+    public void clear() {
+        synchronized (scriptClasses) {
+            for (Class<?> scriptClass : scriptClasses.values()) {
+                GroovySystem.getMetaClassRegistry().removeMetaClass(scriptClass);
+            }
+
+            scriptClasses.clear();
+        }
+    }
+
+    /**
+     * Gets the number of cached script classes.
+     * @return
+     */
+    public int size() {
+        synchronized (scriptClasses) {
+            return scriptClasses.size();
+        }
+    }
+
+    /**
+     * Gets the number of cache hits.
+     * @return
+     */
+    public long getHits() {
+        return hits.get();
+    }
+
+    /**
+     * Gets the number of cache misses, which is the number of compiled scripts.
+     * @return
+     */
+    public long getMisses() {
+        return misses.get();
+    }
+
+    /**
+     * Gets the maximum number of cached script classes.
+     * @return the maxEntries
+     */
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+
+    /**
+     * Sets the maximum number of cached script classes.
+     * @param maxEntries the maxEntries to set
+     */
+    public void setMaxEntries(int maxEntries) {
+        synchronized (scriptClasses) {
+            this.maxEntries = maxEntries;
+        }
+    }
+}
@@ -17,6 +17,9 @@
 package com.consol.citrus.server.activemq;
 
 import org.apache.activemq.broker.BrokerService;
+import org.apache.activemq.broker.region.Destination;
+import org.apache.activemq.broker.region.Queue;
+import org.apache.activemq.command.ActiveMQQueue;
 
 import com.consol.citrus.exceptions.CitrusRuntimeException;
 import com.consol.citrus.server.AbstractServer;
@@ -77,6 +80,32 @@ public class ActiveMQServer extends AbstractServer {
         }
     }
     
+    /**
+     * Removes all messages from a queue via broker API without consuming them.
+     * @param queueName the queue to purge.
+     * @return the number of removed messages or -1 if queue can not be purged via broker API.
+     */
+    public long purgeQueue(String queueName) {
+        if (broker == null || !isRunning()) {
+            return -1;
+        }
+        
+        try {
+            Destination destination = broker.getDestination(new ActiveMQQueue(queueName));
+            
+            if (!(destination instanceof Queue)) {
+                return -1;
+            }
+            
+            long messageCount = destination.getDestinationStatistics().getMessages().getCount();
+            ((Queue) destination).purge();
+            
+            return messageCount;
+        } catch (Exception e) {
+            throw new CitrusRuntimeException("Failed to purge queue '" + queueName + "'", e);
+        }
+    }
+    
     /**
      * Setter for persistent mode.
      * @param persistent the persistent to set
@@ -20,7 +20,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.NoSuchBeanDefinitionException;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.context.support.ClassPathXmlApplicationContext;
+import org.springframework.context.ApplicationContext;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.testng.AbstractTestNGSpringContextTests;
 import org.springframework.util.Assert;
@@ -30,6 +30,7 @@ import org.testng.annotations.*;
 
 import com.consol.citrus.TestCase;
 import com.consol.citrus.TestCaseMetaInfo.Status;
+import com.consol.citrus.config.TestCaseDefinitionCache;
 import com.consol.citrus.container.*;
 import com.consol.citrus.context.TestContext;
 import com.consol.citrus.context.TestContextFactoryBean;
@@ -211,7 +212,7 @@ public abstract class AbstractTestNGCitrusTest extends AbstractTestNGSpringConte
      * @return the new test case.
      */
     protected TestCase getTestCase() {
-        ClassPathXmlApplicationContext ctx = createApplicationContext();
+        ApplicationContext ctx = createApplicationContext();
         TestCase testCase = null;
         try {
             testCase = (TestCase) ctx.getBean(this.getClass().getSimpleName(), TestCase.class);
@@ -223,17 +224,18 @@ public abstract class AbstractTestNGCitrusTest extends AbstractTestNGSpringConte
     }
 
     /**
-     * Creates the Spring application context.
+     * Creates the Spring application context. Test definition is parsed only once
+     * and cached for subsequent test executions.
      * @return
      */
-    protected ClassPathXmlApplicationContext createApplicationContext() {
+    protected ApplicationContext createApplicationContext() {
         try {
-            return new ClassPathXmlApplicationContext(
+            return TestCaseDefinitionCache.createApplicationContext(
                     new String[] {
                             this.getClass().getPackage().getName().replace('.', '/')
                                     + "/" + getClass().getSimpleName() + ".xml",
                                     "com/consol/citrus/spring/internal-helper-ctx.xml"},
-                    true, applicationContext);
+                    applicationContext);
         } catch (Exception e) {
             throw handleError("Failed to load test case", e);
         }
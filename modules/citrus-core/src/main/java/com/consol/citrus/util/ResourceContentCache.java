@@ -0,0 +1,215 @@
+/*
+ * Copyright 2006-2010 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.consol.citrus.util;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import org.springframework.core.io.Resource;
+
+import com.consol.citrus.context.DynamicContentTemplate;
+import com.consol.citrus.functions.FunctionRegistry;
+
+/**
+ * Size bounded cache for file resource contents. Entries are keyed by resource URI and hold the
+ * raw text content as well as its precompiled {@link DynamicContentTemplate}. Cached content is
+ * read again as soon as the resource's last modified timestamp changes.
+ *
+ * Resources without URI representation are not cached. Least recently used entries are evicted
+ * when cache exceeds its maximum number of entries.
+ *
+ * @author Christoph Deppisch
+ */
+public final class ResourceContentCache {
+    /** Default maximum number of cached resources */
+    public static final int DEFAULT_MAX_ENTRIES = 256;
+
+    /** Shared cache instance */
+    private static final ResourceContentCache INSTANCE = new ResourceContentCache(DEFAULT_MAX_ENTRIES);
+
+    /** Maximum number of cached resources */
+    private int maxEntries;
+
+    /** Cached entries by resource URI */
+    private final Map<String, CacheEntry> entries = new LinkedHashMap<String, CacheEntry>(16, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Entry<String, CacheEntry> eldest) {
+            return size() > maxEntries;
+        }
+    };
+
+    /**
+     * Constructor using maximum number of entries.
+     * @param maxEntries
+     */
+    public ResourceContentCache(int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * Gets the shared cache instance.
+     * @return
+     */
+    public static ResourceContentCache getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Gets the text content of a resource. Content is read from the resource on first access
+     * and whenever the resource was modified since.
+     *
+     * @param resource the resource to read.
+     * @return the text content.
+     * @throws IOException
+     */
+    public String getContent(Resource resource) throws IOException {
+        CacheEntry entry = getEntry(resource);
+
+        if (entry == null) {
+            return FileUtils.readToString(resource);
+        }
+
+        return entry.content;
+    }
+
+    /**
+     * Gets the precompiled dynamic content template of a resource. Template is compiled on first
+     * access and compiled again when either resource or function libraries have changed.
+     *
+     * @param resource the resource to read.
+     * @param functionRegistry the function registry used to compile the template.
+     * @return the template.
+     * @throws IOException
+     */
+    public DynamicContentTemplate getTemplate(Resource resource, FunctionRegistry functionRegistry) throws IOException {
+        CacheEntry entry = getEntry(resource);
+
+        if (entry == null) {
+            return DynamicContentTemplate.compile(FileUtils.readToString(resource), functionRegistry);
+        }
+
+        DynamicContentTemplate template = entry.template;
+        if (template == null || !template.isCompiledFor(functionRegistry)) {
+            template = DynamicContentTemplate.compile(entry.content, functionRegistry);
+            entry.template = template;
+        }
+
+        return template;
+    }
+
+    /**
+     * Gets the up to date cache entry for a resource. Returns null
+     * for resources that can not be cached.
+     *
+     * @param resource
+     * @return
+     * @throws IOException
+     */
+    private CacheEntry getEntry(Resource resource) throws IOException {
+        String key;
+        try {
+            key = resource.getURI().toString();
+        } catch (IOException e) {
+            return null;
+        }
+
+        long lastModified = getLastModified(resource);
+
+        CacheEntry entry;
+        synchronized (entries) {
+            entry = entries.get(key);
+        }
+
+        if (entry == null || entry.lastModified != lastModified) {
+            entry = new CacheEntry(FileUtils.readToString(resource), lastModified);
+
+            synchronized (entries) {
+                entries.put(key, entry);
+            }
+        }
+
+        return entry;
+    }
+
+    /**
+     * Gets the last modified timestamp of a resource or -1 if not available.
+     * @param resource
+     * @return
+     */
+    private long getLastModified(Resource resource) {
+        try {
+            return resource.lastModified();
+        } catch (IOException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Removes all cached entries.
+     */
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    /**
+     * Gets the maximum number of cached resources.
+     * @return the maxEntries
+     */
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+
+    /**
+     * Sets the maximum number of cached resources.
+     * @param maxEntries the maxEntries to set
+     */
+    public void setMaxEntries(int maxEntries) {
+        synchronized (entries) {
+            this.maxEntries = maxEntries;
+        }
+    }
+
+    /**
+     * Cached resource content and template.
+     */
+    private static final class CacheEntry {
+        /** Raw text content */
+        private final String content;
+
+        /** Last modified timestamp of the resource when content was read */
+        private final long lastModified;
+
+        /** Precompiled template of the content */
+        private volatile DynamicContentTemplate template;
+
+        /**
+         * Default constructor.
+         * @param content
+         * @param lastModified
+         */
+        private CacheEntry(String content, long lastModified) {
+            this.content = content;
+            this.lastModified = lastModified;
+        }
+    }
+}
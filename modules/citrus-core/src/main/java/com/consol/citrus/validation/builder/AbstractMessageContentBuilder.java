@@ -26,10 +26,11 @@ import org.springframework.integration.MessageHeaders;
 import org.springframework.integration.support.MessageBuilder;
 import org.springframework.util.StringUtils;
 
+import com.consol.citrus.context.DynamicContentTemplate;
 import com.consol.citrus.context.TestContext;
 import com.consol.citrus.exceptions.CitrusRuntimeException;
 import com.consol.citrus.message.CitrusMessageHeaders;
-import com.consol.citrus.util.FileUtils;
+import com.consol.citrus.util.ResourceContentCache;
 
 /**
  * Abstract control message builder is aware of message headers and delegates message payload
@@ -48,6 +49,15 @@ public abstract class AbstractMessageContentBuilder<T> implements MessageContent
     /** The message header as inline data */
     private String messageHeaderData;
     
+    /** Precompiled template of message header data */
+    private DynamicContentTemplate messageHeaderTemplate;
+    
+    /** Precompiled template of message header resource content */
+    private DynamicContentTemplate messageHeaderResourceTemplate;
+    
+    /** Cached resource content the header resource template was compiled from */
+    private String messageHeaderResourceContent;
+    
     /**
      * Constructs the control message with headers and payload coming from 
      * subclass implementation.
@@ -66,9 +76,9 @@ public abstract class AbstractMessageContentBuilder<T> implements MessageContent
             
             String headerContent = null;
             if (messageHeaderResource != null) {
-                headerContent = context.replaceDynamicContentInString(FileUtils.readToString(messageHeaderResource).trim());
+                headerContent = getMessageHeaderResourceTemplate(context).render(context);
             } else if (messageHeaderData != null){
-                headerContent = context.replaceDynamicContentInString(messageHeaderData.trim());
+                headerContent = getMessageHeaderTemplate(context).render(context);
             }
             
             if (StringUtils.hasText(headerContent)) {
@@ -83,6 +93,43 @@ public abstract class AbstractMessageContentBuilder<T> implements MessageContent
         }
     }
     
+    /**
+     * Gets the precompiled message header data template. Template is compiled on first access and
+     * compiled again in case function libraries have changed.
+     * @param context
+     * @return
+     */
+    private DynamicContentTemplate getMessageHeaderTemplate(TestContext context) {
+        DynamicContentTemplate template = messageHeaderTemplate;
+        
+        if (template == null || !template.isCompiledFor(context.getFunctionRegistry())) {
+            template = DynamicContentTemplate.compile(messageHeaderData.trim(), context.getFunctionRegistry());
+            messageHeaderTemplate = template;
+        }
+        
+        return template;
+    }
+    
+    /**
+     * Gets the precompiled message header resource template. Resource content is taken from the 
+     * shared resource content cache, template is compiled again as soon as cached content or function 
+     * libraries have changed.
+     * @param context
+     * @return
+     * @throws IOException
+     */
+    private synchronized DynamicContentTemplate getMessageHeaderResourceTemplate(TestContext context) throws IOException {
+        String content = ResourceContentCache.getInstance().getContent(messageHeaderResource);
+        
+        if (messageHeaderResourceTemplate == null || content != messageHeaderResourceContent 
+                || !messageHeaderResourceTemplate.isCompiledFor(context.getFunctionRegistry())) {
+            messageHeaderResourceTemplate = DynamicContentTemplate.compile(content.trim(), context.getFunctionRegistry());
+            messageHeaderResourceContent = content;
+        }
+        
+        return messageHeaderResourceTemplate;
+    }
+    
     /**
      * Method checks all header types to meet Spring Integration type requirements. For instance
      * sequence number must be of type {@link Integer}.
@@ -113,8 +160,9 @@ public abstract class AbstractMessageContentBuilder<T> implements MessageContent
      * Sets the message header resource.
      * @param messageHeaderResource the messageHeaderResource to set
      */
-    public void setMessageHeaderResource(Resource messageHeaderResource) {
+    public synchronized void setMessageHeaderResource(Resource messageHeaderResource) {
         this.messageHeaderResource = messageHeaderResource;
+        this.messageHeaderResourceTemplate = null;
     }
 
     /**
@@ -123,5 +171,6 @@ public abstract class AbstractMessageContentBuilder<T> implements MessageContent
      */
     public void setMessageHeaderData(String messageHeaderData) {
         this.messageHeaderData = messageHeaderData;
+        this.messageHeaderTemplate = null;
     }
 }
@@ -23,9 +23,10 @@ import java.util.List;
 import org.springframework.core.io.Resource;
 import org.springframework.util.StringUtils;
 
+import com.consol.citrus.context.DynamicContentTemplate;
 import com.consol.citrus.context.TestContext;
 import com.consol.citrus.exceptions.CitrusRuntimeException;
-import com.consol.citrus.util.FileUtils;
+import com.consol.citrus.util.ResourceContentCache;
 import com.consol.citrus.validation.interceptor.MessageConstructionInterceptor;
 
 /**
@@ -39,6 +40,9 @@ public class PayloadTemplateMessageBuilder extends AbstractMessageContentBuilder
     /** Direct string representation of message payload */
     private String payloadData;
     
+    /** Precompiled template of message payload data */
+    private DynamicContentTemplate payloadTemplate;
+    
     /** List of manipulators for static message payload */
     private List<MessageConstructionInterceptor<String>> messageInterceptors = new ArrayList<MessageConstructionInterceptor<String>>();
     
@@ -50,9 +54,9 @@ public class PayloadTemplateMessageBuilder extends AbstractMessageContentBuilder
             //construct control message payload
             String messagePayload = "";
             if (payloadResource != null) {
-                messagePayload = context.replaceDynamicContentInString(FileUtils.readToString(payloadResource));
+                messagePayload = ResourceContentCache.getInstance().getTemplate(payloadResource, context.getFunctionRegistry()).render(context);
             } else if (payloadData != null){
-                messagePayload = context.replaceDynamicContentInString(payloadData);
+                messagePayload = getPayloadTemplate(context).render(context);
             }
             
             if (StringUtils.hasText(messagePayload)) {
@@ -67,12 +71,30 @@ public class PayloadTemplateMessageBuilder extends AbstractMessageContentBuilder
         }
     }
     
+    /**
+     * Gets the precompiled payload data template. Template is compiled on first access and
+     * compiled again in case function libraries have changed.
+     * @param context
+     * @return
+     */
+    private DynamicContentTemplate getPayloadTemplate(TestContext context) {
+        DynamicContentTemplate template = payloadTemplate;
+        
+        if (template == null || !template.isCompiledFor(context.getFunctionRegistry())) {
+            template = DynamicContentTemplate.compile(payloadData, context.getFunctionRegistry());
+            payloadTemplate = template;
+        }
+        
+        return template;
+    }
+    
     /**
      * Set message payload as direct string data.
      * @param payloadData the payloadData to set
      */
     public void setPayloadData(String payloadData) {
         this.payloadData = payloadData;
+        this.payloadTemplate = null;
     }
 
     /**
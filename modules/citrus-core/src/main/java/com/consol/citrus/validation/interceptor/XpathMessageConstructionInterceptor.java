@@ -66,7 +66,8 @@ public class XpathMessageConstructionInterceptor implements MessageConstructionI
      * via XPath expressions.
      * 
      * Method parses the message payload to DOM document representation, therefore message payload
-     * needs to be XML here.
+     * needs to be XML here. Payload is parsed once and all expressions are evaluated on the same document
+     * with a shared namespace context.
      */
     public String interceptMessageConstruction(String messagePayload, TestContext context) {
         Document doc = XMLUtils.parseMessagePayload(messagePayload);
@@ -75,6 +76,8 @@ public class XpathMessageConstructionInterceptor implements MessageConstructionI
             throw new CitrusRuntimeException("Not able to set message elements, because no XML ressource defined");
         }
         
+        SimpleNamespaceContext nsContext = null;
+        
         for (Entry<String, String> entry : xPathExpressions.entrySet()) {
             String pathExpression = entry.getKey();
             String valueExpression = entry.getValue();
@@ -91,8 +94,11 @@ public class XpathMessageConstructionInterceptor implements MessageConstructionI
             
             Node node;
             if (XPathUtils.isXPathExpression(pathExpression)) {
-                SimpleNamespaceContext nsContext = new SimpleNamespaceContext();
-                nsContext.setBindings(XMLUtils.lookupNamespaces(messagePayload));
+                if (nsContext == null) {
+                    nsContext = new SimpleNamespaceContext();
+                    nsContext.setBindings(XMLUtils.lookupNamespaces(messagePayload));
+                }
+                
                 node = XPathUtils.evaluateAsNode(doc, pathExpression, nsContext);
             } else {
                 node = XMLUtils.findNodeByName(doc, pathExpression);
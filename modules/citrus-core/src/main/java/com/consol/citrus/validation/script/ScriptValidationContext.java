@@ -23,7 +23,7 @@ import org.springframework.core.io.Resource;
 import com.consol.citrus.context.TestContext;
 import com.consol.citrus.exceptions.CitrusRuntimeException;
 import com.consol.citrus.script.ScriptTypes;
-import com.consol.citrus.util.FileUtils;
+import com.consol.citrus.util.ResourceContentCache;
 import com.consol.citrus.validation.context.ValidationContext;
 
 /**
@@ -79,7 +79,7 @@ public class ScriptValidationContext implements ValidationContext {
     public String getValidationScript(TestContext context) {
         try {
             if (validationScriptResource != null) {
-                return context.replaceDynamicContentInString(FileUtils.readToString(validationScriptResource));
+                return ResourceContentCache.getInstance().getTemplate(validationScriptResource, context.getFunctionRegistry()).render(context);
             } else if (validationScript != null) {
                 return context.replaceDynamicContentInString(validationScript);
             } else {
@@ -21,7 +21,7 @@ import java.io.*;
 import org.springframework.core.io.Resource;
 
 import com.consol.citrus.exceptions.CitrusRuntimeException;
-import com.consol.citrus.util.FileUtils;
+import com.consol.citrus.util.ResourceContentCache;
 
 /**
  * Script builder builds a script with custom code body. Script header and tail come from static
@@ -115,7 +115,7 @@ public final class TemplateBasedScriptBuilder {
      */
     public static TemplateBasedScriptBuilder fromTemplateResource(Resource scriptTemplateResource) {
         try {
-            return new TemplateBasedScriptBuilder(FileUtils.readToString(scriptTemplateResource.getInputStream()));
+            return new TemplateBasedScriptBuilder(ResourceContentCache.getInstance().getContent(scriptTemplateResource));
         } catch (IOException e) {
             throw new CitrusRuntimeException("Error loading script template from file resource", e);
         }
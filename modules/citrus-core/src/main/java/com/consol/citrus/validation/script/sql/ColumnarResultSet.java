@@ -0,0 +1,284 @@
+/*
+ * Copyright 2006-2010 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.consol.citrus.validation.script.sql;
+
+import java.util.*;
+
+import com.consol.citrus.exceptions.CitrusRuntimeException;
+
+/**
+ * Compact column oriented store for SQL result sets. Values are held in one array per column instead
+ * of one map per row, column names are stored only once per result.
+ *
+ * Store acts as read only list of rows, each row being a lightweight map view on the column arrays, so it can be
+ * handed to {@link SqlResultSetScriptValidator} implementations as usual. Column names in row views are
+ * case insensitive. A store may hold the results of several statements with different columns, each
+ * statement result is started with {@link #addResult(String[])}.
+ *
+ * @author Christoph Deppisch
+ */
+public class ColumnarResultSet extends AbstractList<Map<String, Object>> {
+    /** Initial number of rows per column array */
+    private static final int INITIAL_CAPACITY = 16;
+
+    /** Statement results in order of arrival */
+    private final List<Result> results = new ArrayList<Result>();
+
+    /** Overall number of rows */
+    private int rowCount = 0;
+
+    /**
+     * Starts a new statement result with given columns. Subsequent rows are added to this result.
+     * @param columnNames
+     */
+    public void addResult(String[] columnNames) {
+        results.add(new Result(columnNames));
+    }
+
+    /**
+     * Adds a row to the current statement result. Values must be in column order.
+     * @param values
+     */
+    public void addRow(Object[] values) {
+        if (results.isEmpty()) {
+            throw new CitrusRuntimeException("Unable to add row - no result columns defined");
+        }
+
+        results.get(results.size() - 1).addRow(values);
+        rowCount++;
+    }
+
+    /**
+     * Gets a map view on the row with given index.
+     */
+    @Override
+    public Map<String, Object> get(int index) {
+        if (index < 0 || index >= rowCount) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + rowCount);
+        }
+
+        int rowIndex = index;
+        for (Result result : results) {
+            if (rowIndex < result.rows) {
+                return new Row(result, rowIndex);
+            }
+
+            rowIndex -= result.rows;
+        }
+
+        throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + rowCount);
+    }
+
+    /**
+     * Gets the overall number of rows.
+     */
+    @Override
+    public int size() {
+        return rowCount;
+    }
+
+    /**
+     * Columns and column arrays of a single statement result.
+     */
+    private static final class Result {
+        /** Column names in result order */
+        private final String[] columnNames;
+
+        /** Column index by upper case column name */
+        private final Map<String, Integer> columnIndex = new HashMap<String, Integer>();
+
+        /** Value arrays by column index */
+        private final Object[][] columns;
+
+        /** Number of rows */
+        private int rows = 0;
+
+        /**
+         * Default constructor.
+         * @param columnNames
+         */
+        private Result(String[] columnNames) {
+            this.columnNames = columnNames;
+            this.columns = new Object[columnNames.length][INITIAL_CAPACITY];
+
+            for (int i = 0; i < columnNames.length; i++) {
+                columnIndex.put(columnNames[i].toUpperCase(), i);
+            }
+        }
+
+        /**
+         * Adds row values to the column arrays, grows arrays if necessary.
+         * @param values
+         */
+        private void addRow(Object[] values) {
+            if (values.length != columnNames.length) {
+                throw new CitrusRuntimeException("Unable to add row - expected " + columnNames.length +
+                        " values but was " + values.length);
+            }
+
+            for (int i = 0; i < columns.length; i++) {
+                if (rows == columns[i].length) {
+                    Object[] column = new Object[rows * 2];
+                    System.arraycopy(columns[i], 0, column, 0, rows);
+                    columns[i] = column;
+                }
+
+                columns[i][rows] = values[i];
+            }
+
+            rows++;
+        }
+
+        /**
+         * Gets the index of a column or null if column is unknown.
+         * @param columnName
+         * @return
+         */
+        private Integer getColumnIndex(Object columnName) {
+            if (columnName == null) {
+                return null;
+            }
+
+            return columnIndex.get(columnName.toString().toUpperCase());
+        }
+    }
+
+    /**
+     * Read only map view on a single row.
+     */
+    private static final class Row extends AbstractMap<String, Object> {
+        /** Result holding the row */
+        private final Result result;
+
+        /** Row index inside result */
+        private final int rowIndex;
+
+        /**
+         * Default constructor.
+         * @param result
+         * @param rowIndex
+         */
+        private Row(Result result, int rowIndex) {
+            this.result = result;
+            this.rowIndex = rowIndex;
+        }
+
+        @Override
+        public Object get(Object key) {
+            Integer index = result.getColumnIndex(key);
+            return index == null ? null : result.columns[index][rowIndex];
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return result.getColumnIndex(key) != null;
+        }
+
+        @Override
+        public int size() {
+            return result.columnNames.length;
+        }
+
+        @Override
+        public Set<Entry<String, Object>> entrySet() {
+            return new AbstractSet<Entry<String, Object>>() {
+                @Override
+                public Iterator<Entry<String, Object>> iterator() {
+                    return new Iterator<Entry<String, Object>>() {
+                        private int column = 0;
+
+                        public boolean hasNext() {
+                            return column < result.columnNames.length;
+                        }
+
+                        public Entry<String, Object> next() {
+                            if (!hasNext()) {
+                                throw new NoSuchElementException();
+                            }
+
+                            Entry<String, Object> entry = new ColumnEntry(result.columnNames[column], result.columns[column][rowIndex]);
+                            column++;
+                            return entry;
+                        }
+
+                        public void remove() {
+                            throw new UnsupportedOperationException("Result set rows are read only");
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return result.columnNames.length;
+                }
+            };
+        }
+    }
+
+    /**
+     * Immutable column name and value pair.
+     */
+    private static final class ColumnEntry implements Map.Entry<String, Object> {
+        /** Column name */
+        private final String key;
+
+        /** Column value */
+        private final Object value;
+
+        /**
+         * Default constructor.
+         * @param key
+         * @param value
+         */
+        private ColumnEntry(String key, Object value) {
+            this.key = key;
+            this.value = value;
+        }
+
+        public String getKey() {
+            return key;
+        }
+
+        public Object getValue() {
+            return value;
+        }
+
+        public Object setValue(Object value) {
+            throw new UnsupportedOperationException("Result set rows are read only");
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Map.Entry<?, ?>)) {
+                return false;
+            }
+
+            Map.Entry<?, ?> other = (Map.Entry<?, ?>) o;
+            return key.equals(other.getKey()) && (value == null ? other.getValue() == null : value.equals(other.getValue()));
+        }
+
+        @Override
+        public int hashCode() {
+            return key.hashCode() ^ (value == null ? 0 : value.hashCode());
+        }
+
+        @Override
+        public String toString() {
+            return key + "=" + value;
+        }
+    }
+}
@@ -31,7 +31,6 @@ import org.springframework.integration.Message;
 import org.springframework.integration.MessageHeaders;
 import org.springframework.util.*;
 import org.springframework.xml.validation.XmlValidator;
-import org.springframework.xml.xsd.XsdSchema;
 import org.w3c.dom.*;
 import org.w3c.dom.ls.LSException;
 import org.xml.sax.SAXException;
@@ -48,6 +47,7 @@ import com.consol.citrus.validation.AbstractMessageValidator;
 import com.consol.citrus.validation.ControlMessageValidator;
 import com.consol.citrus.validation.context.ValidationContext;
 import com.consol.citrus.variable.VariableUtils;
+import com.consol.citrus.xml.ParsedMessagePayload;
 import com.consol.citrus.xml.XsdSchemaRepository;
 import com.consol.citrus.xml.namespace.NamespaceContextBuilder;
 import com.consol.citrus.xml.xpath.XPathExpressionResult;
@@ -76,7 +76,8 @@ public class DomXmlMessageValidator extends AbstractMessageValidator<XmlMessageV
     private NamespaceContextBuilder namespaceContextBuilder = new NamespaceContextBuilder(); 
 
     /**
-     * Validates the message with test context and xml validation context.
+     * Validates the message with test context and xml validation context. The received message payload
+     * is parsed only once and shared with all validation steps via the test context.
      */
     public void validateMessage(Message<?> receivedMessage, TestContext context, XmlMessageValidationContext validationContext) 
         throws ValidationException {
@@ -84,15 +85,16 @@ public class DomXmlMessageValidator extends AbstractMessageValidator<XmlMessageV
         
         try {
             if (validationContext.isSchemaValidationEnabled()) {
-                validateXMLSchema(receivedMessage);
+                validateXMLSchema(receivedMessage, context);
                 validateDTD(validationContext.getDTDResource(), receivedMessage);
             }
 
-            validateNamespaces(validationContext.getControlNamespaces(), receivedMessage);
-            validateMessagePayload(receivedMessage, validationContext, context);
+            validateNamespaces(validationContext.getControlNamespaces(), receivedMessage, context);
+            
+            Message<?> controlMessage = validationContext.getControlMessage(context);
+            validateMessagePayload(receivedMessage, controlMessage, validationContext, context);
             validateMessageElements(receivedMessage, validationContext, context);
 
-            Message<?> controlMessage = validationContext.getControlMessage(context);
             if (controlMessage != null) {
                 validateMessageHeader(controlMessage.getHeaders(), receivedMessage.getHeaders(), context);
             }
@@ -146,8 +148,9 @@ public class DomXmlMessageValidator extends AbstractMessageValidator<XmlMessageV
         
         log.info("Start XML elements validation");
 
-        Document received = XMLUtils.parseMessagePayload(receivedMessage.getPayload().toString());
-        NamespaceContext namespaceContext = namespaceContextBuilder.buildContext(receivedMessage, validationContext.getNamespaces());
+        ParsedMessagePayload parsedPayload = ParsedMessagePayload.fromMessage(receivedMessage, context);
+        Document received = parsedPayload.getDocument();
+        NamespaceContext namespaceContext = namespaceContextBuilder.buildContext(parsedPayload, validationContext.getNamespaces());
         
         for (Entry<String, String> entry : validationContext.getPathValidationExpressions().entrySet()) {
             String elementPathExpression = entry.getKey();
@@ -246,12 +249,22 @@ public class DomXmlMessageValidator extends AbstractMessageValidator<XmlMessageV
      * @param receivedMessage
      */
     public void validateXMLSchema(Message<?> receivedMessage) {
+        validateXMLSchema(receivedMessage, new TestContext());
+    }
+    
+    /**
+     * Validate message with a XML schema. Parsed message payload is shared via test context.
+     *
+     * @param receivedMessage
+     * @param context
+     */
+    public void validateXMLSchema(Message<?> receivedMessage, TestContext context) {
         if (receivedMessage.getPayload() == null || !StringUtils.hasText(receivedMessage.getPayload().toString())) {
             return;
         }
         
         try {
-            Document doc = XMLUtils.parseMessagePayload(receivedMessage.getPayload().toString());
+            Document doc = ParsedMessagePayload.fromMessage(receivedMessage, context).getDocument();
 
             if(!StringUtils.hasText(doc.getFirstChild().getNamespaceURI())) {
                 return;
@@ -259,11 +272,9 @@ public class DomXmlMessageValidator extends AbstractMessageValidator<XmlMessageV
 
             log.info("Starting XML schema validation ...");
 
-            XsdSchema schema = schemaRepository.getSchemaByNamespace(doc.getFirstChild().getNamespaceURI());
+            XmlValidator validator = schemaRepository.getSchemaValidator(doc.getFirstChild().getNamespaceURI());
 
-            Assert.notNull(schema, "No schema found in schemaRepository for namespace '" + doc.getFirstChild().getNamespaceURI() + "'");
-
-            XmlValidator validator = schema.createValidator();
+            Assert.notNull(validator, "No schema found in schemaRepository for namespace '" + doc.getFirstChild().getNamespaceURI() + "'");
 
             SAXParseException[] results = validator.validate(new DOMSource(doc));
 
@@ -289,6 +300,17 @@ public class DomXmlMessageValidator extends AbstractMessageValidator<XmlMessageV
      * @param receivedMessage
      */
     public void validateNamespaces(Map<String, String> expectedNamespaces, Message<?> receivedMessage) {
+        validateNamespaces(expectedNamespaces, receivedMessage, new TestContext());
+    }
+    
+    /**
+     * Validate namespaces in message. Parsed message payload is shared via test context.
+     *
+     * @param expectedNamespaces
+     * @param receivedMessage
+     * @param context
+     */
+    public void validateNamespaces(Map<String, String> expectedNamespaces, Message<?> receivedMessage, TestContext context) {
         if (CollectionUtils.isEmpty(expectedNamespaces)) { return; }
 
         if (receivedMessage.getPayload() == null || !StringUtils.hasText(receivedMessage.getPayload().toString())) {
@@ -297,9 +319,10 @@ public class DomXmlMessageValidator extends AbstractMessageValidator<XmlMessageV
         
         log.info("Start XML namespace validation");
 
-        Document received = XMLUtils.parseMessagePayload(receivedMessage.getPayload().toString());
+        ParsedMessagePayload parsedPayload = ParsedMessagePayload.fromMessage(receivedMessage, context);
+        Document received = parsedPayload.getDocument();
 
-        Map<String, String> foundNamespaces = XMLUtils.lookupNamespaces(receivedMessage.getPayload().toString());
+        Map<String, String> foundNamespaces = parsedPayload.getNamespaces();
 
         if (foundNamespaces.size() != expectedNamespaces.size()) {
             throw new ValidationException("Number of namespace declarations not equal for node " + XMLUtils.getNodesPathName(received.getFirstChild()) + " found " + foundNamespaces.size() + " expected " + expectedNamespaces.size());
@@ -327,12 +350,12 @@ public class DomXmlMessageValidator extends AbstractMessageValidator<XmlMessageV
      * Validate message payloads by comparing to a control message.
      *
      * @param receivedMessage
+     * @param controlMessage
      * @param validationContext
      * @param context
      */
-    private void validateMessagePayload(Message<?> receivedMessage, XmlMessageValidationContext validationContext, TestContext context) {
-        Message<?> controlMessage = validationContext.getControlMessage(context);
-        
+    private void validateMessagePayload(Message<?> receivedMessage, Message<?> controlMessage, 
+            XmlMessageValidationContext validationContext, TestContext context) {
         if (controlMessage == null || controlMessage.getPayload() == null) {
             log.info("Skip message payload validation as no control message was defined");
             return;
@@ -355,10 +378,10 @@ public class DomXmlMessageValidator extends AbstractMessageValidator<XmlMessageV
 
         log.info("Start XML tree validation ...");
 
-        Document received = XMLUtils.parseMessagePayload(receivedMessage.getPayload().toString());
+        ParsedMessagePayload parsedPayload = ParsedMessagePayload.fromMessage(receivedMessage, context);
+        Document received = parsedPayload.getStrippedDocument();
         Document source = XMLUtils.parseMessagePayload(controlMessagePayload);
 
-        XMLUtils.stripWhitespaceNodes(received);
         XMLUtils.stripWhitespaceNodes(source);
 
         if (log.isDebugEnabled()) {
@@ -366,7 +389,7 @@ public class DomXmlMessageValidator extends AbstractMessageValidator<XmlMessageV
             log.debug("Control message:\n" + XMLUtils.serialize(source));
         }
 
-        validateXmlTree(received, source, validationContext, namespaceContextBuilder.buildContext(receivedMessage, validationContext.getNamespaces()));
+        validateXmlTree(received, source, validationContext, namespaceContextBuilder.buildContext(parsedPayload, validationContext.getNamespaces()));
     }
 
     /**
@@ -98,11 +98,11 @@ public final class VariableUtils {
     * @return
     */
    public static String replaceVariablesInString(final String str, TestContext context, boolean enableQuoting) {
-       StringBuffer newStr = new StringBuffer();
+       StringBuilder newStr = new StringBuilder();
 
        boolean isVarComplete = false;
 
-       StringBuffer variableNameBuf = new StringBuffer();
+       StringBuilder variableNameBuf = new StringBuilder();
 
        int startIndex = 0;
        int curIndex;
@@ -115,7 +115,7 @@ public final class VariableUtils {
            curIndex = searchIndex + CitrusConstants.VARIABLE_PREFIX.length();
 
            while (curIndex < str.length() && !isVarComplete) {
-               if (str.indexOf(CitrusConstants.VARIABLE_PREFIX, curIndex) == curIndex) {
+               if (str.startsWith(CitrusConstants.VARIABLE_PREFIX, curIndex)) {
                    control++;
                }
 
@@ -148,7 +148,7 @@ public final class VariableUtils {
 
            startIndex = curIndex;
 
-           variableNameBuf = new StringBuffer();
+           variableNameBuf = new StringBuilder();
            isVarComplete = false;
        }
 
@@ -16,7 +16,9 @@
 
 package com.consol.citrus.variable;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 
@@ -34,6 +36,7 @@ import com.consol.citrus.context.TestContext;
 import com.consol.citrus.exceptions.CitrusRuntimeException;
 import com.consol.citrus.exceptions.UnknownElementException;
 import com.consol.citrus.util.XMLUtils;
+import com.consol.citrus.xml.ParsedMessagePayload;
 import com.consol.citrus.xml.namespace.NamespaceContextBuilder;
 import com.consol.citrus.xml.xpath.XPathExpressionResult;
 import com.consol.citrus.xml.xpath.XPathUtils;
@@ -50,6 +53,9 @@ public class XpathPayloadVariableExtractor implements VariableExtractor {
     /** Map defines xpath expressions and target variable names */
     private Map<String, String> xPathExpressions = new HashMap<String, String>();
     
+    /** Prepared expressions evaluated on message payload */
+    private volatile List<ExtractExpression> extractExpressions;
+    
     /** Namespace definitions used in xpath expressions */
     private Map<String, String> namespaces;
     
@@ -62,7 +68,8 @@ public class XpathPayloadVariableExtractor implements VariableExtractor {
     private static Logger log = LoggerFactory.getLogger(XpathPayloadVariableExtractor.class);
     
     /**
-     * Extract variables using Xpath expressions.
+     * Extract variables using Xpath expressions. Message payload is parsed only once and all 
+     * expressions are evaluated in a single pass on the parsed document.
      */
     public void extractVariables(Message<?> message, TestContext context) {
         if (CollectionUtils.isEmpty(xPathExpressions)) {return;}
@@ -71,29 +78,25 @@ public class XpathPayloadVariableExtractor implements VariableExtractor {
             log.debug("Reading XML elements from document");
         }
         
-        NamespaceContext nsContext = namespaceContextBuilder.buildContext(message, namespaces);
+        ParsedMessagePayload parsedPayload = ParsedMessagePayload.fromMessage(message, context);
+        Document doc = parsedPayload.getDocument();
+        NamespaceContext nsContext = namespaceContextBuilder.buildContext(parsedPayload, namespaces);
 
-        for (Entry<String, String> entry : xPathExpressions.entrySet()) {
-            String pathExpression = entry.getKey();
-            String variableName = entry.getValue();
+        for (ExtractExpression extractExpression : getExtractExpressions()) {
+            String pathExpression = extractExpression.getPathExpression();
 
             if(log.isDebugEnabled()) {
                 log.debug("Reading element: " + pathExpression);
             }
             
-            Document doc = XMLUtils.parseMessagePayload(message.getPayload().toString());
-            
-            if (XPathUtils.isXPathExpression(pathExpression)) {
-                XPathExpressionResult resultType = XPathExpressionResult.fromString(pathExpression, XPathExpressionResult.STRING);
-                pathExpression = XPathExpressionResult.cutOffPrefix(pathExpression);
-                
-                String value = XPathUtils.evaluate(doc, pathExpression, nsContext, resultType);
+            if (extractExpression.isXPathExpression()) {
+                String value = XPathUtils.evaluate(doc, pathExpression, nsContext, extractExpression.getResultType());
 
                 if(value == null) {
                     throw new CitrusRuntimeException("Not able to find value for expression: " + pathExpression);
                 }
                 
-                context.setVariable(variableName, value);
+                context.setVariable(extractExpression.getVariableName(), value);
             } else {
                 Node node = XMLUtils.findNodeByName(doc, pathExpression);
 
@@ -103,16 +106,37 @@ public class XpathPayloadVariableExtractor implements VariableExtractor {
 
                 if (node.getNodeType() == Node.ELEMENT_NODE) {
                     if (node.getFirstChild() != null) {
-                        context.setVariable((String)xPathExpressions.get(pathExpression), node.getFirstChild().getNodeValue());
+                        context.setVariable(extractExpression.getVariableName(), node.getFirstChild().getNodeValue());
                     } else {
-                        context.setVariable((String)xPathExpressions.get(pathExpression), "");
+                        context.setVariable(extractExpression.getVariableName(), "");
                     }
                 } else {
-                    context.setVariable((String)xPathExpressions.get(pathExpression), node.getNodeValue());
+                    context.setVariable(extractExpression.getVariableName(), node.getNodeValue());
                 }
             }
         }
     }
+    
+    /**
+     * Gets the prepared extract expressions. Expressions are prepared once from the 
+     * expression map, result type prefixes get resolved and stripped off.
+     * @return the list of extract expressions.
+     */
+    private List<ExtractExpression> getExtractExpressions() {
+        List<ExtractExpression> expressions = extractExpressions;
+        
+        if (expressions == null) {
+            expressions = new ArrayList<ExtractExpression>(xPathExpressions.size());
+            
+            for (Entry<String, String> entry : xPathExpressions.entrySet()) {
+                expressions.add(new ExtractExpression(entry.getKey(), entry.getValue()));
+            }
+            
+            extractExpressions = expressions;
+        }
+        
+        return expressions;
+    }
 
     /**
      * Set the xPath expressions to identify the message elements and variable names.
@@ -120,6 +144,7 @@ public class XpathPayloadVariableExtractor implements VariableExtractor {
      */
     public void setxPathExpressions(Map<String, String> xPathExpressions) {
         this.xPathExpressions = xPathExpressions;
+        this.extractExpressions = null;
     }
     
     /**
@@ -137,4 +162,68 @@ public class XpathPayloadVariableExtractor implements VariableExtractor {
     public void setNamespaceContextBuilder(NamespaceContextBuilder namespaceContextBuilder) {
         this.namespaceContextBuilder = namespaceContextBuilder;
     }
+
+    /**
+     * Prepared extract expression holding the path expression without result type prefix,
+     * the evaluation result type and the target variable name.
+     */
+    private static final class ExtractExpression {
+        /** Path expression without result type prefix */
+        private final String pathExpression;
+        
+        /** Evaluation result type */
+        private final XPathExpressionResult resultType;
+        
+        /** Expression is XPath or dot notation */
+        private final boolean xPathExpression;
+        
+        /** Target variable name */
+        private final String variableName;
+        
+        /**
+         * Default constructor using expression and variable name.
+         * @param expression
+         * @param variableName
+         */
+        private ExtractExpression(String expression, String variableName) {
+            this.variableName = variableName;
+            this.xPathExpression = XPathUtils.isXPathExpression(expression);
+            
+            if (xPathExpression) {
+                this.resultType = XPathExpressionResult.fromString(expression, XPathExpressionResult.STRING);
+                this.pathExpression = XPathExpressionResult.cutOffPrefix(expression);
+            } else {
+                this.resultType = null;
+                this.pathExpression = expression;
+            }
+        }
+
+        /**
+         * @return the pathExpression
+         */
+        public String getPathExpression() {
+            return pathExpression;
+        }
+
+        /**
+         * @return the resultType
+         */
+        public XPathExpressionResult getResultType() {
+            return resultType;
+        }
+
+        /**
+         * @return the xPathExpression
+         */
+        public boolean isXPathExpression() {
+            return xPathExpression;
+        }
+
+        /**
+         * @return the variableName
+         */
+        public String getVariableName() {
+            return variableName;
+        }
+    }
 }
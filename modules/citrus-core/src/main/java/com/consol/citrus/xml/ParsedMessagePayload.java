@@ -0,0 +1,123 @@
+/*
+ * Copyright 2006-2010 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.consol.citrus.xml;
+
+import java.util.Map;
+
+import org.springframework.integration.Message;
+import org.w3c.dom.Document;
+
+import com.consol.citrus.context.TestContext;
+import com.consol.citrus.util.XMLUtils;
+
+/**
+ * Holds the parsed representations of a XML message payload, so the DOM document, the whitespace
+ * stripped document copy and the root namespace declarations are built only once per message.
+ *
+ * Validators and variable extractors working on the same received message share one instance
+ * through the {@link TestContext}. All representations are read-only, callers must not modify the
+ * returned documents.
+ *
+ * @author Christoph Deppisch
+ */
+public class ParsedMessagePayload {
+    /** The raw message payload */
+    private final String payload;
+
+    /** Parsed DOM document */
+    private Document document;
+
+    /** Parsed DOM document without whitespace text nodes */
+    private Document strippedDocument;
+
+    /** Namespace declarations found in the root element */
+    private Map<String, String> namespaces;
+
+    /**
+     * Default constructor using the raw payload.
+     * @param payload
+     */
+    public ParsedMessagePayload(String payload) {
+        this.payload = payload;
+    }
+
+    /**
+     * Gets the parsed payload for the given message. Instance is shared via test context as long as
+     * the same message payload is processed, otherwise a new instance is created and stored in the context.
+     *
+     * @param message the message to parse.
+     * @param context the current test context.
+     * @return the parsed payload.
+     */
+    public static ParsedMessagePayload fromMessage(Message<?> message, TestContext context) {
+        String messagePayload = message.getPayload().toString();
+
+        ParsedMessagePayload parsedPayload = context.getParsedMessagePayload();
+        if (parsedPayload == null || !parsedPayload.getPayload().equals(messagePayload)) {
+            parsedPayload = new ParsedMessagePayload(messagePayload);
+            context.setParsedMessagePayload(parsedPayload);
+        }
+
+        return parsedPayload;
+    }
+
+    /**
+     * Gets the DOM document. Payload is parsed on first access.
+     * @return the document
+     */
+    public Document getDocument() {
+        if (document == null) {
+            document = XMLUtils.parseMessagePayload(payload);
+        }
+
+        return document;
+    }
+
+    /**
+     * Gets a copy of the DOM document where all whitespace only text nodes are removed.
+     * @return the stripped document
+     */
+    public Document getStrippedDocument() {
+        if (strippedDocument == null) {
+            Document copy = (Document) getDocument().cloneNode(true);
+            XMLUtils.stripWhitespaceNodes(copy);
+            strippedDocument = copy;
+        }
+
+        return strippedDocument;
+    }
+
+    /**
+     * Gets the namespace declarations (prefix - namespace uri pairs) in the payload.
+     * @return the namespaces
+     */
+    public Map<String, String> getNamespaces() {
+        if (namespaces == null) {
+            namespaces = XMLUtils.lookupNamespaces(payload);
+        }
+
+        return namespaces;
+    }
+
+    /**
+     * Gets the raw payload.
+     * @return the payload
+     */
+    public String getPayload() {
+        return payload;
+    }
+}
@@ -19,13 +19,20 @@ package com.consol.citrus.xml;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
+import org.springframework.xml.validation.XmlValidator;
 import org.springframework.xml.xsd.XsdSchema;
 import org.xml.sax.SAXException;
 
 /**
  * Schema repository holding a set of XML schema resources known in the test scope.
  * 
+ * Repository caches the schema lookup and the compiled schema validator for each target namespace, so
+ * schema grammars are compiled only once. Cached validators are thread-safe as they create a lightweight
+ * validator instance from the compiled grammar for each validation.
+ * 
  * @author Christoph Deppisch
  */
 public class XsdSchemaRepository {
@@ -35,6 +42,12 @@ public class XsdSchemaRepository {
     /** Mapping strategy */
     private XsdSchemaMappingStrategy schemaMappingStrategy = new TargetNamespaceSchemaMappingStrategy();
     
+    /** Schemas indexed by namespace */
+    private Map<String, XsdSchema> schemasByNamespace = new ConcurrentHashMap<String, XsdSchema>();
+    
+    /** Compiled schema validators indexed by namespace */
+    private Map<String, XmlValidator> validatorsByNamespace = new ConcurrentHashMap<String, XmlValidator>();
+    
     /**
      * Retrieve the schema for a given namespace.
      * 
@@ -44,7 +57,43 @@ public class XsdSchemaRepository {
      * @throws SAXException
      */
     public XsdSchema getSchemaByNamespace(String namespace) throws IOException, SAXException {
-        return schemaMappingStrategy.getSchema(schemas, namespace);
+        XsdSchema schema = schemasByNamespace.get(namespace);
+        
+        if (schema == null) {
+            schema = schemaMappingStrategy.getSchema(schemas, namespace);
+            
+            if (schema != null) {
+                schemasByNamespace.put(namespace, schema);
+            }
+        }
+        
+        return schema;
+    }
+    
+    /**
+     * Retrieve the compiled schema validator for a given namespace. Validator is created 
+     * on first access and cached for further validations.
+     * 
+     * @param namespace
+     * @return the validator or null if no schema is known for this namespace.
+     * @throws IOException
+     * @throws SAXException
+     */
+    public XmlValidator getSchemaValidator(String namespace) throws IOException, SAXException {
+        XmlValidator validator = validatorsByNamespace.get(namespace);
+        
+        if (validator == null) {
+            XsdSchema schema = getSchemaByNamespace(namespace);
+            
+            if (schema == null) {
+                return null;
+            }
+            
+            validator = schema.createValidator();
+            validatorsByNamespace.put(namespace, validator);
+        }
+        
+        return validator;
     }
 
     /**
@@ -61,6 +110,7 @@ public class XsdSchemaRepository {
      */
     public void setSchemas(List<XsdSchema> schemas) {
         this.schemas = schemas;
+        clearCache();
     }
 
     /**
@@ -69,5 +119,14 @@ public class XsdSchemaRepository {
      */
     public void setSchemaMappingStrategy(XsdSchemaMappingStrategy schemaMappingStrategy) {
         this.schemaMappingStrategy = schemaMappingStrategy;
+        clearCache();
+    }
+    
+    /**
+     * Clears cached schema lookups and compiled validators.
+     */
+    public void clearCache() {
+        schemasByNamespace.clear();
+        validatorsByNamespace.clear();
     }
 }
@@ -0,0 +1,216 @@
+/*
+ * Copyright 2006-2010 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.consol.citrus.xml;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.xml.transform.*;
+
+import org.springframework.xml.transform.StringSource;
+
+/**
+ * Size bounded cache for compiled XSLT stylesheets. Entries are keyed by the stylesheet content and hold
+ * the compiled {@link Templates} as well as one reusable {@link Transformer} per thread, so stylesheets are
+ * compiled only once and transformers are not created for each transformation.
+ *
+ * Transformations work on any {@link Source} and {@link Result} implementation, which allows streaming of
+ * large documents.
+ *
+ * @author Christoph Deppisch
+ */
+public final class XsltTemplatesCache {
+    /** Default maximum number of cached stylesheets */
+    public static final int DEFAULT_MAX_ENTRIES = 64;
+
+    /** Shared cache instance */
+    private static final XsltTemplatesCache INSTANCE = new XsltTemplatesCache(DEFAULT_MAX_ENTRIES);
+
+    /** Factory compiling the stylesheets */
+    private final TransformerFactory transformerFactory = TransformerFactory.newInstance();
+
+    /** Maximum number of cached stylesheets */
+    private int maxEntries;
+
+    /** Statistics */
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    /** Cached entries by stylesheet content */
+    private final Map<String, CacheEntry> entries = new LinkedHashMap<String, CacheEntry>(16, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Entry<String, CacheEntry> eldest) {
+            return size() > maxEntries;
+        }
+    };
+
+    /**
+     * Constructor using maximum number of entries.
+     * @param maxEntries
+     */
+    public XsltTemplatesCache(int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * Gets the shared cache instance.
+     * @return
+     */
+    public static XsltTemplatesCache getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Transforms the source with the given stylesheet and writes to the result.
+     *
+     * @param stylesheet the XSLT stylesheet content.
+     * @param source the source document.
+     * @param result the transformation result.
+     * @throws TransformerException
+     */
+    public void transform(String stylesheet, Source source, Result result) throws TransformerException {
+        getTransformer(stylesheet).transform(source, result);
+    }
+
+    /**
+     * Gets a transformer for the stylesheet. Stylesheet is compiled on cache miss. The transformer
+     * is bound to the calling thread and reset before it is returned, so it must not be shared with
+     * other threads.
+     *
+     * @param stylesheet the XSLT stylesheet content.
+     * @return the transformer.
+     * @throws TransformerConfigurationException
+     */
+    public Transformer getTransformer(String stylesheet) throws TransformerConfigurationException {
+        CacheEntry entry;
+        synchronized (entries) {
+            entry = entries.get(stylesheet);
+        }
+
+        if (entry != null) {
+            hits.incrementAndGet();
+        } else {
+            misses.incrementAndGet();
+
+            Templates templates;
+            synchronized (transformerFactory) {
+                templates = transformerFactory.newTemplates(new StringSource(stylesheet));
+            }
+
+            entry = new CacheEntry(templates);
+            synchronized (entries) {
+                entries.put(stylesheet, entry);
+            }
+        }
+
+        return entry.getTransformer();
+    }
+
+    /**
+     * Removes all cached stylesheets.
+     */
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    /**
+     * Gets the number of cached stylesheets.
+     * @return
+     */
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    /**
+     * Gets the number of cache hits.
+     * @return
+     */
+    public long getHits() {
+        return hits.get();
+    }
+
+    /**
+     * Gets the number of cache misses, which is the number of compiled stylesheets.
+     * @return
+     */
+    public long getMisses() {
+        return misses.get();
+    }
+
+    /**
+     * Gets the maximum number of cached stylesheets.
+     * @return the maxEntries
+     */
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+
+    /**
+     * Sets the maximum number of cached stylesheets.
+     * @param maxEntries the maxEntries to set
+     */
+    public void setMaxEntries(int maxEntries) {
+        synchronized (entries) {
+            this.maxEntries = maxEntries;
+        }
+    }
+
+    /**
+     * Compiled stylesheet and thread bound transformers.
+     */
+    private static final class CacheEntry {
+        /** Compiled stylesheet */
+        private final Templates templates;
+
+        /** Transformer per thread */
+        private final ThreadLocal<Transformer> transformer = new ThreadLocal<Transformer>();
+
+        /**
+         * Default constructor.
+         * @param templates
+         */
+        private CacheEntry(Templates templates) {
+            this.templates = templates;
+        }
+
+        /**
+         * Gets the reset transformer of the calling thread, creates new transformer if necessary.
+         * @return
+         * @throws TransformerConfigurationException
+         */
+        private Transformer getTransformer() throws TransformerConfigurationException {
+            Transformer threadTransformer = transformer.get();
+
+            if (threadTransformer == null) {
+                threadTransformer = templates.newTransformer();
+                transformer.set(threadTransformer);
+            } else {
+                threadTransformer.reset();
+            }
+
+            return threadTransformer;
+        }
+    }
+}
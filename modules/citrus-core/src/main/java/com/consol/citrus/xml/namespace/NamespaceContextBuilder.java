@@ -26,7 +26,7 @@ import org.springframework.integration.Message;
 import org.springframework.util.CollectionUtils;
 import org.springframework.xml.namespace.SimpleNamespaceContext;
 
-import com.consol.citrus.util.XMLUtils;
+import com.consol.citrus.xml.ParsedMessagePayload;
 
 /**
  * Builds a namespace context for XPath expression evaluations. Builder supports default mappings 
@@ -52,6 +52,17 @@ public class NamespaceContextBuilder {
      * @return the constructed namespace context.
      */
     public NamespaceContext buildContext(Message<?> receivedMessage, Map<String, String> namespaces) {
+        return buildContext(new ParsedMessagePayload(receivedMessage.getPayload().toString()), namespaces);
+    }
+    
+    /**
+     * Construct a basic namespace context from an already parsed message payload and explicit namespace mappings.
+     * Namespace declarations found in the payload are reused so the payload is not scanned again.
+     * @param parsedPayload the parsed message payload.
+     * @param namespaces explicit namespace mappings for this construction.
+     * @return the constructed namespace context.
+     */
+    public NamespaceContext buildContext(ParsedMessagePayload parsedPayload, Map<String, String> namespaces) {
         SimpleNamespaceContext simpleNamespaceContext = new SimpleNamespaceContext();
         
         //first add default namespace definitions
@@ -59,7 +70,7 @@ public class NamespaceContextBuilder {
             simpleNamespaceContext.setBindings(namespaceMappings);
         }
         
-        Map<String, String> dynamicBindings = XMLUtils.lookupNamespaces(receivedMessage.getPayload().toString());
+        Map<String, String> dynamicBindings = parsedPayload.getNamespaces();
         if(!CollectionUtils.isEmpty(namespaces)) {
             //dynamic binding of namespaces declarations in root element of received message
             for (Entry<String, String> binding : dynamicBindings.entrySet()) {
@@ -0,0 +1,239 @@
+/*
+ * Copyright 2006-2010 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.consol.citrus.xml.xpath;
+
+import java.util.*;
+import java.util.Map.Entry;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.xml.namespace.NamespaceContext;
+import javax.xml.xpath.*;
+
+import org.springframework.util.Assert;
+import org.springframework.xml.namespace.SimpleNamespaceContext;
+
+/**
+ * Bounded cache of compiled XPath expressions keyed by expression string and namespace bindings.
+ * 
+ * Neither {@link XPathFactory}, {@link XPath} nor {@link XPathExpression} instances are thread-safe, so 
+ * the cache keeps a separate XPath instance and expression map for each thread. Each thread holds at most
+ * max size compiled expressions, least recently used expressions are evicted first.
+ * 
+ * Only expressions with a {@link SimpleNamespaceContext} (or no namespace context at all) can be cached as 
+ * other namespace context implementations do not expose their bindings.
+ * 
+ * @author Christoph Deppisch
+ */
+public class XPathExpressionCache implements XPathExpressionCacheMBean {
+    /** Default maximum number of cached expressions per thread */
+    public static final int DEFAULT_MAX_SIZE = 500;
+    
+    /** Maximum number of cached expressions per thread */
+    private volatile int maxSize = DEFAULT_MAX_SIZE;
+    
+    /** Statistics */
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    
+    /** Cache generation, incremented on clear so threads drop their cached expressions */
+    private final AtomicInteger generation = new AtomicInteger();
+    
+    /** Thread bound XPath instance and compiled expressions */
+    private volatile ThreadLocal<ThreadCache> threadCache = createThreadCache();
+    
+    /**
+     * Gets the compiled expression for the given expression string and namespace context. Expression is
+     * compiled on cache miss.
+     * 
+     * @param xPathExpression the expression string.
+     * @param nsContext the namespace context used for compilation.
+     * @return the compiled expression, only to be used by the calling thread.
+     * @throws XPathExpressionException
+     */
+    public XPathExpression getExpression(String xPathExpression, NamespaceContext nsContext) throws XPathExpressionException {
+        ThreadCache cache = threadCache.get();
+        
+        int currentGeneration = generation.get();
+        if (cache.generation != currentGeneration) {
+            cache.expressions.clear();
+            cache.generation = currentGeneration;
+        }
+        
+        String key = buildKey(xPathExpression, nsContext);
+        if (key == null) {
+            misses.incrementAndGet();
+            return cache.compile(xPathExpression, nsContext);
+        }
+        
+        XPathExpression expression = cache.expressions.get(key);
+        if (expression != null) {
+            hits.incrementAndGet();
+        } else {
+            misses.incrementAndGet();
+            expression = cache.compile(xPathExpression, nsContext);
+            cache.expressions.put(key, expression);
+        }
+        
+        return expression;
+    }
+    
+    /**
+     * Builds the cache key from expression string and namespace bindings. Returns null 
+     * in case namespace bindings are not accessible.
+     * @param xPathExpression
+     * @param nsContext
+     * @return
+     */
+    private String buildKey(String xPathExpression, NamespaceContext nsContext) {
+        if (nsContext == null) {
+            return xPathExpression;
+        }
+        
+        if (!(nsContext instanceof SimpleNamespaceContext)) {
+            return null;
+        }
+        
+        SimpleNamespaceContext simpleNamespaceContext = (SimpleNamespaceContext) nsContext;
+        Map<String, String> bindings = new TreeMap<String, String>();
+        for (Iterator<String> prefixes = simpleNamespaceContext.getBoundPrefixes(); prefixes.hasNext();) {
+            String prefix = prefixes.next();
+            bindings.put(prefix, simpleNamespaceContext.getNamespaceURI(prefix));
+        }
+        
+        StringBuilder key = new StringBuilder(xPathExpression);
+        for (Entry<String, String> binding : bindings.entrySet()) {
+            key.append(' ').append(binding.getKey()).append('=').append(binding.getValue());
+        }
+        
+        return key.toString();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public long getHits() {
+        return hits.get();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public long getMisses() {
+        return misses.get();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public long getEvictions() {
+        return evictions.get();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public void setMaxSize(int maxSize) {
+        Assert.isTrue(maxSize > 0, "Maximum number of cached expressions must be positive");
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public void clear() {
+        generation.incrementAndGet();
+        hits.set(0);
+        misses.set(0);
+        evictions.set(0);
+    }
+    
+    /**
+     * Drops all thread bound XPath instances and compiled expressions. The calling thread's cache is removed
+     * right away, caches of other threads are no longer reachable through this cache and are garbage collected.
+     * Threads using the cache afterwards start with an empty cache.
+     */
+    public void removeThreadCaches() {
+        ThreadLocal<ThreadCache> previous = threadCache;
+        threadCache = createThreadCache();
+        previous.remove();
+    }
+    
+    /**
+     * Creates new thread local holding the thread bound caches.
+     * @return
+     */
+    private ThreadLocal<ThreadCache> createThreadCache() {
+        return new ThreadLocal<ThreadCache>() {
+            @Override
+            protected ThreadCache initialValue() {
+                return new ThreadCache();
+            }
+        };
+    }
+    
+    /**
+     * Thread bound XPath instance and least recently used map of compiled expressions.
+     */
+    private final class ThreadCache {
+        /** XPath instance of this thread */
+        private final XPath xpath = XPathFactory.newInstance().newXPath();
+        
+        /** Compiled expressions */
+        private final Map<String, XPathExpression> expressions = new LinkedHashMap<String, XPathExpression>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Entry<String, XPathExpression> eldest) {
+                if (size() > maxSize) {
+                    evictions.incrementAndGet();
+                    return true;
+                }
+                
+                return false;
+            }
+        };
+        
+        /** Cache generation this thread cache belongs to */
+        private int generation = XPathExpressionCache.this.generation.get();
+        
+        /**
+         * Compiles the expression with given namespace context.
+         * @param xPathExpression
+         * @param nsContext
+         * @return
+         * @throws XPathExpressionException
+         */
+        private XPathExpression compile(String xPathExpression, NamespaceContext nsContext) throws XPathExpressionException {
+            xpath.reset();
+            
+            if (nsContext != null) {
+                xpath.setNamespaceContext(nsContext);
+            }
+            
+            return xpath.compile(xPathExpression);
+        }
+    }
+}
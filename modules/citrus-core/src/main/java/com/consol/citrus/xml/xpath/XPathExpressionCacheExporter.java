@@ -0,0 +1,100 @@
+/*
+ * Copyright 2006-2010 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.consol.citrus.xml.xpath;
+
+import java.lang.management.ManagementFactory;
+
+import javax.management.*;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+
+/**
+ * Registers the XPath expression cache used by {@link XPathUtils} as MBean in the platform MBean server
+ * for the lifetime of the owning application context. On context shutdown the MBean is unregistered and
+ * all thread bound cached XPath expressions are dropped.
+ * 
+ * In case another context already registered the MBean with the same object name, this exporter
+ * leaves the registration to the other context.
+ * 
+ * @author Christoph Deppisch
+ */
+public class XPathExpressionCacheExporter implements InitializingBean, DisposableBean {
+    /** JMX object name */
+    private String objectName = XPathUtils.EXPRESSION_CACHE_OBJECT_NAME;
+    
+    /** MBean was registered by this exporter */
+    private ObjectName registeredName;
+    
+    /**
+     * Logger
+     */
+    private static Logger log = LoggerFactory.getLogger(XPathExpressionCacheExporter.class);
+    
+    /**
+     * Registers the expression cache MBean.
+     */
+    public synchronized void afterPropertiesSet() throws Exception {
+        ObjectName name = new ObjectName(objectName);
+        
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(XPathUtils.getExpressionCache(), name);
+            registeredName = name;
+        } catch (InstanceAlreadyExistsException e) {
+            log.debug("XPath expression cache MBean '" + objectName + "' already registered");
+        } catch (JMException e) {
+            log.warn("Unable to register XPath expression cache MBean: " + e.getMessage());
+        } catch (SecurityException e) {
+            log.warn("Unable to register XPath expression cache MBean: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Unregisters the expression cache MBean and drops thread bound cached expressions.
+     */
+    public synchronized void destroy() throws Exception {
+        if (registeredName != null) {
+            try {
+                ManagementFactory.getPlatformMBeanServer().unregisterMBean(registeredName);
+            } catch (InstanceNotFoundException e) {
+                log.debug("XPath expression cache MBean '" + registeredName + "' already unregistered");
+            } finally {
+                registeredName = null;
+            }
+        }
+        
+        XPathUtils.getExpressionCache().removeThreadCaches();
+    }
+
+    /**
+     * Sets the JMX object name.
+     * @param objectName the objectName to set
+     */
+    public void setObjectName(String objectName) {
+        this.objectName = objectName;
+    }
+
+    /**
+     * Gets the JMX object name.
+     * @return the objectName
+     */
+    public String getObjectName() {
+        return objectName;
+    }
+}
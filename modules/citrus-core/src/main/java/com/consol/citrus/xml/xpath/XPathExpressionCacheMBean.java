@@ -0,0 +1,59 @@
+/*
+ * Copyright 2006-2010 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.consol.citrus.xml.xpath;
+
+/**
+ * Management interface for the compiled XPath expression cache exposed via JMX.
+ * 
+ * @author Christoph Deppisch
+ */
+public interface XPathExpressionCacheMBean {
+    /**
+     * Gets the number of cache hits.
+     * @return
+     */
+    long getHits();
+    
+    /**
+     * Gets the number of cache misses, each miss compiles a new expression.
+     * @return
+     */
+    long getMisses();
+    
+    /**
+     * Gets the number of evicted expressions.
+     * @return
+     */
+    long getEvictions();
+    
+    /**
+     * Gets the maximum number of compiled expressions cached per thread.
+     * @return
+     */
+    int getMaxSize();
+    
+    /**
+     * Sets the maximum number of compiled expressions cached per thread.
+     * @param maxSize
+     */
+    void setMaxSize(int maxSize);
+    
+    /**
+     * Clears all cached expressions and resets the statistics.
+     */
+    void clear();
+}
@@ -31,18 +31,21 @@ import com.consol.citrus.util.XMLUtils;
  * XPath utility class providing static utility methods
  * dealing with XPath expression evaluation.
  *
+ * Compiled expressions are cached in a {@link XPathExpressionCache} which is
+ * registered as MBean in the platform MBean server by {@link XPathExpressionCacheExporter}.
+ *
  * Class is abstract to prevent instantiation.
  *
  * @author Christoph Deppisch
  */
 public abstract class XPathUtils {
 
-    /** XPath expression factory */
-    private static XPathFactory xPathFactory;
-
-    static {
-        xPathFactory = XPathFactory.newInstance();
-    }
+    /** JMX object name of the expression cache */
+    public static final String EXPRESSION_CACHE_OBJECT_NAME = "com.consol.citrus:type=XPathExpressionCache";
+    
+    /** Compiled XPath expression cache */
+    private static XPathExpressionCache expressionCache = new XPathExpressionCache();
+    
     
     /**
      * Prevent instantiation.
@@ -158,7 +161,8 @@ public abstract class XPathUtils {
     /**
      * Construct a xPath expression insdtance with given expression string and namespace context.
      * If namespace context is not specified a default context is built from the XML node
-     * that is evaluated against.
+     * that is evaluated against. Compiled expressions are taken from the expression cache and
+     * must only be used by the calling thread.
      * @param node
      * @param xPathExpression
      * @param nsContext
@@ -167,15 +171,11 @@ public abstract class XPathUtils {
      */
     private static XPathExpression buildExpression(Node node, String xPathExpression, NamespaceContext nsContext)
             throws XPathExpressionException {
-        XPath xpath = xPathFactory.newXPath();
-
         if(nsContext != null) {
-            xpath.setNamespaceContext(nsContext);
+            return expressionCache.getExpression(xPathExpression, nsContext);
         } else {
-            xpath.setNamespaceContext(buildNamespaceContext(node));
+            return expressionCache.getExpression(xPathExpression, buildNamespaceContext(node));
         }
-
-        return xpath.compile(xPathExpression);
     }
 
     /**
@@ -192,6 +192,14 @@ public abstract class XPathUtils {
         return nsContext;
     }
 
+    /**
+     * Gets the compiled XPath expression cache.
+     * @return the expressionCache
+     */
+    public static XPathExpressionCache getExpressionCache() {
+        return expressionCache;
+    }
+
     /**
      * Method to find out whether an expression is of XPath nature or custom dot notation syntax.
      * @param expression the expression string to check.
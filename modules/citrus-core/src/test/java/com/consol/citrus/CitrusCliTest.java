@@ -120,6 +120,46 @@ public class CitrusCliTest extends AbstractBaseTest {
         verify(testngMock);
     }
     
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testParallelTests() throws ParseException {
+        reset(testngMock);
+
+        testngMock.setXmlSuites((List<XmlSuite>)anyObject());
+        expectLastCall().andAnswer(new IAnswer<Object>() {
+            public Object answer() throws Throwable {
+                List<XmlSuite> suites = (List<XmlSuite>)getCurrentArguments()[0];
+                Assert.assertEquals(suites.size(), 1);
+                Assert.assertEquals(suites.get(0).getTests().size(), 2);
+                Assert.assertEquals(suites.get(0).getParallel(), XmlSuite.PARALLEL_TESTS);
+                Assert.assertEquals(suites.get(0).getThreadCount(), 4);
+                return null;
+            }
+        }).once();
+        
+        testngMock.run();
+        expectLastCall().once();
+        
+        expect(testngMock.hasFailure()).andReturn(false).once();
+        
+        replay(testngMock);
+        
+        Citrus citrus = new Citrus(new GnuParser().parse(new CitrusCliOptions(), 
+                new String[] {"-test", "SampleTest", "SampleTest", "-testdir", "../src/citrus/tests", "--threads", "4"}));
+        citrus.setTestNG(testngMock);
+        citrus.run();
+        
+        verify(testngMock);
+    }
+    
+    @Test(expectedExceptions = CitrusRuntimeException.class)
+    public void testInvalidThreadCount() throws ParseException {
+        Citrus citrus = new Citrus(new GnuParser().parse(new CitrusCliOptions(), 
+                new String[] {"-package", "com.consol.citrus.sample", "-threads", "none"}));
+        citrus.setTestNG(testngMock);
+        citrus.run();
+    }
+    
     @Test
     @SuppressWarnings("unchecked")
     public void testCustomSuiteNameTest() throws ParseException {
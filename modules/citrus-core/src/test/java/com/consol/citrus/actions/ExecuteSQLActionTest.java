@@ -16,18 +16,24 @@
 
 package com.consol.citrus.actions;
 
+import static org.easymock.EasyMock.expect;
 import static org.easymock.EasyMock.expectLastCall;
 import static org.easymock.EasyMock.replay;
 import static org.easymock.EasyMock.reset;
 import static org.easymock.EasyMock.verify;
 
+import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
+import javax.sql.DataSource;
+
 import org.easymock.EasyMock;
 import org.springframework.core.io.ClassPathResource;
 import org.springframework.dao.DataAccessException;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.testng.Assert;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
@@ -182,4 +188,173 @@ public class ExecuteSQLActionTest extends AbstractBaseTest {
         
         executeSQLAction.execute(context);
     }
+    
+    @Test
+    public void testSQLBatchExecutionWithBoundVariables() throws SQLException {
+        context.setVariable("firstId", "1");
+        context.setVariable("firstStatus", "resolved");
+        context.setVariable("secondId", "2");
+        context.setVariable("secondStatus", "closed");
+        context.setVariable("thirdId", "3");
+        context.setVariable("thirdStatus", "open");
+        
+        List<String> stmts = new ArrayList<String>();
+        stmts.add("INSERT INTO ERRORS VALUES (${firstId}, '${firstStatus}');");
+        stmts.add("INSERT INTO ERRORS VALUES (${secondId}, '${secondStatus}');");
+        stmts.add("INSERT INTO ERRORS VALUES (${thirdId}, '${thirdStatus}');");
+        stmts.add("DELETE * FROM CONFIGURATION WHERE VERSION=1;");
+        
+        executeSQLAction.setStatements(stmts);
+        executeSQLAction.setBatchSize(2);
+        executeSQLAction.setTransacted(true);
+        executeSQLAction.setBindVariables(true);
+        
+        DataSource dataSource = EasyMock.createMock(DataSource.class);
+        Connection connection = EasyMock.createMock(Connection.class);
+        PreparedStatement preparedStatement = EasyMock.createMock(PreparedStatement.class);
+        Statement statement = EasyMock.createMock(Statement.class);
+        
+        executeSQLAction.setJdbcTemplate(new JdbcTemplate(dataSource));
+        
+        expect(dataSource.getConnection()).andReturn(connection).once();
+        expect(connection.getAutoCommit()).andReturn(true).once();
+        connection.setAutoCommit(false);
+        expectLastCall().once();
+        expect(connection.prepareStatement("INSERT INTO ERRORS VALUES (?, ?)")).andReturn(preparedStatement).once();
+        expect(connection.createStatement()).andReturn(statement).once();
+        connection.commit();
+        expectLastCall().once();
+        connection.setAutoCommit(true);
+        expectLastCall().once();
+        connection.close();
+        expectLastCall().once();
+        
+        preparedStatement.setObject(1, "1");
+        expectLastCall().once();
+        preparedStatement.setObject(2, "resolved");
+        expectLastCall().once();
+        preparedStatement.setObject(1, "2");
+        expectLastCall().once();
+        preparedStatement.setObject(2, "closed");
+        expectLastCall().once();
+        preparedStatement.setObject(1, "3");
+        expectLastCall().once();
+        preparedStatement.setObject(2, "open");
+        expectLastCall().once();
+        preparedStatement.addBatch();
+        expectLastCall().times(3);
+        expect(preparedStatement.executeBatch()).andReturn(new int[] {1, 1}).once();
+        expect(preparedStatement.executeBatch()).andReturn(new int[] {1}).once();
+        preparedStatement.close();
+        expectLastCall().once();
+        
+        statement.addBatch("DELETE * FROM CONFIGURATION WHERE VERSION=1");
+        expectLastCall().once();
+        expect(statement.executeBatch()).andReturn(new int[] {1}).once();
+        statement.close();
+        expectLastCall().once();
+        
+        replay(dataSource, connection, preparedStatement, statement);
+        
+        executeSQLAction.execute(context);
+        
+        verify(dataSource, connection, preparedStatement, statement);
+    }
+    
+    @Test
+    public void testBoundVariablesInFunctions() throws SQLException {
+        context.setVariable("status", "resolved");
+        context.setVariable("id", "1");
+        
+        executeSQLAction.setStatements(Collections.singletonList("UPDATE ERRORS SET STATUS='citrus:upperCase('${status}')' WHERE ID=${id}"));
+        executeSQLAction.setBindVariables(true);
+        
+        DataSource dataSource = EasyMock.createMock(DataSource.class);
+        Connection connection = EasyMock.createNiceMock(Connection.class);
+        PreparedStatement preparedStatement = EasyMock.createMock(PreparedStatement.class);
+        
+        executeSQLAction.setJdbcTemplate(new JdbcTemplate(dataSource));
+        
+        expect(dataSource.getConnection()).andReturn(connection).once();
+        expect(connection.prepareStatement("UPDATE ERRORS SET STATUS='RESOLVED' WHERE ID=?")).andReturn(preparedStatement).once();
+        
+        preparedStatement.setObject(1, "1");
+        expectLastCall().once();
+        expect(preparedStatement.execute()).andReturn(false).once();
+        preparedStatement.close();
+        expectLastCall().once();
+        
+        replay(dataSource, connection, preparedStatement);
+        
+        executeSQLAction.execute(context);
+        
+        verify(dataSource, connection, preparedStatement);
+    }
+    
+    @Test
+    public void testBindParameters() {
+        List<String> parameters = new ArrayList<String>();
+        
+        Assert.assertEquals(AbstractDatabaseConnectingTestAction.bindParameters(
+                "UPDATE ERRORS SET STATUS='${status}' WHERE ID=${id} AND TEXT='Error: ${text}'", parameters), 
+                "UPDATE ERRORS SET STATUS=? WHERE ID=? AND TEXT='Error: ${text}'");
+        
+        Assert.assertEquals(parameters.size(), 2);
+        Assert.assertEquals(parameters.get(0), "${status}");
+        Assert.assertEquals(parameters.get(1), "${id}");
+    }
+    
+    @Test
+    public void testBindParametersValuePositionOnly() {
+        List<String> parameters = new ArrayList<String>();
+        
+        Assert.assertEquals(AbstractDatabaseConnectingTestAction.bindParameters(
+                "SELECT ${column} FROM ${table} WHERE NAME LIKE ${pattern} AND ID IN (${ids}) AND CODE <> ${code} ORDER BY ${column}", parameters), 
+                "SELECT ${column} FROM ${table} WHERE NAME LIKE ? AND ID IN (${ids}) AND CODE <> ? ORDER BY ${column}");
+        
+        Assert.assertEquals(parameters.size(), 2);
+        Assert.assertEquals(parameters.get(0), "${pattern}");
+        Assert.assertEquals(parameters.get(1), "${code}");
+    }
+    
+    @Test
+    public void testBindParametersValuesRows() {
+        List<String> parameters = new ArrayList<String>();
+        
+        Assert.assertEquals(AbstractDatabaseConnectingTestAction.bindParameters(
+                "INSERT INTO ${table} (ID, NAME) VALUES (${id}, '${name}'), (${otherId}, UPPER(${otherName}))", parameters), 
+                "INSERT INTO ${table} (ID, NAME) VALUES (?, ?), (?, UPPER(${otherName}))");
+        
+        Assert.assertEquals(parameters.size(), 3);
+        Assert.assertEquals(parameters.get(0), "${id}");
+        Assert.assertEquals(parameters.get(1), "${name}");
+        Assert.assertEquals(parameters.get(2), "${otherId}");
+    }
+    
+    @Test
+    public void testBoundVariablesTableName() throws SQLException {
+        context.setVariable("table", "ERRORS");
+        
+        executeSQLAction.setStatements(Collections.singletonList("SELECT * FROM ${table}"));
+        executeSQLAction.setBindVariables(true);
+        
+        DataSource dataSource = EasyMock.createMock(DataSource.class);
+        Connection connection = EasyMock.createNiceMock(Connection.class);
+        Statement statement = EasyMock.createMock(Statement.class);
+        
+        executeSQLAction.setJdbcTemplate(new JdbcTemplate(dataSource));
+        
+        expect(dataSource.getConnection()).andReturn(connection).once();
+        expect(connection.createStatement()).andReturn(statement).once();
+        
+        expect(statement.execute("SELECT * FROM ERRORS")).andReturn(false).once();
+        statement.close();
+        expectLastCall().once();
+        
+        replay(dataSource, connection, statement);
+        
+        executeSQLAction.execute(context);
+        
+        verify(dataSource, connection, statement);
+    }
 }
@@ -17,11 +17,16 @@
 package com.consol.citrus.actions;
 
 import static org.easymock.EasyMock.expect;
+import static org.easymock.EasyMock.expectLastCall;
 import static org.easymock.EasyMock.replay;
 import static org.easymock.EasyMock.reset;
+import static org.easymock.EasyMock.verify;
 
+import java.sql.*;
 import java.util.*;
 
+import javax.sql.DataSource;
+
 import org.easymock.EasyMock;
 import org.springframework.core.io.ClassPathResource;
 import org.springframework.core.io.Resource;
@@ -771,4 +776,151 @@ public class ExecuteSQLQueryActionTest extends AbstractBaseTest {
         
         executeSQLQueryAction.execute(context);
     }
+    
+    @Test
+    public void testStreamingResultSetValidation() throws SQLException {
+        String sql = "select ORDERTYPE, STATUS from orders where ID < 3";
+        
+        DataSource dataSource = EasyMock.createMock(DataSource.class);
+        Connection connection = EasyMock.createNiceMock(Connection.class);
+        PreparedStatement statement = EasyMock.createNiceMock(PreparedStatement.class);
+        ResultSet resultSet = EasyMock.createMock(ResultSet.class);
+        ResultSetMetaData metaData = EasyMock.createMock(ResultSetMetaData.class);
+        
+        expect(dataSource.getConnection()).andReturn(connection).once();
+        expect(connection.prepareStatement(sql)).andReturn(statement).once();
+        expect(statement.executeQuery()).andReturn(resultSet).once();
+        
+        expect(resultSet.next()).andReturn(true).times(2);
+        expect(resultSet.next()).andReturn(false).once();
+        expect(resultSet.getMetaData()).andReturn(metaData).once();
+        expect(metaData.getColumnCount()).andReturn(2).once();
+        expect(metaData.getColumnLabel(1)).andReturn("ORDERTYPE").once();
+        expect(metaData.getColumnLabel(2)).andReturn("STATUS").once();
+        expect(resultSet.getObject(1)).andReturn("small").once();
+        expect(resultSet.getObject(2)).andReturn("in_progress").once();
+        expect(resultSet.getObject(1)).andReturn("big").once();
+        expect(resultSet.getObject(2)).andReturn(null).once();
+        resultSet.close();
+        expectLastCall().once();
+        
+        replay(dataSource, connection, statement, resultSet, metaData);
+        
+        executeSQLQueryAction.setJdbcTemplate(new JdbcTemplate(dataSource));
+        executeSQLQueryAction.setStatements(Collections.singletonList(sql));
+        executeSQLQueryAction.setStreaming(true);
+        
+        Map<String, List<String>> controlResultSet = new HashMap<String, List<String>>();
+        List<String> orderTypeValues = new ArrayList<String>();
+        orderTypeValues.add("small");
+        orderTypeValues.add("big");
+        controlResultSet.put("ORDERTYPE", orderTypeValues);
+        List<String> statusValues = new ArrayList<String>();
+        statusValues.add("in_progress");
+        statusValues.add("NULL");
+        controlResultSet.put("STATUS", statusValues);
+        executeSQLQueryAction.setControlResultSet(controlResultSet);
+        
+        executeSQLQueryAction.setExtractVariables(Collections.singletonMap("ORDERTYPE", "orderTypes"));
+        
+        ScriptValidationContext scriptValidationContext = new ScriptValidationContext("assert rows.size() == 2\n" +
+                "assert rows[0] == [ORDERTYPE:'small', STATUS:'in_progress']\n" +
+                "assert rows[1].ordertype == 'big'",
+                ScriptTypes.GROOVY);
+        executeSQLQueryAction.setScriptValidationContext(scriptValidationContext);
+        
+        executeSQLQueryAction.execute(context);
+        
+        Assert.assertEquals(context.getVariable("${orderTypes}"), "small;big");
+        Assert.assertEquals(context.getVariable("${ORDERTYPE}"), "small");
+        Assert.assertEquals(context.getVariable("${STATUS}"), "in_progress");
+        
+        verify(dataSource, resultSet, metaData);
+    }
+    
+    @Test
+    public void testStreamingResultSetValidationEarlyExit() throws SQLException {
+        String sql = "select ORDERTYPE from orders";
+        
+        DataSource dataSource = EasyMock.createMock(DataSource.class);
+        Connection connection = EasyMock.createNiceMock(Connection.class);
+        PreparedStatement statement = EasyMock.createNiceMock(PreparedStatement.class);
+        ResultSet resultSet = EasyMock.createMock(ResultSet.class);
+        ResultSetMetaData metaData = EasyMock.createMock(ResultSetMetaData.class);
+        
+        expect(dataSource.getConnection()).andReturn(connection).once();
+        expect(connection.prepareStatement(sql)).andReturn(statement).once();
+        expect(statement.executeQuery()).andReturn(resultSet).once();
+        
+        // result set has many more rows, but validation stops with first wrong value
+        expect(resultSet.next()).andReturn(true).once();
+        expect(resultSet.getMetaData()).andReturn(metaData).once();
+        expect(metaData.getColumnCount()).andReturn(1).once();
+        expect(metaData.getColumnLabel(1)).andReturn("ORDERTYPE").once();
+        expect(resultSet.getObject(1)).andReturn("small").once();
+        resultSet.close();
+        expectLastCall().once();
+        
+        replay(dataSource, connection, statement, resultSet, metaData);
+        
+        executeSQLQueryAction.setJdbcTemplate(new JdbcTemplate(dataSource));
+        executeSQLQueryAction.setStatements(Collections.singletonList(sql));
+        executeSQLQueryAction.setStreaming(true);
+        
+        Map<String, List<String>> controlResultSet = new HashMap<String, List<String>>();
+        controlResultSet.put("ORDERTYPE", Collections.singletonList("big"));
+        executeSQLQueryAction.setControlResultSet(controlResultSet);
+        
+        try {
+            executeSQLQueryAction.execute(context);
+        } catch (ValidationException e) {
+            verify(dataSource, resultSet, metaData);
+            return;
+        }
+        
+        Assert.fail("Missing validation exception due to wrong column value");
+    }
+    
+    @Test
+    public void testStreamingResultSetMaxRows() throws SQLException {
+        String sql = "select ORDERTYPE from orders";
+        
+        DataSource dataSource = EasyMock.createMock(DataSource.class);
+        Connection connection = EasyMock.createNiceMock(Connection.class);
+        PreparedStatement statement = EasyMock.createMock(PreparedStatement.class);
+        ResultSet resultSet = EasyMock.createNiceMock(ResultSet.class);
+        ResultSetMetaData metaData = EasyMock.createNiceMock(ResultSetMetaData.class);
+        
+        expect(dataSource.getConnection()).andReturn(connection).once();
+        expect(connection.prepareStatement(sql)).andReturn(statement).once();
+        statement.setMaxRows(1);
+        expectLastCall().once();
+        expect(statement.executeQuery()).andReturn(resultSet).once();
+        expect(statement.getWarnings()).andReturn(null).anyTimes();
+        statement.close();
+        expectLastCall().once();
+        
+        expect(resultSet.next()).andReturn(true).once();
+        expect(resultSet.next()).andReturn(false).once();
+        expect(resultSet.getMetaData()).andReturn(metaData).once();
+        expect(metaData.getColumnCount()).andReturn(1).once();
+        expect(metaData.getColumnLabel(1)).andReturn("ORDERTYPE").once();
+        expect(resultSet.getObject(1)).andReturn("small").once();
+        
+        replay(dataSource, connection, statement, resultSet, metaData);
+        
+        executeSQLQueryAction.setJdbcTemplate(new JdbcTemplate(dataSource));
+        executeSQLQueryAction.setStatements(Collections.singletonList(sql));
+        executeSQLQueryAction.setMaxRows(1);
+        
+        Map<String, List<String>> controlResultSet = new HashMap<String, List<String>>();
+        controlResultSet.put("ORDERTYPE", Collections.singletonList("small"));
+        executeSQLQueryAction.setControlResultSet(controlResultSet);
+        
+        executeSQLQueryAction.execute(context);
+        
+        Assert.assertEquals(context.getVariable("${ORDERTYPE}"), "small");
+        
+        verify(dataSource, statement);
+    }
 }
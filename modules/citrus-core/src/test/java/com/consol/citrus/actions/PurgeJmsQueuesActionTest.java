@@ -63,7 +63,7 @@ public class PurgeJmsQueuesActionTest extends AbstractBaseTest {
         
         expect(session.createQueue("myQueue")).andReturn(queue).once();
         
-        expect(session.createConsumer(queue)).andReturn(messageConsumer).times(3);
+        expect(session.createConsumer(queue)).andReturn(messageConsumer).once();
         expect(messageConsumer.receive(100L)).andReturn(jmsRequest).times(2).andReturn(null);
         
         replay(connectionFactory, connection, session, messageConsumer);
@@ -73,6 +73,41 @@ public class PurgeJmsQueuesActionTest extends AbstractBaseTest {
         verify(connectionFactory, connection, session, messageConsumer);
     }
     
+    @Test
+    public void testPurgeQueuesConcurrently() throws JMSException {
+        PurgeJmsQueuesAction purgeQueuesAction = new PurgeJmsQueuesAction();
+        purgeQueuesAction.setConnectionFactory(connectionFactory);
+        purgeQueuesAction.setConcurrency(2);
+        
+        List<String> queueNames = new ArrayList<String>();
+        queueNames.add("myQueue");
+        queueNames.add("anotherQueue");
+        purgeQueuesAction.setQueueNames(queueNames);
+        
+        Map<String, String> requestHeaders = new HashMap<String, String>();
+        TextMessage jmsRequest = new TextMessageImpl("<TestRequest>Hello World!</TestRequest>", requestHeaders);
+        
+        reset(connectionFactory, connection, session, messageConsumer);
+        
+        expect(connectionFactory.createConnection()).andReturn(connection).once();
+        connection.start();
+        expectLastCall().once();
+        
+        expect(connection.createSession(anyBoolean(), anyInt())).andReturn(session).times(2);
+        
+        expect(session.createQueue("myQueue")).andReturn(queue).once();
+        expect(session.createQueue("anotherQueue")).andReturn(queue).once();
+        
+        expect(session.createConsumer(queue)).andReturn(messageConsumer).times(2);
+        expect(messageConsumer.receive(100L)).andReturn(jmsRequest).times(2).andReturn(null).times(2);
+        
+        replay(connectionFactory, connection, session, messageConsumer);
+        
+        purgeQueuesAction.execute(context);
+        
+        verify(connectionFactory, connection, session, messageConsumer);
+    }
+    
 	@Test
 	public void testPurgeWithQueueNamesNoMessages() throws JMSException {
 		PurgeJmsQueuesAction purgeQueuesAction = new PurgeJmsQueuesAction();
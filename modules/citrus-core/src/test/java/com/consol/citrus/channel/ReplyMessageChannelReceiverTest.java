@@ -58,4 +58,26 @@ public class ReplyMessageChannelReceiverTest {
         
         Assert.assertEquals(replyMessageReceiver.receiveSelected(new DefaultReplyMessageCorrelator().getCorrelationKey(message)), message);
     }
+    
+    @Test
+    public void testReceiveWaitsForReplyMessage() {
+        final ReplyMessageChannelReceiver replyMessageReceiver = new ReplyMessageChannelReceiver();
+        
+        final Message<String> message = MessageBuilder.withPayload("<TestRequest><Message>Hello World!</Message></TestRequest>")
+                                .build();
+        
+        new Thread(new Runnable() {
+            public void run() {
+                try {
+                    Thread.sleep(100L);
+                } catch (InterruptedException e) {
+                    return;
+                }
+                
+                replyMessageReceiver.onReplyMessage(message);
+            }
+        }).start();
+        
+        Assert.assertEquals(replyMessageReceiver.receive(5000L), message);
+    }
 }
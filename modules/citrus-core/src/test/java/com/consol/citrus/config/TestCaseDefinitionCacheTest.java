@@ -0,0 +1,120 @@
+/*
+ * Copyright 2006-2010 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.consol.citrus.config;
+
+import org.springframework.context.ApplicationContext;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import com.consol.citrus.TestCase;
+import com.consol.citrus.actions.*;
+
+/**
+ * @author Christoph Deppisch
+ */
+public class TestCaseDefinitionCacheTest {
+
+    private static final String[] CONFIG_LOCATIONS = new String[] {"com/consol/citrus/config/xml/EchoActionParserTest-context.xml"};
+    
+    @Test
+    public void testFreshTestCaseInstances() {
+        TestCaseDefinitionCache.clear();
+        
+        ApplicationContext ctx = TestCaseDefinitionCache.createApplicationContext(CONFIG_LOCATIONS, null);
+        TestCase testCase = ctx.getBean("EchoActionParserTest", TestCase.class);
+        
+        Assert.assertEquals(TestCaseDefinitionCache.size(), 1);
+        
+        ApplicationContext other = TestCaseDefinitionCache.createApplicationContext(CONFIG_LOCATIONS, null);
+        TestCase otherTestCase = other.getBean("EchoActionParserTest", TestCase.class);
+        
+        Assert.assertEquals(TestCaseDefinitionCache.size(), 1);
+        Assert.assertNotSame(otherTestCase, testCase);
+        Assert.assertNotSame(otherTestCase.getActions().get(0), testCase.getActions().get(0));
+        
+        Assert.assertEquals(otherTestCase.getName(), "EchoActionParserTest");
+        Assert.assertEquals(otherTestCase.getActions().size(), 1);
+        Assert.assertEquals(((EchoAction) otherTestCase.getActions().get(0)).getMessage(), "This is a test!");
+    }
+    
+    @Test
+    public void testPlaceholdersResolvedPerRun() {
+        String[] configLocations = new String[] {"com/consol/citrus/config/TestCaseDefinitionCacheTest-context.xml"};
+        TestCaseDefinitionCache.clear();
+        
+        try {
+            System.setProperty("citrus.cache.test.message", "Hello");
+            ApplicationContext ctx = TestCaseDefinitionCache.createApplicationContext(configLocations, null);
+            TestCase testCase = ctx.getBean("TestCaseDefinitionCacheTest", TestCase.class);
+            Assert.assertEquals(((EchoAction) testCase.getActions().get(0)).getMessage(), "Hello");
+            
+            System.setProperty("citrus.cache.test.message", "Goodbye");
+            ApplicationContext other = TestCaseDefinitionCache.createApplicationContext(configLocations, null);
+            TestCase otherTestCase = other.getBean("TestCaseDefinitionCacheTest", TestCase.class);
+            Assert.assertEquals(((EchoAction) otherTestCase.getActions().get(0)).getMessage(), "Goodbye");
+        } finally {
+            System.clearProperty("citrus.cache.test.message");
+        }
+    }
+    
+    @Test
+    public void testFreshParsedObjectsPerRun() {
+        String[] configLocations = new String[] {"com/consol/citrus/config/TestCaseDefinitionCacheTest-messaging-context.xml"};
+        TestCaseDefinitionCache.clear();
+        
+        ApplicationContext ctx = TestCaseDefinitionCache.createApplicationContext(configLocations, null);
+        TestCase testCase = ctx.getBean("TestCaseDefinitionCacheMessagingTest", TestCase.class);
+        
+        ApplicationContext other = TestCaseDefinitionCache.createApplicationContext(configLocations, null);
+        TestCase otherTestCase = other.getBean("TestCaseDefinitionCacheMessagingTest", TestCase.class);
+        
+        Assert.assertEquals(TestCaseDefinitionCache.size(), 1);
+        
+        SendMessageAction send = (SendMessageAction) testCase.getActions().get(0);
+        SendMessageAction otherSend = (SendMessageAction) otherTestCase.getActions().get(0);
+        Assert.assertNotNull(otherSend.getMessageBuilder());
+        Assert.assertNotSame(otherSend.getMessageBuilder(), send.getMessageBuilder());
+        
+        ReceiveMessageAction receive = (ReceiveMessageAction) testCase.getActions().get(1);
+        ReceiveMessageAction otherReceive = (ReceiveMessageAction) otherTestCase.getActions().get(1);
+        Assert.assertEquals(otherReceive.getValidationContexts().size(), receive.getValidationContexts().size());
+        Assert.assertFalse(otherReceive.getValidationContexts().isEmpty());
+        for (int i = 0; i < receive.getValidationContexts().size(); i++) {
+            Assert.assertNotSame(otherReceive.getValidationContexts().get(i), receive.getValidationContexts().get(i));
+        }
+        
+        Assert.assertFalse(otherReceive.getVariableExtractors().isEmpty());
+        Assert.assertNotSame(otherReceive.getVariableExtractors().get(0), receive.getVariableExtractors().get(0));
+    }
+    
+    @Test
+    public void testScriptVariablesEvaluatedPerRun() {
+        String[] configLocations = new String[] {"com/consol/citrus/config/TestCaseDefinitionCacheTest-messaging-context.xml"};
+        TestCaseDefinitionCache.clear();
+        
+        ApplicationContext ctx = TestCaseDefinitionCache.createApplicationContext(configLocations, null);
+        TestCase testCase = ctx.getBean("TestCaseDefinitionCacheMessagingTest", TestCase.class);
+        
+        ApplicationContext other = TestCaseDefinitionCache.createApplicationContext(configLocations, null);
+        TestCase otherTestCase = other.getBean("TestCaseDefinitionCacheMessagingTest", TestCase.class);
+        
+        Assert.assertNotNull(testCase.getVariableDefinitions().get("uniqueId"));
+        Assert.assertNotNull(otherTestCase.getVariableDefinitions().get("uniqueId"));
+        Assert.assertFalse(otherTestCase.getVariableDefinitions().get("uniqueId").equals(
+                testCase.getVariableDefinitions().get("uniqueId")));
+    }
+}
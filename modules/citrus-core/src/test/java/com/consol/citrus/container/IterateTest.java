@@ -115,6 +115,33 @@ public class IterateTest extends AbstractBaseTest {
         Assert.assertEquals(context.getVariable("${i}"), "10");
     }
     
+    @Test
+    public void testRepeatedExecution() {
+        Iterate iterate = new Iterate();
+        
+        List<TestAction> actions = new ArrayList<TestAction>();
+        TestAction action = EasyMock.createMock(TestAction.class);
+
+        reset(action);
+        
+        action.execute(context);
+        expectLastCall().times(10);
+        
+        replay(action);
+        
+        actions.add(action);
+        iterate.setActions(actions);
+        
+        iterate.setCondition("i lt= ${max}");
+        iterate.setIndexName("i");
+        
+        context.setVariable("max", "5");
+        iterate.execute(context);
+        iterate.execute(context);
+        
+        Assert.assertEquals(context.getVariable("${i}"), "5");
+    }
+    
     @Test
     public void testNoIterationBasedOnCondition() {
         Iterate iterate = new Iterate();
@@ -18,14 +18,17 @@ package com.consol.citrus.container;
 
 import static org.easymock.EasyMock.*;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.easymock.EasyMock;
+import org.testng.Assert;
 import org.testng.annotations.Test;
 
 import com.consol.citrus.TestAction;
 import com.consol.citrus.actions.*;
+import com.consol.citrus.context.TestContext;
 import com.consol.citrus.exceptions.CitrusRuntimeException;
 import com.consol.citrus.testng.AbstractBaseTest;
 
@@ -159,4 +162,181 @@ public class ParallelTest extends AbstractBaseTest {
         
         parallelAction.execute(context);
     }
+    
+    @Test
+    public void testMaxConcurrency() {
+        Parallel parallelAction = new Parallel();
+        parallelAction.setMaxConcurrency(2);
+        
+        final AtomicInteger running = new AtomicInteger();
+        final AtomicInteger maxRunning = new AtomicInteger();
+        
+        List<TestAction> actionList = new ArrayList<TestAction>();
+        for (int i = 0; i < 6; i++) {
+            actionList.add(new AbstractTestAction() {
+                @Override
+                public void doExecute(TestContext context) {
+                    int current = running.incrementAndGet();
+                    synchronized (maxRunning) {
+                        if (current > maxRunning.get()) {
+                            maxRunning.set(current);
+                        }
+                    }
+                    
+                    try {
+                        Thread.sleep(50L);
+                    } catch (InterruptedException e) {
+                        throw new CitrusRuntimeException(e);
+                    } finally {
+                        running.decrementAndGet();
+                    }
+                }
+            });
+        }
+        
+        parallelAction.setActions(actionList);
+        
+        parallelAction.execute(context);
+        
+        Assert.assertEquals(maxRunning.get(), 2);
+    }
+    
+    @Test
+    public void testFailFast() {
+        Parallel parallelAction = new Parallel();
+        parallelAction.setFailFast(true);
+        
+        List<TestAction> actionList = new ArrayList<TestAction>();
+        actionList.add(new FailAction());
+        
+        SleepAction sleep = new SleepAction();
+        sleep.setDelay("10");
+        actionList.add(sleep);
+        
+        parallelAction.setActions(actionList);
+        
+        long start = System.currentTimeMillis();
+        try {
+            parallelAction.execute(context);
+            Assert.fail("Missing exception for failing action");
+        } catch (CitrusRuntimeException e) {
+            Assert.assertTrue(System.currentTimeMillis() - start < 5000L);
+            Assert.assertTrue(parallelAction.getLastExecutedAction() instanceof FailAction);
+        }
+    }
+    
+    @Test(timeOut = 10000L)
+    public void testNestedParallelSharedExecutor() {
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        final AtomicInteger executed = new AtomicInteger();
+        
+        try {
+            List<TestAction> outerActions = new ArrayList<TestAction>();
+            for (int i = 0; i < 2; i++) {
+                Parallel nested = new Parallel();
+                nested.setExecutorService(executor);
+                nested.setActions(createCountingActions(2, executed));
+                outerActions.add(nested);
+            }
+            
+            Parallel parallelAction = new Parallel();
+            parallelAction.setExecutorService(executor);
+            parallelAction.setActions(outerActions);
+            
+            parallelAction.execute(context);
+            
+            Assert.assertEquals(executed.get(), 4);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+    
+    @Test(timeOut = 10000L)
+    public void testParallelInPipelineSharedExecutor() {
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        final AtomicInteger executed = new AtomicInteger();
+        
+        try {
+            List<TestAction> outerActions = new ArrayList<TestAction>();
+            for (int i = 0; i < 2; i++) {
+                Parallel nested = new Parallel();
+                nested.setExecutorService(executor);
+                nested.setActions(createCountingActions(2, executed));
+                
+                Pipeline pipeline = new Pipeline();
+                pipeline.setCondition("i lt= 2");
+                pipeline.setIndexName("i");
+                pipeline.setActions(Collections.<TestAction>singletonList(nested));
+                outerActions.add(pipeline);
+            }
+            
+            Parallel parallelAction = new Parallel();
+            parallelAction.setExecutorService(executor);
+            parallelAction.setActions(outerActions);
+            
+            parallelAction.execute(context);
+            
+            Assert.assertEquals(executed.get(), 8);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+    
+    @Test(timeOut = 10000L)
+    public void testNestedParallelSharedExecutorDependentActions() {
+        ExecutorService executor = Executors.newFixedThreadPool(1);
+        final CountDownLatch latch = new CountDownLatch(1);
+        
+        try {
+            Parallel nested = new Parallel();
+            nested.setExecutorService(executor);
+            nested.setActions(Arrays.<TestAction>asList(new AbstractTestAction() {
+                @Override
+                public void doExecute(TestContext context) {
+                    try {
+                        if (!latch.await(5000L, TimeUnit.MILLISECONDS)) {
+                            throw new CitrusRuntimeException("Sibling action was not executed concurrently");
+                        }
+                    } catch (InterruptedException e) {
+                        throw new CitrusRuntimeException(e);
+                    }
+                }
+            }, new AbstractTestAction() {
+                @Override
+                public void doExecute(TestContext context) {
+                    latch.countDown();
+                }
+            }));
+            
+            Parallel parallelAction = new Parallel();
+            parallelAction.setExecutorService(executor);
+            parallelAction.setActions(Collections.<TestAction>singletonList(nested));
+            
+            parallelAction.execute(context);
+            
+            Assert.assertEquals(latch.getCount(), 0L);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+    
+    /**
+     * Creates actions counting their executions.
+     * @param count
+     * @param executed
+     * @return
+     */
+    private List<TestAction> createCountingActions(int count, final AtomicInteger executed) {
+        List<TestAction> actionList = new ArrayList<TestAction>();
+        for (int i = 0; i < count; i++) {
+            actionList.add(new AbstractTestAction() {
+                @Override
+                public void doExecute(TestContext context) {
+                    executed.incrementAndGet();
+                }
+            });
+        }
+        
+        return actionList;
+    }
 }
@@ -0,0 +1,213 @@
+/*
+ * Copyright 2006-2010 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.consol.citrus.container;
+
+import java.util.*;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import com.consol.citrus.TestAction;
+import com.consol.citrus.actions.AbstractTestAction;
+import com.consol.citrus.context.TestContext;
+import com.consol.citrus.exceptions.CitrusRuntimeException;
+import com.consol.citrus.exceptions.ParallelContainerException;
+import com.consol.citrus.testng.AbstractBaseTest;
+
+/**
+ * @author Christoph Deppisch
+ */
+public class PipelineTest extends AbstractBaseTest {
+    
+    @Test
+    public void testIterationVariables() {
+        Pipeline pipeline = new Pipeline();
+        
+        final Set<String> indexes = Collections.synchronizedSet(new HashSet<String>());
+        
+        List<TestAction> actions = new ArrayList<TestAction>();
+        actions.add(new AbstractTestAction() {
+            @Override
+            public void doExecute(TestContext context) {
+                context.setVariable("request", "Request " + context.getVariable("i"));
+            }
+        });
+        actions.add(new AbstractTestAction() {
+            @Override
+            public void doExecute(TestContext context) {
+                Assert.assertEquals(context.getVariable("request"), "Request " + context.getVariable("i"));
+                indexes.add(context.getVariable("i"));
+            }
+        });
+        pipeline.setActions(actions);
+        
+        pipeline.setCondition("i lt= 50");
+        pipeline.setIndexName("i");
+        pipeline.setMaxInFlight(5);
+        
+        pipeline.execute(context);
+        
+        Assert.assertEquals(indexes.size(), 50);
+        Assert.assertTrue(indexes.contains("1"));
+        Assert.assertTrue(indexes.contains("50"));
+        Assert.assertFalse(context.getVariables().containsKey("request"));
+    }
+    
+    @Test
+    public void testMaxInFlight() {
+        Pipeline pipeline = new Pipeline();
+        
+        final AtomicInteger running = new AtomicInteger();
+        final AtomicInteger maxRunning = new AtomicInteger();
+        final CountDownLatch latch = new CountDownLatch(3);
+        
+        List<TestAction> actions = new ArrayList<TestAction>();
+        actions.add(new AbstractTestAction() {
+            @Override
+            public void doExecute(TestContext context) {
+                int current = running.incrementAndGet();
+                synchronized (maxRunning) {
+                    maxRunning.set(Math.max(maxRunning.get(), current));
+                }
+                
+                latch.countDown();
+                
+                try {
+                    latch.await(1000L, TimeUnit.MILLISECONDS);
+                    Thread.sleep(10L);
+                } catch (InterruptedException e) {
+                    throw new CitrusRuntimeException(e);
+                } finally {
+                    running.decrementAndGet();
+                }
+            }
+        });
+        pipeline.setActions(actions);
+        
+        pipeline.setCondition("i lt= 20");
+        pipeline.setIndexName("i");
+        pipeline.setMaxInFlight(3);
+        
+        pipeline.execute(context);
+        
+        Assert.assertEquals(maxRunning.get(), 3);
+    }
+    
+    @Test(expectedExceptions=ParallelContainerException.class)
+    public void testIterationErrors() {
+        Pipeline pipeline = new Pipeline();
+        
+        List<TestAction> actions = new ArrayList<TestAction>();
+        actions.add(new AbstractTestAction() {
+            @Override
+            public void doExecute(TestContext context) {
+                if (Integer.valueOf(context.getVariable("i")) % 5 == 0) {
+                    throw new CitrusRuntimeException("Failed iteration " + context.getVariable("i"));
+                }
+            }
+        });
+        pipeline.setActions(actions);
+        
+        pipeline.setCondition("i lt= 10");
+        pipeline.setIndexName("i");
+        
+        pipeline.execute(context);
+    }
+    
+    @Test
+    public void testIterationSeesParentChanges() {
+        Pipeline pipeline = new Pipeline();
+        
+        final TestContext parentContext = context;
+        parentContext.setVariable("status", "initial");
+        
+        final List<String> values = Collections.synchronizedList(new ArrayList<String>());
+        
+        List<TestAction> actions = new ArrayList<TestAction>();
+        actions.add(new AbstractTestAction() {
+            @Override
+            public void doExecute(TestContext context) {
+                values.add(context.getVariable("status"));
+                parentContext.setVariable("status", "iteration" + context.getVariable("i"));
+            }
+        });
+        pipeline.setActions(actions);
+        
+        pipeline.setCondition("i lt= 3");
+        pipeline.setIndexName("i");
+        pipeline.setMaxInFlight(1);
+        
+        pipeline.execute(context);
+        
+        // iteration contexts read through to the live test variables, they are no snapshots
+        Assert.assertEquals(values, Arrays.asList("initial", "iteration1", "iteration2"));
+    }
+    
+    @Test
+    public void testIterationsCreatedOnDemand() {
+        Pipeline pipeline = new Pipeline();
+        
+        final AtomicInteger created = new AtomicInteger();
+        final AtomicInteger finished = new AtomicInteger();
+        final AtomicInteger maxPending = new AtomicInteger();
+        
+        TestContext parentContext = new TestContext() {
+            @Override
+            public TestContext createChildContext() {
+                created.incrementAndGet();
+                return super.createChildContext();
+            }
+        };
+        
+        List<TestAction> actions = new ArrayList<TestAction>();
+        actions.add(new AbstractTestAction() {
+            @Override
+            public void doExecute(TestContext context) {
+                synchronized (maxPending) {
+                    maxPending.set(Math.max(maxPending.get(), created.get() - finished.get()));
+                }
+                
+                try {
+                    Thread.sleep(5L);
+                } catch (InterruptedException e) {
+                    throw new CitrusRuntimeException(e);
+                } finally {
+                    finished.incrementAndGet();
+                }
+            }
+        });
+        pipeline.setActions(actions);
+        
+        pipeline.setCondition("i lt= 20");
+        pipeline.setIndexName("i");
+        pipeline.setMaxInFlight(2);
+        
+        pipeline.execute(parentContext);
+        
+        Assert.assertEquals(created.get(), 20);
+        Assert.assertTrue(maxPending.get() <= 2, "Too many iterations created in advance: " + maxPending.get());
+    }
+    
+    @Test(expectedExceptions=IllegalArgumentException.class)
+    public void testInvalidMaxInFlight() {
+        Pipeline pipeline = new Pipeline();
+        pipeline.setMaxInFlight(0);
+    }
+}
@@ -28,7 +28,9 @@ import org.testng.Assert;
 import org.testng.annotations.Test;
 
 import com.consol.citrus.TestAction;
+import com.consol.citrus.actions.AbstractTestAction;
 import com.consol.citrus.actions.EchoAction;
+import com.consol.citrus.context.TestContext;
 import com.consol.citrus.exceptions.CitrusRuntimeException;
 import com.consol.citrus.testng.AbstractBaseTest;
 
@@ -116,6 +118,38 @@ public class TemplateTest extends AbstractBaseTest {
                 "Variable 'myText' present in global test context, although global context was disabled before");
     }
     
+    @Test
+    public void testTemplateLocalContextSeesParentChanges() {
+        Template template = new Template();
+        
+        final TestContext parentContext = context;
+        parentContext.setVariable("text", "Hello Citrus!");
+        
+        final List<String> values = new ArrayList<String>();
+        
+        List<TestAction> actions = new ArrayList<TestAction>();
+        actions.add(new AbstractTestAction() {
+            @Override
+            public void doExecute(TestContext context) {
+                values.add(context.getVariable("text"));
+                parentContext.setVariable("text", "Hello again!");
+            }
+        });
+        actions.add(new AbstractTestAction() {
+            @Override
+            public void doExecute(TestContext context) {
+                values.add(context.getVariable("text"));
+            }
+        });
+        template.setActions(actions);
+        template.setGlobalContext(false);
+        
+        template.execute(context);
+        
+        // local context reads through to the live parent variables, it is no snapshot
+        Assert.assertEquals(values, Arrays.asList("Hello Citrus!", "Hello again!"));
+    }
+    
     @Test
     public void testTemplateMissingParams() {
         Template template = new Template();
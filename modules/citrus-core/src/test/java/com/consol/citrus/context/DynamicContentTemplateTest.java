@@ -0,0 +1,103 @@
+/*
+ * Copyright 2006-2010 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.consol.citrus.context;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.testng.Assert;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import com.consol.citrus.exceptions.CitrusRuntimeException;
+import com.consol.citrus.functions.*;
+import com.consol.citrus.functions.core.ConcatFunction;
+import com.consol.citrus.functions.core.UpperCaseFunction;
+import com.consol.citrus.variable.VariableUtils;
+
+/**
+ * @author Christoph Deppisch
+ */
+public class DynamicContentTemplateTest {
+    
+    private TestContext context;
+    
+    @BeforeMethod
+    public void prepareTest() {
+        FunctionLibrary library = new FunctionLibrary();
+        library.setPrefix("citrus:");
+        
+        Map<String, Function> functions = new HashMap<String, Function>();
+        functions.put("concat", new ConcatFunction());
+        functions.put("upperCase", new UpperCaseFunction());
+        library.setMembers(functions);
+        
+        FunctionRegistry functionRegistry = new FunctionRegistry();
+        functionRegistry.setFunctionLibraries(Collections.singletonList(library));
+        
+        context = new TestContext();
+        context.setFunctionRegistry(functionRegistry);
+        context.setVariable("greeting", "Hello");
+        context.setVariable("name", "Citrus");
+        context.setVariable("function", "citrus:upperCase('text')");
+    }
+
+    @Test
+    public void testRender() {
+        assertSameAsLegacy("");
+        assertSameAsLegacy("No dynamic content");
+        assertSameAsLegacy("${greeting}");
+        assertSameAsLegacy("${greeting} ${name}!");
+        assertSameAsLegacy("<text>${greeting}</text><name>${name}</name>");
+        assertSameAsLegacy("citrus:upperCase('hello')");
+        assertSameAsLegacy("<text>citrus:concat(${greeting}, ' ', citrus:upperCase(${name}))</text>");
+        assertSameAsLegacy("<text>${function}</text>");
+        assertSameAsLegacy("${greeting}citrus:upperCase('a')${name}");
+    }
+    
+    @Test
+    public void testRenderMultipleTimes() {
+        DynamicContentTemplate template = DynamicContentTemplate.compile("<text>${greeting} ${name}</text>", context.getFunctionRegistry());
+        
+        Assert.assertEquals(template.render(context), "<text>Hello Citrus</text>");
+        
+        context.setVariable("name", "World");
+        Assert.assertEquals(template.render(context), "<text>Hello World</text>");
+    }
+    
+    @Test
+    public void testCompiledFor() {
+        DynamicContentTemplate template = DynamicContentTemplate.compile("${greeting}", context.getFunctionRegistry());
+        
+        Assert.assertTrue(template.isCompiledFor(context.getFunctionRegistry()));
+        Assert.assertFalse(template.isCompiledFor(new FunctionRegistry()));
+    }
+    
+    @Test(expectedExceptions = {CitrusRuntimeException.class})
+    public void testUnknownVariable() {
+        DynamicContentTemplate.compile("<text>${unknown}</text>", context.getFunctionRegistry()).render(context);
+    }
+    
+    private void assertSameAsLegacy(String template) {
+        String expected = FunctionUtils.replaceFunctionsInString(
+                VariableUtils.replaceVariablesInString(template, context, false), context);
+        
+        Assert.assertEquals(DynamicContentTemplate.compile(template, context.getFunctionRegistry()).render(context), expected);
+        Assert.assertEquals(context.replaceDynamicContentInString(template), expected);
+    }
+}
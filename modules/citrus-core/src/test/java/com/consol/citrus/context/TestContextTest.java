@@ -207,4 +207,24 @@ public class TestContextTest extends AbstractBaseTest {
         Assert.assertEquals(replaceValues.get(1), "123");
         Assert.assertEquals(replaceValues.get(2), "test");
     }
+    
+    @Test
+    public void testChildContext() {
+        context.setVariable("testVar", "test");
+        
+        TestContext childContext = context.createChildContext();
+        Assert.assertEquals(childContext.getVariable("${testVar}"), "test");
+        Assert.assertSame(childContext.getFunctionRegistry(), context.getFunctionRegistry());
+        
+        childContext.setVariable("testVar", "child");
+        childContext.setVariable("childVar", "child");
+        
+        Assert.assertEquals(childContext.getVariable("${testVar}"), "child");
+        Assert.assertEquals(context.getVariable("${testVar}"), "test");
+        Assert.assertFalse(context.getVariables().containsKey("childVar"));
+        
+        // changes in parent context are visible as long as child does not overwrite them
+        context.setVariable("newVar", "new");
+        Assert.assertEquals(childContext.getVariable("${newVar}"), "new");
+    }
 }
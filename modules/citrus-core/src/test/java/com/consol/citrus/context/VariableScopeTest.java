@@ -0,0 +1,106 @@
+/*
+ * Copyright 2006-2010 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.consol.citrus.context;
+
+import java.util.*;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * @author Christoph Deppisch
+ */
+public class VariableScopeTest {
+    
+    @Test
+    public void testLayeredScopes() {
+        Map<String, Object> globalVariables = new LinkedHashMap<String, Object>();
+        globalVariables.put("globalVar", "global");
+        globalVariables.put("overwrittenVar", "global");
+        
+        VariableScope testScope = new VariableScope(Collections.unmodifiableMap(globalVariables));
+        testScope.put("testVar", "test");
+        testScope.put("overwrittenVar", "test");
+        
+        VariableScope templateScope = new VariableScope(testScope);
+        templateScope.put("templateVar", "template");
+        templateScope.put("testVar", "template");
+        
+        Assert.assertEquals(templateScope.get("globalVar"), "global");
+        Assert.assertEquals(templateScope.get("overwrittenVar"), "test");
+        Assert.assertEquals(templateScope.get("testVar"), "template");
+        Assert.assertEquals(templateScope.get("templateVar"), "template");
+        Assert.assertEquals(templateScope.size(), 4);
+        
+        // copy on write: lower layers stay untouched
+        Assert.assertEquals(testScope.get("testVar"), "test");
+        Assert.assertFalse(testScope.containsKey("templateVar"));
+        Assert.assertEquals(globalVariables.get("overwrittenVar"), "global");
+        Assert.assertEquals(globalVariables.size(), 2);
+    }
+    
+    @Test
+    public void testRemoveAndReset() {
+        Map<String, Object> globalVariables = new LinkedHashMap<String, Object>();
+        globalVariables.put("globalVar", "global");
+        
+        VariableScope scope = new VariableScope(globalVariables);
+        scope.put("globalVar", "test");
+        scope.put("testVar", "test");
+        
+        Assert.assertEquals(scope.remove("globalVar"), "test");
+        Assert.assertFalse(scope.containsKey("globalVar"));
+        Assert.assertNull(scope.get("globalVar"));
+        Assert.assertEquals(globalVariables.get("globalVar"), "global");
+        
+        scope.clear();
+        Assert.assertTrue(scope.isEmpty());
+        Assert.assertEquals(scope.size(), 0);
+        
+        scope.reset();
+        Assert.assertFalse(scope.isEmpty());
+        Assert.assertEquals(scope.get("globalVar"), "global");
+        Assert.assertFalse(scope.containsKey("testVar"));
+    }
+    
+    @Test
+    public void testIteration() {
+        Map<String, Object> globalVariables = new LinkedHashMap<String, Object>();
+        globalVariables.put("a", "1");
+        globalVariables.put("b", "2");
+        
+        VariableScope scope = new VariableScope(globalVariables);
+        scope.put("b", "3");
+        scope.put("c", "4");
+        
+        Map<String, Object> expected = new LinkedHashMap<String, Object>();
+        expected.put("a", "1");
+        expected.put("b", "3");
+        expected.put("c", "4");
+        Assert.assertEquals(scope, expected);
+        Assert.assertEquals(new ArrayList<String>(scope.keySet()), Arrays.asList("a", "b", "c"));
+        
+        for (Iterator<String> it = scope.keySet().iterator(); it.hasNext();) {
+            if (it.next().equals("a")) {
+                it.remove();
+            }
+        }
+        
+        Assert.assertFalse(scope.containsKey("a"));
+        Assert.assertEquals(scope.size(), 2);
+    }
+}
@@ -27,6 +27,7 @@ import org.easymock.EasyMock;
 import org.springframework.integration.Message;
 import org.springframework.integration.support.MessageBuilder;
 import org.springframework.jms.core.JmsTemplate;
+import org.springframework.jms.core.SessionCallback;
 import org.testng.Assert;
 import org.testng.annotations.Test;
 
@@ -59,12 +60,9 @@ public class JmsMessageReceiverTest {
         
         reset(jmsTemplate, connectionFactory, destination);
 
-        jmsTemplate.setReceiveTimeout(5000L);
-        expectLastCall().once();
-        
         expect(jmsTemplate.getDefaultDestination()).andReturn(destination).atLeastOnce();
         
-        expect(jmsTemplate.receiveAndConvert()).andReturn(controlMessage);
+        expect(jmsTemplate.execute((SessionCallback)anyObject(), eq(true))).andReturn(controlMessage);
 
         replay(jmsTemplate, connectionFactory, destination);
         
@@ -148,6 +146,43 @@ public class JmsMessageReceiverTest {
         verify(jmsTemplate, connectionFactory, destination, connection, session, messageConsumer);
     }
     
+    @Test
+    public void testReceiveMessageWithConnectionCache() throws JMSException {
+        JmsMessageReceiver receiver = new JmsMessageReceiver();
+        receiver.setConnectionFactory(connectionFactory);
+        receiver.setCacheConnection(true);
+        receiver.setCacheConsumers(true);
+        
+        receiver.setDestinationName("myDestination");
+        
+        Map<String, String> headers = new HashMap<String, String>();
+        
+        reset(jmsTemplate, connectionFactory, destination, connection, session, messageConsumer);
+
+        expect(connectionFactory.createConnection()).andReturn(connection).once();
+        connection.setExceptionListener((ExceptionListener)anyObject());
+        expectLastCall().once();
+        expect(connection.createSession(anyBoolean(), anyInt())).andReturn(session).once();
+        expect(session.getTransacted()).andReturn(false).atLeastOnce();
+        expect(session.getAcknowledgeMode()).andReturn(Session.AUTO_ACKNOWLEDGE).times(2);
+        
+        expect(session.createQueue("myDestination")).andReturn(destinationQueue).times(2);
+        
+        expect(session.createConsumer(destinationQueue, null)).andReturn(messageConsumer).once();
+        
+        expect(messageConsumer.receive(5000L)).andReturn(new TextMessageImpl("<TestRequest><Message>Hello World!</Message></TestRequest>", headers)).times(2);
+        
+        connection.start();
+        expectLastCall().once();
+        
+        replay(jmsTemplate, connectionFactory, destination, connection, session, messageConsumer);
+        
+        Assert.assertEquals(receiver.receive().getPayload(), "<TestRequest><Message>Hello World!</Message></TestRequest>");
+        Assert.assertEquals(receiver.receive().getPayload(), "<TestRequest><Message>Hello World!</Message></TestRequest>");
+        
+        verify(jmsTemplate, connectionFactory, destination, connection, session, messageConsumer);
+    }
+    
     @Test
     public void testReceiveMessageTimeout() throws JMSException {
         JmsMessageReceiver receiver = new JmsMessageReceiver();
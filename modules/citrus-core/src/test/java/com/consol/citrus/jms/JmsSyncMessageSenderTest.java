@@ -23,7 +23,7 @@ import java.util.Map;
 
 import javax.jms.*;
 
-import org.easymock.EasyMock;
+import org.easymock.*;
 import org.springframework.integration.Message;
 import org.springframework.integration.support.MessageBuilder;
 import org.testng.Assert;
@@ -169,6 +169,165 @@ public class JmsSyncMessageSenderTest {
         verify(connectionFactory, destination, connection, session, messageConsumer, messageProducer, tempReplyQueue);
     }
 
+    @Test
+    public void testSendMessageWithSessionPool() throws JMSException {
+        JmsSyncMessageSender sender = new JmsSyncMessageSender();
+        sender.setConnectionFactory(connectionFactory);
+        sender.setSessionPoolSize(2);
+        
+        sender.setDestination(destination);
+        
+        Map<String, Object> headers = new HashMap<String, Object>();
+        final Message<String> message = MessageBuilder.withPayload("<TestRequest><Message>Hello World!</Message></TestRequest>")
+                                .copyHeaders(headers)
+                                .build();
+        
+        Map<String, String> responseHeaders = new HashMap<String, String>();
+        TextMessage jmsResponse = new TextMessageImpl("<TestResponse>Hello World!</TestResponse>", responseHeaders);
+        
+        reset(connectionFactory, destination, connection, session, messageConsumer, messageProducer, tempReplyQueue);
+
+        expect(connectionFactory.createConnection()).andReturn(connection).once();
+        expect(connection.createSession(anyBoolean(), anyInt())).andReturn(session).once();
+
+        expect(session.createTemporaryQueue()).andReturn(tempReplyQueue).once();
+        
+        expect(session.createConsumer(tempReplyQueue)).andReturn(messageConsumer).once();
+        expect(messageConsumer.receive(anyLong())).andReturn(jmsResponse).times(2);
+        
+        expect(session.createProducer(destination)).andReturn(messageProducer).once();
+        messageProducer.send((TextMessage)anyObject());
+        expectLastCall().times(2);
+        
+        expect(session.createTextMessage("<TestRequest><Message>Hello World!</Message></TestRequest>")).andReturn(
+                new TextMessageImpl("<TestRequest><Message>Hello World!</Message></TestRequest>", new HashMap<String, String>())).times(2);
+        
+        replay(connectionFactory, destination, connection, session, messageConsumer, messageProducer, tempReplyQueue);
+        
+        sender.send(message);
+        sender.send(message);
+        
+        Assert.assertEquals(sender.getRequestCount(), 2L);
+        Assert.assertEquals(sender.getTimeoutCount(), 0L);
+        
+        verify(connectionFactory, destination, connection, session, messageConsumer, messageProducer, tempReplyQueue);
+    }
+    
+    @Test
+    public void testSendMessageWithSessionPoolAndReplyTopic() throws JMSException {
+        JmsSyncMessageSender sender = new JmsSyncMessageSender();
+        sender.setConnectionFactory(connectionFactory);
+        sender.setSessionPoolSize(2);
+        sender.setBeanName("syncSender");
+        
+        Topic replyTopic = EasyMock.createMock(Topic.class);
+        
+        sender.setDestination(destination);
+        sender.setReplyDestination(replyTopic);
+        
+        final Message<String> message = MessageBuilder.withPayload("<TestRequest><Message>Hello World!</Message></TestRequest>").build();
+        
+        TextMessage jmsResponse = new TextMessageImpl("<TestResponse>Hello World!</TestResponse>", new HashMap<String, String>());
+        
+        IMocksControl strictControl = EasyMock.createStrictControl();
+        Session pooledSession = strictControl.createMock(Session.class);
+        MessageProducer pooledProducer = strictControl.createMock(MessageProducer.class);
+        MessageConsumer replyConsumer = strictControl.createMock(MessageConsumer.class);
+        MessageConsumer topicSubscriber = strictControl.createMock(TopicSubscriber.class);
+        
+        reset(connectionFactory, destination, connection);
+
+        expect(connectionFactory.createConnection()).andReturn(connection).once();
+        expect(connection.createSession(anyBoolean(), anyInt())).andReturn(pooledSession).once();
+        
+        expect(pooledSession.createProducer(destination)).andReturn(pooledProducer).once();
+        expect(pooledSession.createTemporaryQueue()).andReturn(tempReplyQueue).once();
+        expect(pooledSession.createConsumer(tempReplyQueue)).andReturn(replyConsumer).once();
+        
+        expect(pooledSession.createTextMessage("<TestRequest><Message>Hello World!</Message></TestRequest>")).andReturn(
+                new TextMessageImpl("<TestRequest><Message>Hello World!</Message></TestRequest>", new HashMap<String, String>()));
+        
+        //reply subscriber must be created before the request is sent, using the pooled session's subscription name
+        expect(pooledSession.createDurableSubscriber(eq(replyTopic), eq("syncSender-0"), matches("JMSCorrelationID = '[0-9a-f\\-]{36}'"), eq(false)))
+            .andReturn((TopicSubscriber) topicSubscriber).once();
+        pooledProducer.send((TextMessage)anyObject());
+        expectLastCall().once();
+        expect(topicSubscriber.receive(anyLong())).andReturn(jmsResponse).once();
+        topicSubscriber.close();
+        expectLastCall().once();
+        
+        replay(connectionFactory, destination, connection);
+        strictControl.replay();
+        
+        sender.send(message);
+        
+        verify(connectionFactory, destination, connection);
+        strictControl.verify();
+    }
+    
+    @Test
+    public void testSendMessageWithSessionPoolAndProviderMessageId() throws JMSException {
+        JmsSyncMessageSender sender = new JmsSyncMessageSender();
+        sender.setConnectionFactory(connectionFactory);
+        sender.setSessionPoolSize(1);
+        
+        sender.setDestination(destination);
+        sender.setReplyDestination(replyDestinationQueue);
+        
+        final Message<String> message = MessageBuilder.withPayload("<TestRequest><Message>Hello World!</Message></TestRequest>").build();
+        
+        final ProviderTextMessage jmsRequest = new ProviderTextMessage("<TestRequest><Message>Hello World!</Message></TestRequest>");
+        Capture<String> messageSelector = new Capture<String>();
+        
+        IMocksControl strictControl = EasyMock.createStrictControl();
+        Session pooledSession = strictControl.createMock(Session.class);
+        MessageProducer pooledProducer = strictControl.createMock(MessageProducer.class);
+        MessageConsumer replyConsumer = strictControl.createMock(MessageConsumer.class);
+        MessageConsumer queueReceiver = strictControl.createMock(MessageConsumer.class);
+        
+        reset(connectionFactory, destination, connection);
+
+        expect(connectionFactory.createConnection()).andReturn(connection).once();
+        expect(connection.createSession(anyBoolean(), anyInt())).andReturn(pooledSession).once();
+        
+        expect(pooledSession.createProducer(destination)).andReturn(pooledProducer).once();
+        expect(pooledSession.createTemporaryQueue()).andReturn(tempReplyQueue).once();
+        expect(pooledSession.createConsumer(tempReplyQueue)).andReturn(replyConsumer).once();
+        
+        expect(pooledSession.createTextMessage("<TestRequest><Message>Hello World!</Message></TestRequest>")).andReturn(jmsRequest);
+        
+        //provider assigns the message id on send, so consumer must select on the correlation id set before
+        expect(pooledSession.createConsumer(eq(replyDestinationQueue), capture(messageSelector))).andReturn(queueReceiver).once();
+        pooledProducer.send(jmsRequest);
+        expectLastCall().andAnswer(new IAnswer<Object>() {
+            public Object answer() throws Throwable {
+                jmsRequest.setJMSMessageID("ID:provider-1");
+                return null;
+            }
+        }).once();
+        expect(queueReceiver.receive(anyLong())).andAnswer(new IAnswer<javax.jms.Message>() {
+            public javax.jms.Message answer() throws Throwable {
+                ProviderTextMessage jmsResponse = new ProviderTextMessage("<TestResponse>Hello World!</TestResponse>");
+                jmsResponse.setJMSCorrelationID(jmsRequest.getJMSCorrelationID());
+                return jmsResponse;
+            }
+        }).once();
+        queueReceiver.close();
+        expectLastCall().once();
+        
+        replay(connectionFactory, destination, connection);
+        strictControl.replay();
+        
+        sender.send(message);
+        
+        Assert.assertNotNull(jmsRequest.getJMSCorrelationID());
+        Assert.assertEquals(messageSelector.getValue(), "JMSCorrelationID = '" + jmsRequest.getJMSCorrelationID() + "'");
+        Assert.assertEquals(sender.getTimeoutCount(), 0L);
+        
+        verify(connectionFactory, destination, connection);
+        strictControl.verify();
+    }
+    
     @Test
     @SuppressWarnings("rawtypes")
     public void testSendMessageWithReplyHandler() throws JMSException {
@@ -283,4 +442,37 @@ public class JmsSyncMessageSenderTest {
         
         Assert.fail("Missing " + CitrusRuntimeException.class + " because of sending empty message");
     }
+    
+    /**
+     * Text message behaving like provider messages, message id is not available before sending.
+     */
+    private static class ProviderTextMessage extends TextMessageImpl {
+        private String messageId;
+        
+        private String correlationId;
+        
+        public ProviderTextMessage(String payload) {
+            super(payload, new HashMap<String, String>());
+        }
+        
+        @Override
+        public void setJMSMessageID(String id) throws JMSException {
+            this.messageId = id;
+        }
+        
+        @Override
+        public String getJMSMessageID() throws JMSException {
+            return messageId;
+        }
+        
+        @Override
+        public void setJMSCorrelationID(String correlationID) throws JMSException {
+            this.correlationId = correlationID;
+        }
+        
+        @Override
+        public String getJMSCorrelationID() throws JMSException {
+            return correlationId;
+        }
+    }
 }
@@ -0,0 +1,179 @@
+/*
+ * Copyright 2006-2010 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.consol.citrus.message;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.integration.Message;
+import org.springframework.integration.support.MessageBuilder;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import com.consol.citrus.exceptions.CitrusRuntimeException;
+
+/**
+ * @author Christoph Deppisch
+ */
+public class AsyncMessageSenderAdapterTest {
+
+    @Test
+    public void testSendAsync() throws Exception {
+        final CountDownLatch latch = new CountDownLatch(1);
+        final AtomicInteger sent = new AtomicInteger();
+        
+        AsyncMessageSenderAdapter adapter = new AsyncMessageSenderAdapter(new MessageSender() {
+            public void send(Message<?> message) {
+                try {
+                    latch.await(1000L, TimeUnit.MILLISECONDS);
+                } catch (InterruptedException e) {
+                    throw new CitrusRuntimeException(e);
+                }
+                
+                sent.incrementAndGet();
+            }
+        });
+        
+        Message<String> message = MessageBuilder.withPayload("<TestRequest/>").build();
+        Future<Message<?>> first = adapter.sendAsync(message);
+        Future<Message<?>> second = adapter.sendAsync(message);
+        
+        Assert.assertFalse(first.isDone());
+        Assert.assertEquals(adapter.getInFlightCount(), 2);
+        
+        latch.countDown();
+        
+        Assert.assertEquals(first.get(1000L, TimeUnit.MILLISECONDS), message);
+        Assert.assertEquals(second.get(1000L, TimeUnit.MILLISECONDS), message);
+        Assert.assertEquals(sent.get(), 2);
+        
+        adapter.destroy();
+    }
+    
+    @Test
+    public void testMaxInFlight() throws Exception {
+        final AtomicInteger running = new AtomicInteger();
+        final AtomicInteger maxRunning = new AtomicInteger();
+        
+        AsyncMessageSenderAdapter adapter = new AsyncMessageSenderAdapter(new MessageSender() {
+            public void send(Message<?> message) {
+                int current = running.incrementAndGet();
+                synchronized (maxRunning) {
+                    maxRunning.set(Math.max(maxRunning.get(), current));
+                }
+                
+                try {
+                    Thread.sleep(10L);
+                } catch (InterruptedException e) {
+                    throw new CitrusRuntimeException(e);
+                } finally {
+                    running.decrementAndGet();
+                }
+            }
+        });
+        adapter.setMaxInFlight(2);
+        
+        Message<String> message = MessageBuilder.withPayload("<TestRequest/>").build();
+        Future<Message<?>> last = null;
+        for (int i = 0; i < 10; i++) {
+            last = adapter.sendAsync(message);
+        }
+        
+        last.get(1000L, TimeUnit.MILLISECONDS);
+        
+        Assert.assertTrue(maxRunning.get() <= 2);
+        
+        adapter.destroy();
+    }
+    
+    @Test
+    public void testSendErrorRaisedOnNextSend() throws Exception {
+        final AtomicInteger attempts = new AtomicInteger();
+        
+        AsyncMessageSenderAdapter adapter = new AsyncMessageSenderAdapter(new MessageSender() {
+            public void send(Message<?> message) {
+                if (attempts.incrementAndGet() == 1) {
+                    throw new CitrusRuntimeException("Failed to send message");
+                }
+            }
+        });
+        
+        Message<String> message = MessageBuilder.withPayload("<TestRequest/>").build();
+        
+        adapter.send(message);
+        waitForRequestsInFlight(adapter);
+        
+        try {
+            adapter.send(message);
+            Assert.fail("Missing send error");
+        } catch (CitrusRuntimeException e) {
+            Assert.assertEquals(e.getMessage(), "Failed to send message");
+        }
+        
+        adapter.send(message);
+        waitForRequestsInFlight(adapter);
+        
+        Assert.assertEquals(attempts.get(), 2);
+        
+        adapter.destroy();
+    }
+    
+    @Test
+    public void testSendAsyncErrorReportedOnce() throws Exception {
+        final AtomicInteger attempts = new AtomicInteger();
+        
+        AsyncMessageSenderAdapter adapter = new AsyncMessageSenderAdapter(new MessageSender() {
+            public void send(Message<?> message) {
+                if (attempts.incrementAndGet() == 1) {
+                    throw new CitrusRuntimeException("Failed to send message");
+                }
+            }
+        });
+        
+        Message<String> message = MessageBuilder.withPayload("<TestRequest/>").build();
+        
+        try {
+            adapter.sendAsync(message).get(1000L, TimeUnit.MILLISECONDS);
+            Assert.fail("Missing send error");
+        } catch (ExecutionException e) {
+            Assert.assertTrue(e.getCause() instanceof CitrusRuntimeException);
+        }
+        
+        waitForRequestsInFlight(adapter);
+        
+        adapter.send(message);
+        waitForRequestsInFlight(adapter);
+        
+        Assert.assertEquals(attempts.get(), 2);
+        
+        adapter.destroy();
+    }
+    
+    /**
+     * Waits until all requests in flight have completed.
+     * @param adapter
+     * @throws InterruptedException
+     */
+    private void waitForRequestsInFlight(AsyncMessageSenderAdapter adapter) throws InterruptedException {
+        long timeout = System.currentTimeMillis() + 5000L;
+        while (adapter.getInFlightCount() > 0 && System.currentTimeMillis() < timeout) {
+            Thread.sleep(10L);
+        }
+        
+        Assert.assertEquals(adapter.getInFlightCount(), 0);
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright 2006-2010 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.consol.citrus.message;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * @author Christoph Deppisch
+ */
+public class CorrelationStoreTest {
+
+    @Test
+    public void testAddAndPoll() {
+        CorrelationStore<String> store = new CorrelationStore<String>();
+        
+        store.add("foo", "Hello");
+        store.add("bar", "Hi");
+        Assert.assertEquals(store.size(), 2);
+        
+        Assert.assertEquals(store.poll("foo"), "Hello");
+        Assert.assertNull(store.poll("foo"));
+        Assert.assertEquals(store.poll("bar"), "Hi");
+        Assert.assertEquals(store.size(), 0);
+    }
+    
+    @Test
+    public void testTakeWaitsForArrival() throws InterruptedException {
+        final CorrelationStore<String> store = new CorrelationStore<String>();
+        
+        Thread producer = new Thread(new Runnable() {
+            public void run() {
+                try {
+                    Thread.sleep(100L);
+                } catch (InterruptedException e) {
+                    return;
+                }
+                
+                store.add("foo", "Hello");
+            }
+        });
+        producer.start();
+        
+        long start = System.currentTimeMillis();
+        Assert.assertEquals(store.take("foo", 5000L), "Hello");
+        Assert.assertTrue(System.currentTimeMillis() - start < 2500L);
+        
+        producer.join();
+        
+        Assert.assertEquals(store.getWaitCount(), 1L);
+        Assert.assertEquals(store.getTimeoutCount(), 0L);
+        Assert.assertTrue(store.getMaxWaitTime() > 0L);
+    }
+    
+    @Test
+    public void testTakeTimeout() {
+        CorrelationStore<String> store = new CorrelationStore<String>();
+        store.add("bar", "Hi");
+        
+        Assert.assertNull(store.take("foo", 100L));
+        Assert.assertEquals(store.getTimeoutCount(), 1L);
+        Assert.assertEquals(store.take("bar", 100L), "Hi");
+    }
+    
+    @Test
+    public void testExpiry() throws InterruptedException {
+        CorrelationStore<String> store = new CorrelationStore<String>();
+        store.setExpiry(50L);
+        
+        store.add("foo", "Hello");
+        Thread.sleep(100L);
+        store.purgeExpired();
+        
+        Assert.assertNull(store.poll("foo"));
+        Assert.assertEquals(store.getExpiredCount(), 1L);
+    }
+}
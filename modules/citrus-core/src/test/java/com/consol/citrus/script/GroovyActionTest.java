@@ -108,6 +108,25 @@ public class GroovyActionTest extends AbstractBaseTest {
         bean.execute(context);
     }
     
+    @Test
+    public void testScriptBindingWithoutTemplate() {
+        context.setVariable("greeting", "Hello");
+        context.setVariable("context", "userValue");
+        
+        GroovyAction bean = new GroovyAction();
+        bean.setUseScriptTemplate(false);
+        bean.setScript("assert greeting == 'Hello'\n" +
+                       "greeting = 'Hi'\n" +
+                       "scriptVar = greeting + ' Citrus'\n" +
+                       "context.setVariable('result', scriptVar)");
+        bean.execute(context);
+        
+        Assert.assertEquals(context.getVariable("result"), "Hi Citrus");
+        Assert.assertEquals(context.getVariable("greeting"), "Hello");
+        Assert.assertEquals(context.getVariable("context"), "userValue");
+        Assert.assertFalse(context.getVariables().containsKey("scriptVar"));
+    }
+    
     @Test
     public void testCustomScriptTemplate() {
         GroovyAction bean = new GroovyAction();
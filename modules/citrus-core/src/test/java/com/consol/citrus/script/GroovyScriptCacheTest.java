@@ -0,0 +1,66 @@
+/*
+ * Copyright 2006-2010 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.consol.citrus.script;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * @author Christoph Deppisch
+ */
+public class GroovyScriptCacheTest {
+    
+    @Test
+    public void testScriptCompiledOnce() {
+        GroovyScriptCache cache = new GroovyScriptCache(10);
+        
+        Class<?> scriptClass = cache.getScriptClass("println 'Hello TestFramework!'");
+        
+        Assert.assertSame(cache.getScriptClass("println 'Hello TestFramework!'"), scriptClass);
+        Assert.assertEquals(cache.getMisses(), 1L);
+        Assert.assertEquals(cache.getHits(), 1L);
+        Assert.assertEquals(cache.size(), 1);
+    }
+    
+    @Test
+    public void testSameClassNameInDifferentScripts() throws Exception {
+        GroovyScriptCache cache = new GroovyScriptCache(10);
+        
+        Class<?> firstClass = cache.getScriptClass("public class GScript { public String run() { return 'first' } }");
+        Class<?> secondClass = cache.getScriptClass("public class GScript { public String run() { return 'second' } }");
+        
+        Assert.assertNotSame(firstClass, secondClass);
+        Assert.assertEquals(firstClass.getMethod("run").invoke(firstClass.newInstance()), "first");
+        Assert.assertEquals(secondClass.getMethod("run").invoke(secondClass.newInstance()), "second");
+    }
+    
+    @Test
+    public void testEviction() {
+        GroovyScriptCache cache = new GroovyScriptCache(2);
+        
+        Class<?> scriptClass = cache.getScriptClass("println 'first'");
+        cache.getScriptClass("println 'second'");
+        cache.getScriptClass("println 'third'");
+        
+        Assert.assertEquals(cache.size(), 2);
+        Assert.assertNotSame(cache.getScriptClass("println 'first'"), scriptClass);
+        Assert.assertEquals(cache.getMisses(), 4L);
+        
+        cache.clear();
+        Assert.assertEquals(cache.size(), 0);
+    }
+}
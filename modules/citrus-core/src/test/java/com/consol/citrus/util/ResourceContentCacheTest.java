@@ -0,0 +1,96 @@
+/*
+ * Copyright 2006-2010 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.consol.citrus.util;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import com.consol.citrus.context.DynamicContentTemplate;
+import com.consol.citrus.context.TestContext;
+import com.consol.citrus.functions.FunctionRegistry;
+
+/**
+ * @author Christoph Deppisch
+ */
+public class ResourceContentCacheTest {
+
+    @Test
+    public void testTemplateCache() throws Exception {
+        ResourceContentCache cache = new ResourceContentCache(ResourceContentCache.DEFAULT_MAX_ENTRIES);
+        FunctionRegistry functionRegistry = new FunctionRegistry();
+        
+        File file = File.createTempFile("citrus", ".txt");
+        file.deleteOnExit();
+        writeFile(file, "Hello ${user}!");
+        
+        Resource resource = new FileSystemResource(file);
+        
+        DynamicContentTemplate template = cache.getTemplate(resource, functionRegistry);
+        Assert.assertSame(cache.getTemplate(resource, functionRegistry), template);
+        
+        TestContext context = new TestContext();
+        context.setFunctionRegistry(functionRegistry);
+        context.setVariable("user", "Citrus");
+        Assert.assertEquals(template.render(context), "Hello Citrus!");
+        
+        writeFile(file, "Bye ${user}!");
+        file.setLastModified(file.lastModified() + 10000L);
+        
+        Assert.assertEquals(cache.getContent(resource), "Bye ${user}!");
+        Assert.assertEquals(cache.getTemplate(resource, functionRegistry).render(context), "Bye Citrus!");
+    }
+    
+    @Test
+    public void testMaxEntries() throws Exception {
+        ResourceContentCache cache = new ResourceContentCache(1);
+        FunctionRegistry functionRegistry = new FunctionRegistry();
+        
+        File first = File.createTempFile("citrus", ".txt");
+        first.deleteOnExit();
+        writeFile(first, "first");
+        
+        File second = File.createTempFile("citrus", ".txt");
+        second.deleteOnExit();
+        writeFile(second, "second");
+        
+        DynamicContentTemplate template = cache.getTemplate(new FileSystemResource(first), functionRegistry);
+        cache.getTemplate(new FileSystemResource(second), functionRegistry);
+        
+        Assert.assertNotSame(cache.getTemplate(new FileSystemResource(first), functionRegistry), template);
+    }
+    
+    /**
+     * Writes text content to file.
+     * @param file
+     * @param content
+     * @throws IOException
+     */
+    private void writeFile(File file, String content) throws IOException {
+        FileWriter writer = new FileWriter(file);
+        try {
+            writer.write(content);
+        } finally {
+            writer.close();
+        }
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright 2006-2010 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.consol.citrus.validation.script.sql;
+
+import java.util.*;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * @author Christoph Deppisch
+ */
+public class ColumnarResultSetTest {
+    
+    @Test
+    public void testRowViews() {
+        ColumnarResultSet resultSet = new ColumnarResultSet();
+        resultSet.addResult(new String[] {"ORDERTYPE", "STATUS"});
+        
+        for (int i = 0; i < 100; i++) {
+            resultSet.addRow(new Object[] {"type" + i, i % 2 == 0 ? null : "in_progress"});
+        }
+        
+        Assert.assertEquals(resultSet.size(), 100);
+        Assert.assertEquals(resultSet.get(42).get("ORDERTYPE"), "type42");
+        Assert.assertEquals(resultSet.get(42).get("ordertype"), "type42");
+        Assert.assertNull(resultSet.get(42).get("STATUS"));
+        Assert.assertTrue(resultSet.get(42).containsKey("status"));
+        Assert.assertEquals(resultSet.get(99).get("STATUS"), "in_progress");
+        
+        Map<String, Object> expected = new HashMap<String, Object>();
+        expected.put("ORDERTYPE", "type1");
+        expected.put("STATUS", "in_progress");
+        Assert.assertEquals(resultSet.get(1), expected);
+        Assert.assertEquals(new ArrayList<String>(resultSet.get(1).keySet()), Arrays.asList("ORDERTYPE", "STATUS"));
+    }
+    
+    @Test
+    public void testMultipleResults() {
+        ColumnarResultSet resultSet = new ColumnarResultSet();
+        resultSet.addResult(new String[] {"ORDERTYPE", "STATUS"});
+        resultSet.addRow(new Object[] {"small", "in_progress"});
+        resultSet.addResult(new String[] {"NAME"});
+        resultSet.addRow(new Object[] {"Mickey Mouse"});
+        resultSet.addRow(new Object[] {"Donald Duck"});
+        
+        Assert.assertEquals(resultSet.size(), 3);
+        Assert.assertEquals(resultSet.get(0).size(), 2);
+        Assert.assertEquals(resultSet.get(0).get("STATUS"), "in_progress");
+        Assert.assertEquals(resultSet.get(2).size(), 1);
+        Assert.assertEquals(resultSet.get(2).get("NAME"), "Donald Duck");
+        Assert.assertFalse(resultSet.get(2).containsKey("STATUS"));
+    }
+    
+    @Test(expectedExceptions = {IndexOutOfBoundsException.class})
+    public void testIndexOutOfBounds() {
+        ColumnarResultSet resultSet = new ColumnarResultSet();
+        resultSet.addResult(new String[] {"NAME"});
+        resultSet.addRow(new Object[] {"Mickey Mouse"});
+        
+        resultSet.get(1);
+    }
+}
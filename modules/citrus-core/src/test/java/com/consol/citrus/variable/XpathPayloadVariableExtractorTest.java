@@ -0,0 +1,82 @@
+/*
+ * Copyright 2006-2010 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.consol.citrus.variable;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.integration.Message;
+import org.springframework.integration.support.MessageBuilder;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import com.consol.citrus.context.TestContext;
+
+/**
+ * @author Christoph Deppisch
+ */
+public class XpathPayloadVariableExtractorTest {
+    
+    private Message<?> message = MessageBuilder.withPayload("<ns0:root xmlns:ns0='http://citrus/ns0'>"
+                + "<ns0:element attribute='A'>Hello</ns0:element>"
+                + "<ns0:count>2</ns0:count>"
+            + "</ns0:root>").build();
+
+    @Test
+    public void testExtractVariables() {
+        TestContext context = new TestContext();
+        
+        Map<String, String> xPathExpressions = new HashMap<String, String>();
+        xPathExpressions.put("/ns0:root/ns0:element", "text");
+        xPathExpressions.put("/ns0:root/ns0:element/@attribute", "attribute");
+        xPathExpressions.put("number:/ns0:root/ns0:count", "count");
+        xPathExpressions.put("boolean:/ns0:root/ns0:element", "exists");
+        xPathExpressions.put("root.element", "dotNotation");
+        
+        XpathPayloadVariableExtractor variableExtractor = new XpathPayloadVariableExtractor();
+        variableExtractor.setxPathExpressions(xPathExpressions);
+        
+        variableExtractor.extractVariables(message, context);
+        
+        Assert.assertEquals(context.getVariable("text"), "Hello");
+        Assert.assertEquals(context.getVariable("attribute"), "A");
+        Assert.assertEquals(context.getVariable("count"), "2.0");
+        Assert.assertEquals(context.getVariable("exists"), "true");
+        Assert.assertEquals(context.getVariable("dotNotation"), "Hello");
+    }
+    
+    @Test
+    public void testExtractVariablesExpressionsChanged() {
+        TestContext context = new TestContext();
+        
+        Map<String, String> xPathExpressions = new HashMap<String, String>();
+        xPathExpressions.put("/ns0:root/ns0:element", "text");
+        
+        XpathPayloadVariableExtractor variableExtractor = new XpathPayloadVariableExtractor();
+        variableExtractor.setxPathExpressions(xPathExpressions);
+        variableExtractor.extractVariables(message, context);
+        
+        xPathExpressions = new HashMap<String, String>();
+        xPathExpressions.put("/ns0:root/ns0:count", "count");
+        
+        variableExtractor.setxPathExpressions(xPathExpressions);
+        variableExtractor.extractVariables(message, context);
+        
+        Assert.assertEquals(context.getVariable("text"), "Hello");
+        Assert.assertEquals(context.getVariable("count"), "2");
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright 2006-2010 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.consol.citrus.xml;
+
+import org.springframework.integration.Message;
+import org.springframework.integration.support.MessageBuilder;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+import org.w3c.dom.Document;
+
+import com.consol.citrus.context.TestContext;
+
+/**
+ * @author Christoph Deppisch
+ */
+public class ParsedMessagePayloadTest {
+
+    @Test
+    public void testParseOnce() {
+        TestContext context = new TestContext();
+        Message<?> message = MessageBuilder.withPayload("<ns0:root xmlns:ns0='http://citrus/ns0'>"
+                    + "<ns0:element>Hello</ns0:element>"
+                + "</ns0:root>").build();
+        
+        ParsedMessagePayload parsedPayload = ParsedMessagePayload.fromMessage(message, context);
+        Document document = parsedPayload.getDocument();
+        
+        Assert.assertEquals(document.getFirstChild().getLocalName(), "root");
+        Assert.assertEquals(parsedPayload.getNamespaces().get("ns0"), "http://citrus/ns0");
+        
+        Assert.assertSame(ParsedMessagePayload.fromMessage(message, context), parsedPayload);
+        Assert.assertSame(ParsedMessagePayload.fromMessage(message, context).getDocument(), document);
+    }
+    
+    @Test
+    public void testNewMessagePayload() {
+        TestContext context = new TestContext();
+        
+        ParsedMessagePayload parsedPayload = ParsedMessagePayload.fromMessage(
+                MessageBuilder.withPayload("<root><element>Hello</element></root>").build(), context);
+        ParsedMessagePayload otherPayload = ParsedMessagePayload.fromMessage(
+                MessageBuilder.withPayload("<root><element>Bye</element></root>").build(), context);
+        
+        Assert.assertNotSame(otherPayload, parsedPayload);
+        Assert.assertSame(context.getParsedMessagePayload(), otherPayload);
+    }
+    
+    @Test
+    public void testStrippedDocument() {
+        ParsedMessagePayload parsedPayload = new ParsedMessagePayload("<root>\n    <element>Hello</element>\n</root>");
+        
+        Document stripped = parsedPayload.getStrippedDocument();
+        
+        Assert.assertNotSame(stripped, parsedPayload.getDocument());
+        Assert.assertEquals(stripped.getFirstChild().getChildNodes().getLength(), 1);
+        Assert.assertEquals(parsedPayload.getDocument().getFirstChild().getChildNodes().getLength(), 3);
+    }
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright 2006-2010 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.consol.citrus.xml;
+
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.xml.validation.XmlValidator;
+import org.springframework.xml.xsd.SimpleXsdSchema;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * @author Christoph Deppisch
+ */
+public class XsdSchemaRepositoryTest {
+
+    @Test
+    public void testSchemaValidatorCache() throws Exception {
+        XsdSchemaRepository schemaRepository = new XsdSchemaRepository();
+        SimpleXsdSchema schema = new SimpleXsdSchema(new ClassPathResource("com/consol/citrus/validation/test.xsd"));
+        schema.afterPropertiesSet();
+        
+        schemaRepository.getSchemas().add(schema);
+        
+        Assert.assertSame(schemaRepository.getSchemaByNamespace("http://citrus"), schema);
+        
+        XmlValidator validator = schemaRepository.getSchemaValidator("http://citrus");
+        Assert.assertNotNull(validator);
+        Assert.assertSame(schemaRepository.getSchemaValidator("http://citrus"), validator);
+        
+        schemaRepository.clearCache();
+        Assert.assertNotSame(schemaRepository.getSchemaValidator("http://citrus"), validator);
+    }
+    
+    @Test
+    public void testUnknownNamespace() throws Exception {
+        XsdSchemaRepository schemaRepository = new XsdSchemaRepository();
+        
+        Assert.assertNull(schemaRepository.getSchemaByNamespace("http://unknown"));
+        Assert.assertNull(schemaRepository.getSchemaValidator("http://unknown"));
+    }
+}
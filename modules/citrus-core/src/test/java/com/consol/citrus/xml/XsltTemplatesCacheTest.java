@@ -0,0 +1,86 @@
+/*
+ * Copyright 2006-2010 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.consol.citrus.xml;
+
+import javax.xml.transform.TransformerException;
+
+import org.springframework.xml.transform.StringResult;
+import org.springframework.xml.transform.StringSource;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * @author Christoph Deppisch
+ */
+public class XsltTemplatesCacheTest {
+    
+    private static final String STYLESHEET = "<xsl:stylesheet version=\"1.0\" xmlns:xsl=\"http://www.w3.org/1999/XSL/Transform\">\n" +
+            "<xsl:output method=\"text\"/>" +
+            "<xsl:template match=\"/\">Message: <xsl:value-of select=\"TestRequest/Message\"/></xsl:template>\n" +
+            "</xsl:stylesheet>";
+    
+    @Test
+    public void testTransform() throws TransformerException {
+        XsltTemplatesCache cache = new XsltTemplatesCache(10);
+        
+        for (int i = 0; i < 3; i++) {
+            StringResult result = new StringResult();
+            cache.transform(STYLESHEET, new StringSource("<TestRequest><Message>Hello " + i + "</Message></TestRequest>"), result);
+            
+            Assert.assertEquals(result.toString(), "Message: Hello " + i);
+        }
+        
+        Assert.assertEquals(cache.getMisses(), 1L);
+        Assert.assertEquals(cache.getHits(), 2L);
+        Assert.assertEquals(cache.size(), 1);
+    }
+    
+    @Test
+    public void testTransformerBoundToThread() throws Exception {
+        final XsltTemplatesCache cache = new XsltTemplatesCache(10);
+        final Object[] otherTransformer = new Object[1];
+        
+        Thread thread = new Thread() {
+            @Override
+            public void run() {
+                try {
+                    otherTransformer[0] = cache.getTransformer(STYLESHEET);
+                } catch (TransformerException e) {
+                    otherTransformer[0] = e;
+                }
+            }
+        };
+        thread.start();
+        thread.join();
+        
+        Assert.assertSame(cache.getTransformer(STYLESHEET), cache.getTransformer(STYLESHEET));
+        Assert.assertNotSame(cache.getTransformer(STYLESHEET), otherTransformer[0]);
+        Assert.assertEquals(cache.getMisses(), 1L);
+    }
+    
+    @Test
+    public void testEviction() throws TransformerException {
+        XsltTemplatesCache cache = new XsltTemplatesCache(1);
+        
+        cache.getTransformer(STYLESHEET);
+        cache.getTransformer(STYLESHEET.replace("Message: ", "Text: "));
+        cache.getTransformer(STYLESHEET);
+        
+        Assert.assertEquals(cache.size(), 1);
+        Assert.assertEquals(cache.getMisses(), 3L);
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright 2006-2010 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.consol.citrus.xml.xpath;
+
+import java.lang.management.ManagementFactory;
+
+import javax.management.ObjectName;
+import javax.xml.xpath.XPathExpression;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * @author Christoph Deppisch
+ */
+public class XPathExpressionCacheExporterTest {
+
+    @Test
+    public void testRegisterAndUnregister() throws Exception {
+        ObjectName objectName = new ObjectName(XPathUtils.EXPRESSION_CACHE_OBJECT_NAME + ",name=exporterTest");
+        
+        XPathExpressionCacheExporter exporter = new XPathExpressionCacheExporter();
+        exporter.setObjectName(objectName.toString());
+        exporter.afterPropertiesSet();
+        
+        Assert.assertTrue(ManagementFactory.getPlatformMBeanServer().isRegistered(objectName));
+        
+        XPathExpression expression = XPathUtils.getExpressionCache().getExpression("/exporterTest", null);
+        Assert.assertSame(XPathUtils.getExpressionCache().getExpression("/exporterTest", null), expression);
+        
+        exporter.destroy();
+        
+        Assert.assertFalse(ManagementFactory.getPlatformMBeanServer().isRegistered(objectName));
+        Assert.assertNotSame(XPathUtils.getExpressionCache().getExpression("/exporterTest", null), expression);
+    }
+    
+    @Test
+    public void testRegistrationOwnedByFirstExporter() throws Exception {
+        ObjectName objectName = new ObjectName(XPathUtils.EXPRESSION_CACHE_OBJECT_NAME + ",name=sharedExporterTest");
+        
+        XPathExpressionCacheExporter exporter = new XPathExpressionCacheExporter();
+        exporter.setObjectName(objectName.toString());
+        exporter.afterPropertiesSet();
+        
+        XPathExpressionCacheExporter otherExporter = new XPathExpressionCacheExporter();
+        otherExporter.setObjectName(objectName.toString());
+        otherExporter.afterPropertiesSet();
+        otherExporter.destroy();
+        
+        Assert.assertTrue(ManagementFactory.getPlatformMBeanServer().isRegistered(objectName));
+        
+        exporter.destroy();
+        
+        Assert.assertFalse(ManagementFactory.getPlatformMBeanServer().isRegistered(objectName));
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright 2006-2010 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.consol.citrus.xml.xpath;
+
+import javax.xml.xpath.XPathExpression;
+
+import org.springframework.xml.namespace.SimpleNamespaceContext;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+import org.w3c.dom.Document;
+
+import com.consol.citrus.util.XMLUtils;
+
+/**
+ * @author Christoph Deppisch
+ */
+public class XPathExpressionCacheTest {
+
+    @Test
+    public void testCacheHitsAndMisses() throws Exception {
+        XPathExpressionCache cache = new XPathExpressionCache();
+        
+        SimpleNamespaceContext nsContext = new SimpleNamespaceContext();
+        nsContext.bindNamespaceUri("ns0", "http://citrus/ns0");
+        
+        XPathExpression expression = cache.getExpression("/ns0:root", nsContext);
+        Assert.assertSame(cache.getExpression("/ns0:root", nsContext), expression);
+        
+        SimpleNamespaceContext otherNsContext = new SimpleNamespaceContext();
+        otherNsContext.bindNamespaceUri("ns0", "http://citrus/other");
+        Assert.assertNotSame(cache.getExpression("/ns0:root", otherNsContext), expression);
+        
+        Assert.assertEquals(cache.getHits(), 1L);
+        Assert.assertEquals(cache.getMisses(), 2L);
+        
+        cache.clear();
+        Assert.assertEquals(cache.getHits(), 0L);
+        Assert.assertNotSame(cache.getExpression("/ns0:root", nsContext), expression);
+    }
+    
+    @Test
+    public void testEviction() throws Exception {
+        XPathExpressionCache cache = new XPathExpressionCache();
+        cache.setMaxSize(2);
+        
+        XPathExpression expression = cache.getExpression("/a", null);
+        cache.getExpression("/b", null);
+        cache.getExpression("/c", null);
+        
+        Assert.assertEquals(cache.getEvictions(), 1L);
+        Assert.assertNotSame(cache.getExpression("/a", null), expression);
+    }
+    
+    @Test
+    public void testXPathUtilsCache() throws Exception {
+        Document doc = XMLUtils.parseMessagePayload("<ns0:root xmlns:ns0='http://citrus/ns0'><ns0:element>Hello</ns0:element></ns0:root>");
+        
+        long hits = XPathUtils.getExpressionCache().getHits();
+        Assert.assertEquals(XPathUtils.evaluateAsString(doc, "/ns0:root/ns0:element", null), "Hello");
+        Assert.assertEquals(XPathUtils.evaluateAsString(doc, "/ns0:root/ns0:element", null), "Hello");
+        Assert.assertTrue(XPathUtils.getExpressionCache().getHits() > hits);
+    }
+    
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testInvalidMaxSize() {
+        new XPathExpressionCache().setMaxSize(0);
+    }
+    
+    @Test
+    public void testRemoveThreadCaches() throws Exception {
+        XPathExpressionCache cache = new XPathExpressionCache();
+        
+        XPathExpression expression = cache.getExpression("/a", null);
+        Assert.assertSame(cache.getExpression("/a", null), expression);
+        
+        cache.removeThreadCaches();
+        
+        Assert.assertNotSame(cache.getExpression("/a", null), expression);
+        Assert.assertEquals(cache.getMisses(), 2L);
+    }
+}
@@ -22,10 +22,14 @@ import java.util.*;
 
 import javax.servlet.ServletContext;
 
+import org.mortbay.jetty.AbstractConnector;
 import org.mortbay.jetty.Connector;
 import org.mortbay.jetty.Server;
+import org.mortbay.jetty.bio.SocketConnector;
 import org.mortbay.jetty.handler.*;
+import org.mortbay.jetty.nio.SelectChannelConnector;
 import org.mortbay.jetty.servlet.*;
+import org.mortbay.thread.QueuedThreadPool;
 import org.springframework.beans.BeansException;
 import org.springframework.beans.factory.BeanFactory;
 import org.springframework.beans.factory.NoSuchBeanDefinitionException;
@@ -64,8 +68,8 @@ public class HttpServer extends AbstractServer implements ApplicationContextAwar
     /** Use root application context as parent to build WebApplicationContext */
     private boolean useRootContextAsParent = false;
     
-    /** Do only start one instance after another so we need a static lock object */
-    private static Object serverLock = new Object();
+    /** Monitor for server startup and shutdown */
+    private final Object serverLock = new Object();
     
     /** Set custom connector with custom idle time and other configuration options */
     private Connector connector;
@@ -73,6 +77,24 @@ public class HttpServer extends AbstractServer implements ApplicationContextAwar
     /** Set list of custom connectors with custom configuration options */
     private Connector[] connectors;
     
+    /** Use non blocking NIO connector on server port */
+    private boolean nioConnector = false;
+    
+    /** Number of acceptor threads on server port, Jetty default when zero */
+    private int acceptors = 0;
+    
+    /** Size of the queue for pending connections on server port, Jetty default when zero */
+    private int acceptQueueSize = 0;
+    
+    /** Minimum number of worker threads, Jetty default when zero */
+    private int minThreads = 0;
+    
+    /** Maximum number of worker threads, Jetty default when zero */
+    private int maxThreads = 0;
+    
+    /** Log all requests */
+    private boolean requestLog = true;
+    
     @Override
     protected void shutdown() {
         if(jettyServer != null) {
@@ -95,10 +117,28 @@ public class HttpServer extends AbstractServer implements ApplicationContextAwar
             } else if (connector != null) {
                 jettyServer = new Server();
                 jettyServer.addConnector(connector);
+            } else if (nioConnector || acceptors > 0 || acceptQueueSize > 0) {
+                jettyServer = new Server();
+                jettyServer.addConnector(createConnector());
             } else {
                 jettyServer = new Server(port);
             }
             
+            if (minThreads > 0 || maxThreads > 0) {
+                QueuedThreadPool threadPool = new QueuedThreadPool();
+                threadPool.setName(getName() + "-worker");
+                
+                if (minThreads > 0) {
+                    threadPool.setMinThreads(minThreads);
+                }
+                
+                if (maxThreads > 0) {
+                    threadPool.setMaxThreads(maxThreads);
+                }
+                
+                jettyServer.setThreadPool(threadPool);
+            }
+            
             HandlerCollection handlers = new HandlerCollection();
             
             ContextHandlerCollection contexts = new ContextHandlerCollection();
@@ -134,7 +174,10 @@ public class HttpServer extends AbstractServer implements ApplicationContextAwar
             handlers.addHandler(contexts);
             
             handlers.addHandler(new DefaultHandler());
-            handlers.addHandler(new RequestLogHandler());
+            
+            if (requestLog) {
+                handlers.addHandler(new RequestLogHandler());
+            }
             
             jettyServer.setHandler(handlers);
             
@@ -146,6 +189,31 @@ public class HttpServer extends AbstractServer implements ApplicationContextAwar
         }
     }
 
+    /**
+     * Creates connector on server port with acceptor settings.
+     * @return
+     */
+    private Connector createConnector() {
+        AbstractConnector serverConnector;
+        if (nioConnector) {
+            serverConnector = new SelectChannelConnector();
+        } else {
+            serverConnector = new SocketConnector();
+        }
+        
+        serverConnector.setPort(port);
+        
+        if (acceptors > 0) {
+            serverConnector.setAcceptors(acceptors);
+        }
+        
+        if (acceptQueueSize > 0) {
+            serverConnector.setAcceptQueueSize(acceptQueueSize);
+        }
+        
+        return serverConnector;
+    }
+
     /**
      * Get the server port.
      * @return the port
@@ -333,4 +401,52 @@ public class HttpServer extends AbstractServer implements ApplicationContextAwar
     public void setConnectors(Connector[] connectors) {
         this.connectors = Arrays.copyOf(connectors, connectors.length);
     }
+
+    /**
+     * Enables/disables the non blocking NIO connector.
+     * @param nioConnector the nioConnector to set
+     */
+    public void setNioConnector(boolean nioConnector) {
+        this.nioConnector = nioConnector;
+    }
+
+    /**
+     * Sets the number of acceptor threads.
+     * @param acceptors the acceptors to set
+     */
+    public void setAcceptors(int acceptors) {
+        this.acceptors = acceptors;
+    }
+
+    /**
+     * Sets the size of the queue for pending connections.
+     * @param acceptQueueSize the acceptQueueSize to set
+     */
+    public void setAcceptQueueSize(int acceptQueueSize) {
+        this.acceptQueueSize = acceptQueueSize;
+    }
+
+    /**
+     * Sets the minimum number of worker threads.
+     * @param minThreads the minThreads to set
+     */
+    public void setMinThreads(int minThreads) {
+        this.minThreads = minThreads;
+    }
+
+    /**
+     * Sets the maximum number of worker threads.
+     * @param maxThreads the maxThreads to set
+     */
+    public void setMaxThreads(int maxThreads) {
+        this.maxThreads = maxThreads;
+    }
+
+    /**
+     * Enables/disables request logging.
+     * @param requestLog the requestLog to set
+     */
+    public void setRequestLog(boolean requestLog) {
+        this.requestLog = requestLog;
+    }
 }
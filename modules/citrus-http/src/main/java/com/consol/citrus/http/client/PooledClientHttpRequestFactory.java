@@ -0,0 +1,422 @@
+/*
+ * Copyright 2006-2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.consol.citrus.http.client;
+
+import java.io.*;
+import java.net.URI;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.commons.httpclient.HttpClient;
+import org.apache.commons.httpclient.MultiThreadedHttpConnectionManager;
+import org.apache.commons.httpclient.util.IdleConnectionTimeoutThread;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.BeanNameAware;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.http.*;
+import org.springframework.http.client.*;
+
+/**
+ * Commons client request factory working on a configurable multi-threaded connection manager. Http
+ * connections are kept alive and reused for subsequent requests to the same host, so senders sharing this
+ * factory do not pay the TCP handshake on each request. Idle connections are closed by a background
+ * thread after the configured idle timeout, the thread is started on bean initialization or lazily with the first request.
+ *
+ * Factory also records basic pool utilisation statistics, such as number of active requests and
+ * number of open connections.
+ *
+ * @author Christoph Deppisch
+ */
+public class PooledClientHttpRequestFactory extends CommonsClientHttpRequestFactory implements InitializingBean, BeanNameAware {
+    /** Default maximum number of connections */
+    public static final int DEFAULT_MAX_CONNECTIONS = 100;
+
+    /** Default maximum number of connections per host */
+    public static final int DEFAULT_MAX_CONNECTIONS_PER_HOST = 20;
+
+    /** Default socket read timeout in milliseconds, same as the Spring commons request factory default */
+    public static final int DEFAULT_READ_TIMEOUT = 60 * 1000;
+
+    /** Connection manager holding the pooled connections */
+    private final MultiThreadedHttpConnectionManager connectionManager;
+
+    /** Time in milliseconds after idle connections are closed, zero or less disables idle eviction */
+    private long idleConnectionTimeout = 60000L;
+
+    /** Interval in milliseconds for checking idle connections */
+    private long evictionInterval = 5000L;
+
+    /** Keep connections alive after request */
+    private boolean keepAlive = true;
+
+    /** Background thread closing idle connections */
+    private IdleConnectionTimeoutThread idleConnectionTimeoutThread;
+
+    /** Idle connection eviction was started or factory was destroyed */
+    private volatile boolean evictionInitialized = false;
+
+    /** This factory's bean name */
+    private String name = "pooledClientHttpRequestFactory";
+
+    /** Request statistics */
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong totalResponseTime = new AtomicLong();
+    private final AtomicInteger activeRequests = new AtomicInteger();
+    private final AtomicInteger maxActiveRequests = new AtomicInteger();
+
+    /**
+     * Logger
+     */
+    private static Logger log = LoggerFactory.getLogger(PooledClientHttpRequestFactory.class);
+
+    /**
+     * Default constructor.
+     */
+    public PooledClientHttpRequestFactory() {
+        this(new MultiThreadedHttpConnectionManager());
+    }
+
+    /**
+     * Constructor using the connection manager.
+     * @param connectionManager
+     */
+    private PooledClientHttpRequestFactory(MultiThreadedHttpConnectionManager connectionManager) {
+        super(new HttpClient(connectionManager));
+        this.connectionManager = connectionManager;
+
+        connectionManager.getParams().setMaxTotalConnections(DEFAULT_MAX_CONNECTIONS);
+        connectionManager.getParams().setDefaultMaxConnectionsPerHost(DEFAULT_MAX_CONNECTIONS_PER_HOST);
+        setReadTimeout(DEFAULT_READ_TIMEOUT);
+    }
+
+    /**
+     * Starts idle connection eviction.
+     */
+    public void afterPropertiesSet() throws Exception {
+        startIdleConnectionEviction();
+    }
+
+    /**
+     * Starts idle connection eviction thread unless already started. Factories not managed by Spring
+     * start the thread with their first request.
+     */
+    private synchronized void startIdleConnectionEviction() {
+        if (evictionInitialized) {
+            return;
+        }
+
+        evictionInitialized = true;
+
+        if (idleConnectionTimeout > 0) {
+            idleConnectionTimeoutThread = new IdleConnectionTimeoutThread();
+            idleConnectionTimeoutThread.setName(name + "-idle-eviction");
+            idleConnectionTimeoutThread.setConnectionTimeout(idleConnectionTimeout);
+            idleConnectionTimeoutThread.setTimeoutInterval(evictionInterval);
+            idleConnectionTimeoutThread.addConnectionManager(connectionManager);
+            idleConnectionTimeoutThread.start();
+        }
+    }
+
+    /**
+     * @see org.springframework.http.client.CommonsClientHttpRequestFactory#createRequest(java.net.URI, org.springframework.http.HttpMethod)
+     */
+    @Override
+    public ClientHttpRequest createRequest(URI uri, HttpMethod httpMethod) throws IOException {
+        if (!evictionInitialized) {
+            startIdleConnectionEviction();
+        }
+
+        ClientHttpRequest request = super.createRequest(uri, httpMethod);
+
+        if (!keepAlive) {
+            request.getHeaders().set("Connection", "close");
+        }
+
+        return new MonitoredClientHttpRequest(request);
+    }
+
+    /**
+     * Stops idle connection eviction and closes all pooled connections.
+     */
+    @Override
+    public void destroy() {
+        synchronized (this) {
+            evictionInitialized = true;
+
+            if (idleConnectionTimeoutThread != null) {
+                idleConnectionTimeoutThread.shutdown();
+                idleConnectionTimeoutThread = null;
+            }
+        }
+
+        log.info("Closing Http connection pool '" + name + "' - requests: " + getRequestCount() +
+                ", max active requests: " + getMaxActiveRequestCount() +
+                ", average response time: " + getAverageResponseTime() + "ms");
+
+        connectionManager.shutdown();
+    }
+
+    /**
+     * Records start of request execution.
+     */
+    private void requestStarted() {
+        requests.incrementAndGet();
+
+        int active = activeRequests.incrementAndGet();
+        int max = maxActiveRequests.get();
+        while (active > max && !maxActiveRequests.compareAndSet(max, active)) {
+            max = maxActiveRequests.get();
+        }
+    }
+
+    /**
+     * Records end of request execution.
+     * @param responseTime
+     */
+    private void requestFinished(long responseTime) {
+        activeRequests.decrementAndGet();
+        totalResponseTime.addAndGet(responseTime);
+    }
+
+    /**
+     * Gets the number of executed requests.
+     * @return
+     */
+    public long getRequestCount() {
+        return requests.get();
+    }
+
+    /**
+     * Gets the number of requests currently holding a connection.
+     * @return
+     */
+    public int getActiveRequestCount() {
+        return activeRequests.get();
+    }
+
+    /**
+     * Gets the highest number of requests holding a connection at the same time.
+     * @return
+     */
+    public int getMaxActiveRequestCount() {
+        return maxActiveRequests.get();
+    }
+
+    /**
+     * Gets the average time in milliseconds from request execution until response was closed.
+     * @return
+     */
+    public long getAverageResponseTime() {
+        long count = requests.get() - activeRequests.get();
+        return count > 0 ? totalResponseTime.get() / count : 0L;
+    }
+
+    /**
+     * Gets the number of open connections, active as well as idle ones.
+     * @return
+     */
+    public int getConnectionsInPool() {
+        return connectionManager.getConnectionsInPool();
+    }
+
+    /**
+     * Gets the ratio of active requests to maximum number of connections.
+     * @return
+     */
+    public double getPoolUtilization() {
+        return (double) activeRequests.get() / connectionManager.getParams().getMaxTotalConnections();
+    }
+
+    /**
+     * Sets the maximum number of connections.
+     * @param maxConnections the maxConnections to set
+     */
+    public void setMaxConnections(int maxConnections) {
+        connectionManager.getParams().setMaxTotalConnections(maxConnections);
+    }
+
+    /**
+     * Sets the maximum number of connections per host.
+     * @param maxConnectionsPerHost the maxConnectionsPerHost to set
+     */
+    public void setMaxConnectionsPerHost(int maxConnectionsPerHost) {
+        connectionManager.getParams().setDefaultMaxConnectionsPerHost(maxConnectionsPerHost);
+    }
+
+    /**
+     * Sets the timeout in milliseconds until a connection is established.
+     * @param connectTimeout the connectTimeout to set
+     */
+    public void setConnectTimeout(int connectTimeout) {
+        connectionManager.getParams().setConnectionTimeout(connectTimeout);
+    }
+
+    /**
+     * Sets the socket timeout in milliseconds for waiting on data.
+     * @param socketTimeout the socketTimeout to set
+     */
+    public void setSocketTimeout(int socketTimeout) {
+        connectionManager.getParams().setSoTimeout(socketTimeout);
+    }
+
+    /**
+     * Enables/disables stale connection check before a pooled connection is reused.
+     * @param staleCheckingEnabled the staleCheckingEnabled to set
+     */
+    public void setStaleCheckingEnabled(boolean staleCheckingEnabled) {
+        connectionManager.getParams().setStaleCheckingEnabled(staleCheckingEnabled);
+    }
+
+    /**
+     * Sets the time in milliseconds after idle connections are closed.
+     * @param idleConnectionTimeout the idleConnectionTimeout to set
+     */
+    public void setIdleConnectionTimeout(long idleConnectionTimeout) {
+        this.idleConnectionTimeout = idleConnectionTimeout;
+    }
+
+    /**
+     * Sets the interval in milliseconds for checking idle connections.
+     * @param evictionInterval the evictionInterval to set
+     */
+    public void setEvictionInterval(long evictionInterval) {
+        this.evictionInterval = evictionInterval;
+    }
+
+    /**
+     * Enables/disables persistent connections.
+     * @param keepAlive the keepAlive to set
+     */
+    public void setKeepAlive(boolean keepAlive) {
+        this.keepAlive = keepAlive;
+    }
+
+    /**
+     * Gets the connection manager.
+     * @return the connectionManager
+     */
+    public MultiThreadedHttpConnectionManager getConnectionManager() {
+        return connectionManager;
+    }
+
+    /**
+     * @see org.springframework.beans.factory.BeanNameAware#setBeanName(java.lang.String)
+     */
+    public void setBeanName(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Request recording statistics on execution. Connection is
+     * active until the response is closed.
+     */
+    private final class MonitoredClientHttpRequest implements ClientHttpRequest {
+        /** Delegate request */
+        private final ClientHttpRequest delegate;
+
+        /**
+         * Default constructor using delegate request.
+         * @param delegate
+         */
+        private MonitoredClientHttpRequest(ClientHttpRequest delegate) {
+            this.delegate = delegate;
+        }
+
+        public ClientHttpResponse execute() throws IOException {
+            long start = System.currentTimeMillis();
+            requestStarted();
+
+            try {
+                return new MonitoredClientHttpResponse(delegate.execute(), start);
+            } catch (IOException e) {
+                requestFinished(System.currentTimeMillis() - start);
+                throw e;
+            } catch (RuntimeException e) {
+                requestFinished(System.currentTimeMillis() - start);
+                throw e;
+            }
+        }
+
+        public OutputStream getBody() throws IOException {
+            return delegate.getBody();
+        }
+
+        public HttpHeaders getHeaders() {
+            return delegate.getHeaders();
+        }
+
+        public HttpMethod getMethod() {
+            return delegate.getMethod();
+        }
+
+        public URI getURI() {
+            return delegate.getURI();
+        }
+    }
+
+    /**
+     * Response releasing its connection statistics on close.
+     */
+    private final class MonitoredClientHttpResponse implements ClientHttpResponse {
+        /** Delegate response */
+        private final ClientHttpResponse delegate;
+
+        /** Request execution start time */
+        private final long start;
+
+        /** Response has been closed */
+        private boolean closed = false;
+
+        /**
+         * Default constructor using delegate response and start time.
+         * @param delegate
+         * @param start
+         */
+        private MonitoredClientHttpResponse(ClientHttpResponse delegate, long start) {
+            this.delegate = delegate;
+            this.start = start;
+        }
+
+        public HttpStatus getStatusCode() throws IOException {
+            return delegate.getStatusCode();
+        }
+
+        public String getStatusText() throws IOException {
+            return delegate.getStatusText();
+        }
+
+        public HttpHeaders getHeaders() {
+            return delegate.getHeaders();
+        }
+
+        public InputStream getBody() throws IOException {
+            return delegate.getBody();
+        }
+
+        public void close() {
+            try {
+                delegate.close();
+            } finally {
+                if (!closed) {
+                    closed = true;
+                    requestFinished(System.currentTimeMillis() - start);
+                }
+            }
+        }
+    }
+}
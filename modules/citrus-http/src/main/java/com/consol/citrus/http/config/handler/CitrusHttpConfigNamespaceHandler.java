@@ -31,6 +31,7 @@ public class CitrusHttpConfigNamespaceHandler extends NamespaceHandlerSupport {
         registerBeanDefinitionParser("server", new HttpServerParser());
         registerBeanDefinitionParser("message-sender", new HttpMessageSenderParser());
         registerBeanDefinitionParser("reply-message-handler", new HttpReplyMessageReceiverParser());
+        registerBeanDefinitionParser("pooled-request-factory", new PooledRequestFactoryParser());
     }
 
 }
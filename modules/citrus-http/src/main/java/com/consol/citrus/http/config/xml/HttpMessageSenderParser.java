@@ -69,6 +69,13 @@ public class HttpMessageSenderParser extends AbstractBeanDefinitionParser {
         
         BeanDefinitionParserUtils.setPropertyValue(builder, element.getAttribute("content-type"), "contentType");
         
+        String payloadType = element.getAttribute("payload-type");
+        if (StringUtils.hasText(payloadType)) {
+            builder.addPropertyValue("payloadType", payloadType.toUpperCase());
+        }
+        
+        BeanDefinitionParserUtils.setPropertyValue(builder, element.getAttribute("gzip"), "gzip");
+        
         return builder.getBeanDefinition();
     }
 }
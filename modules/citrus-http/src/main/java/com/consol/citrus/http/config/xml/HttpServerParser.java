@@ -23,6 +23,8 @@ import org.springframework.beans.factory.xml.ParserContext;
 import org.springframework.util.StringUtils;
 import org.w3c.dom.Element;
 
+import com.consol.citrus.config.util.BeanDefinitionParserUtils;
+
 /**
  * Parser for Http server implementation in Citrus http namespace.
  * 
@@ -70,6 +72,18 @@ public class HttpServerParser extends AbstractBeanDefinitionParser {
             builder.addPropertyReference("connector", connector);
         }
         
+        BeanDefinitionParserUtils.setPropertyValue(builder, element.getAttribute("nio-connector"), "nioConnector");
+        
+        BeanDefinitionParserUtils.setPropertyValue(builder, element.getAttribute("acceptors"), "acceptors");
+        
+        BeanDefinitionParserUtils.setPropertyValue(builder, element.getAttribute("accept-queue-size"), "acceptQueueSize");
+        
+        BeanDefinitionParserUtils.setPropertyValue(builder, element.getAttribute("min-threads"), "minThreads");
+        
+        BeanDefinitionParserUtils.setPropertyValue(builder, element.getAttribute("max-threads"), "maxThreads");
+        
+        BeanDefinitionParserUtils.setPropertyValue(builder, element.getAttribute("request-log"), "requestLog");
+        
         return builder.getBeanDefinition();
     }
 }
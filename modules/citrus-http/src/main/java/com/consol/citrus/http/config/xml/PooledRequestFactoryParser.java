@@ -0,0 +1,57 @@
+/*
+ * Copyright 2006-2010 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.consol.citrus.http.config.xml;
+
+import org.springframework.beans.factory.support.AbstractBeanDefinition;
+import org.springframework.beans.factory.support.BeanDefinitionBuilder;
+import org.springframework.beans.factory.xml.AbstractBeanDefinitionParser;
+import org.springframework.beans.factory.xml.ParserContext;
+import org.w3c.dom.Element;
+
+import com.consol.citrus.config.util.BeanDefinitionParserUtils;
+
+/**
+ * Parser for pooled client request factory in Citrus http namespace.
+ * 
+ * @author Christoph Deppisch
+ */
+public class PooledRequestFactoryParser extends AbstractBeanDefinitionParser {
+
+    @Override
+    protected AbstractBeanDefinition parseInternal(Element element, ParserContext parserContext) {
+        BeanDefinitionBuilder builder = BeanDefinitionBuilder
+            .genericBeanDefinition("com.consol.citrus.http.client.PooledClientHttpRequestFactory");
+        
+        BeanDefinitionParserUtils.setPropertyValue(builder, element.getAttribute("max-connections"), "maxConnections");
+        
+        BeanDefinitionParserUtils.setPropertyValue(builder, element.getAttribute("max-connections-per-host"), "maxConnectionsPerHost");
+        
+        BeanDefinitionParserUtils.setPropertyValue(builder, element.getAttribute("connect-timeout"), "connectTimeout");
+        
+        BeanDefinitionParserUtils.setPropertyValue(builder, element.getAttribute("socket-timeout"), "socketTimeout");
+        
+        BeanDefinitionParserUtils.setPropertyValue(builder, element.getAttribute("idle-connection-timeout"), "idleConnectionTimeout");
+        
+        BeanDefinitionParserUtils.setPropertyValue(builder, element.getAttribute("eviction-interval"), "evictionInterval");
+        
+        BeanDefinitionParserUtils.setPropertyValue(builder, element.getAttribute("keep-alive"), "keepAlive");
+        
+        BeanDefinitionParserUtils.setPropertyValue(builder, element.getAttribute("stale-checking"), "staleCheckingEnabled");
+        
+        return builder.getBeanDefinition();
+    }
+}
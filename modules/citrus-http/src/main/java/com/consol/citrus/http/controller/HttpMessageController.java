@@ -16,10 +16,16 @@
 
 package com.consol.citrus.http.controller;
 
+import java.io.IOException;
 import java.util.*;
 import java.util.Map.Entry;
 
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
 import org.springframework.http.*;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.http.server.ServletServerHttpResponse;
 import org.springframework.integration.Message;
 import org.springframework.integration.http.support.DefaultHttpHeaderMapper;
 import org.springframework.integration.mapping.HeaderMapper;
@@ -29,12 +35,17 @@ import org.springframework.util.StringUtils;
 import org.springframework.web.bind.annotation.*;
 
 import com.consol.citrus.adapter.handler.EmptyResponseProducingMessageHandler;
-import com.consol.citrus.http.message.CitrusHttpMessageHeaders;
+import com.consol.citrus.http.message.*;
 import com.consol.citrus.message.CitrusMessageHeaders;
 import com.consol.citrus.message.MessageHandler;
 import com.consol.citrus.util.MessageUtils;
 
 /**
+ * Controller handling all incoming Http requests with a message handler. Request and response bodies are
+ * read and written with a {@link StreamingHttpMessageConverter}, so large payloads can be handled as byte array
+ * or input stream according to the payload type setting. Gzip encoded request bodies are decompressed, response
+ * bodies are gzip compressed if enabled and accepted by the client.
+ * 
  * @author Christoph Deppisch
  */
 @Controller
@@ -53,58 +64,64 @@ public class HttpMessageController {
     /** Default content type for response generation */
     private String contentType = "text/plain";
     
+    /** Request payload representation */
+    private HttpPayloadType payloadType = HttpPayloadType.STRING;
+    
+    /** Compress responses for clients accepting gzip encoding */
+    private boolean gzip = false;
+    
+    /** Converter reading request and writing response bodies */
+    private StreamingHttpMessageConverter messageConverter = new StreamingHttpMessageConverter();
+    
     @RequestMapping(method = { RequestMethod.GET })
-    @ResponseBody
-    public ResponseEntity<String> handleGetRequest(HttpEntity<String> requestEntity) {
-        return handleRequestInternal(HttpMethod.GET, requestEntity);
+    public void handleGetRequest(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        handleRequestInternal(HttpMethod.GET, request, response);
     }
     
     @RequestMapping(method = { RequestMethod.POST })
-    @ResponseBody
-    public ResponseEntity<String> handlePostRequest(HttpEntity<String> requestEntity) {
-        return handleRequestInternal(HttpMethod.POST, requestEntity);
+    public void handlePostRequest(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        handleRequestInternal(HttpMethod.POST, request, response);
     }
     
     @RequestMapping(method = { RequestMethod.PUT })
-    @ResponseBody
-    public ResponseEntity<String> handlePutRequest(HttpEntity<String> requestEntity) {
-        return handleRequestInternal(HttpMethod.PUT, requestEntity);
+    public void handlePutRequest(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        handleRequestInternal(HttpMethod.PUT, request, response);
     }
     
     @RequestMapping(method = { RequestMethod.DELETE })
-    @ResponseBody
-    public ResponseEntity<String> handleDeleteRequest(HttpEntity<String> requestEntity) {
-        return handleRequestInternal(HttpMethod.DELETE, requestEntity);
+    public void handleDeleteRequest(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        handleRequestInternal(HttpMethod.DELETE, request, response);
     }
     
     @RequestMapping(method = { RequestMethod.OPTIONS })
-    @ResponseBody
-    public ResponseEntity<String> handleOptionsRequest(HttpEntity<String> requestEntity) {
-        return handleRequestInternal(HttpMethod.OPTIONS, requestEntity);
+    public void handleOptionsRequest(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        handleRequestInternal(HttpMethod.OPTIONS, request, response);
     }
     
     @RequestMapping(method = { RequestMethod.HEAD })
-    @ResponseBody
-    public ResponseEntity<String> handleHeadRequest(HttpEntity<String> requestEntity) {
-        return handleRequestInternal(HttpMethod.HEAD, requestEntity);
+    public void handleHeadRequest(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        handleRequestInternal(HttpMethod.HEAD, request, response);
     }
     
     @RequestMapping(method = { RequestMethod.TRACE })
-    @ResponseBody
-    public ResponseEntity<String> handleTraceRequest(HttpEntity<String> requestEntity) {
-        return handleRequestInternal(HttpMethod.TRACE, requestEntity);
+    public void handleTraceRequest(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        handleRequestInternal(HttpMethod.TRACE, request, response);
     }
     
     /**
      * Handles requests with message handler implementation. Previously sets Http request method as header parameter.
      * @param method
-     * @param requestEntity
-     * @return
+     * @param request
+     * @param response
+     * @throws IOException
      */
-    private ResponseEntity<String> handleRequestInternal(HttpMethod method, HttpEntity<String> requestEntity) {
-        Map<String, ?> httpRequestHeaders = headerMapper.toHeaders(requestEntity.getHeaders());
+    private void handleRequestInternal(HttpMethod method, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        ServletServerHttpRequest httpRequest = new ServletServerHttpRequest(request);
+        HttpHeaders requestHeaders = httpRequest.getHeaders();
+        
+        Map<String, ?> httpRequestHeaders = headerMapper.toHeaders(requestHeaders);
         Map<String, String> customHeaders = new HashMap<String, String>();
-        for (Entry<String, List<String>> header : requestEntity.getHeaders().entrySet()) {
+        for (Entry<String, List<String>> header : requestHeaders.entrySet()) {
             if (!httpRequestHeaders.containsKey(header.getKey())) {
                 customHeaders.put(header.getKey(), StringUtils.collectionToCommaDelimitedString(header.getValue()));
             }
@@ -112,12 +129,14 @@ public class HttpMessageController {
         
         customHeaders.put(CitrusHttpMessageHeaders.HTTP_REQUEST_METHOD, method.toString());
         
-        Message<?> response = messageHandler.handleMessage(MessageBuilder.withPayload(requestEntity.getBody())
+        Object payload = messageConverter.read(payloadType.getPayloadClass(), httpRequest);
+        
+        Message<?> responseMessage = messageHandler.handleMessage(MessageBuilder.withPayload(payload)
                                             .copyHeaders(convertHeaderTypes(httpRequestHeaders))
                                             .copyHeaders(customHeaders)
                                             .build());
         
-        return generateResponse(response);
+        writeResponse(responseMessage, requestHeaders, new ServletServerHttpResponse(response));
     }
     
     /**
@@ -144,16 +163,20 @@ public class HttpMessageController {
     }
 
     /**
-     * Generates the Http response message from given Spring Integration message.
+     * Writes the Http response from given Spring Integration message.
+     * @param responseMessage
+     * @param requestHeaders
      * @param response
-     * @return
+     * @throws IOException
      */
-    private ResponseEntity<String> generateResponse(Message<?> responseMessage) {
+    private void writeResponse(Message<?> responseMessage, HttpHeaders requestHeaders, ServletServerHttpResponse response) throws IOException {
         if (responseMessage == null) {
-            return new ResponseEntity<String>(HttpStatus.OK);
+            response.setStatusCode(HttpStatus.OK);
+            response.close();
+            return;
         }
         
-        HttpHeaders httpHeaders = new HttpHeaders();
+        HttpHeaders httpHeaders = response.getHeaders();
         headerMapper.fromHeaders(responseMessage.getHeaders(), httpHeaders);
         
         Map<String, ?> messageHeaders = responseMessage.getHeaders();
@@ -169,12 +192,28 @@ public class HttpMessageController {
             httpHeaders.setContentType(MediaType.parseMediaType(contentType.contains("charset") ? contentType : contentType + ";charset=" + charset));
         }
         
+        if (gzip && !httpHeaders.containsKey(StreamingHttpMessageConverter.CONTENT_ENCODING) && acceptsGzip(requestHeaders)) {
+            httpHeaders.set(StreamingHttpMessageConverter.CONTENT_ENCODING, StreamingHttpMessageConverter.GZIP);
+        }
+        
         HttpStatus status = HttpStatus.OK;
         if (responseMessage.getHeaders().containsKey(CitrusHttpMessageHeaders.HTTP_STATUS_CODE)) {
             status = HttpStatus.valueOf(Integer.valueOf(responseMessage.getHeaders().get(CitrusHttpMessageHeaders.HTTP_STATUS_CODE).toString()));
         }
+        response.setStatusCode(status);
         
-        return new ResponseEntity<String>(responseMessage.getPayload().toString(), httpHeaders, status);
+        messageConverter.write(responseMessage.getPayload(), httpHeaders.getContentType(), response);
+    }
+    
+    /**
+     * Checks if client accepts gzip content encoding.
+     * @param requestHeaders
+     * @return
+     */
+    private boolean acceptsGzip(HttpHeaders requestHeaders) {
+        List<String> acceptEncoding = requestHeaders.get("Accept-Encoding");
+        return acceptEncoding != null && 
+                StringUtils.collectionToCommaDelimitedString(acceptEncoding).toLowerCase().contains(StreamingHttpMessageConverter.GZIP);
     }
 
     /**
@@ -208,4 +247,28 @@ public class HttpMessageController {
     public void setContentType(String contentType) {
         this.contentType = contentType;
     }
+
+    /**
+     * Sets the payloadType.
+     * @param payloadType the payloadType to set
+     */
+    public void setPayloadType(HttpPayloadType payloadType) {
+        this.payloadType = payloadType;
+    }
+
+    /**
+     * Enables/disables gzip compression of responses.
+     * @param gzip the gzip to set
+     */
+    public void setGzip(boolean gzip) {
+        this.gzip = gzip;
+    }
+
+    /**
+     * Sets the messageConverter.
+     * @param messageConverter the messageConverter to set
+     */
+    public void setMessageConverter(StreamingHttpMessageConverter messageConverter) {
+        this.messageConverter = messageConverter;
+    }
 }
@@ -21,9 +21,9 @@ import java.util.Map.Entry;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.http.*;
 import org.springframework.http.client.ClientHttpRequestFactory;
-import org.springframework.http.client.CommonsClientHttpRequestFactory;
 import org.springframework.integration.Message;
 import org.springframework.integration.http.support.DefaultHttpHeaderMapper;
 import org.springframework.integration.mapping.HeaderMapper;
@@ -34,6 +34,7 @@ import org.springframework.web.client.RestTemplate;
 import com.consol.citrus.adapter.common.endpoint.EndpointUriResolver;
 import com.consol.citrus.adapter.common.endpoint.MessageHeaderEndpointUriResolver;
 import com.consol.citrus.exceptions.CitrusRuntimeException;
+import com.consol.citrus.http.client.PooledClientHttpRequestFactory;
 import com.consol.citrus.message.*;
 import com.consol.citrus.util.MessageUtils;
 
@@ -45,7 +46,7 @@ import com.consol.citrus.util.MessageUtils;
  * 
  * @author Christoph Deppisch
  */
-public class HttpMessageSender implements MessageSender {
+public class HttpMessageSender implements MessageSender, DisposableBean {
     /** Http url as service destination */
     private String requestUrl;
 
@@ -73,17 +74,30 @@ public class HttpMessageSender implements MessageSender {
     /** Header mapper */
     private HeaderMapper<HttpHeaders> headerMapper = DefaultHttpHeaderMapper.outboundMapper();
     
+    /** Response payload representation */
+    private HttpPayloadType payloadType = HttpPayloadType.STRING;
+    
+    /** Use gzip content encoding for requests and responses */
+    private boolean gzip = false;
+    
+    /** Request factory created by this sender, closed on destroy */
+    private PooledClientHttpRequestFactory defaultRequestFactory;
+    
     /**
      * Logger
      */
     private static Logger log = LoggerFactory.getLogger(HttpMessageSender.class);
     
     /**
-     * Default constructor.
+     * Default constructor using pooled request factory with 
+     * default connection settings.
      */
     public HttpMessageSender() {
+        defaultRequestFactory = new PooledClientHttpRequestFactory();
+        
         restTemplate = new RestTemplate();
-        restTemplate.setRequestFactory(new CommonsClientHttpRequestFactory());
+        restTemplate.setRequestFactory(defaultRequestFactory);
+        restTemplate.getMessageConverters().add(0, new StreamingHttpMessageConverter());
     }
     
     /**
@@ -93,6 +107,7 @@ public class HttpMessageSender implements MessageSender {
     public HttpMessageSender(ClientHttpRequestFactory requestFactory) {
         restTemplate = new RestTemplate();
         restTemplate.setRequestFactory(requestFactory);
+        restTemplate.getMessageConverters().add(0, new StreamingHttpMessageConverter());
     }
     
     /**
@@ -128,7 +143,9 @@ public class HttpMessageSender implements MessageSender {
             method = HttpMethod.valueOf((String)message.getHeaders().get(CitrusHttpMessageHeaders.HTTP_REQUEST_METHOD));
         }
         
-        ResponseEntity<?> response = restTemplate.exchange(endpointUri, method, requestEntity, String.class);
+        //response body can not be streamed as connection is released after exchange, so read stream payloads as bytes
+        Class<?> responseType = payloadType.equals(HttpPayloadType.STRING) ? String.class : byte[].class;
+        ResponseEntity<?> response = restTemplate.exchange(endpointUri, method, requestEntity, responseType);
         
         log.info("HTTP message was successfully sent to endpoint: '" + endpointUri + "'");
         
@@ -159,6 +176,15 @@ public class HttpMessageSender implements MessageSender {
         
     }
     
+    /**
+     * Closes pooled connections of default request factory.
+     */
+    public void destroy() throws Exception {
+        if (defaultRequestFactory != null) {
+            defaultRequestFactory.destroy();
+        }
+    }
+    
     /**
      * Generate http request entity from Spring Integration message.
      * @param requestMessage
@@ -182,7 +208,15 @@ public class HttpMessageSender implements MessageSender {
             httpHeaders.setContentType(MediaType.parseMediaType(contentType.contains("charset") ? contentType : contentType + ";charset=" + charset));
         }
         
+        if (gzip) {
+            httpHeaders.set("Accept-Encoding", StreamingHttpMessageConverter.GZIP);
+        }
+        
         if (HttpMethod.POST.equals(requestMethod) || HttpMethod.PUT.equals(requestMethod)) {
+            if (gzip && !httpHeaders.containsKey(StreamingHttpMessageConverter.CONTENT_ENCODING)) {
+                httpHeaders.set(StreamingHttpMessageConverter.CONTENT_ENCODING, StreamingHttpMessageConverter.GZIP);
+            }
+            
             return new HttpEntity<Object>(payload, httpHeaders);
         }
         
@@ -268,4 +302,20 @@ public class HttpMessageSender implements MessageSender {
     public void setContentType(String contentType) {
         this.contentType = contentType;
     }
+
+    /**
+     * Sets the payloadType.
+     * @param payloadType the payloadType to set
+     */
+    public void setPayloadType(HttpPayloadType payloadType) {
+        this.payloadType = payloadType;
+    }
+
+    /**
+     * Enables/disables gzip content encoding.
+     * @param gzip the gzip to set
+     */
+    public void setGzip(boolean gzip) {
+        this.gzip = gzip;
+    }
 }
@@ -0,0 +1,49 @@
+/*
+ * Copyright 2006-2010 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.consol.citrus.http.message;
+
+import java.io.InputStream;
+
+/**
+ * Enumeration for Http message payload representations. Large payloads should use byte 
+ * or stream payloads in order to avoid character decoding and multiple copies of the content.
+ * 
+ * @author Christoph Deppisch
+ */
+public enum HttpPayloadType {
+    STRING(String.class),
+    BYTES(byte[].class),
+    STREAM(InputStream.class);
+    
+    /** Payload class */
+    private final Class<?> payloadClass;
+    
+    /**
+     * Default constructor using payload class.
+     * @param payloadClass
+     */
+    private HttpPayloadType(Class<?> payloadClass) {
+        this.payloadClass = payloadClass;
+    }
+
+    /**
+     * Gets the payload class.
+     * @return the payloadClass
+     */
+    public Class<?> getPayloadClass() {
+        return payloadClass;
+    }
+}
@@ -0,0 +1,150 @@
+/*
+ * Copyright 2006-2010 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.consol.citrus.http.message;
+
+import java.io.*;
+import java.nio.charset.Charset;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.springframework.http.*;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.util.FileCopyUtils;
+
+/**
+ * Message converter reading and writing Http bodies as String, byte array or input stream. Byte 
+ * arrays and input streams are copied directly to the Http body with a fixed size buffer, so large payloads are
+ * neither decoded to characters nor held in memory more than once.
+ * 
+ * Bodies with gzip content encoding are decompressed on read. Bodies are compressed on write as soon
+ * as the outgoing message has a gzip content encoding header set.
+ * 
+ * @author Christoph Deppisch
+ */
+public class StreamingHttpMessageConverter extends AbstractHttpMessageConverter<Object> {
+    /** Gzip content encoding */
+    public static final String GZIP = "gzip";
+    
+    /** Content encoding header name */
+    public static final String CONTENT_ENCODING = "Content-Encoding";
+    
+    /** Buffer size for copying streams */
+    private static final int BUFFER_SIZE = 8192;
+    
+    /** Charset used for String payloads when content type does not specify a charset */
+    private Charset defaultCharset = Charset.forName("ISO-8859-1");
+    
+    /**
+     * Default constructor supporting all media types.
+     */
+    public StreamingHttpMessageConverter() {
+        super(MediaType.ALL);
+    }
+    
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return String.class.equals(clazz) || byte[].class.equals(clazz) || 
+                InputStream.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    protected Object readInternal(Class<? extends Object> clazz, HttpInputMessage inputMessage) throws IOException {
+        InputStream body = inputMessage.getBody();
+        if (isGzip(inputMessage.getHeaders())) {
+            body = new GZIPInputStream(body, BUFFER_SIZE);
+        }
+        
+        if (InputStream.class.isAssignableFrom(clazz)) {
+            return body;
+        } else if (byte[].class.equals(clazz)) {
+            return FileCopyUtils.copyToByteArray(body);
+        } else {
+            return FileCopyUtils.copyToString(new InputStreamReader(body, getCharset(inputMessage.getHeaders().getContentType())));
+        }
+    }
+
+    @Override
+    protected void writeInternal(Object payload, HttpOutputMessage outputMessage) throws IOException {
+        boolean gzip = isGzip(outputMessage.getHeaders());
+        MediaType contentType = outputMessage.getHeaders().getContentType();
+        
+        OutputStream body = outputMessage.getBody();
+        if (gzip) {
+            body = new GZIPOutputStream(body, BUFFER_SIZE);
+        }
+        
+        if (payload instanceof byte[]) {
+            body.write((byte[]) payload);
+        } else if (payload instanceof InputStream) {
+            InputStream in = (InputStream) payload;
+            try {
+                byte[] buffer = new byte[BUFFER_SIZE];
+                int bytesRead;
+                while ((bytesRead = in.read(buffer)) != -1) {
+                    body.write(buffer, 0, bytesRead);
+                }
+            } finally {
+                in.close();
+            }
+        } else {
+            body.write(payload.toString().getBytes(getCharset(contentType).name()));
+        }
+        
+        if (gzip) {
+            ((GZIPOutputStream) body).finish();
+        }
+    }
+    
+    @Override
+    protected MediaType getDefaultContentType(Object payload) {
+        if (payload instanceof String) {
+            return MediaType.TEXT_PLAIN;
+        }
+        
+        return MediaType.APPLICATION_OCTET_STREAM;
+    }
+
+    /**
+     * Checks for gzip content encoding header.
+     * @param headers
+     * @return
+     */
+    private boolean isGzip(HttpHeaders headers) {
+        String contentEncoding = headers.getFirst(CONTENT_ENCODING);
+        return contentEncoding != null && contentEncoding.toLowerCase().contains(GZIP);
+    }
+    
+    /**
+     * Gets the charset from content type or default charset.
+     * @param contentType
+     * @return
+     */
+    private Charset getCharset(MediaType contentType) {
+        if (contentType != null && contentType.getCharSet() != null) {
+            return contentType.getCharSet();
+        }
+        
+        return defaultCharset;
+    }
+
+    /**
+     * Sets the default charset.
+     * @param defaultCharset the defaultCharset to set
+     */
+    public void setDefaultCharset(String defaultCharset) {
+        this.defaultCharset = Charset.forName(defaultCharset);
+    }
+}
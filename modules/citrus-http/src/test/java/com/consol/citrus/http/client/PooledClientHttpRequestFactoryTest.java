@@ -0,0 +1,192 @@
+/*
+ * Copyright 2006-2011 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.consol.citrus.http.client;
+
+import java.io.IOException;
+import java.net.URI;
+
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.apache.commons.httpclient.HostConfiguration;
+import org.apache.commons.httpclient.HttpClient;
+import org.mortbay.jetty.Server;
+import org.mortbay.jetty.handler.AbstractHandler;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.client.ClientHttpResponse;
+import org.testng.Assert;
+import org.testng.annotations.*;
+
+/**
+ * @author Christoph Deppisch
+ */
+public class PooledClientHttpRequestFactoryTest {
+    
+    private Server server;
+    
+    private URI uri;
+    
+    @BeforeClass
+    public void startServer() throws Exception {
+        server = new Server(0);
+        server.setHandler(new AbstractHandler() {
+            public void handle(String target, HttpServletRequest request, HttpServletResponse response, int dispatch) 
+                    throws IOException, ServletException {
+                response.setStatus(HttpServletResponse.SC_OK);
+                response.setContentType("text/plain");
+                response.getWriter().write("Hello");
+                response.flushBuffer();
+            }
+        });
+        server.start();
+        
+        uri = new URI("http://localhost:" + server.getConnectors()[0].getLocalPort() + "/test");
+    }
+    
+    @AfterClass(alwaysRun = true)
+    public void stopServer() throws Exception {
+        server.stop();
+    }
+    
+    @Test
+    public void testRequestStatistics() throws Exception {
+        PooledClientHttpRequestFactory requestFactory = new PooledClientHttpRequestFactory();
+        
+        try {
+            ClientHttpResponse response = requestFactory.createRequest(uri, HttpMethod.GET).execute();
+            
+            Assert.assertEquals(requestFactory.getRequestCount(), 1L);
+            Assert.assertEquals(requestFactory.getActiveRequestCount(), 1);
+            Assert.assertEquals(requestFactory.getConnectionsInPool(), 1);
+            Assert.assertEquals(requestFactory.getPoolUtilization(), 1.0 / PooledClientHttpRequestFactory.DEFAULT_MAX_CONNECTIONS);
+            
+            response.close();
+            
+            Assert.assertEquals(requestFactory.getActiveRequestCount(), 0);
+            Assert.assertEquals(requestFactory.getMaxActiveRequestCount(), 1);
+            Assert.assertEquals(requestFactory.getPoolUtilization(), 0.0);
+            Assert.assertTrue(requestFactory.getAverageResponseTime() >= 0L);
+            
+            requestFactory.createRequest(uri, HttpMethod.GET).execute().close();
+            
+            Assert.assertEquals(requestFactory.getRequestCount(), 2L);
+            Assert.assertEquals(requestFactory.getActiveRequestCount(), 0);
+            Assert.assertEquals(requestFactory.getMaxActiveRequestCount(), 1);
+            Assert.assertEquals(requestFactory.getConnectionsInPool(), 1);
+        } finally {
+            requestFactory.destroy();
+        }
+    }
+    
+    @Test
+    public void testLazyIdleConnectionEviction() throws Exception {
+        PooledClientHttpRequestFactory requestFactory = new PooledClientHttpRequestFactory();
+        requestFactory.setBeanName("lazyEvictionRequestFactory");
+        
+        Assert.assertNull(findThread("lazyEvictionRequestFactory-idle-eviction"));
+        
+        requestFactory.createRequest(uri, HttpMethod.GET).execute().close();
+        
+        Thread evictionThread = findThread("lazyEvictionRequestFactory-idle-eviction");
+        Assert.assertNotNull(evictionThread);
+        Assert.assertTrue(evictionThread.isAlive());
+        
+        requestFactory.destroy();
+        
+        evictionThread.join(5000L);
+        Assert.assertFalse(evictionThread.isAlive());
+    }
+    
+    @Test
+    public void testIdleConnectionEvictionOnInitialization() throws Exception {
+        PooledClientHttpRequestFactory requestFactory = new PooledClientHttpRequestFactory();
+        requestFactory.setBeanName("initEvictionRequestFactory");
+        requestFactory.afterPropertiesSet();
+        
+        Thread evictionThread = findThread("initEvictionRequestFactory-idle-eviction");
+        Assert.assertNotNull(evictionThread);
+        
+        requestFactory.destroy();
+        
+        evictionThread.join(5000L);
+        Assert.assertFalse(evictionThread.isAlive());
+    }
+    
+    @Test
+    public void testIdleConnectionEvictionDisabled() throws Exception {
+        PooledClientHttpRequestFactory requestFactory = new PooledClientHttpRequestFactory();
+        requestFactory.setBeanName("noEvictionRequestFactory");
+        requestFactory.setIdleConnectionTimeout(0L);
+        requestFactory.afterPropertiesSet();
+        
+        try {
+            requestFactory.createRequest(uri, HttpMethod.GET).execute().close();
+            
+            Assert.assertNull(findThread("noEvictionRequestFactory-idle-eviction"));
+        } finally {
+            requestFactory.destroy();
+        }
+    }
+    
+    @Test
+    public void testDestroyClosesPooledConnections() throws Exception {
+        PooledClientHttpRequestFactory requestFactory = new PooledClientHttpRequestFactory();
+        
+        requestFactory.createRequest(uri, HttpMethod.GET).execute().close();
+        Assert.assertEquals(requestFactory.getConnectionsInPool(), 1);
+        
+        requestFactory.destroy();
+        
+        try {
+            requestFactory.createRequest(uri, HttpMethod.GET).execute();
+            Assert.fail("Missing exception due to closed connection pool");
+        } catch (IllegalStateException e) {
+            Assert.assertTrue(e.getMessage().contains("shutdown"));
+        }
+    }
+    
+    @Test
+    public void testDestroyClosesOwnConnectionManager() throws Exception {
+        PooledClientHttpRequestFactory requestFactory = new PooledClientHttpRequestFactory();
+        requestFactory.setHttpClient(new HttpClient());
+        
+        requestFactory.destroy();
+        
+        try {
+            requestFactory.getConnectionManager().getConnectionWithTimeout(new HostConfiguration(), 1000L);
+            Assert.fail("Missing exception due to closed connection pool");
+        } catch (IllegalStateException e) {
+            Assert.assertTrue(e.getMessage().contains("shutdown"));
+        }
+    }
+    
+    /**
+     * Finds live thread by name.
+     * @param name
+     * @return the thread or null if not found.
+     */
+    private Thread findThread(String name) {
+        for (Thread thread : Thread.getAllStackTraces().keySet()) {
+            if (thread.getName().equals(name) && thread.isAlive()) {
+                return thread;
+            }
+        }
+        
+        return null;
+    }
+}
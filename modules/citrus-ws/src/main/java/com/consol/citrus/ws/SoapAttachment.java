@@ -21,6 +21,12 @@ import java.io.*;
 import javax.activation.DataHandler;
 import javax.activation.DataSource;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.util.FileCopyUtils;
+import org.springframework.util.StringUtils;
 import org.springframework.ws.mime.Attachment;
 
 import com.consol.citrus.exceptions.CitrusRuntimeException;
@@ -28,12 +34,38 @@ import com.consol.citrus.exceptions.CitrusRuntimeException;
 /**
  * Citrus SOAP attachment implementation.
  * 
+ * Content body is either set as string or given as binary data. Binary data is held in memory
+ * or, for large attachments, in a resource such as a temporary file. String content is decoded from binary data 
+ * only on demand and encoded bytes of string content are cached, so large attachments can be 
+ * streamed without materialising the whole content as string. Temporary files of spooled attachments
+ * are deleted with {@link #dispose()}.
+ * 
  * @author Christoph Deppisch
  */
 public class SoapAttachment implements Attachment {
+    /**
+     * Logger
+     */
+    private static Logger log = LoggerFactory.getLogger(SoapAttachment.class);
+    
+    /** Default maximum number of bytes held in memory when reading attachments */
+    public static final int DEFAULT_MEMORY_THRESHOLD = 1024 * 1024;
+    
+    /** Buffer size for copying attachment data */
+    private static final int BUFFER_SIZE = 8192;
+    
     /** Content body as string */
     private String content;
     
+    /** Content body as bytes, either encoded string content or binary data */
+    private byte[] data;
+    
+    /** Content body in external resource */
+    private Resource contentResource;
+    
+    /** Temporary file holding spooled content data, owned by this attachment */
+    private File tempFile;
+    
     /** Content type */
     private String contentType = "text/plain";
     
@@ -57,6 +89,111 @@ public class SoapAttachment implements Attachment {
         this.content = content;
     }
     
+    /**
+     * Creates attachment from given attachment reading its content data. Data exceeding the
+     * memory threshold is written to a temporary file, which is deleted when the new attachment
+     * is disposed.
+     * 
+     * @param attachment the attachment to read.
+     * @param memoryThreshold maximum number of bytes held in memory.
+     * @return the new attachment.
+     * @throws IOException
+     */
+    public static SoapAttachment from(Attachment attachment, int memoryThreshold) throws IOException {
+        SoapAttachment soapAttachment = new SoapAttachment();
+        soapAttachment.setContentId(attachment.getContentId());
+        soapAttachment.setContentType(attachment.getContentType());
+        
+        InputStream in = attachment.getInputStream();
+        try {
+            ByteArrayOutputStream memory = new ByteArrayOutputStream(Math.min(memoryThreshold, BUFFER_SIZE));
+            byte[] buffer = new byte[BUFFER_SIZE];
+            int bytesRead;
+            
+            while ((bytesRead = in.read(buffer)) != -1) {
+                if (memory.size() + bytesRead > memoryThreshold) {
+                    File file = File.createTempFile("citrus-attachment", ".tmp");
+                    boolean spooled = false;
+                    
+                    try {
+                        OutputStream out = new BufferedOutputStream(new FileOutputStream(file));
+                        try {
+                            memory.writeTo(out);
+                            out.write(buffer, 0, bytesRead);
+                            while ((bytesRead = in.read(buffer)) != -1) {
+                                out.write(buffer, 0, bytesRead);
+                            }
+                        } finally {
+                            out.close();
+                        }
+                        
+                        spooled = true;
+                    } finally {
+                        if (!spooled) {
+                            file.delete();
+                        }
+                    }
+                    
+                    soapAttachment.setContentResource(new FileSystemResource(file));
+                    soapAttachment.tempFile = file;
+                    return soapAttachment;
+                }
+                
+                memory.write(buffer, 0, bytesRead);
+            }
+            
+            soapAttachment.setContentData(memory.toByteArray());
+            return soapAttachment;
+        } finally {
+            in.close();
+        }
+    }
+    
+    /**
+     * Creates a copy of this attachment sharing the content body, so content id, content type and charset
+     * can be changed without affecting this attachment. The copy never deletes temporary files of this attachment.
+     * @return the copy.
+     */
+    public SoapAttachment copy() {
+        SoapAttachment copy = new SoapAttachment();
+        copy.content = content;
+        copy.data = data;
+        copy.contentResource = contentResource;
+        copy.contentType = contentType;
+        copy.contentId = contentId;
+        copy.charsetName = charsetName;
+        return copy;
+    }
+    
+    /**
+     * Deletes the temporary file holding spooled content data, if any. Content body is not
+     * available afterwards.
+     */
+    public void dispose() {
+        if (tempFile != null) {
+            if (!tempFile.delete() && tempFile.exists()) {
+                log.warn("Failed to delete temporary attachment file '" + tempFile.getAbsolutePath() + "'");
+            }
+            
+            tempFile = null;
+            contentResource = null;
+        }
+    }
+    
+    /**
+     * Checks if content type denotes binary content, that is neither text nor XML nor JSON content.
+     * @param contentType
+     * @return
+     */
+    public static boolean isBinaryContentType(String contentType) {
+        if (!StringUtils.hasText(contentType)) {
+            return false;
+        }
+        
+        String type = contentType.toLowerCase();
+        return !type.startsWith("text/") && !type.contains("xml") && !type.contains("json");
+    }
+    
     /**
      * @see org.springframework.ws.mime.Attachment#getContentId()
      */
@@ -85,7 +222,7 @@ public class SoapAttachment implements Attachment {
             }
             
             public InputStream getInputStream() throws IOException {
-                return new ByteArrayInputStream(content.getBytes(charsetName));
+                return SoapAttachment.this.getInputStream();
             }
             
             public String getContentType() {
@@ -98,7 +235,11 @@ public class SoapAttachment implements Attachment {
      * @see org.springframework.ws.mime.Attachment#getInputStream()
      */
     public InputStream getInputStream() throws IOException {
-        return new ByteArrayInputStream(content.getBytes(charsetName));
+        if (contentResource != null) {
+            return new BufferedInputStream(contentResource.getInputStream(), BUFFER_SIZE);
+        }
+        
+        return new ByteArrayInputStream(getBytes());
     }
 
     /**
@@ -106,18 +247,51 @@ public class SoapAttachment implements Attachment {
      */
     public long getSize() {
         try {
-            return content.getBytes(charsetName).length;
-        } catch (UnsupportedEncodingException e) {
+            if (contentResource != null) {
+                return contentResource.contentLength();
+            }
+            
+            return getBytes().length;
+        } catch (IOException e) {
             throw new CitrusRuntimeException(e);
         }
     }
+    
+    /**
+     * Gets the content body bytes. String content is encoded with 
+     * charset only once.
+     * @return
+     * @throws UnsupportedEncodingException
+     */
+    private byte[] getBytes() throws UnsupportedEncodingException {
+        if (data == null && content != null) {
+            data = content.getBytes(charsetName);
+        }
+        
+        return data != null ? data : new byte[0];
+    }
 
     /**
-     * Get the content body.
+     * Get the content body. Binary content data is decoded 
+     * with charset on each call.
      * @return the content
      */
     public String getContent() {
-        return content;
+        if (content != null) {
+            return content;
+        }
+        
+        try {
+            if (contentResource != null) {
+                return FileCopyUtils.copyToString(new InputStreamReader(contentResource.getInputStream(), charsetName));
+            } else if (data != null) {
+                return new String(data, charsetName);
+            }
+        } catch (IOException e) {
+            throw new CitrusRuntimeException("Failed to read attachment content", e);
+        }
+        
+        return null;
     }
 
     /**
@@ -125,7 +299,42 @@ public class SoapAttachment implements Attachment {
      * @param content the content to set
      */
     public void setContent(String content) {
+        dispose();
         this.content = content;
+        this.data = null;
+        this.contentResource = null;
+    }
+    
+    /**
+     * Set the content body as binary data.
+     * @param data the data to set
+     */
+    public void setContentData(byte[] data) {
+        dispose();
+        this.data = data;
+        this.content = null;
+        this.contentResource = null;
+    }
+    
+    /**
+     * Set the content body as external resource, content is read 
+     * from resource each time it is accessed.
+     * @param contentResource the contentResource to set
+     */
+    public void setContentResource(Resource contentResource) {
+        dispose();
+        this.contentResource = contentResource;
+        this.content = null;
+        this.data = null;
+    }
+    
+    /**
+     * Checks if content body is binary data or external resource
+     * rather than a string.
+     * @return
+     */
+    public boolean isBinary() {
+        return content == null && (data != null || contentResource != null);
     }
 
     /**
@@ -142,6 +351,10 @@ public class SoapAttachment implements Attachment {
      */
     public void setCharsetName(String charsetName) {
         this.charsetName = charsetName;
+        
+        if (content != null) {
+            data = null;
+        }
     }
 
     /**
@@ -54,6 +54,7 @@ import com.consol.citrus.message.CitrusMessageHeaders;
 import com.consol.citrus.message.MessageHandler;
 import com.consol.citrus.util.MessageUtils;
 import com.consol.citrus.ws.message.CitrusSoapMessageHeaders;
+import com.consol.citrus.ws.util.TransformerPool;
 
 /**
  * SpringWS {@link MessageEndpoint} implementation. Endpoint will delegate message processing to 
@@ -90,11 +91,8 @@ public class WebServiceEndpoint implements MessageEndpoint {
     public void invoke(final MessageContext messageContext) throws Exception {
         Assert.notNull(messageContext.getRequest(), "Request must not be null - unable to send message");
         
-        TransformerFactory transformerFactory = TransformerFactory.newInstance();
-        Transformer transformer = transformerFactory.newTransformer();
-        
         StringResult requestPayload = new StringResult();
-        transformer.transform(messageContext.getRequest().getPayloadSource(), requestPayload);
+        TransformerPool.getInstance().transform(messageContext.getRequest().getPayloadSource(), requestPayload);
         
         //build request message for message handler
         Message<String> requestMessage = buildRequestMessage(messageContext, requestPayload.toString());
@@ -111,9 +109,9 @@ public class WebServiceEndpoint implements MessageEndpoint {
             
             //add soap fault or normal soap body to response
             if(replyMessage.getHeaders().containsKey(CitrusSoapMessageHeaders.SOAP_FAULT)) {
-                addSoapFault(response, replyMessage, transformer);
+                addSoapFault(response, replyMessage);
             } else {
-                addSoapBody(response, replyMessage, transformer);
+                addSoapBody(response, replyMessage);
             }
             
             addSoapHeaders(response, replyMessage);
@@ -127,12 +125,11 @@ public class WebServiceEndpoint implements MessageEndpoint {
      * Add message payload as SOAP body element to the SOAP response.
      * @param response
      * @param replyMessage
-     * @param transformer
      */
-    private void addSoapBody(SoapMessage response, Message<?> replyMessage, Transformer transformer) throws TransformerException {
+    private void addSoapBody(SoapMessage response, Message<?> replyMessage) throws TransformerException {
         Source responseSource = getPayloadAsSource(replyMessage.getPayload());
         
-        transformer.transform(responseSource, response.getPayloadResult());
+        TransformerPool.getInstance().transform(responseSource, response.getPayloadResult());
     }
 
     /**
@@ -172,10 +169,7 @@ public class WebServiceEndpoint implements MessageEndpoint {
             if(headerEntry.getKey().toLowerCase().equals(CitrusSoapMessageHeaders.SOAP_ACTION)) {
                 response.setSoapAction(headerEntry.getValue().toString());
             } else if(headerEntry.getKey().toLowerCase().equals(CitrusMessageHeaders.HEADER_CONTENT)) {
-                TransformerFactory transformerFactory = TransformerFactory.newInstance();
-                Transformer transformer = transformerFactory.newTransformer();
-                
-                transformer.transform(new StringSource(headerEntry.getValue().toString()), 
+                TransformerPool.getInstance().transform(new StringSource(headerEntry.getValue().toString()), 
                         response.getSoapHeader().getResult());
             } else if(headerEntry.getKey().startsWith(CitrusMessageHeaders.PREFIX)) {
                 continue; //leave out Citrus internal header entries
@@ -321,7 +315,7 @@ public class WebServiceEndpoint implements MessageEndpoint {
      * @param response
      * @param soapFaultString
      */
-    private void addSoapFault(SoapMessage response, Message<?> replyMessage, Transformer transformer) throws TransformerException {
+    private void addSoapFault(SoapMessage response, Message<?> replyMessage) throws TransformerException {
         SoapFaultDefinitionEditor definitionEditor = new SoapFaultDefinitionEditor();
         definitionEditor.setAsText(replyMessage.getHeaders().get(CitrusSoapMessageHeaders.SOAP_FAULT).toString());
         
@@ -357,7 +351,7 @@ public class WebServiceEndpoint implements MessageEndpoint {
         if (replyMessage.getPayload() instanceof String && 
                 StringUtils.hasText(replyMessage.getPayload().toString())) {
             SoapFaultDetail faultDetail = soapFault.addFaultDetail();
-            transformer.transform(getPayloadAsSource(replyMessage.getPayload()), faultDetail.getResult());
+            TransformerPool.getInstance().transform(getPayloadAsSource(replyMessage.getPayload()), faultDetail.getResult());
         }
     }
 
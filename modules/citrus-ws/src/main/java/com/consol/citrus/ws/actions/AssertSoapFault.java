@@ -42,6 +42,7 @@ import com.consol.citrus.context.TestContext;
 import com.consol.citrus.exceptions.CitrusRuntimeException;
 import com.consol.citrus.exceptions.ValidationException;
 import com.consol.citrus.util.FileUtils;
+import com.consol.citrus.ws.util.TransformerPool;
 import com.consol.citrus.ws.validation.SoapFaultValidator;
 
 /**
@@ -154,14 +155,11 @@ public class AssertSoapFault extends AbstractActionContainer {
                     throw new CitrusRuntimeException("Found unsupported SOAP implementation. Use SOAP 1.1 or SOAP 1.2.");
             }
         
-            TransformerFactory transformerFactory = TransformerFactory.newInstance();
-            Transformer transformer = transformerFactory.newTransformer();
-            
             if (faultDetailResource != null) {
-                transformer.transform(new StringSource(
+                TransformerPool.getInstance().transform(new StringSource(
                         context.replaceDynamicContentInString(FileUtils.readToString(faultDetailResource))), controlFault.addFaultDetail().getResult());
             } else if (faultDetail != null){
-                transformer.transform(new StringSource(
+                TransformerPool.getInstance().transform(new StringSource(
                         context.replaceDynamicContentInString(faultDetail)), controlFault.addFaultDetail().getResult());
             }
         } catch (IOException ex) {
@@ -26,6 +26,7 @@ import com.consol.citrus.context.TestContext;
 import com.consol.citrus.exceptions.CitrusRuntimeException;
 import com.consol.citrus.util.FileUtils;
 import com.consol.citrus.ws.SoapAttachment;
+import com.consol.citrus.ws.message.CitrusSoapMessageHeaders;
 import com.consol.citrus.ws.validation.SoapAttachmentValidator;
 
 /**
@@ -60,7 +61,12 @@ public class ReceiveSoapMessageAction extends ReceiveMessageAction {
             if(attachmentData != null) {
                 controlAttachment.setContent(context.replaceDynamicContentInString(attachmentData));
             } else if(attachmentResource != null) {
-                controlAttachment.setContent(context.replaceDynamicContentInString(FileUtils.readToString(attachmentResource)));
+                if (SoapAttachment.isBinaryContentType(controlAttachment.getContentType())) {
+                    //binary content holds no test variables, so content is streamed from resource during validation
+                    controlAttachment.setContentResource(attachmentResource);
+                } else {
+                    controlAttachment.setContent(context.replaceDynamicContentInString(FileUtils.readToString(attachmentResource)));
+                }
             } else {
                 return; //no attachment expected, no validation
             }
@@ -78,6 +84,11 @@ public class ReceiveSoapMessageAction extends ReceiveMessageAction {
             attachmentValidator.validateAttachment(receivedMessage, controlAttachment);
         } catch (IOException e) {
             throw new CitrusRuntimeException(e);
+        } finally {
+            //received message is done, delete spooled attachment content
+            if (receivedMessage.getHeaders().get(CitrusSoapMessageHeaders.CONTENT) instanceof SoapAttachment) {
+                ((SoapAttachment) receivedMessage.getHeaders().get(CitrusSoapMessageHeaders.CONTENT)).dispose();
+            }
         }
     }
 
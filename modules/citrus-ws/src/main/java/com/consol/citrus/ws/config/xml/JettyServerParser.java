@@ -23,6 +23,8 @@ import org.springframework.beans.factory.xml.ParserContext;
 import org.springframework.util.StringUtils;
 import org.w3c.dom.Element;
 
+import com.consol.citrus.config.util.BeanDefinitionParserUtils;
+
 /**
  * Parser for jetty-server component in Citrus ws namespace.
  * 
@@ -78,6 +80,18 @@ public class JettyServerParser extends AbstractBeanDefinitionParser {
             builder.addPropertyReference(WSParserConstants.CONNECTOR_PROPERTY, connector);
         }
         
+        BeanDefinitionParserUtils.setPropertyValue(builder, element.getAttribute(WSParserConstants.NIO_CONNECTOR_ATTRIBUTE), WSParserConstants.NIO_CONNECTOR_PROPERTY);
+        
+        BeanDefinitionParserUtils.setPropertyValue(builder, element.getAttribute(WSParserConstants.ACCEPTORS_ATTRIBUTE), WSParserConstants.ACCEPTORS_PROPERTY);
+        
+        BeanDefinitionParserUtils.setPropertyValue(builder, element.getAttribute(WSParserConstants.ACCEPT_QUEUE_SIZE_ATTRIBUTE), WSParserConstants.ACCEPT_QUEUE_SIZE_PROPERTY);
+        
+        BeanDefinitionParserUtils.setPropertyValue(builder, element.getAttribute(WSParserConstants.MIN_THREADS_ATTRIBUTE), WSParserConstants.MIN_THREADS_PROPERTY);
+        
+        BeanDefinitionParserUtils.setPropertyValue(builder, element.getAttribute(WSParserConstants.MAX_THREADS_ATTRIBUTE), WSParserConstants.MAX_THREADS_PROPERTY);
+        
+        BeanDefinitionParserUtils.setPropertyValue(builder, element.getAttribute(WSParserConstants.REQUEST_LOG_ATTRIBUTE), WSParserConstants.REQUEST_LOG_PROPERTY);
+        
         return builder.getBeanDefinition();
     }
 }
@@ -96,4 +96,28 @@ public final class WSParserConstants {
     public static final String CONNECTOR_ATTRIBUTE = "connector";
     
     public static final String CONNECTOR_PROPERTY = CONNECTOR_ATTRIBUTE;
+    
+    public static final String NIO_CONNECTOR_ATTRIBUTE = "nio-connector";
+    
+    public static final String NIO_CONNECTOR_PROPERTY = "nioConnector";
+    
+    public static final String ACCEPTORS_ATTRIBUTE = "acceptors";
+    
+    public static final String ACCEPTORS_PROPERTY = "acceptors";
+    
+    public static final String ACCEPT_QUEUE_SIZE_ATTRIBUTE = "accept-queue-size";
+    
+    public static final String ACCEPT_QUEUE_SIZE_PROPERTY = "acceptQueueSize";
+    
+    public static final String MIN_THREADS_ATTRIBUTE = "min-threads";
+    
+    public static final String MIN_THREADS_PROPERTY = "minThreads";
+    
+    public static final String MAX_THREADS_ATTRIBUTE = "max-threads";
+    
+    public static final String MAX_THREADS_PROPERTY = "maxThreads";
+    
+    public static final String REQUEST_LOG_ATTRIBUTE = "request-log";
+    
+    public static final String REQUEST_LOG_PROPERTY = "requestLog";
 }
@@ -17,6 +17,7 @@
 package com.consol.citrus.ws.interceptor;
 
 import java.io.*;
+import java.util.Properties;
 
 import javax.xml.transform.*;
 import javax.xml.transform.stream.StreamResult;
@@ -27,6 +28,7 @@ import org.springframework.ws.WebServiceMessage;
 import org.springframework.xml.transform.TransformerObjectSupport;
 
 import com.consol.citrus.util.XMLUtils;
+import com.consol.citrus.ws.util.TransformerPool;
 
 /**
  * @author Christoph Deppisch
@@ -38,6 +40,9 @@ public abstract class LoggingInterceptorSupport extends TransformerObjectSupport
      */
     protected transient final Logger log = LoggerFactory.getLogger(getClass());
     
+    /** Indenting transformers shared by all logging interceptors */
+    private static final TransformerPool INDENTING_TRANSFORMERS = new TransformerPool(getIndentingOutputProperties());
+    
     /**
      * Prevent instantiation. 
      */
@@ -52,10 +57,9 @@ public abstract class LoggingInterceptorSupport extends TransformerObjectSupport
      * @throws TransformerException
      */
     protected void logSoapMessage(String logMessage, Source messageSource) throws TransformerException {
-        Transformer transformer = createIndentingTransformer();
         StringWriter writer = new StringWriter();
         
-        transformer.transform(messageSource, new StreamResult(writer));
+        INDENTING_TRANSFORMERS.transform(messageSource, new StreamResult(writer));
         logMessage(logMessage + XMLUtils.prettyPrint(writer.toString()));
     }
     
@@ -87,15 +91,14 @@ public abstract class LoggingInterceptorSupport extends TransformerObjectSupport
     }
     
     /**
-     * Get transformer implementation with output properties set.
+     * Get output properties for indenting transformers.
      * 
-     * @return the transformer instance.
-     * @throws TransformerConfigurationException
+     * @return the output properties.
      */
-    private Transformer createIndentingTransformer() throws TransformerConfigurationException {
-        Transformer transformer = createTransformer();
-        transformer.setOutputProperty(OutputKeys.OMIT_XML_DECLARATION, "yes");
-        transformer.setOutputProperty(OutputKeys.INDENT, "yes");
-        return transformer;
+    private static Properties getIndentingOutputProperties() {
+        Properties outputProperties = new Properties();
+        outputProperties.setProperty(OutputKeys.OMIT_XML_DECLARATION, "yes");
+        outputProperties.setProperty(OutputKeys.INDENT, "yes");
+        return outputProperties;
     }
 }
@@ -40,6 +40,7 @@ import org.springframework.xml.transform.StringSource;
 import com.consol.citrus.message.CitrusMessageHeaders;
 import com.consol.citrus.util.MessageUtils;
 import com.consol.citrus.ws.message.CitrusSoapMessageHeaders;
+import com.consol.citrus.ws.util.TransformerPool;
 
 /**
  * Sender callback invoked by framework with actual web service request before message is sent.
@@ -77,9 +78,7 @@ public class SoapRequestMessageCallback implements WebServiceMessageCallback {
         SoapMessage soapRequest = ((SoapMessage)requestMessage);
         
         // Copy payload into soap-body: 
-        TransformerFactory transformerFactory = TransformerFactory.newInstance();
-        Transformer transformer = transformerFactory.newTransformer();
-        transformer.transform(new StringSource(message.getPayload().toString()), soapRequest.getSoapBody().getPayloadResult());
+        TransformerPool.getInstance().transform(new StringSource(message.getPayload().toString()), soapRequest.getSoapBody().getPayloadResult());
         
         // Copy headers into soap-header:
         for (Entry<String, Object> headerEntry : message.getHeaders().entrySet()) {
@@ -90,7 +89,7 @@ public class SoapRequestMessageCallback implements WebServiceMessageCallback {
             if(headerEntry.getKey().toLowerCase().equals(CitrusSoapMessageHeaders.SOAP_ACTION)) {
                 soapRequest.setSoapAction(headerEntry.getValue().toString());
             } else if(headerEntry.getKey().toLowerCase().equals(CitrusMessageHeaders.HEADER_CONTENT)) {
-                transformer.transform(new StringSource(headerEntry.getValue().toString()), 
+                TransformerPool.getInstance().transform(new StringSource(headerEntry.getValue().toString()), 
                         soapRequest.getSoapHeader().getResult());
             } else if (headerEntry.getKey().toLowerCase().startsWith(CitrusSoapMessageHeaders.HTTP_PREFIX)) {
                 addMimeMessageHeader(soapRequest, 
@@ -33,7 +33,9 @@ import org.springframework.ws.soap.*;
 import org.springframework.xml.transform.StringResult;
 
 import com.consol.citrus.util.FileUtils;
+import com.consol.citrus.ws.SoapAttachment;
 import com.consol.citrus.ws.message.CitrusSoapMessageHeaders;
+import com.consol.citrus.ws.util.TransformerPool;
 
 /**
  * Receiver callback invoked by framework on response message. Callback fills an internal message representation with
@@ -50,17 +52,17 @@ public class SoapResponseMessageCallback implements WebServiceMessageCallback {
     
     /** The response message built from WebService response message */
     private Message<String> response;
+    
+    /** Maximum attachment size in bytes read into memory */
+    private int attachmentMemoryThreshold = SoapAttachment.DEFAULT_MEMORY_THRESHOLD;
 
     /**
      * Callback method called on response message.
      */
     public void doWithMessage(WebServiceMessage responseMessage) throws IOException, TransformerException {
         
-        TransformerFactory transformerFactory = TransformerFactory.newInstance();
-        Transformer transformer = transformerFactory.newTransformer();
-        
         StringResult responsePayload = new StringResult();
-        transformer.transform(responseMessage.getPayloadSource(), responsePayload);
+        TransformerPool.getInstance().transform(responseMessage.getPayloadSource(), responsePayload);
         
         MessageBuilder<String> responseMessageBuilder = MessageBuilder.withPayload(responsePayload.toString());
         
@@ -103,7 +105,14 @@ public class SoapResponseMessageCallback implements WebServiceMessageCallback {
                     // TODO CW: is this ok here or do we have to include the SoapAttachmentAwareJmsCallback?
                     responseMessageBuilder.setHeader(CitrusSoapMessageHeaders.CONTENT_ID, contentId);
                     responseMessageBuilder.setHeader(CitrusSoapMessageHeaders.CONTENT_TYPE, attachment.getContentType());
-                    responseMessageBuilder.setHeader(CitrusSoapMessageHeaders.CONTENT, FileUtils.readToString(attachment.getInputStream()).trim());
+                    
+                    //large attachments are not read into memory, validators stream the content from attachment
+                    SoapAttachment soapAttachment = SoapAttachment.from(attachment, attachmentMemoryThreshold);
+                    if (soapAttachment.getSize() <= attachmentMemoryThreshold) {
+                        responseMessageBuilder.setHeader(CitrusSoapMessageHeaders.CONTENT, FileUtils.readToString(soapAttachment.getInputStream()).trim());
+                    } else {
+                        responseMessageBuilder.setHeader(CitrusSoapMessageHeaders.CONTENT, soapAttachment);
+                    }
                     responseMessageBuilder.setHeader(CitrusSoapMessageHeaders.CHARSET_NAME, "UTF-8");
                 } else {
                     log.warn("Could not handle response attachment with empty 'contentId'. Attachment is ignored in further processing");
@@ -118,4 +127,12 @@ public class SoapResponseMessageCallback implements WebServiceMessageCallback {
     public Message<String> getResponse() {
         return response;
     }
+
+    /**
+     * Sets the maximum attachment size in bytes read into memory.
+     * @param attachmentMemoryThreshold the attachmentMemoryThreshold to set
+     */
+    public void setAttachmentMemoryThreshold(int attachmentMemoryThreshold) {
+        this.attachmentMemoryThreshold = attachmentMemoryThreshold;
+    }
 }
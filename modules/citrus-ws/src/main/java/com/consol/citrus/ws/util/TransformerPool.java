@@ -0,0 +1,157 @@
+/*
+ * Copyright 2006-2010 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.consol.citrus.ws.util;
+
+import java.util.Properties;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.xml.transform.*;
+
+/**
+ * Thread safe pool of identity transformers. Looking up a transformer factory via the services mechanism
+ * is expensive, so pool uses a single factory instance and reuses transformers after they have been reset.
+ * Transformers are not thread safe themselves, so each transformer is used by one thread at a time.
+ * 
+ * @author Christoph Deppisch
+ */
+public final class TransformerPool {
+    /** Default maximum number of idle transformers */
+    public static final int DEFAULT_MAX_IDLE = 32;
+    
+    /** Shared pool instance without output properties */
+    private static final TransformerPool INSTANCE = new TransformerPool(new Properties());
+    
+    /** Factory creating new transformers */
+    private final TransformerFactory transformerFactory = TransformerFactory.newInstance();
+    
+    /** Output properties set on each transformer */
+    private final Properties outputProperties;
+    
+    /** Idle transformers */
+    private final Queue<Transformer> idle = new ConcurrentLinkedQueue<Transformer>();
+    
+    /** Number of idle transformers */
+    private final AtomicInteger idleCount = new AtomicInteger();
+    
+    /** Maximum number of idle transformers */
+    private volatile int maxIdle = DEFAULT_MAX_IDLE;
+    
+    /** Number of created transformers */
+    private final AtomicInteger created = new AtomicInteger();
+    
+    /**
+     * Constructor using output properties set on all transformers.
+     * @param outputProperties
+     */
+    public TransformerPool(Properties outputProperties) {
+        this.outputProperties = outputProperties;
+    }
+    
+    /**
+     * Gets the shared pool instance.
+     * @return
+     */
+    public static TransformerPool getInstance() {
+        return INSTANCE;
+    }
+    
+    /**
+     * Transforms source to result with a pooled transformer.
+     * @param source
+     * @param result
+     * @throws TransformerException
+     */
+    public void transform(Source source, Result result) throws TransformerException {
+        Transformer transformer = borrowTransformer();
+        
+        try {
+            transformer.transform(source, result);
+        } finally {
+            returnTransformer(transformer);
+        }
+    }
+    
+    /**
+     * Takes an idle transformer from pool or creates a new one. Transformer
+     * must be given back with {@link #returnTransformer(Transformer)} after use.
+     * @return
+     * @throws TransformerConfigurationException
+     */
+    public Transformer borrowTransformer() throws TransformerConfigurationException {
+        Transformer transformer = idle.poll();
+        
+        if (transformer != null) {
+            idleCount.decrementAndGet();
+            return transformer;
+        }
+        
+        synchronized (transformerFactory) {
+            transformer = transformerFactory.newTransformer();
+        }
+        created.incrementAndGet();
+        
+        transformer.setOutputProperties(outputProperties);
+        return transformer;
+    }
+    
+    /**
+     * Gives transformer back to pool. Transformer is reset to its initial state 
+     * and dropped when pool already holds the maximum number of idle transformers.
+     * @param transformer
+     */
+    public void returnTransformer(Transformer transformer) {
+        if (idleCount.incrementAndGet() > maxIdle) {
+            idleCount.decrementAndGet();
+            return;
+        }
+        
+        try {
+            transformer.reset();
+            transformer.setOutputProperties(outputProperties);
+        } catch (RuntimeException e) {
+            idleCount.decrementAndGet();
+            return;
+        }
+        
+        idle.offer(transformer);
+    }
+    
+    /**
+     * Gets the number of idle transformers.
+     * @return
+     */
+    public int getIdleCount() {
+        return idleCount.get();
+    }
+    
+    /**
+     * Gets the number of transformers created by this pool.
+     * @return
+     */
+    public int getCreatedCount() {
+        return created.get();
+    }
+
+    /**
+     * Sets the maximum number of idle transformers.
+     * @param maxIdle the maxIdle to set
+     */
+    public void setMaxIdle(int maxIdle) {
+        this.maxIdle = maxIdle;
+    }
+}
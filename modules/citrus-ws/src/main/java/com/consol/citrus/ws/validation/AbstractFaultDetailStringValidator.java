@@ -26,6 +26,7 @@ import org.springframework.xml.transform.StringResult;
 
 import com.consol.citrus.exceptions.CitrusRuntimeException;
 import com.consol.citrus.exceptions.ValidationException;
+import com.consol.citrus.ws.util.TransformerPool;
 
 /**
  * Abstract implementation of {@link SoapFaultValidator} converting soap fault detail objects to simple String content for
@@ -53,14 +54,11 @@ public abstract class AbstractFaultDetailStringValidator extends AbstractSoapFau
         
         try {
             if(receivedDetail != null) {
-                TransformerFactory transformerFactory = TransformerFactory.newInstance();
-                Transformer transformer = transformerFactory.newTransformer();
-                
                 StringResult receivedDetailResult = new StringResult();
                 StringResult controlDetailResult = new StringResult();
                 
-                transformer.transform(receivedDetail.getSource(), receivedDetailResult);
-                transformer.transform(controlDetail.getSource(), controlDetailResult);
+                TransformerPool.getInstance().transform(receivedDetail.getSource(), receivedDetailResult);
+                TransformerPool.getInstance().transform(controlDetail.getSource(), controlDetailResult);
                 
                 String receivedDetailString = receivedDetailResult.toString();
                 String controlDetailString = controlDetailResult.toString();
@@ -17,12 +17,16 @@
 package com.consol.citrus.ws.validation;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.integration.Message;
 import org.springframework.util.Assert;
 import org.springframework.util.StringUtils;
+import org.springframework.ws.mime.Attachment;
 
 import com.consol.citrus.exceptions.CitrusRuntimeException;
 import com.consol.citrus.ws.SoapAttachment;
@@ -33,7 +37,10 @@ import com.consol.citrus.ws.message.CitrusSoapMessageHeaders;
  * its attachment contentId, contentType and content body to a control attachment definition. 
  * 
  * Validator will create a {@link SoapAttachment} and automatically handle contentId and 
- * contentType validation. Content body validation is delegated to subclasses.
+ * contentType validation. Content body validation is delegated to subclasses. Received binary attachments given
+ * as attachment objects exceeding the streaming threshold are compared to the control attachment by 
+ * size and message digest, so the content is streamed instead of being read into a string. The received
+ * message and its attachment objects are never modified during validation.
  * 
  * @author Christoph Deppisch
  */
@@ -43,6 +50,12 @@ public abstract class AbstractSoapAttachmentValidator implements SoapAttachmentV
      */
     private static Logger log = LoggerFactory.getLogger(AbstractSoapAttachmentValidator.class);
     
+    /** Size in bytes above which binary attachments are validated by digest and attachments are spooled to temporary files */
+    private long streamingThreshold = SoapAttachment.DEFAULT_MEMORY_THRESHOLD;
+    
+    /** Message digest algorithm used for large attachments */
+    private String digestAlgorithm = "SHA-1";
+    
     /**
      * Validate contentId and contentType of attachment to meet control attachment.
      * 
@@ -58,37 +71,65 @@ public abstract class AbstractSoapAttachmentValidator implements SoapAttachmentV
             }
             
             SoapAttachment attachment = new SoapAttachment();
+            SoapAttachment spooledAttachment = null;
+            boolean streamed = false;
             
-            attachment.setContentId(receivedMessage.getHeaders().get(CitrusSoapMessageHeaders.CONTENT_ID).toString());
-            
-            if(receivedMessage.getHeaders().containsKey(CitrusSoapMessageHeaders.CONTENT_TYPE)) {
-                attachment.setContentType(receivedMessage.getHeaders().get(CitrusSoapMessageHeaders.CONTENT_TYPE).toString());
+            if(receivedMessage.getHeaders().get(CitrusSoapMessageHeaders.CONTENT) instanceof Attachment) {
+                Attachment contentAttachment = (Attachment) receivedMessage.getHeaders().get(CitrusSoapMessageHeaders.CONTENT);
+                
+                if (contentAttachment instanceof SoapAttachment) {
+                    //work on a copy so received attachment stays untouched
+                    attachment = ((SoapAttachment) contentAttachment).copy();
+                } else {
+                    spooledAttachment = SoapAttachment.from(contentAttachment, (int) Math.min(streamingThreshold, Integer.MAX_VALUE));
+                    attachment = spooledAttachment;
+                }
+                
+                attachment.setCharsetName(controlAttachment.getCharsetName());
+                streamed = true;
             }
             
-            if(receivedMessage.getHeaders().containsKey(CitrusSoapMessageHeaders.CONTENT)) {
-                Object contentObject = receivedMessage.getHeaders().get(CitrusSoapMessageHeaders.CONTENT);
+            try {
+                attachment.setContentId(receivedMessage.getHeaders().get(CitrusSoapMessageHeaders.CONTENT_ID).toString());
                 
-                if(contentObject instanceof byte[]) {
-                    String content = new String((byte[])contentObject, controlAttachment.getCharsetName());
+                if(receivedMessage.getHeaders().containsKey(CitrusSoapMessageHeaders.CONTENT_TYPE)) {
+                    attachment.setContentType(receivedMessage.getHeaders().get(CitrusSoapMessageHeaders.CONTENT_TYPE).toString());
+                }
+                
+                if(!streamed && receivedMessage.getHeaders().containsKey(CitrusSoapMessageHeaders.CONTENT)) {
+                    Object contentObject = receivedMessage.getHeaders().get(CitrusSoapMessageHeaders.CONTENT);
                     
-                    if(content.contains("<?xml")) {
-                        //strip off possible leading prolog characters in xml content
-                        attachment.setContent(content.substring(content.indexOf('<')));
+                    if(contentObject instanceof byte[]) {
+                        String content = new String((byte[])contentObject, controlAttachment.getCharsetName());
+                        
+                        if(content.contains("<?xml")) {
+                            //strip off possible leading prolog characters in xml content
+                            attachment.setContent(content.substring(content.indexOf('<')));
+                        } else {
+                            attachment.setContent(content);
+                        }
+                    } else if(contentObject instanceof String) {
+                        attachment.setContent(contentObject.toString());
                     } else {
-                        attachment.setContent(content);
+                        throw new IllegalArgumentException("Unsupported attachment content object (" + contentObject.getClass() + ")." +
+                        		" Either byte[], java.lang.String or attachment objects are supported.");
                     }
-                } else if(contentObject instanceof String) {
-                    attachment.setContent(contentObject.toString());
+                }
+                
+                validateAttachmentContentId(attachment, controlAttachment);
+                validateAttachmentContentType(attachment, controlAttachment);
+                
+                if(streamed && isDigestValidation(attachment, controlAttachment)) {
+                    validateAttachmentContentDigest(attachment, controlAttachment);
                 } else {
-                    throw new IllegalArgumentException("Unsupported attachment content object (" + contentObject.getClass() + ")." +
-                    		" Either byte[] or java.lang.String are supported.");
+                    validateAttachmentContent(attachment, controlAttachment);
+                }
+            } finally {
+                if (spooledAttachment != null) {
+                    spooledAttachment.dispose();
                 }
             }
             
-            validateAttachmentContentId(attachment, controlAttachment);
-            validateAttachmentContentType(attachment, controlAttachment);
-            validateAttachmentContent(attachment, controlAttachment);
-            
             log.info("Validation of SOAP attachment finished successfully: All values OK");
         } else {
             throw new CitrusRuntimeException("Missing SOAP attachment with contentId '" + controlAttachment.getContentId() + "'");
@@ -159,10 +200,101 @@ public abstract class AbstractSoapAttachmentValidator implements SoapAttachmentV
         }
     }
 
+    /**
+     * Checks if streamed attachment content is validated by size and message digest instead of
+     * content validation. By default this is the case for binary content types exceeding the streaming threshold,
+     * text and XML content is always passed to content validation. Subclasses may override this decision.
+     * @param receivedAttachment
+     * @param controlAttachment
+     * @return
+     */
+    protected boolean isDigestValidation(SoapAttachment receivedAttachment, SoapAttachment controlAttachment) {
+        String contentType = StringUtils.hasText(receivedAttachment.getContentType()) ? 
+                receivedAttachment.getContentType() : controlAttachment.getContentType();
+        
+        return SoapAttachment.isBinaryContentType(contentType) && receivedAttachment.getSize() > streamingThreshold;
+    }
+    
+    /**
+     * Validating large SOAP attachment content by size and message digest. Both attachment
+     * contents are streamed, so content is never held in memory as a whole.
+     * @param receivedAttachment
+     * @param controlAttachment
+     * @throws IOException
+     */
+    protected void validateAttachmentContentDigest(SoapAttachment receivedAttachment, SoapAttachment controlAttachment) throws IOException {
+        if(log.isDebugEnabled()) {
+            log.debug("Validating SOAP attachment content by " + digestAlgorithm + " digest ...");
+        }
+        
+        Assert.isTrue(receivedAttachment.getSize() == controlAttachment.getSize(),
+                "Values not equal for attachment content size '"
+                    + controlAttachment.getContentId() + "', expected '"
+                    + controlAttachment.getSize() + "' bytes but was '"
+                    + receivedAttachment.getSize() + "' bytes");
+        
+        String receivedDigest = digest(receivedAttachment.getInputStream());
+        String controlDigest = digest(controlAttachment.getInputStream());
+        
+        Assert.isTrue(receivedDigest.equals(controlDigest),
+                "Values not equal for attachment content digest '"
+                    + controlAttachment.getContentId() + "', expected '"
+                    + controlDigest + "' but was '"
+                    + receivedDigest + "'");
+        
+        if(log.isDebugEnabled()) {
+            log.debug("Validating attachment content digest: " + receivedDigest + "='" + controlDigest + "': OK.");
+        }
+    }
+    
+    /**
+     * Computes hex encoded message digest of stream content. Stream is closed afterwards.
+     * @param in
+     * @return
+     * @throws IOException
+     */
+    private String digest(InputStream in) throws IOException {
+        try {
+            MessageDigest messageDigest = MessageDigest.getInstance(digestAlgorithm);
+            byte[] buffer = new byte[8192];
+            int bytesRead;
+            while ((bytesRead = in.read(buffer)) != -1) {
+                messageDigest.update(buffer, 0, bytesRead);
+            }
+            
+            StringBuilder hex = new StringBuilder();
+            for (byte b : messageDigest.digest()) {
+                hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+            
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new CitrusRuntimeException("Unsupported attachment digest algorithm '" + digestAlgorithm + "'", e);
+        } finally {
+            in.close();
+        }
+    }
+    
     /**
      * Delegate content body validation to subclasses.
      * @param attachment
      * @param controlAttachment
      */
     protected abstract void validateAttachmentContent(SoapAttachment receivedAttachment, SoapAttachment controlAttachment);
+
+    /**
+     * Sets the size in bytes above which binary attachments are validated by digest.
+     * @param streamingThreshold the streamingThreshold to set
+     */
+    public void setStreamingThreshold(long streamingThreshold) {
+        this.streamingThreshold = streamingThreshold;
+    }
+
+    /**
+     * Sets the message digest algorithm used for large attachments.
+     * @param digestAlgorithm the digestAlgorithm to set
+     */
+    public void setDigestAlgorithm(String digestAlgorithm) {
+        this.digestAlgorithm = digestAlgorithm;
+    }
 }
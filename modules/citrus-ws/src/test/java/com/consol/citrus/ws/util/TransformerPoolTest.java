@@ -0,0 +1,115 @@
+/*
+ * Copyright 2006-2010 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.consol.citrus.ws.util;
+
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.Properties;
+import java.util.concurrent.*;
+
+import javax.xml.transform.*;
+import javax.xml.transform.stream.StreamResult;
+import javax.xml.transform.stream.StreamSource;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * @author Christoph Deppisch
+ */
+public class TransformerPoolTest {
+    
+    @Test
+    public void testTransformerReuse() throws TransformerException {
+        TransformerPool pool = new TransformerPool(new Properties());
+        
+        Assert.assertEquals(transform(pool, "<root><text>Hello</text></root>").contains("<text>Hello</text>"), true);
+        Assert.assertEquals(transform(pool, "<root><text>Citrus</text></root>").contains("<text>Citrus</text>"), true);
+        
+        Assert.assertEquals(pool.getCreatedCount(), 1);
+        Assert.assertEquals(pool.getIdleCount(), 1);
+    }
+    
+    @Test
+    public void testOutputPropertiesAfterReset() throws TransformerException {
+        Properties outputProperties = new Properties();
+        outputProperties.setProperty(OutputKeys.OMIT_XML_DECLARATION, "yes");
+        TransformerPool pool = new TransformerPool(outputProperties);
+        
+        Assert.assertEquals(transform(pool, "<root/>").startsWith("<?xml"), false);
+        
+        Transformer transformer = pool.borrowTransformer();
+        transformer.setOutputProperty(OutputKeys.OMIT_XML_DECLARATION, "no");
+        pool.returnTransformer(transformer);
+        
+        Assert.assertEquals(transform(pool, "<root/>").startsWith("<?xml"), false);
+        Assert.assertEquals(pool.getCreatedCount(), 1);
+    }
+    
+    @Test
+    public void testMaxIdle() throws TransformerException {
+        TransformerPool pool = new TransformerPool(new Properties());
+        pool.setMaxIdle(1);
+        
+        Transformer first = pool.borrowTransformer();
+        Transformer second = pool.borrowTransformer();
+        
+        pool.returnTransformer(first);
+        pool.returnTransformer(second);
+        
+        Assert.assertEquals(pool.getCreatedCount(), 2);
+        Assert.assertEquals(pool.getIdleCount(), 1);
+    }
+    
+    @Test
+    public void testConcurrentTransform() throws Exception {
+        final TransformerPool pool = new TransformerPool(new Properties());
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        
+        try {
+            Future<?>[] results = new Future<?>[100];
+            for (int i = 0; i < results.length; i++) {
+                final int index = i;
+                results[i] = executor.submit(new Callable<String>() {
+                    public String call() throws Exception {
+                        return transform(pool, "<root><index>" + index + "</index></root>");
+                    }
+                });
+            }
+            
+            for (int i = 0; i < results.length; i++) {
+                Assert.assertEquals(results[i].get().toString().contains("<index>" + i + "</index>"), true);
+            }
+        } finally {
+            executor.shutdown();
+        }
+        
+        Assert.assertEquals(pool.getCreatedCount() <= 4, true);
+    }
+    
+    /**
+     * Transforms XML string with transformer pool.
+     * @param pool
+     * @param xml
+     * @return
+     * @throws TransformerException
+     */
+    private String transform(TransformerPool pool, String xml) throws TransformerException {
+        StringWriter writer = new StringWriter();
+        pool.transform(new StreamSource(new StringReader(xml)), new StreamResult(writer));
+        return writer.toString();
+    }
+}
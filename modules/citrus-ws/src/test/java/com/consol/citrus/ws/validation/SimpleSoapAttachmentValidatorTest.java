@@ -16,10 +16,14 @@
 
 package com.consol.citrus.ws.validation;
 
+import java.io.File;
 import java.io.IOException;
+import java.util.*;
 
 import org.springframework.integration.Message;
 import org.springframework.integration.support.MessageBuilder;
+import org.springframework.util.FileCopyUtils;
+import org.testng.Assert;
 import org.testng.annotations.Test;
 
 import com.consol.citrus.ws.SoapAttachment;
@@ -113,4 +117,141 @@ public class SimpleSoapAttachmentValidatorTest {
         SimpleSoapAttachmentValidator validator = new SimpleSoapAttachmentValidator();
         validator.validateAttachment(testMessage, controlAttachment);
     }
+    
+    @Test
+    public void testStreamedAttachmentValidation() throws IOException {
+        SoapAttachment receivedAttachment = new SoapAttachment();
+        receivedAttachment.setContentData(createBinaryContent(2048, (byte) 0));
+        
+        Message<?> testMessage = MessageBuilder.withPayload("Some Payload")
+                                    .setHeader(CitrusSoapMessageHeaders.CONTENT, receivedAttachment)
+                                    .setHeader(CitrusSoapMessageHeaders.CONTENT_ID, "soapAttachmentId")
+                                    .setHeader(CitrusSoapMessageHeaders.CONTENT_TYPE, "application/octet-stream")
+                                    .build();
+        
+        SoapAttachment controlAttachment = new SoapAttachment();
+        controlAttachment.setContentId("soapAttachmentId");
+        controlAttachment.setContentType("application/octet-stream");
+        controlAttachment.setContentData(createBinaryContent(2048, (byte) 0));
+        
+        SimpleSoapAttachmentValidator validator = new SimpleSoapAttachmentValidator();
+        validator.setStreamingThreshold(1024);
+        validator.validateAttachment(testMessage, controlAttachment);
+    }
+    
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testStreamedAttachmentValidationWrongContent() throws IOException {
+        SoapAttachment receivedAttachment = new SoapAttachment();
+        receivedAttachment.setContentData(createBinaryContent(2048, (byte) 0));
+        
+        Message<?> testMessage = MessageBuilder.withPayload("Some Payload")
+                                    .setHeader(CitrusSoapMessageHeaders.CONTENT, receivedAttachment)
+                                    .setHeader(CitrusSoapMessageHeaders.CONTENT_ID, "soapAttachmentId")
+                                    .setHeader(CitrusSoapMessageHeaders.CONTENT_TYPE, "application/octet-stream")
+                                    .build();
+        
+        SoapAttachment controlAttachment = new SoapAttachment();
+        controlAttachment.setContentId("soapAttachmentId");
+        controlAttachment.setContentType("application/octet-stream");
+        controlAttachment.setContentData(createBinaryContent(2048, (byte) 1));
+        
+        SimpleSoapAttachmentValidator validator = new SimpleSoapAttachmentValidator();
+        validator.setStreamingThreshold(1024);
+        validator.validateAttachment(testMessage, controlAttachment);
+    }
+    
+    @Test
+    public void testLargeAttachmentInTempFile() throws IOException {
+        SoapAttachment sourceAttachment = new SoapAttachment();
+        sourceAttachment.setContentId("soapAttachmentId");
+        sourceAttachment.setContentData(createBinaryContent(4096, (byte) 0));
+        
+        SoapAttachment attachment = SoapAttachment.from(sourceAttachment, 1024);
+        
+        Assert.assertTrue(attachment.isBinary());
+        Assert.assertEquals(attachment.getSize(), 4096L);
+        Assert.assertEquals(attachment.getContentId(), "soapAttachmentId");
+        Assert.assertEquals(FileCopyUtils.copyToByteArray(attachment.getInputStream()), createBinaryContent(4096, (byte) 0));
+    }
+    
+    @Test
+    public void testStreamedTextAttachmentValidation() throws IOException {
+        SoapAttachment receivedAttachment = new SoapAttachment();
+        receivedAttachment.setContentData("  This is a test!\n".getBytes("UTF-8"));
+        
+        Message<?> testMessage = MessageBuilder.withPayload("Some Payload")
+                                    .setHeader(CitrusSoapMessageHeaders.CONTENT, receivedAttachment)
+                                    .setHeader(CitrusSoapMessageHeaders.CONTENT_ID, "soapAttachmentId")
+                                    .setHeader(CitrusSoapMessageHeaders.CONTENT_TYPE, "text/plain")
+                                    .build();
+        
+        SoapAttachment controlAttachment = new SoapAttachment();
+        controlAttachment.setContentId("soapAttachmentId");
+        controlAttachment.setContentType("text/plain");
+        controlAttachment.setContent("This is a test!");
+        
+        SimpleSoapAttachmentValidator validator = new SimpleSoapAttachmentValidator();
+        validator.setStreamingThreshold(4);
+        validator.validateAttachment(testMessage, controlAttachment);
+    }
+    
+    @Test
+    public void testReceivedAttachmentUnchanged() throws IOException {
+        SoapAttachment receivedAttachment = new SoapAttachment();
+        receivedAttachment.setContentId("originalId");
+        receivedAttachment.setContentData("This is a test!".getBytes("UTF-8"));
+        
+        Message<?> testMessage = MessageBuilder.withPayload("Some Payload")
+                                    .setHeader(CitrusSoapMessageHeaders.CONTENT, receivedAttachment)
+                                    .setHeader(CitrusSoapMessageHeaders.CONTENT_ID, "soapAttachmentId")
+                                    .setHeader(CitrusSoapMessageHeaders.CONTENT_TYPE, "text/plain")
+                                    .build();
+        
+        SoapAttachment controlAttachment = new SoapAttachment();
+        controlAttachment.setContentId("soapAttachmentId");
+        controlAttachment.setContentType("text/plain");
+        controlAttachment.setCharsetName("ISO-8859-1");
+        controlAttachment.setContent("This is a test!");
+        
+        SimpleSoapAttachmentValidator validator = new SimpleSoapAttachmentValidator();
+        validator.validateAttachment(testMessage, controlAttachment);
+        
+        Assert.assertEquals(receivedAttachment.getContentId(), "originalId");
+        Assert.assertEquals(receivedAttachment.getCharsetName(), "UTF-8");
+    }
+    
+    @Test
+    public void testDisposeDeletesTempFile() throws IOException {
+        File tempDir = new File(System.getProperty("java.io.tmpdir"));
+        Set<File> existingFiles = new HashSet<File>(Arrays.asList(tempDir.listFiles()));
+        
+        SoapAttachment sourceAttachment = new SoapAttachment();
+        sourceAttachment.setContentData(createBinaryContent(4096, (byte) 0));
+        
+        SoapAttachment attachment = SoapAttachment.from(sourceAttachment, 1024);
+        
+        Set<File> tempFiles = new HashSet<File>(Arrays.asList(tempDir.listFiles()));
+        tempFiles.removeAll(existingFiles);
+        Assert.assertEquals(tempFiles.size(), 1);
+        
+        attachment.copy().dispose();
+        Assert.assertTrue(tempFiles.iterator().next().exists());
+        
+        attachment.dispose();
+        Assert.assertFalse(tempFiles.iterator().next().exists());
+    }
+    
+    /**
+     * Creates binary content with increasing byte values.
+     * @param size
+     * @param offset
+     * @return
+     */
+    private byte[] createBinaryContent(int size, byte offset) {
+        byte[] content = new byte[size];
+        for (int i = 0; i < size; i++) {
+            content[i] = (byte) (i + offset);
+        }
+        return content;
+    }
 }